@@ -0,0 +1,60 @@
+package horizon.benchmarks;
+
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.Param;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.conductor.ConductorMethod;
+
+import java.util.Map;
+
+/**
+ * Conductor invoked by the benchmarks, shaped like the demo's user conductor.
+ */
+@Conductor(namespace = "user")
+public class BenchmarkConductor {
+
+    /**
+     * Request body of {@link #create(CreateUser)}.
+     */
+    public static class CreateUser {
+        public String name;
+        public String email;
+        public int age;
+    }
+
+    @Intent("get")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /users/{userId}"))
+    public Map<String, Object> get(
+        @Param(value = "userId", hints = "path") Long userId,
+        @Param(value = "fields", required = false) String fields
+    ) {
+        return Map.of("id", userId, "name", "User " + userId);
+    }
+
+    @Intent("search")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /users/search"))
+    public int search(
+        @Param("q") String query,
+        @Param(value = "page", defaultValue = "0") int page,
+        @Param(value = "size", defaultValue = "20") int size
+    ) {
+        return query.length() + page * size;
+    }
+
+    @Intent("create")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "POST /users"))
+    public String create(CreateUser request) {
+        return request.name;
+    }
+
+    /**
+     * Creates the conductor method of one of this conductor's intents.
+     */
+    public static ConductorMethod method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Intent intent = BenchmarkConductor.class.getMethod(name, parameterTypes).getAnnotation(Intent.class);
+        return new ConductorMethod(new BenchmarkConductor(),
+            BenchmarkConductor.class.getMethod(name, parameterTypes), "user." + intent.value());
+    }
+}
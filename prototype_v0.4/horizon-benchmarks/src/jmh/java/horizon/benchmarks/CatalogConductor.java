@@ -0,0 +1,67 @@
+package horizon.benchmarks;
+
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.Param;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.conductor.ConductorMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conductor whose routes are registered ahead of {@link BenchmarkConductor}'s,
+ * so route resolution has to skip past them as it would in a real service.
+ */
+@Conductor(namespace = "catalog")
+public class CatalogConductor {
+
+    @Intent("product.list")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /products"))
+    public Object listProducts() { return null; }
+
+    @Intent("product.get")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /products/{productId}"))
+    public Object getProduct(@Param("productId") Long productId) { return null; }
+
+    @Intent("product.reviews")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /products/{productId}/reviews"))
+    public Object getReviews(@Param("productId") Long productId) { return null; }
+
+    @Intent("category.list")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /categories"))
+    public Object listCategories() { return null; }
+
+    @Intent("category.get")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /categories/{categoryId}"))
+    public Object getCategory(@Param("categoryId") Long categoryId) { return null; }
+
+    @Intent("order.get")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /orders/{orderId}"))
+    public Object getOrder(@Param("orderId") Long orderId) { return null; }
+
+    @Intent("order.items")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /orders/{orderId}/items"))
+    public Object getOrderItems(@Param("orderId") Long orderId) { return null; }
+
+    @Intent("cart.get")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /carts/{cartId}"))
+    public Object getCart(@Param("cartId") Long cartId) { return null; }
+
+    /**
+     * Creates the conductor methods of all of this conductor's intents.
+     */
+    public static List<ConductorMethod> methods() {
+        CatalogConductor conductor = new CatalogConductor();
+        List<ConductorMethod> methods = new ArrayList<>();
+        for (Method method : CatalogConductor.class.getDeclaredMethods()) {
+            Intent intent = method.getAnnotation(Intent.class);
+            if (intent != null) {
+                methods.add(new ConductorMethod(conductor, method, "catalog." + intent.value()));
+            }
+        }
+        return methods;
+    }
+}
@@ -0,0 +1,64 @@
+package horizon.benchmarks;
+
+import horizon.core.conductor.ConductorMethod;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conductor method invocation, including @Param resolution and type conversion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConductorMethodBenchmark {
+
+    private ConductorMethod get;
+    private ConductorMethod search;
+    private ConductorMethod create;
+    private Map<String, Object> getContext;
+    private Map<String, Object> searchContext;
+    private BenchmarkConductor.CreateUser createBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        get = BenchmarkConductor.method("get", Long.class, String.class);
+        search = BenchmarkConductor.method("search", String.class, int.class, int.class);
+        create = BenchmarkConductor.method("create", BenchmarkConductor.CreateUser.class);
+
+        getContext = new HashMap<>();
+        getContext.put("path.userId", 42L);
+        getContext.put("header.accept", "application/json");
+
+        // page and size are strings, as if they came from a form, so they have to be converted
+        searchContext = new HashMap<>();
+        searchContext.put("query.q", "horizon");
+        searchContext.put("query.page", "3");
+        searchContext.put("query.size", "50");
+
+        createBody = new BenchmarkConductor.CreateUser();
+        createBody.name = "Ada";
+        createBody.email = "ada@example.com";
+        createBody.age = 36;
+    }
+
+    @Benchmark
+    public Object invokeWithPathParam() throws Exception {
+        return get.invoke(getContext);
+    }
+
+    @Benchmark
+    public Object invokeWithConversion() throws Exception {
+        return search.invoke(searchContext);
+    }
+
+    @Benchmark
+    public Object invokeWithBody() throws Exception {
+        return create.invoke(createBody);
+    }
+}
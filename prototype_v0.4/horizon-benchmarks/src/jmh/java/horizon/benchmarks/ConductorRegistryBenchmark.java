@@ -0,0 +1,59 @@
+package horizon.benchmarks;
+
+import horizon.core.ConductorRegistry;
+import horizon.core.conductor.ConductorMethod;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intent lookup, done for every request.
+ * The registry holds as many exact intents and wildcard patterns as a mid-sized service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConductorRegistryBenchmark {
+
+    @Param({"100"})
+    public int intents;
+
+    @Param({"10"})
+    public int patterns;
+
+    private ConductorRegistry registry;
+
+    @Setup
+    public void setUp() throws Exception {
+        registry = new ConductorRegistry();
+        ConductorMethod template = BenchmarkConductor.method("create", BenchmarkConductor.CreateUser.class);
+        List<ConductorMethod> methods = new ArrayList<>();
+        for (int i = 0; i < intents; i++) {
+            methods.add(new ConductorMethod(new BenchmarkConductor(), template.getMethod(), "resource" + i + ".create"));
+        }
+        for (int i = 0; i < patterns; i++) {
+            methods.add(new ConductorMethod(new BenchmarkConductor(), template.getMethod(), "admin" + i + ".*"));
+        }
+        registry.registerAll(methods);
+    }
+
+    @Benchmark
+    public ConductorMethod findExact() {
+        return registry.find("resource42.create");
+    }
+
+    @Benchmark
+    public ConductorMethod findWildcard() {
+        return registry.find("admin7.users.purge");
+    }
+
+    @Benchmark
+    public ConductorMethod findMissing() {
+        return registry.find("nothing.here");
+    }
+}
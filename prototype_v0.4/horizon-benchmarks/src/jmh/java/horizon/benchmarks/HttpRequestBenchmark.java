@@ -0,0 +1,110 @@
+package horizon.benchmarks;
+
+import horizon.core.ProtocolAggregator;
+import horizon.core.conductor.ConductorMethod;
+import horizon.web.common.PayloadExtractor;
+import horizon.web.http.resolver.AnnotationBasedHttpIntentResolver;
+import horizon.web.http.resolver.HttpIntentResolver;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP intent resolution and payload extraction, done for every HTTP request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class HttpRequestBenchmark {
+
+    private final HttpIntentResolver conventionResolver = new HttpIntentResolver();
+    private AnnotationBasedHttpIntentResolver annotationResolver;
+    private PayloadExtractor payloadExtractor;
+
+    private FullHttpRequest getRequest;
+    private FullHttpRequest searchRequest;
+    private FullHttpRequest postRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        annotationResolver = new AnnotationBasedHttpIntentResolver();
+
+        // Routes are tried in registration order, so these are all tried before the user routes
+        List<ConductorMethod> methods = new ArrayList<>(CatalogConductor.methods());
+        methods.add(BenchmarkConductor.method("get", Long.class, String.class));
+        methods.add(BenchmarkConductor.method("search", String.class, int.class, int.class));
+        methods.add(BenchmarkConductor.method("create", BenchmarkConductor.CreateUser.class));
+        aggregator.registerConductorMethods(methods);
+        for (ConductorMethod method : methods) {
+            annotationResolver.registerConductorMethod(method);
+        }
+        payloadExtractor = new PayloadExtractor(aggregator);
+
+        getRequest = request(HttpMethod.GET, "/users/42?fields=name,email", null);
+        searchRequest = request(HttpMethod.GET, "/users/search?q=horizon&page=3&size=50", null);
+        postRequest = request(HttpMethod.POST, "/users",
+            "{\"name\":\"Ada\",\"email\":\"ada@example.com\",\"age\":36}");
+
+        // Path parameters are carried from resolution to extraction on the request
+        annotationResolver.resolveIntent(getRequest);
+    }
+
+    @TearDown
+    public void tearDown() {
+        getRequest.release();
+        searchRequest.release();
+        postRequest.release();
+    }
+
+    private static FullHttpRequest request(HttpMethod method, String uri, String json) {
+        FullHttpRequest request = json != null
+            ? new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri, Unpooled.copiedBuffer(json, CharsetUtil.UTF_8))
+            : new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri);
+        request.headers().set(HttpHeaderNames.HOST, "localhost:8080");
+        request.headers().set(HttpHeaderNames.USER_AGENT, "horizon-benchmarks");
+        request.headers().set(HttpHeaderNames.ACCEPT, "application/json");
+        if (json != null) {
+            request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+            request.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
+        }
+        return request;
+    }
+
+    @Benchmark
+    public String resolveByConvention() {
+        return conventionResolver.resolveIntent(getRequest);
+    }
+
+    @Benchmark
+    public String resolveByAnnotation() {
+        return annotationResolver.resolveIntent(getRequest);
+    }
+
+    @Benchmark
+    public Object extractPathPayload() {
+        return payloadExtractor.extractHttpPayload(getRequest, "user.get");
+    }
+
+    @Benchmark
+    public Object extractQueryPayload() {
+        return payloadExtractor.extractHttpPayload(searchRequest, "user.search");
+    }
+
+    @Benchmark
+    public Object extractJsonBodyPayload() {
+        return payloadExtractor.extractHttpPayload(postRequest, "user.create");
+    }
+}
@@ -0,0 +1,57 @@
+package horizon.benchmarks;
+
+import horizon.core.util.JsonUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round trips through the shared ObjectMapper, as done for request bodies and responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JsonUtilsBenchmark {
+
+    private Map<String, Object> response;
+    private String userJson;
+    private Map<String, Object> userMap;
+
+    @Setup
+    public void setUp() throws Exception {
+        response = Map.of(
+            "id", 42L,
+            "name", "Ada Lovelace",
+            "email", "ada@example.com",
+            "roles", List.of("admin", "author"),
+            "profile", Map.of("age", 36, "city", "London", "verified", true)
+        );
+        userJson = "{\"name\":\"Ada\",\"email\":\"ada@example.com\",\"age\":36}";
+        userMap = Map.of("name", "Ada", "email", "ada@example.com", "age", 36);
+    }
+
+    @Benchmark
+    public String serializeMap() throws Exception {
+        return JsonUtils.toJson(response);
+    }
+
+    @Benchmark
+    public Object roundTripMap() throws Exception {
+        return JsonUtils.fromJson(JsonUtils.toJson(response), Object.class);
+    }
+
+    @Benchmark
+    public BenchmarkConductor.CreateUser deserializeDto() throws Exception {
+        return JsonUtils.fromJson(userJson, BenchmarkConductor.CreateUser.class);
+    }
+
+    @Benchmark
+    public BenchmarkConductor.CreateUser convertMapToDto() {
+        return JsonUtils.convertValue(userMap, BenchmarkConductor.CreateUser.class);
+    }
+}
@@ -0,0 +1,59 @@
+package horizon.benchmarks;
+
+import horizon.core.metrics.MetricsCollector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics recording, done several times per request, with all threads recording the same names.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MetricsCollectorBenchmark {
+
+    private final MetricsCollector metrics = MetricsCollector.getInstance();
+
+    @Setup
+    public void setUp() {
+        metrics.reset();
+    }
+
+    @Benchmark
+    public void incrementCounter() {
+        metrics.incrementCounter("requests.total");
+    }
+
+    @Benchmark
+    public void recordTiming() {
+        metrics.recordTiming("request.duration", 12);
+    }
+
+    @Benchmark
+    public void recordHistogram() {
+        metrics.recordHistogram("lane.interactive.run_time_us", 1234);
+    }
+
+    @Benchmark
+    public void setGauge() {
+        metrics.setGauge("lane.interactive.active", 8);
+    }
+
+    /**
+     * Records what processing one request records.
+     */
+    @Benchmark
+    public void recordRequest() {
+        metrics.incrementCounter("requests.total");
+        metrics.incrementCounter("requests.protocol.HTTP");
+        metrics.incrementCounter("requests.intent.user.get");
+        metrics.incrementCounter("requests.success");
+        metrics.recordTiming("request.duration", 12);
+        metrics.recordTiming("request.duration.user.get", 12);
+    }
+}
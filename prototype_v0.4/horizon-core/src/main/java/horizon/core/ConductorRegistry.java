@@ -1,38 +1,76 @@
 package horizon.core;
 
 import horizon.core.conductor.ConductorMethod;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
 
 /**
  * Registry for all Conductor methods in the system.
  * Manages conductor method registration and lookup by intent pattern.
+ *
+ * The registered methods are held in an immutable {@link RegistrySnapshot}, published
+ * through a volatile reference. Each change builds a new snapshot off to the side and
+ * swaps it in, so lookups take no locks and never see a half-applied change.
  */
 public class ConductorRegistry {
-    private final Map<String, ConductorMethod> exactMatches = new ConcurrentHashMap<>();
-    private final Map<Pattern, ConductorMethod> patternMatches = new ConcurrentHashMap<>();
-    
+    private final Object writeLock = new Object();
+    private volatile RegistrySnapshot snapshot = RegistrySnapshot.EMPTY;
+
     /**
-     * Registers a conductor method for a specific intent.
+     * Registers a conductor method for a specific intent. Each call builds and publishes a
+     * whole new snapshot, so registering n methods one by one costs O(n²); use
+     * {@link #registerAll} for more than a few.
      *
      * @param method the conductor method to register
      */
     public void register(ConductorMethod method) {
-        String intent = method.getIntent();
-        
-        if (intent.contains("*") || intent.contains("?")) {
-            // Convert wildcard pattern to regex
-            String regex = intent.replace(".", "\\.")
-                                 .replace("*", ".*")
-                                 .replace("?", ".");
-            patternMatches.put(Pattern.compile(regex), method);
-        } else {
-            // Exact match
-            exactMatches.put(intent, method);
+        registerAll(List.of(method));
+    }
+
+    /**
+     * Registers conductor methods, publishing them together in one snapshot.
+     *
+     * @param methods the conductor methods to register
+     */
+    public void registerAll(Collection<ConductorMethod> methods) {
+        synchronized (writeLock) {
+            snapshot = snapshot.withMethods(snapshot.getVersion() + 1, methods);
+        }
+    }
+
+    /**
+     * Replaces all registered conductor methods at once. Requests already holding
+     * the previous snapshot finish on it.
+     *
+     * @param methods the conductor methods to register instead
+     * @return the published snapshot
+     */
+    public RegistrySnapshot replace(Collection<ConductorMethod> methods) {
+        synchronized (writeLock) {
+            snapshot = RegistrySnapshot.of(snapshot.getVersion() + 1, methods, snapshot.getProtocols());
+            return snapshot;
         }
     }
-    
+
+    /**
+     * Decides up front which of the registered intents a protocol may reach.
+     *
+     * @param protocol the protocol name
+     */
+    public void addProtocol(String protocol) {
+        synchronized (writeLock) {
+            snapshot = snapshot.withProtocols(snapshot.getVersion() + 1, List.of(protocol));
+        }
+    }
+
+    /**
+     * Gets the current snapshot. Use one snapshot for all lookups of a request.
+     */
+    public RegistrySnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Finds a conductor method for the given intent.
      *
@@ -40,36 +78,22 @@ public class ConductorRegistry {
      * @return the conductor method, or null if none found
      */
     public ConductorMethod find(String intent) {
-        // Try exact match first
-        ConductorMethod method = exactMatches.get(intent);
-        if (method != null) {
-            return method;
-        }
-        
-        // Try pattern matches
-        for (Map.Entry<Pattern, ConductorMethod> entry : patternMatches.entrySet()) {
-            if (entry.getKey().matcher(intent).matches()) {
-                return entry.getValue();
-            }
-        }
-        
-        return null;
+        return snapshot.find(intent);
     }
-    
+
     /**
      * Gets all registered intents.
      * Useful for debugging and discovery.
      */
     public Map<String, ConductorMethod> getAllIntents() {
-        return new ConcurrentHashMap<>(exactMatches);
+        return snapshot.getExactIntents();
     }
-    
+
     /**
      * Clears all registrations.
      * Useful for testing.
      */
     public void clear() {
-        exactMatches.clear();
-        patternMatches.clear();
+        replace(List.of());
     }
 }
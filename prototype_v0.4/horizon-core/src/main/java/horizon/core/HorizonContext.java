@@ -1,28 +1,65 @@
 package horizon.core;
 
+import horizon.core.exception.DeadlineExceededException;
+
+import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 /**
  * The context that flows through the Horizon framework.
  * Contains all information about a request as it travels from protocol to response.
+ *
+ * A context may carry a deadline, set from the request or from the intent's
+ * {@link horizon.core.annotation.Intent#timeout()}. When the deadline passes, or the
+ * client goes away, the context is cancelled: the thread invoking the conductor method
+ * is interrupted and the request falls away with the cancellation as its error.
+ * Conductor methods reach their context through {@link #current()}.
+ *
+ * A cancelled request falls away while its conductor method may still be running,
+ * so attributes can be set and read from different threads at once.
  */
 public class HorizonContext {
+    private static final ThreadLocal<HorizonContext> CURRENT = new ThreadLocal<>();
+
     private final String traceId;
     private final Instant timestamp;
     private final Map<String, Object> attributes;
     
     private String intent;
     private Object payload;
-    private Object result;
-    private Throwable error;
+    private volatile Object result;
+    private volatile Throwable error;
+
+    private volatile long deadlineNanos;
+    private volatile boolean hasDeadline;
+    private volatile RuntimeException cancellation;
+
+    // Guarded by this
+    private Thread invokingThread;
+    private boolean interruptedInvocation;
+    private List<Runnable> cancelListeners = new ArrayList<>(1);
+    private Future<?> deadlineTimer;
     
     public HorizonContext() {
         this.traceId = UUID.randomUUID().toString();
         this.timestamp = Instant.now();
-        this.attributes = new HashMap<>();
+        this.attributes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the context of the conductor invocation running on the current thread.
+     *
+     * @return the context, or null outside of a conductor invocation
+     */
+    public static HorizonContext current() {
+        return CURRENT.get();
     }
     
     // Getters and setters
@@ -58,20 +95,190 @@ public class HorizonContext {
         this.result = result;
     }
     
+    /**
+     * Checks whether the request failed. A cancelled request has always failed.
+     */
     public boolean hasError() {
-        return error != null;
+        return cancellation != null || error != null;
     }
     
+    /**
+     * Gets the error of the request. A cancellation takes precedence over any
+     * result or error the conductor method produced afterwards.
+     */
     public Throwable getError() {
-        return error;
+        RuntimeException cancelled = cancellation;
+        return cancelled != null ? cancelled : error;
     }
     
     public void setError(Throwable error) {
         this.error = error;
     }
     
+    /**
+     * Sets the deadline to the given time from now, unless an earlier deadline is already set.
+     *
+     * @param timeout the time allowed, or null for none
+     */
+    public void applyTimeout(Duration timeout) {
+        if (timeout == null) {
+            return;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            if (!hasDeadline || deadline - deadlineNanos < 0) {
+                deadlineNanos = deadline;
+                hasDeadline = true;
+            }
+        }
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @return the remaining time, zero once the deadline has passed, or null if there is no deadline
+     */
+    public Duration getRemainingTime() {
+        if (!hasDeadline) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Cancels the request because the client no longer wants its result.
+     *
+     * @return true if this call cancelled the request
+     */
+    public boolean cancel() {
+        return cancel(new CancellationException("Request for intent '" + intent + "' was cancelled"));
+    }
+
+    /**
+     * Cancels the request. The thread invoking the conductor method is interrupted,
+     * cancellation listeners run, and the request falls away with the given reason.
+     *
+     * @param reason the error to report for the request
+     * @return true if this call cancelled the request, false if it was already cancelled
+     */
+    public boolean cancel(RuntimeException reason) {
+        List<Runnable> listeners;
+        synchronized (this) {
+            if (cancellation != null) {
+                return false;
+            }
+            cancellation = reason;
+            if (invokingThread != null) {
+                invokingThread.interrupt();
+                interruptedInvocation = true;
+            }
+            if (deadlineTimer != null) {
+                deadlineTimer.cancel(false);
+            }
+            listeners = cancelListeners;
+            cancelListeners = null;
+        }
+        listeners.forEach(Runnable::run);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return cancellation != null;
+    }
+
+    /**
+     * Throws the reason the request was cancelled, if it was.
+     * Long-running conductor code can call this between steps.
+     */
+    public void throwIfCancelled() {
+        RuntimeException cancelled = cancellation;
+        if (cancelled != null) {
+            throw cancelled;
+        }
+    }
+
+    /**
+     * Registers a listener to run when the request is cancelled.
+     * Runs immediately if the request already is.
+     */
+    public void onCancel(Runnable listener) {
+        synchronized (this) {
+            if (cancellation == null) {
+                cancelListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Cancels the request with a {@link DeadlineExceededException} once its deadline passes.
+     * Does nothing if there is no deadline or the timer is already armed.
+     */
+    synchronized void armDeadline(DeadlineScheduler scheduler) {
+        if (!hasDeadline || deadlineTimer != null || cancellation != null) {
+            return;
+        }
+        long delay = deadlineNanos - System.nanoTime();
+        deadlineTimer = scheduler.schedule(() -> cancel(new DeadlineExceededException(
+            "Deadline of intent '" + intent + "' exceeded")), Math.max(0, delay));
+    }
+
+    synchronized void disarmDeadline() {
+        if (deadlineTimer != null) {
+            deadlineTimer.cancel(false);
+        }
+    }
+
+    /**
+     * Marks the current thread as invoking the conductor method for this context.
+     */
+    void enter() {
+        synchronized (this) {
+            invokingThread = Thread.currentThread();
+        }
+        CURRENT.set(this);
+    }
+
+    /**
+     * Ends the invocation started by {@link #enter()}.
+     */
+    void exit() {
+        boolean interrupted;
+        synchronized (this) {
+            invokingThread = null;
+            interrupted = interruptedInvocation;
+            interruptedInvocation = false;
+        }
+        CURRENT.remove();
+        // The cancellation may have interrupted the thread after the method returned;
+        // an interrupt from anyone else is left for the thread's owner
+        if (interrupted) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Schedules deadline timers.
+     */
+    @FunctionalInterface
+    interface DeadlineScheduler {
+        Future<?> schedule(Runnable task, long delayNanos);
+    }
+
+    /**
+     * Sets an attribute, or removes it if the value is null.
+     */
     public void setAttribute(String key, Object value) {
-        attributes.put(key, value);
+        if (value == null) {
+            attributes.remove(key);
+        } else {
+            attributes.put(key, value);
+        }
     }
     
     public Object getAttribute(String key) {
@@ -1,18 +1,39 @@
 package horizon.core;
 
 import horizon.core.conductor.ConductorMethod;
-import horizon.core.conductor.ConductorMethodCache;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.core.exception.OverloadException;
+import horizon.core.exception.RateLimitException;
+import horizon.core.execution.AdaptiveLimiter;
+import horizon.core.execution.Bulkheads;
+import horizon.core.execution.CircuitBreakers;
+import horizon.core.execution.ConcurrencyLimits;
+import horizon.core.execution.ExecutionLanes;
+import horizon.core.execution.KeyedSerialExecutor;
+import horizon.core.execution.RateLimiters;
+import horizon.core.execution.WarmUpStage;
 import horizon.core.protocol.Protocol;
+import horizon.core.publish.TopicPublisher;
 import horizon.core.protocol.ProtocolAdapter;
 import horizon.core.scanner.ConductorScanner;
-import horizon.core.security.ProtocolAccessValidator;
 import horizon.core.metrics.MetricsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The heart of Horizon Framework - aggregates multiple protocols into a unified processing pipeline.
@@ -26,12 +47,86 @@ public class ProtocolAggregator {
     private final Map<String, ProtocolAdapter<?, ?>> adapters = new ConcurrentHashMap<>();
     private final ConductorRegistry conductorRegistry = new ConductorRegistry();
     private final CentralRendezvous centralRendezvous;
-    private final ProtocolAccessValidator accessValidator = new ProtocolAccessValidator();
+    private volatile Executor conductorExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<TopicPublisher> topicPublishers = new CopyOnWriteArrayList<>();
+    private final TopicPublisher topicPublisher = new AggregateTopicPublisher();
+    private final KeyedSerialExecutor orderedExecutor = new KeyedSerialExecutor(task -> conductorExecutor.execute(task));
+    private final ConcurrencyLimits concurrencyLimits = new ConcurrencyLimits();
+    private final RateLimiters rateLimiters = new RateLimiters();
+    private final CircuitBreakers circuitBreakers = new CircuitBreakers();
+    private final Bulkheads bulkheads = new Bulkheads();
+    private final ExecutionLanes executionLanes = new ExecutionLanes();
+    private final WarmUpStage warmUpStage = new WarmUpStage();
+    private final ScheduledThreadPoolExecutor deadlineTimer = newDeadlineTimer();
 
     public ProtocolAggregator() {
         this.centralRendezvous = new CentralRendezvous();
     }
 
+    private static ScheduledThreadPoolExecutor newDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "horizon-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most deadlines are disarmed long before they fire
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Sets the executor that runs conductor methods for asynchronous encounters of intents
+     * in the interactive execution lane, unless that lane is configured, and of all intents
+     * while lanes are disabled. Defaults to one virtual thread per invocation.
+     *
+     * @param executor the executor to use
+     */
+    public void setConductorExecutor(Executor executor) {
+        this.conductorExecutor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Gets the adaptive concurrency limits applied to every intent, whatever the protocol.
+     */
+    public ConcurrencyLimits getConcurrencyLimits() {
+        return concurrencyLimits;
+    }
+
+    /**
+     * Gets the rate limiters enforcing the @RateLimit annotations of all intents.
+     */
+    public RateLimiters getRateLimiters() {
+        return rateLimiters;
+    }
+
+    /**
+     * Gets the circuit breakers configured by @CircuitBreaker.
+     */
+    public CircuitBreakers getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * Gets the bulkheads configured by @Bulkhead.
+     */
+    public Bulkheads getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Gets the execution lanes that run asynchronous encounters, assigned by @ExecutionLane.
+     */
+    public ExecutionLanes getExecutionLanes() {
+        return executionLanes;
+    }
+
+    /**
+     * Gets the warm-up stage run by {@link #start()} for intents annotated with @WarmUp.
+     */
+    public WarmUpStage getWarmUpStage() {
+        return warmUpStage;
+    }
+
     /**
      * Registers a protocol with this aggregator.
      */
@@ -41,6 +136,11 @@ public class ProtocolAggregator {
 
         protocols.put(protocolName, protocol);
         foyers.put(protocolName, foyer);
+        conductorRegistry.addProtocol(protocolName);
+
+        if (foyer instanceof TopicPublisher) {
+            topicPublishers.add((TopicPublisher) foyer);
+        }
         
         // Create and store the adapter
         ProtocolAdapter<I, O> adapter = protocol.createAdapter();
@@ -67,11 +167,25 @@ public class ProtocolAggregator {
     }
 
     /**
-     * Registers a conductor method.
+     * Gets the topic publisher that spans all foyers supporting topics.
+     */
+    public TopicPublisher getTopicPublisher() {
+        return topicPublisher;
+    }
+
+    /**
+     * Registers a conductor method. Each call publishes a new registry snapshot; register
+     * many methods with {@link #registerConductorMethods} instead.
      */
     public void registerConductorMethod(ConductorMethod method) {
         conductorRegistry.register(method);
-        ConductorMethodCache.getInstance().cache(method.getIntent(), method);
+    }
+
+    /**
+     * Registers conductor methods, publishing them together in one registry snapshot.
+     */
+    public void registerConductorMethods(Collection<ConductorMethod> methods) {
+        conductorRegistry.registerAll(methods);
     }
 
     /**
@@ -83,17 +197,46 @@ public class ProtocolAggregator {
         List<ConductorMethod> methods = scanner.scan(basePackage, this);
         
         // Register all conductor methods
-        for (ConductorMethod method : methods) {
-            registerConductorMethod(method);
+        conductorRegistry.registerAll(methods);
+    }
+
+    /**
+     * Replaces all registered conductor methods with those found in the specified packages,
+     * while traffic flows. The new conductors are created and registered off to the side and
+     * swapped in at once; requests already under way finish on the previous conductors.
+     *
+     * @param basePackages the packages to scan
+     * @return the published snapshot
+     */
+    public RegistrySnapshot reloadConductors(String... basePackages) {
+        ConductorScanner scanner = new ConductorScanner();
+        List<ConductorMethod> methods = new ArrayList<>();
+        for (String basePackage : basePackages) {
+            methods.addAll(scanner.scan(basePackage, this));
         }
+        RegistrySnapshot snapshot = conductorRegistry.replace(methods);
+        logger.info("Reloaded conductors: {} intent methods in registry version {}",
+            methods.size(), snapshot.getVersion());
+        return snapshot;
     }
 
     /**
-     * Starts all registered foyers.
+     * Gets the current snapshot of the registered conductor methods.
+     */
+    public RegistrySnapshot getRegistrySnapshot() {
+        return conductorRegistry.getSnapshot();
+    }
+
+    /**
+     * Starts all registered foyers, after warming up the intents if the warm-up stage is enabled.
      */
     public void start() {
         logger.info("Starting Protocol Aggregator with {} protocols", protocols.size());
 
+        if (warmUpStage.isEnabled()) {
+            warmUpStage.run(conductorRegistry.getAllIntents().values(), adapters);
+        }
+
         for (Map.Entry<String, Foyer<?>> entry : foyers.entrySet()) {
             logger.info("Opening foyer for protocol: {}", entry.getKey());
             entry.getValue().open();
@@ -103,7 +246,8 @@ public class ProtocolAggregator {
     }
 
     /**
-     * Stops all registered foyers.
+     * Stops all registered foyers, then the execution lanes and the timer that enforces deadlines.
+     * A stopped aggregator cannot be started again.
      */
     public void stop() {
         logger.info("Stopping Protocol Aggregator");
@@ -116,6 +260,8 @@ public class ProtocolAggregator {
                 logger.error("Error closing foyer for protocol: {}", entry.getKey(), e);
             }
         }
+        executionLanes.shutdown();
+        deadlineTimer.shutdownNow();
 
         logger.info("Protocol Aggregator stopped");
     }
@@ -127,12 +273,183 @@ public class ProtocolAggregator {
         return conductorRegistry.find(intent);
     }
 
+    /**
+     * Publishes through every registered foyer that supports topics.
+     * Session IDs are unique per foyer, so a subscription lands on the foyer that owns the session.
+     */
+    private class AggregateTopicPublisher implements TopicPublisher {
+
+        @Override
+        public boolean subscribe(String topic, String sessionId) {
+            boolean subscribed = false;
+            for (TopicPublisher publisher : topicPublishers) {
+                subscribed |= publisher.subscribe(topic, sessionId);
+            }
+            return subscribed;
+        }
+
+        @Override
+        public void unsubscribe(String topic, String sessionId) {
+            for (TopicPublisher publisher : topicPublishers) {
+                publisher.unsubscribe(topic, sessionId);
+            }
+        }
+
+        @Override
+        public int publish(String topic, Object message) {
+            int delivered = 0;
+            for (TopicPublisher publisher : topicPublishers) {
+                delivered += publisher.publish(topic, message);
+            }
+            return delivered;
+        }
+    }
+
     /**
      * Central meeting point for all protocols.
      */
     private class CentralRendezvous {
+
+        /**
+         * Processes a context in the execution lane of its intent, or on the conductor
+         * executor if the intent has no lane with workers of its own. Invocations of an intent with an @OrderingKey
+         * run after earlier invocations with the same key, in the order they were submitted.
+         */
+        CompletableFuture<HorizonContext> processAsync(HorizonContext context, RegistrySnapshot registry) {
+            ConductorMethod method = context.getAttribute("conductorMethod", ConductorMethod.class);
+            Executor executor = conductorExecutor;
+            if (method != null) {
+                // The deadline also covers time spent waiting for the executor
+                startDeadline(context, method);
+                ExecutionLanes.Lane lane = executionLanes.laneFor(method);
+                if (lane != null) {
+                    executor = lane;
+                }
+            }
+
+            Object orderingKey = method != null ? method.getOrderingKey(context.getPayload()) : null;
+            CompletableFuture<HorizonContext> processing;
+            try {
+                processing = orderingKey != null
+                    ? orderedExecutor.submit(orderingKey, () -> process(context, registry, true), executor)
+                    : CompletableFuture.supplyAsync(() -> process(context, registry, true), executor);
+            } catch (OverloadException e) {
+                return CompletableFuture.completedFuture(shed(context, e));
+            }
+
+            CompletableFuture<HorizonContext> response = new CompletableFuture<>();
+            processing.whenComplete((processed, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                if (cause instanceof OverloadException overload) {
+                    // The lane was full when the ordered invocation's turn came
+                    response.complete(shed(context, overload));
+                } else if (error != null) {
+                    response.completeExceptionally(error);
+                } else {
+                    response.complete(processed);
+                }
+            });
+            // Fall away at the deadline even if the method ignores the interrupt; the timer thread only signals
+            context.onCancel(() -> response.completeAsync(() -> context, conductorExecutor));
+            // Cancelling the returned future, for example when the client disconnects, cancels the invocation
+            response.whenComplete((ignored, error) -> {
+                if (error instanceof CancellationException) {
+                    context.cancel();
+                }
+            });
+            return response;
+        }
+
+        private HorizonContext shed(HorizonContext context, OverloadException e) {
+            context.disarmDeadline();
+            MetricsCollector.getInstance().incrementCounter("requests.error");
+            logger.debug("Shed intent: {} [{}]", context.getIntent(), context.getTraceId());
+            context.setError(e);
+            return context;
+        }
+
+        private void startDeadline(HorizonContext context, ConductorMethod method) {
+            context.applyTimeout(method.getTimeout());
+            context.armDeadline((task, delayNanos) -> deadlineTimer.schedule(task, delayNanos, TimeUnit.NANOSECONDS));
+        }
         
-        HorizonContext process(HorizonContext context) {
+        /**
+         * Gets the conductors to run a request on; the request keeps them even if conductors
+         * are registered while it is processed.
+         */
+        RegistrySnapshot snapshot() {
+            return conductorRegistry.getSnapshot();
+        }
+
+        /**
+         * Checks the rate limits of an intent. Runs before the payload is extracted,
+         * so rejected requests cost as little as possible.
+         *
+         * @param method the intent's conductor method, or null if there is none
+         */
+        void checkRateLimits(String protocol, ConductorMethod method, RateLimiters.CallerKeys callerKeys) {
+            if (method != null) {
+                rateLimiters.check(protocol, method, callerKeys);
+            }
+        }
+
+        /**
+         * Invokes a conductor method behind its circuit breaker, concurrency limit and bulkheads.
+         */
+        private void invoke(ConductorMethod method, HorizonContext context, boolean mayWait) throws Exception {
+            // Stop before doing any work if the deadline passed while the request was queued
+            context.throwIfCancelled();
+
+            // Fail fast while the intent's circuit breaker is open
+            CircuitBreakers.Breaker breaker = circuitBreakers.forMethod(method);
+            long permit = breaker != null ? breaker.acquire() : 0;
+
+            AdaptiveLimiter limiter = null;
+            Bulkheads.Compartment[] compartments = null;
+            long invokeStart = -1;
+            Exception failure = null;
+            // A cancellation from here on interrupts this thread
+            context.enter();
+            try {
+                // Shed the request if the intent is at its concurrency limit or its bulkhead is full
+                limiter = concurrencyLimits.acquire(method, mayWait);
+                compartments = bulkheads.acquire(method, mayWait);
+
+                invokeStart = System.nanoTime();
+                context.setResult(method.invoke(context.getPayload()));
+                context.throwIfCancelled();
+            } catch (Exception e) {
+                failure = e;
+                // Whatever the interrupt caused, report why the request was cancelled
+                context.throwIfCancelled();
+                throw e;
+            } finally {
+                context.exit();
+                long duration = invokeStart >= 0 ? System.nanoTime() - invokeStart : -1;
+                bulkheads.release(compartments);
+                // Failed invocations say nothing about latency under load
+                concurrencyLimits.release(method, limiter, failure == null ? duration : -1);
+                if (breaker != null) {
+                    // A client that went away says nothing about the method's health
+                    if (duration >= 0 && !(context.getError() instanceof CancellationException)) {
+                        breaker.record(permit, duration, failure);
+                    } else {
+                        breaker.release(permit);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Processes a request on the caller's thread, which may be an event loop,
+         * so it is shed rather than queued at a concurrency limit.
+         */
+        HorizonContext process(HorizonContext context, RegistrySnapshot registry) {
+            return process(context, registry, false);
+        }
+
+        private HorizonContext process(HorizonContext context, RegistrySnapshot registry, boolean mayWait) {
             String intent = context.getIntent();
             String protocol = (String) context.getAttribute("protocol");
             logger.debug("Processing intent: {} from protocol: {} [{}]", intent, protocol, context.getTraceId());
@@ -146,34 +463,49 @@ public class ProtocolAggregator {
             long startTime = System.currentTimeMillis();
 
             try {
-                // Find conductor method for this intent
-                ConductorMethod method = conductorRegistry.find(intent);
+                // Conductor method for this intent, found when the request was encountered
+                ConductorMethod method = context.getAttribute("conductorMethod", ConductorMethod.class);
                 if (method == null) {
                     metrics.incrementCounter("errors.intent_not_found");
                     throw new IllegalArgumentException("No conductor found for intent: " + intent);
                 }
-                
+
                 // Validate protocol access
-                if (!accessValidator.hasAccess(protocol, method)) {
+                if (!registry.hasAccess(protocol, method)) {
                     metrics.incrementCounter("errors.access_denied");
                     throw new SecurityException(
                         String.format("Protocol '%s' is not allowed to access intent '%s'", protocol, intent)
                     );
                 }
 
-                // Invoke conductor method
-                Object result = method.invoke(context.getPayload());
-                context.setResult(result);
+                // Invoke conductor method before its deadline
+                startDeadline(context, method);
+                invoke(method, context, mayWait);
 
                 metrics.incrementCounter("requests.success");
                 logger.debug("Successfully processed intent: {} [{}]", intent, context.getTraceId());
                 
+            } catch (OverloadException e) {
+                metrics.incrementCounter("requests.error");
+                logger.debug("Shed intent: {} [{}]", intent, context.getTraceId());
+                context.setError(e);
+            } catch (DeadlineExceededException e) {
+                metrics.incrementCounter("requests.error");
+                metrics.incrementCounter("requests.timeout");
+                logger.warn("Deadline exceeded for intent: {} [{}]", intent, context.getTraceId());
+                context.setError(e);
+            } catch (CancellationException e) {
+                metrics.incrementCounter("requests.cancelled");
+                logger.debug("Cancelled intent: {} [{}]", intent, context.getTraceId());
+                context.setError(e);
             } catch (Exception e) {
                 metrics.incrementCounter("requests.error");
                 metrics.incrementCounter("errors." + e.getClass().getSimpleName());
                 logger.error("Error processing intent: {} [{}]", intent, context.getTraceId(), e);
                 context.setError(e);
             } finally {
+                context.disarmDeadline();
+
                 // Record timing
                 long duration = System.currentTimeMillis() - startTime;
                 metrics.recordTiming("request.duration", duration);
@@ -203,21 +535,120 @@ public class ProtocolAggregator {
 
         @Override
         public HorizonContext encounter(I input) {
+            RegistrySnapshot registry = centralRendezvous.snapshot();
+            HorizonContext context = createContext(input, registry);
+            if (context.hasError()) {
+                return context;
+            }
+
+            // Process through central rendezvous
+            return centralRendezvous.process(context, registry);
+        }
+
+        private HorizonContext createContext(I input, RegistrySnapshot registry) {
             logger.debug("Encountering {} request", protocol.getName());
 
-            // Extract intent and payload using protocol adapter
-            String intent = adapter.extractIntent(input);
-            Object payload = adapter.extractPayload(input);
+            // Extract intent using protocol adapter
+            String intent = adapter.extractIntent(input, registry);
 
             // Create context
             HorizonContext context = new HorizonContext();
             context.setIntent(intent);
-            context.setPayload(payload);
             context.setAttribute("protocol", protocol.getName());
             context.setAttribute("originalRequest", input);
+            context.applyTimeout(adapter.extractTimeout(input));
+            ConductorMethod method = resolve(context, registry);
 
-            // Process through central rendezvous
-            return centralRendezvous.process(context);
+            // Rate-limited requests fall away without their payload being extracted
+            if (rateLimited(context, input, method)) {
+                return context;
+            }
+            context.setPayload(adapter.extractPayload(input));
+            return context;
+        }
+
+        /**
+         * Finds the conductor method of the context's intent. Protocols use its annotations
+         * when building the response.
+         */
+        private static ConductorMethod resolve(HorizonContext context, RegistrySnapshot registry) {
+            ConductorMethod method = registry.find(context.getIntent());
+            if (method != null) {
+                context.setAttribute("conductorMethod", method);
+            }
+            return method;
+        }
+
+        private boolean rateLimited(HorizonContext context, I input, ConductorMethod method) {
+            try {
+                centralRendezvous.checkRateLimits(protocol.getName(), method,
+                    (key, header) -> adapter.extractCallerKey(input, key, header));
+                return false;
+            } catch (RateLimitException e) {
+                logger.debug("Rate limited intent: {} [{}]", context.getIntent(), context.getTraceId());
+                context.setError(e);
+                return true;
+            }
+        }
+
+        @Override
+        public CompletableFuture<HorizonContext> encounterAsync(I input) {
+            // The invocation runs on the conductors registered when it was submitted
+            RegistrySnapshot registry = centralRendezvous.snapshot();
+            HorizonContext context;
+            try {
+                context = createContext(input, registry);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            if (context.hasError()) {
+                return CompletableFuture.completedFuture(context);
+            }
+            return centralRendezvous.processAsync(context, registry);
+        }
+
+        @Override
+        public HorizonContext encounter(String intent, Map<String, Object> data, I originalRequest) {
+            RegistrySnapshot registry = centralRendezvous.snapshot();
+            HorizonContext context = createContext(intent, data, originalRequest, registry);
+            if (context.hasError()) {
+                return context;
+            }
+            return centralRendezvous.process(context, registry);
+        }
+
+        @Override
+        public CompletableFuture<HorizonContext> encounterAsync(String intent, Map<String, Object> data,
+                                                                I originalRequest) {
+            RegistrySnapshot registry = centralRendezvous.snapshot();
+            HorizonContext context;
+            try {
+                context = createContext(intent, data, originalRequest, registry);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            if (context.hasError()) {
+                return CompletableFuture.completedFuture(context);
+            }
+            return centralRendezvous.processAsync(context, registry);
+        }
+
+        private HorizonContext createContext(String intent, Map<String, Object> data, I originalRequest,
+                                             RegistrySnapshot registry) {
+            logger.debug("Encountering {} entry for intent {}", protocol.getName(), intent);
+
+            HorizonContext context = new HorizonContext();
+            context.setIntent(intent);
+            context.setAttribute("protocol", protocol.getName());
+            context.setAttribute("originalRequest", originalRequest);
+            context.applyTimeout(adapter.extractTimeout(originalRequest));
+            ConductorMethod method = resolve(context, registry);
+
+            if (rateLimited(context, originalRequest, method)) {
+                return context;
+            }
+            context.setPayload(adapter.extractPayload(intent, data, originalRequest));
+            return context;
         }
 
         @Override
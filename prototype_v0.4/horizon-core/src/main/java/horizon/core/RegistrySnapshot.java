@@ -0,0 +1,282 @@
+package horizon.core;
+
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.security.ProtocolAccessValidator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable view of the conductor methods registered with an aggregator.
+ *
+ * A snapshot holds everything a request needs to find its conductor method: the exact
+ * intents, a trie of the wildcard intents, the routes declared with {@link ProtocolSchema}
+ * and which protocols may reach each intent. {@link ConductorRegistry} publishes snapshots
+ * through a volatile reference and replaces them as a whole, so readers need no locks and
+ * a request that holds a snapshot finishes on it, whatever is registered meanwhile.
+ */
+public final class RegistrySnapshot {
+
+    /**
+     * The snapshot of a registry without conductor methods.
+     */
+    public static final RegistrySnapshot EMPTY = new RegistrySnapshot(0, List.of(), Set.of());
+
+    private static final ProtocolAccessValidator ACCESS_VALIDATOR = new ProtocolAccessValidator();
+
+    private final long version;
+    private final List<ConductorMethod> methods;
+    private final Set<String> protocols;
+    private final Map<String, ConductorMethod> exactMatches;
+    private final WildcardNode wildcards;
+    private final Map<String, Map<String, String>> routes;
+    // Per protocol, whether it may reach each registered method
+    private final Map<String, Map<ConductorMethod, Boolean>> access;
+
+    private RegistrySnapshot(long version, List<ConductorMethod> methods, Set<String> protocols) {
+        this.version = version;
+        this.methods = List.copyOf(methods);
+        this.protocols = Set.copyOf(protocols);
+
+        // Later registrations of an intent replace earlier ones
+        Map<String, ConductorMethod> exact = new LinkedHashMap<>();
+        Map<String, ConductorMethod> patterns = new LinkedHashMap<>();
+        for (ConductorMethod method : methods) {
+            String intent = method.getIntent();
+            (isPattern(intent) ? patterns : exact).put(intent, method);
+        }
+        // Never changed once built; a HashMap looks up faster than Map.copyOf
+        this.exactMatches = new HashMap<>(exact);
+        this.wildcards = WildcardNode.build(patterns.values());
+
+        List<ConductorMethod> registered = new ArrayList<>(exact.values());
+        registered.addAll(patterns.values());
+        this.routes = collectRoutes(registered);
+        this.access = collectAccess(registered, this.protocols);
+    }
+
+    /**
+     * Creates a snapshot of the given methods.
+     *
+     * @param version the version of the snapshot, higher for later ones
+     * @param methods the conductor methods, in registration order
+     * @param protocols the protocols whose access to each intent is decided up front
+     */
+    public static RegistrySnapshot of(long version, Collection<ConductorMethod> methods, Collection<String> protocols) {
+        return new RegistrySnapshot(version, new ArrayList<>(methods), new LinkedHashSet<>(protocols));
+    }
+
+    /**
+     * Creates the next snapshot, with the given methods registered after the ones of this one.
+     */
+    public RegistrySnapshot withMethods(long version, Collection<ConductorMethod> added) {
+        List<ConductorMethod> all = new ArrayList<>(methods);
+        all.addAll(added);
+        return new RegistrySnapshot(version, all, protocols);
+    }
+
+    /**
+     * Creates the next snapshot, with access to the intents decided for the given protocols too.
+     */
+    public RegistrySnapshot withProtocols(long version, Collection<String> added) {
+        Set<String> all = new LinkedHashSet<>(protocols);
+        all.addAll(added);
+        return new RegistrySnapshot(version, methods, all);
+    }
+
+    /**
+     * Gets the version of this snapshot. Each snapshot a registry publishes has a higher one.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Finds the conductor method of an intent. Exact intents take precedence over wildcard
+     * ones, and of the wildcard intents that match, the one with the longest literal prefix
+     * is chosen, or the first registered of those.
+     *
+     * @return the conductor method, or null if none matches
+     */
+    public ConductorMethod find(String intent) {
+        ConductorMethod method = exactMatches.get(intent);
+        return method != null ? method : wildcards.find(intent);
+    }
+
+    /**
+     * Gets the methods of the exact intents, by intent.
+     */
+    public Map<String, ConductorMethod> getExactIntents() {
+        return Collections.unmodifiableMap(exactMatches);
+    }
+
+    /**
+     * Gets all registered methods, in registration order, including those replaced by later ones.
+     */
+    public List<ConductorMethod> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Gets the protocols whose access to each intent was decided when the snapshot was built.
+     */
+    public Set<String> getProtocols() {
+        return protocols;
+    }
+
+    /**
+     * Gets the routes declared for a protocol with {@link ProtocolSchema}, such as
+     * {@code GET /users/{userId}} for HTTP, mapped to their intents. A route declared
+     * by several intents belongs to the first one registered.
+     *
+     * @return the routes in registration order, empty if the protocol has none
+     */
+    public Map<String, String> getRoutes(String protocol) {
+        return routes.getOrDefault(protocol, Map.of());
+    }
+
+    /**
+     * Checks whether a protocol may reach a conductor method, as {@link ProtocolAccessValidator} decides.
+     */
+    public boolean hasAccess(String protocol, ConductorMethod method) {
+        Map<ConductorMethod, Boolean> allowed = access.get(protocol);
+        Boolean decided = allowed != null ? allowed.get(method) : null;
+        // Methods and protocols this snapshot does not know are checked on the spot
+        return decided != null ? decided : ACCESS_VALIDATOR.hasAccess(protocol, method);
+    }
+
+    private static boolean isPattern(String intent) {
+        return intent.contains("*") || intent.contains("?");
+    }
+
+    private static Map<String, Map<String, String>> collectRoutes(List<ConductorMethod> methods) {
+        Map<String, Map<String, String>> routes = new HashMap<>();
+        for (ConductorMethod method : methods) {
+            Set<String> protocols = new LinkedHashSet<>();
+            addSchemaProtocols(method.getMethod().getAnnotation(ProtocolAccess.class), protocols);
+            addSchemaProtocols(method.getMethod().getDeclaringClass().getAnnotation(ProtocolAccess.class), protocols);
+            for (String protocol : protocols) {
+                String route = ACCESS_VALIDATOR.getProtocolSchema(protocol, method.getMethod());
+                if (route != null && !route.isEmpty()) {
+                    routes.computeIfAbsent(protocol, p -> new LinkedHashMap<>()).putIfAbsent(route, method.getIntent());
+                }
+            }
+        }
+        Map<String, Map<String, String>> frozen = new HashMap<>();
+        // Map.copyOf would lose the registration order the resolvers match in
+        routes.forEach((protocol, table) -> frozen.put(protocol, Collections.unmodifiableMap(table)));
+        return Map.copyOf(frozen);
+    }
+
+    private static void addSchemaProtocols(ProtocolAccess access, Set<String> protocols) {
+        if (access != null) {
+            for (ProtocolSchema schema : access.schema()) {
+                protocols.add(schema.protocol());
+            }
+        }
+    }
+
+    private static Map<String, Map<ConductorMethod, Boolean>> collectAccess(List<ConductorMethod> methods,
+                                                                           Set<String> protocols) {
+        Map<String, Map<ConductorMethod, Boolean>> access = new HashMap<>();
+        for (String protocol : protocols) {
+            // Conductor methods are compared by identity
+            Map<ConductorMethod, Boolean> allowed = new HashMap<>();
+            for (ConductorMethod method : methods) {
+                allowed.put(method, ACCESS_VALIDATOR.hasAccess(protocol, method));
+            }
+            access.put(protocol, Map.copyOf(allowed));
+        }
+        return Map.copyOf(access);
+    }
+
+    /**
+     * A node of the trie of wildcard intents, keyed by the characters before the first wildcard.
+     */
+    private static final class WildcardNode {
+        private static final WildcardNode EMPTY = new WildcardNode(Map.of(), new Wildcard[0]);
+
+        private final Map<Character, WildcardNode> children;
+        // The wildcard intents whose literal prefix ends at this node
+        private final Wildcard[] wildcards;
+
+        private WildcardNode(Map<Character, WildcardNode> children, Wildcard[] wildcards) {
+            this.children = children;
+            this.wildcards = wildcards;
+        }
+
+        static WildcardNode build(Collection<ConductorMethod> methods) {
+            if (methods.isEmpty()) {
+                return EMPTY;
+            }
+            Builder root = new Builder();
+            for (ConductorMethod method : methods) {
+                String intent = method.getIntent();
+                int literal = 0;
+                while (literal < intent.length() && intent.charAt(literal) != '*' && intent.charAt(literal) != '?') {
+                    literal++;
+                }
+                Builder node = root;
+                for (int i = 0; i < literal; i++) {
+                    node = node.children.computeIfAbsent(intent.charAt(i), c -> new Builder());
+                }
+                node.wildcards.add(new Wildcard(compile(intent), method));
+            }
+            return root.build();
+        }
+
+        private static Pattern compile(String intent) {
+            String regex = intent.replace(".", "\\.")
+                                 .replace("*", ".*")
+                                 .replace("?", ".");
+            return Pattern.compile(regex);
+        }
+
+        ConductorMethod find(String intent) {
+            return find(intent, 0);
+        }
+
+        private ConductorMethod find(String intent, int depth) {
+            // Wildcards deeper along the intent's path have longer literal prefixes, so go first
+            if (depth < intent.length()) {
+                WildcardNode child = children.get(intent.charAt(depth));
+                if (child != null) {
+                    ConductorMethod method = child.find(intent, depth + 1);
+                    if (method != null) {
+                        return method;
+                    }
+                }
+            }
+            for (Wildcard wildcard : wildcards) {
+                if (wildcard.pattern.matcher(intent).matches()) {
+                    return wildcard.method;
+                }
+            }
+            return null;
+        }
+
+        private record Wildcard(Pattern pattern, ConductorMethod method) {
+        }
+
+        private static final class Builder {
+            final Map<Character, Builder> children = new HashMap<>();
+            final List<Wildcard> wildcards = new ArrayList<>();
+
+            WildcardNode build() {
+                Map<Character, WildcardNode> built = new HashMap<>();
+                children.forEach((c, child) -> built.put(c, child.build()));
+                return new WildcardNode(Map.copyOf(built), wildcards.toArray(new Wildcard[0]));
+            }
+        }
+    }
+}
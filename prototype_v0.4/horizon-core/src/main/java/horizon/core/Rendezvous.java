@@ -1,5 +1,8 @@
 package horizon.core;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The central meeting point where all protocols converge.
  * A Rendezvous is responsible for encountering requests and falling away with responses.
@@ -12,11 +15,56 @@ public interface Rendezvous<I, O> {
     /**
      * Encounters an incoming request from any protocol.
      * This is where different protocols meet and are normalized into a common context.
+     * The request runs on the calling thread, so at a concurrency limit it is shed rather than queued.
      *
      * @param input the input from a specific protocol
      * @return a context containing the processed request
      */
     HorizonContext encounter(I input);
+
+    /**
+     * Encounters a request and processes it off the calling thread.
+     * The intent and payload are extracted on the calling thread, so requests
+     * submitted from one thread are dispatched in submission order; the conductor
+     * itself runs on the aggregator's conductor executor.
+     *
+     * The future completes no later than the request's deadline. Cancelling it,
+     * for example when the client disconnects, cancels the request and interrupts
+     * its conductor method.
+     *
+     * @param input the input from a specific protocol
+     * @return a future completed with the processed context
+     */
+    default CompletableFuture<HorizonContext> encounterAsync(I input) {
+        try {
+            return CompletableFuture.completedFuture(encounter(input));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Encounters a request whose intent is already known, such as one entry of a batch envelope.
+     * The original request supplies protocol context (headers, session) but not the intent or payload.
+     *
+     * @param intent the intent to process
+     * @param data the protocol-neutral data for the intent
+     * @param originalRequest the protocol-specific request that carried the entry
+     * @return a context containing the processed request
+     */
+    HorizonContext encounter(String intent, Map<String, Object> data, I originalRequest);
+
+    /**
+     * Encounters a request whose intent is already known and processes it off the calling thread,
+     * as {@link #encounterAsync(Object)} does. Invocations of an intent with an @OrderingKey are
+     * ordered with all other invocations of the same key, whichever way they arrived.
+     *
+     * @param intent the intent to process
+     * @param data the protocol-neutral data for the intent
+     * @param originalRequest the protocol-specific request that carried the entry
+     * @return a future completed with the processed context
+     */
+    CompletableFuture<HorizonContext> encounterAsync(String intent, Map<String, Object> data, I originalRequest);
     
     /**
      * Falls away with a response after processing.
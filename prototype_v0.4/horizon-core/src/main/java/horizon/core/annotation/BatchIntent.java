@@ -0,0 +1,64 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a multi-get method as the handler for a single-key intent.
+ * Single-key invocations that arrive within a short window are gathered
+ * into one call to the annotated method, and each caller is completed
+ * with its own entry from the returned map.
+ *
+ * The annotated method must accept a {@code List<K>} and return a {@code Map<K, V>}.
+ * Keys missing from the returned map resolve to {@code null}.
+ *
+ * Example:
+ * <pre>
+ * @BatchIntent(value = "summary", key = "userId", maxDelayMs = 2, maxBatchSize = 64)
+ * public Map<String, UserSummary> getSummaries(List<String> userIds) {
+ *     // One backend multi-get instead of one lookup per request
+ * }
+ * </pre>
+ *
+ * Because batching happens at the Rendezvous, HTTP and WebSocket callers
+ * of the same intent share the same batches.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BatchIntent {
+    /**
+     * The intent name (e.g., "get", "summary").
+     * This will be combined with the conductor's namespace to form the full intent.
+     */
+    String value();
+
+    /**
+     * The logical name of the key parameter in each single-key request.
+     * Resolved the same way as {@link Param#value()}.
+     */
+    String key();
+
+    /**
+     * Alternative intent patterns that also map to this method.
+     * Aliases share the same batches as the primary intent.
+     */
+    String[] aliases() default {};
+
+    /**
+     * Maximum time in milliseconds the first request of a batch waits
+     * for more keys before the batch is dispatched.
+     */
+    long maxDelayMs() default 5;
+
+    /**
+     * Maximum number of distinct keys per batch call.
+     * A batch is dispatched immediately once it reaches this size.
+     */
+    int maxBatchSize() default 100;
+
+    /**
+     * How long a request may wait for its batch, in milliseconds, before it fails with a
+     * deadline exceeded error. A shorter deadline of the request takes precedence.
+     */
+    long timeout() default 5000;
+}
@@ -0,0 +1,37 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Gives a conductor or intent its own concurrency slots, so a slow dependency
+ * cannot take over the executor shared by every intent.
+ *
+ * On a conductor class the slots are shared by all of the conductor's intents;
+ * on a method they belong to that intent alone. An intent with both must get a slot
+ * from each. A request that finds no free slot within {@link #maxWaitMillis()} is shed
+ * with an {@link horizon.core.exception.OverloadException}.
+ *
+ * Example:
+ * <pre>
+ * @Conductor(namespace = "report")
+ * @Bulkhead(maxConcurrent = 8)
+ * public class ReportConductor {
+ *     ...
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+    /**
+     * The number of invocations that may run at once.
+     */
+    int maxConcurrent();
+
+    /**
+     * How long a request may wait for a slot, in milliseconds.
+     * Requests processed on an event loop never wait, and are shed at once.
+     */
+    long maxWaitMillis() default 0;
+}
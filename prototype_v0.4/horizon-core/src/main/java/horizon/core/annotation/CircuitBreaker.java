@@ -0,0 +1,74 @@
+package horizon.core.annotation;
+
+import horizon.core.exception.HorizonException;
+
+import java.lang.annotation.*;
+
+/**
+ * Guards an intent with a circuit breaker.
+ *
+ * The outcomes of the last {@link #windowSize()} invocations are kept. Once at least
+ * {@link #minimumCalls()} have been recorded and the share of failed or slow calls
+ * reaches its threshold, the breaker opens and requests fail fast with a
+ * {@link horizon.core.exception.CircuitOpenException} without invoking the method.
+ * After {@link #openMillis()} the breaker lets {@link #halfOpenCalls()} probe calls through;
+ * if they all succeed in time it closes again, otherwise it opens for another period.
+ *
+ * On a conductor class it applies to every intent of the conductor, and each intent
+ * gets its own breaker. An annotation on a method takes precedence.
+ *
+ * Example:
+ * <pre>
+ * @Intent("quote")
+ * @CircuitBreaker(failureRateThreshold = 50, slowCallMillis = 500, slowCallRateThreshold = 80)
+ * public Quote quote(@Param("symbol") String symbol) {
+ *     return pricingClient.fetch(symbol);
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CircuitBreaker {
+    /**
+     * The percentage of failed calls in the window at which the breaker opens.
+     */
+    int failureRateThreshold() default 50;
+
+    /**
+     * The percentage of slow calls in the window at which the breaker opens.
+     * 100 opens only when every call is slow.
+     */
+    int slowCallRateThreshold() default 100;
+
+    /**
+     * How long a call may take, in milliseconds, before it counts as slow.
+     */
+    long slowCallMillis() default 2000;
+
+    /**
+     * The number of most recent calls the rates are computed over.
+     */
+    int windowSize() default 20;
+
+    /**
+     * The number of calls that must be recorded before the breaker can open.
+     */
+    int minimumCalls() default 10;
+
+    /**
+     * How long the breaker stays open, in milliseconds, before probing.
+     */
+    long openMillis() default 10_000;
+
+    /**
+     * The number of probe calls let through while half-open.
+     */
+    int halfOpenCalls() default 3;
+
+    /**
+     * Exceptions that report a problem with the request rather than with the method,
+     * and so are not counted as failures.
+     */
+    Class<? extends Throwable>[] ignoreExceptions() default {IllegalArgumentException.class, HorizonException.class};
+}
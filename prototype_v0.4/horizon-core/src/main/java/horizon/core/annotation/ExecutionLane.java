@@ -0,0 +1,47 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs a conductor's or intent's asynchronous invocations in a named execution lane.
+ *
+ * Each lane has its own workers and bounded queue, so slow bulk intents cannot
+ * starve health checks of threads. An annotation on the method overrides one on
+ * the conductor class; intents with neither run in the {@link #INTERACTIVE} lane.
+ * Lanes other than the three predefined ones are created with
+ * {@link horizon.core.execution.ExecutionLanes#configure(String, int, int)}.
+ *
+ * Example:
+ * <pre>
+ * @Intent("export")
+ * @ExecutionLane(ExecutionLane.BULK)
+ * public byte[] export(@Param("since") long since) {
+ *     ...
+ * }
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ExecutionLane {
+    /**
+     * For health checks and administrative intents that must answer under any load.
+     */
+    String CRITICAL = "critical";
+
+    /**
+     * For requests a client is waiting on. The default lane, which runs on the aggregator's
+     * conductor executor unless it is configured with workers of its own.
+     */
+    String INTERACTIVE = "interactive";
+
+    /**
+     * For expensive intents that may queue behind each other.
+     */
+    String BULK = "bulk";
+
+    /**
+     * The name of the lane.
+     */
+    String value();
+}
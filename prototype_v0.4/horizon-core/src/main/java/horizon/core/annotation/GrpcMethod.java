@@ -3,8 +3,10 @@ package horizon.core.annotation;
 import java.lang.annotation.*;
 
 /**
- * @deprecated gRPC support has been removed from Horizon Framework.
- * This annotation is no longer used and will be removed in the next version.
+ * @deprecated This annotation is not read by the framework and will be removed in the next version.
+ * gRPC methods are mapped to intents with {@code @ProtocolSchema(protocol = "gRPC", value = "Service/Method")}
+ * and served by {@code horizon.web.grpc.GrpcFoyer}, which takes whether a method streams from its
+ * service descriptor rather than from {@link StreamingType}.
  * 
  * @since 0.4
  */
@@ -22,4 +22,18 @@ public @interface Intent {
      * Alternative intent patterns that also map to this method.
      */
     String[] aliases() default {};
+
+    /**
+     * How this intent is treated when it is at its concurrency limit.
+     * Use {@link Priority#CRITICAL} for health checks and administrative intents,
+     * which must never be shed.
+     */
+    Priority priority() default Priority.NORMAL;
+
+    /**
+     * How long an invocation may take, in milliseconds, before the request fails with
+     * a deadline exceeded error and the invoking thread is interrupted. 0 means no limit.
+     * A shorter timeout requested by the client takes precedence.
+     */
+    long timeout() default 0;
 }
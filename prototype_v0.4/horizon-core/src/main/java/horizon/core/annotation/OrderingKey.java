@@ -0,0 +1,35 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks the parameter whose value orders invocations of an intent.
+ * Invocations with the same key run one at a time in arrival order;
+ * invocations with different keys still run in parallel.
+ *
+ * Keys are grouped by conductor by default, so every intent of a conductor
+ * that orders by the same value shares one queue per value. Use {@link #group()}
+ * to share ordering across conductors or to separate intents within one.
+ *
+ * Example:
+ * <pre>
+ * @Intent("message")
+ * public Map<String, Object> sendMessage(
+ *     @Param("message") String message,
+ *     @Param("_sessionId") @OrderingKey String sessionId
+ * ) {
+ *     // Messages from one session are handled in the order they were sent
+ * }
+ * </pre>
+ *
+ * If the parameter resolves to {@code null}, the invocation is not ordered.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OrderingKey {
+    /**
+     * The ordering group. Defaults to the declaring conductor class.
+     */
+    String group() default "";
+}
@@ -0,0 +1,24 @@
+package horizon.core.annotation;
+
+/**
+ * How an intent is treated when its conductor method is overloaded.
+ *
+ * @see Intent#priority()
+ */
+public enum Priority {
+    /**
+     * Never limited or shed. For health checks and administrative intents
+     * that must keep working while the service is overloaded.
+     */
+    CRITICAL,
+
+    /**
+     * Waits briefly for a slot when the concurrency limit is reached, then is shed.
+     */
+    NORMAL,
+
+    /**
+     * Shed as soon as the concurrency limit is reached, without waiting.
+     */
+    LOW
+}
@@ -0,0 +1,98 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often an intent may be invoked.
+ * Requests over the limit are rejected before their payload is extracted, and
+ * protocols report them as rate limited, such as HTTP 429 with {@code Retry-After}.
+ *
+ * On a method the limit applies to that intent. On a conductor class it applies to
+ * all of the conductor's intents together. Several limits can be combined, and a
+ * request must fit all of them.
+ *
+ * Examples:
+ * <pre>
+ * // At most 100 searches per second overall
+ * @RateLimit(permits = 100)
+ *
+ * // 10 per minute for each client IP, in bursts of up to 5
+ * @RateLimit(permits = 10, period = 1, unit = TimeUnit.MINUTES, burst = 5, key = RateLimit.Key.IP)
+ *
+ * // 1000 per second for each API key, over HTTP only
+ * @RateLimit(permits = 1000, key = RateLimit.Key.HEADER, header = "X-Api-Key", protocols = "HTTP")
+ * </pre>
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(RateLimits.class)
+public @interface RateLimit {
+    /**
+     * The number of requests allowed per period.
+     */
+    int permits();
+
+    /**
+     * The length of the period, in {@link #unit()}.
+     */
+    long period() default 1;
+
+    /**
+     * The time unit of the period.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * How many requests may arrive at once after a quiet period.
+     * Defaults to {@link #permits()}.
+     */
+    int burst() default 0;
+
+    /**
+     * What a separate limit is kept for.
+     */
+    Key key() default Key.GLOBAL;
+
+    /**
+     * The header holding the caller key when {@link #key()} is {@link Key#HEADER}.
+     */
+    String header() default "";
+
+    /**
+     * The protocols the limit applies to. Empty means all protocols.
+     */
+    String[] protocols() default {};
+
+    /**
+     * What a separate limit is kept for.
+     * Requests whose protocol does not carry the key share a single limit.
+     */
+    enum Key {
+        /**
+         * One limit shared by all callers.
+         */
+        GLOBAL,
+
+        /**
+         * One limit per protocol.
+         */
+        PROTOCOL,
+
+        /**
+         * One limit per value of {@link RateLimit#header()}. HTTP only.
+         */
+        HEADER,
+
+        /**
+         * One limit per session. WebSocket only.
+         */
+        SESSION,
+
+        /**
+         * One limit per client IP address.
+         */
+        IP
+    }
+}
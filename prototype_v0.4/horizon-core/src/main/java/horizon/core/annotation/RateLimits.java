@@ -0,0 +1,13 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Container for repeated {@link RateLimit} annotations.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimits {
+    RateLimit[] value();
+}
@@ -0,0 +1,43 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Controls compression of an intent's responses by protocols that support it, such as HTTP.
+ * Intents without this annotation are compressed when the client accepts it
+ * and the body is above the protocol's size threshold.
+ *
+ * Example:
+ * <pre>
+ * @Intent("catalog")
+ * @ResponseCompression(cached = true)
+ * public Map<String, Object> catalog() {
+ *     // Rarely changes, so each encoding is compressed once per version and reused
+ *     HorizonContext.current().setAttribute(ResponseCompression.VERSION, catalog.getVersion());
+ *     return catalog.toMap();
+ * }
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ResponseCompression {
+    /**
+     * Context attribute naming the version of a result, such as an ETag or a revision number.
+     * Results of a cached intent with the same version must have the same body.
+     */
+    String VERSION = "responseVersion";
+
+    /**
+     * Whether responses of this intent may be compressed.
+     * Disable for small or latency-critical responses, or already compressed content.
+     */
+    boolean enabled() default true;
+
+    /**
+     * Whether compressed bodies are cached and reused when a result of the same version is sent again.
+     * Only results whose conductor sets the {@link #VERSION} attribute are cached.
+     * Worth enabling for intents whose results rarely change.
+     */
+    boolean cached() default false;
+}
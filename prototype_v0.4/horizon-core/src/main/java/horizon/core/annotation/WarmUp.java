@@ -0,0 +1,32 @@
+package horizon.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Lets an intent be warmed up before the foyers open, with the given sample data.
+ *
+ * While {@link horizon.core.execution.WarmUpStage} is enabled, the aggregator sends the
+ * samples through every protocol that can reach the intent, the same way a request would
+ * arrive, so the JIT has compiled the path before the first real request. Intents without
+ * this annotation are never warmed up, so only annotate intents without side effects.
+ *
+ * Example:
+ * <pre>
+ * @Intent("list")
+ * @WarmUp("{\"limit\": 5, \"offset\": 0}")
+ * public Map<String, Object> listUsers(@Param("limit") int limit, @Param("offset") int offset) {
+ *     ...
+ * }
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WarmUp {
+    /**
+     * Sample data, each a JSON object as a WebSocket client would send in a message's data.
+     * Protocols with routes place the fields in the route's path variables, and the rest
+     * in the query string or body. The samples are used in turn.
+     */
+    String[] value() default "{}";
+}
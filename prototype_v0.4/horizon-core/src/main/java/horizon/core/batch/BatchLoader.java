@@ -0,0 +1,144 @@
+package horizon.core.batch;
+
+import horizon.core.metrics.MetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Gathers single-key loads into batch calls.
+ * The first key of a batch opens a window of at most {@code maxDelay};
+ * the batch is dispatched when the window closes or when it reaches
+ * {@code maxBatchSize} distinct keys, whichever comes first.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BatchLoader<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(BatchLoader.class);
+
+    /**
+     * Shared timer for batch windows. It only triggers dispatch and never runs batch functions.
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "horizon-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Runs batches whose window expired, so a slow backend never holds up the timer.
+     */
+    private static final ExecutorService DISPATCHER = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String name;
+    private final BatchFunction<K, V> batchFunction;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Batch<K, V> current;
+
+    public BatchLoader(String name, BatchFunction<K, V> batchFunction, Duration maxDelay, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.batchFunction = batchFunction;
+        this.maxDelayNanos = Math.max(0, maxDelay.toNanos());
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues a key for the current batch.
+     *
+     * @param key the key to load
+     * @return a future completed with the value for the key, or {@code null} if the batch did not return it
+     */
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        Batch<K, V> full = null;
+
+        synchronized (lock) {
+            if (current == null) {
+                Batch<K, V> batch = new Batch<>();
+                current = batch;
+                if (maxBatchSize > 1) {
+                    batch.timer = TIMER.schedule(() -> expire(batch), maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            current.waiters.computeIfAbsent(key, k -> new ArrayList<>(1)).add(future);
+            if (current.waiters.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+
+        if (full != null) {
+            if (full.timer != null) {
+                full.timer.cancel(false);
+            }
+            // The caller that fills the batch runs it; it would be waiting for the result anyway
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the name of this loader, usually the intent it serves.
+     */
+    public String getName() {
+        return name;
+    }
+
+    private void expire(Batch<K, V> batch) {
+        synchronized (lock) {
+            if (current != batch) {
+                return; // Already dispatched because it filled up
+            }
+            current = null;
+        }
+        DISPATCHER.execute(() -> dispatch(batch));
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        List<K> keys = new ArrayList<>(batch.waiters.keySet());
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        metrics.incrementCounter("batch.calls." + name);
+        metrics.recordTiming("batch.size." + name, keys.size());
+
+        Map<K, V> results;
+        try {
+            results = batchFunction.load(keys);
+        } catch (Throwable e) {
+            logger.debug("Batch call for {} failed with {} keys", name, keys.size(), e);
+            metrics.incrementCounter("batch.errors." + name);
+            batch.waiters.values().forEach(waiters -> waiters.forEach(f -> f.completeExceptionally(e)));
+            return;
+        }
+
+        batch.waiters.forEach((key, waiters) -> {
+            V value = results != null ? results.get(key) : null;
+            waiters.forEach(f -> f.complete(value));
+        });
+    }
+
+    /**
+     * The multi-get invoked for each batch.
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        Map<K, V> load(List<K> keys) throws Exception;
+    }
+
+    private static class Batch<K, V> {
+        final Map<K, List<CompletableFuture<V>>> waiters = new LinkedHashMap<>();
+        ScheduledFuture<?> timer;
+    }
+}
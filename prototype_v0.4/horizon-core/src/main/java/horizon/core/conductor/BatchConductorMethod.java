@@ -0,0 +1,120 @@
+package horizon.core.conductor;
+
+import horizon.core.HorizonContext;
+import horizon.core.annotation.BatchIntent;
+import horizon.core.batch.BatchLoader;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.core.parameter.ParameterInfo;
+import horizon.core.parameter.ParameterSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A conductor method backed by a {@link BatchIntent} multi-get.
+ * Each invocation resolves a single key from the payload and waits for the
+ * batch that key joins, so callers see an ordinary single-key intent. The wait
+ * is bounded by the request's deadline, or by {@link BatchIntent#timeout()}.
+ */
+public class BatchConductorMethod extends ConductorMethod {
+    private final BatchLoader<Object, Object> loader;
+
+    public BatchConductorMethod(Object instance, Method method, String intent) {
+        this(instance, method, intent, createLoader(instance, method, intent));
+    }
+
+    private BatchConductorMethod(Object instance, Method method, String intent, BatchLoader<Object, Object> loader) {
+        super(instance, method, intent, List.of(keyParameter(method)));
+        this.loader = loader;
+    }
+
+    /**
+     * Creates a conductor method for an alias that shares this method's batches.
+     */
+    public BatchConductorMethod forAlias(String alias) {
+        return new BatchConductorMethod(getInstance(), getMethod(), alias, loader);
+    }
+
+    @Override
+    public Object invoke(Object payload) throws Exception {
+        Map<String, Object> context = toContext(payload);
+        Object key = resolveParameter(getParameters().get(0), context);
+
+        // Wait no longer than the request's deadline, or the batch timeout outside of a request
+        HorizonContext request = HorizonContext.current();
+        Duration wait = request != null && request.hasDeadline() ? request.getRemainingTime() : getTimeout();
+        CompletableFuture<Object> value = loader.load(key);
+        try {
+            return wait != null ? value.get(wait.toNanos(), TimeUnit.NANOSECONDS) : value.get();
+        } catch (TimeoutException e) {
+            value.cancel(false);
+            throw new DeadlineExceededException("Batch of intent '" + getIntent() + "' did not complete in time");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvocationTargetException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BatchLoader<Object, Object> createLoader(Object instance, Method method, String intent) {
+        BatchIntent annotation = method.getAnnotation(BatchIntent.class);
+        if (annotation == null) {
+            throw new IllegalArgumentException("Method is not annotated with @BatchIntent: " + method);
+        }
+        if (method.getParameterCount() != 1 || !List.class.isAssignableFrom(method.getParameterTypes()[0])) {
+            throw new IllegalArgumentException("@BatchIntent method must take a single List parameter: " + method);
+        }
+        if (!Map.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalArgumentException("@BatchIntent method must return a Map: " + method);
+        }
+
+        method.setAccessible(true);
+        return new BatchLoader<>(
+            intent,
+            keys -> (Map<Object, Object>) method.invoke(instance, keys),
+            Duration.ofMillis(annotation.maxDelayMs()),
+            annotation.maxBatchSize()
+        );
+    }
+
+    /**
+     * Describes the single key of a batch method as a protocol-neutral parameter.
+     */
+    private static ParameterInfo keyParameter(Method method) {
+        BatchIntent annotation = method.getAnnotation(BatchIntent.class);
+        return ParameterInfo.builder()
+            .parameter(method.getParameters()[0])
+            .type(keyType(method))
+            .index(0)
+            .source(ParameterSource.PARAM)
+            .name(annotation.key())
+            .required(true)
+            .build();
+    }
+
+    private static Class<?> keyType(Method method) {
+        Type type = method.getGenericParameterTypes()[0];
+        if (type instanceof ParameterizedType parameterized) {
+            Type argument = parameterized.getActualTypeArguments()[0];
+            if (argument instanceof Class<?> clazz) {
+                return clazz;
+            }
+        }
+        return Object.class;
+    }
+}
@@ -0,0 +1,128 @@
+package horizon.core.conductor;
+
+import horizon.core.util.JsonUtils;
+
+/**
+ * Conversions used by generated {@link IntentBinder}s.
+ *
+ * Common cases, such as a numeric string for an {@code int} parameter, are converted
+ * directly. Everything else goes through {@link JsonUtils#convertValue(Object, Class)},
+ * like reflective invocation, so a generated binder accepts and rejects the same values.
+ */
+public final class Binders {
+
+    private Binders() {
+    }
+
+    public static String toStringValue(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return String.valueOf(value);
+        }
+        return JsonUtils.convertValue(value, String.class);
+    }
+
+    public static Integer toInteger(Object value) {
+        if (value == null || value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof String text) {
+            try {
+                return Integer.valueOf(text);
+            } catch (NumberFormatException e) {
+                // Jackson also accepts forms such as "1.0" or " 1"
+            }
+        } else if (value instanceof Long || value instanceof Short || value instanceof Byte) {
+            long number = ((Number) value).longValue();
+            if (number == (int) number) {
+                return (int) number;
+            }
+        }
+        return JsonUtils.convertValue(value, Integer.class);
+    }
+
+    public static Long toLong(Object value) {
+        if (value == null || value instanceof Long) {
+            return (Long) value;
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.valueOf(text);
+            } catch (NumberFormatException e) {
+                // Jackson also accepts forms such as "1.0" or " 1"
+            }
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        return JsonUtils.convertValue(value, Long.class);
+    }
+
+    public static Double toDouble(Object value) {
+        if (value == null || value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.valueOf(text);
+            } catch (NumberFormatException e) {
+                // Jackson decides, and reports the error
+            }
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Float
+                || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).doubleValue();
+        }
+        return JsonUtils.convertValue(value, Double.class);
+    }
+
+    public static Boolean toBoolean(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if ("true".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(value)) {
+            return Boolean.FALSE;
+        }
+        return JsonUtils.convertValue(value, Boolean.class);
+    }
+
+    public static <E extends Enum<E>> E toEnum(Object value, Class<E> type) {
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (value instanceof String name) {
+            try {
+                return Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                // Jackson decides, and reports the error
+            }
+        }
+        return JsonUtils.convertValue(value, type);
+    }
+
+    /**
+     * Converts a value of a type without a direct conversion.
+     */
+    public static <T> T convert(Object value, Class<T> type) {
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        return JsonUtils.convertValue(value, type);
+    }
+
+    /**
+     * Checks the value for a primitive parameter.
+     *
+     * @throws IllegalArgumentException if the value is null
+     */
+    public static <T> T notNull(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(
+                String.format("Parameter '%s' is missing and has a primitive type", name));
+        }
+        return value;
+    }
+}
@@ -3,13 +3,17 @@ package horizon.core.conductor;
 import horizon.core.annotation.*;
 import horizon.core.parameter.ParameterHelper;
 import horizon.core.parameter.ParameterInfo;
+import horizon.core.parameter.ParameterLookup;
 import horizon.core.parameter.ParameterSource;
 import horizon.core.util.JsonUtils;
 import horizon.core.util.NamingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -18,19 +22,70 @@ import java.util.Objects;
 /**
  * Represents a method within a Conductor that handles specific intent.
  * Supports both protocol-neutral @Param and legacy HTTP-specific annotations.
+ *
+ * Methods with an {@link IntentBinder} generated at compile time are invoked through it;
+ * the others are invoked by reflection.
  */
 public class ConductorMethod {
+    private static final Logger logger = LoggerFactory.getLogger(ConductorMethod.class);
+
     private final Object instance;
     private final Method method;
     private final String intent;
     private final List<ParameterInfo> parameters;
+    private final ParameterInfo orderingParameter;
+    private final String orderingGroup;
+    private final Priority priority;
+    private final Duration timeout;
+    private final IntentBinder binder;
 
     public ConductorMethod(Object instance, Method method, String intent) {
         this.instance = instance;
         this.method = method;
         this.intent = intent;
         this.method.setAccessible(true);
+        this.binder = findBinder(method);
         this.parameters = analyzeParameters();
+        this.orderingParameter = findOrderingParameter();
+        this.orderingGroup = orderingGroup();
+        this.priority = priority();
+        this.timeout = timeout();
+    }
+
+    /**
+     * Creates a conductor method whose parameters are described explicitly
+     * rather than analyzed from the method signature.
+     */
+    protected ConductorMethod(Object instance, Method method, String intent, List<ParameterInfo> parameters) {
+        this.instance = instance;
+        this.method = method;
+        this.intent = intent;
+        this.method.setAccessible(true);
+        this.binder = null;
+        this.parameters = parameters;
+        this.orderingParameter = findOrderingParameter();
+        this.orderingGroup = orderingGroup();
+        this.priority = priority();
+        this.timeout = timeout();
+    }
+
+    /**
+     * Finds the binder generated for a method, named {@code <Conductor>_<method>Binder}.
+     *
+     * @return the binder, or null if none was generated
+     */
+    private static IntentBinder findBinder(Method method) {
+        Class<?> conductor = method.getDeclaringClass();
+        String name = conductor.getName().replace('$', '_') + "_" + method.getName() + "Binder";
+        try {
+            Class<?> binderClass = Class.forName(name, true, conductor.getClassLoader());
+            return (IntentBinder) binderClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            logger.warn("Ignoring binder {} of {}: {}", name, method, e.toString());
+            return null;
+        }
     }
 
     /**
@@ -53,266 +108,131 @@ public class ConductorMethod {
     }
 
     /**
-     * Invokes this conductor method with proper parameter resolution.
+     * Finds the parameter marked with @OrderingKey, if any.
      */
-    public Object invoke(Object payload) throws Exception {
-        if (parameters.isEmpty()) {
-            return method.invoke(instance);
-        }
-
-        // Convert payload to context map
-        Map<String, Object> context;
-        if (payload instanceof Map) {
-            context = (Map<String, Object>) payload;
-        } else {
-            context = Map.of("body", payload);
-        }
-
-        Object[] args = new Object[parameters.size()];
-
-        for (ParameterInfo paramInfo : parameters) {
-            args[paramInfo.getIndex()] = resolveParameter(paramInfo, context);
+    private ParameterInfo findOrderingParameter() {
+        Parameter[] params = method.getParameters();
+        for (ParameterInfo info : parameters) {
+            if (info.getIndex() < params.length && params[info.getIndex()].isAnnotationPresent(OrderingKey.class)) {
+                return info;
+            }
         }
-
-        return method.invoke(instance, args);
+        return null;
     }
 
-    /**
-     * Resolves a single parameter from the context.
-     * Uses protocol-neutral resolution.
-     */
-    private Object resolveParameter(ParameterInfo info, Map<String, Object> context) throws Exception {
-        Object value = null;
-
-        // Protocol-neutral parameter resolution
-        value = resolveProtocolNeutralParameter(info, context);
-
-        // Validate required parameters
-        if (value == null && info.isRequired()) {
-            throw new IllegalArgumentException(
-                String.format("Required parameter '%s' is missing", info.getName())
-            );
-        }
-
-        // Apply default value if needed
-        if (value == null && info.getDefaultValue() != null) {
-            value = info.getDefaultValue();
-        }
-
-        // Convert to target type
-        if (value != null && !info.getType().isAssignableFrom(value.getClass())) {
-            value = JsonUtils.convertValue(value, info.getType());
+    private String orderingGroup() {
+        if (orderingParameter == null) {
+            return null;
         }
+        String group = method.getParameters()[orderingParameter.getIndex()].getAnnotation(OrderingKey.class).group();
+        return group.isEmpty() ? method.getDeclaringClass().getName() : group;
+    }
 
-        return value;
+    private Priority priority() {
+        Intent annotation = method.getAnnotation(Intent.class);
+        return annotation != null ? annotation.priority() : Priority.NORMAL;
     }
 
-    /**
-     * Protocol-neutral parameter resolution.
-     * Searches for parameters across all possible locations.
-     */
-    private Object resolveProtocolNeutralParameter(ParameterInfo info, Map<String, Object> context) {
-        String paramName = info.getName();
-        String[] hints = info.getHints();
-
-        // 1. If hints are provided, search in hinted areas first
-        if (hints != null && hints.length > 0) {
-            for (String hint : hints) {
-                Object value = searchInHintArea(hint, paramName, context);
-                if (value != null) return value;
-            }
+    private Duration timeout() {
+        Intent annotation = method.getAnnotation(Intent.class);
+        if (annotation != null) {
+            return annotation.timeout() > 0 ? Duration.ofMillis(annotation.timeout()) : null;
         }
-
-        // 2. Perform smart search across all areas
-        return smartParameterSearch(paramName, context);
+        BatchIntent batch = method.getAnnotation(BatchIntent.class);
+        return batch != null && batch.timeout() > 0 ? Duration.ofMillis(batch.timeout()) : null;
     }
 
     /**
-     * Searches for parameter in a specific hint area.
+     * Gets how invocations of this method are treated under overload.
      */
-    private Object searchInHintArea(String hint, String paramName, Map<String, Object> context) {
-        switch (hint.toLowerCase()) {
-            case "path":
-                return context.get("path." + paramName);
-            case "query":
-                return context.get("query." + paramName);
-            case "header":
-                return context.get("header." + paramName);
-            case "body":
-                Object body = context.get("body");
-                if (body instanceof Map) {
-                    return findInMap((Map<String, Object>) body, paramName);
-                }
-                return null;
-            default:
-                // Try direct access for custom hints
-                return context.get(hint + "." + paramName);
-        }
+    public Priority getPriority() {
+        return priority;
     }
 
     /**
-     * Smart parameter search across all possible locations.
+     * Gets the default timeout of invocations of this method.
+     *
+     * @return the timeout, or null if invocations are not limited
      */
-    private Object smartParameterSearch(String paramName, Map<String, Object> context) {
-        // 1. Direct search in common locations
-        Object value = directSearch(paramName, context);
-        if (value != null) return value;
-
-        // 2. Search with name variants
-        value = variantSearch(paramName, context);
-        if (value != null) return value;
-
-        // 3. Deep search in nested structures
-        value = deepSearch(paramName, context);
-
-        return value;
+    public Duration getTimeout() {
+        return timeout;
     }
 
     /**
-     * Direct search in standard locations.
+     * Checks whether invocations of this method are ordered by an @OrderingKey parameter.
      */
-    private Object directSearch(String paramName, Map<String, Object> context) {
-        // Check all standard locations
-        String[] searchPaths = {
-            paramName,                    // Top level
-            "path." + paramName,         // HTTP path
-            "query." + paramName,        // HTTP query
-            "header." + paramName,       // Headers
-            "body." + paramName,         // Request body
-            "data." + paramName,         // WebSocket data
-            "payload." + paramName,      // Generic payload
-            "params." + paramName,       // Generic params
-        };
-
-        for (String path : searchPaths) {
-            Object value = context.get(path);
-            if (value != null) return value;
-        }
-
-        return null;
+    public boolean isOrdered() {
+        return orderingParameter != null;
     }
 
     /**
-     * Search with naming convention variants.
+     * Resolves the ordering key of an invocation.
+     * Invocations with equal keys must run one at a time, in arrival order.
+     *
+     * @param payload the invocation payload
+     * @return the ordering key, or null if this invocation is not ordered
      */
-    private Object variantSearch(String paramName, Map<String, Object> context) {
-        List<String> variants = generateNameVariants(paramName);
-
-        for (String variant : variants) {
-            Object value = directSearch(variant, context);
-            if (value != null) return value;
+    public Object getOrderingKey(Object payload) {
+        if (orderingParameter == null) {
+            return null;
         }
-
-        return null;
+        Object value;
+        try {
+            value = ParameterLookup.find(orderingParameter.getName(), orderingParameter.getHints(), toContext(payload));
+        } catch (RuntimeException e) {
+            // Resolution errors are reported by invoke; such an invocation is simply not ordered
+            return null;
+        }
+        return value != null ? List.of(orderingGroup, value) : null;
     }
 
     /**
-     * Generates name variants for flexible matching.
+     * Invokes this conductor method with proper parameter resolution.
      */
-    private List<String> generateNameVariants(String name) {
-        List<String> variants = new ArrayList<>();
-
-        // camelCase to snake_case
-        String snakeCase = toSnakeCase(name);
-        if (!snakeCase.equals(name)) {
-            variants.add(snakeCase);
+    public Object invoke(Object payload) throws Exception {
+        if (binder != null) {
+            return binder.invoke(instance, toContext(payload));
         }
-
-        // camelCase to kebab-case
-        String kebabCase = toKebabCase(name);
-        if (!kebabCase.equals(name)) {
-            variants.add(kebabCase);
+        if (parameters.isEmpty()) {
+            return method.invoke(instance);
         }
 
-        // Common abbreviations
-        if (name.endsWith("Id")) {
-            variants.add(name.substring(0, name.length() - 2));  // userId -> user
-            variants.add("id");                                   // userId -> id
-        }
+        Map<String, Object> context = toContext(payload);
 
-        // Plural handling
-        if (name.endsWith("s") && name.length() > 1) {
-            variants.add(name.substring(0, name.length() - 1));  // users -> user
-        } else {
-            variants.add(name + "s");                            // user -> users
-        }
+        Object[] args = new Object[parameters.size()];
 
-        // Common field name mappings
-        if (name.equals("userId")) {
-            variants.add("user_id");
-            variants.add("uid");
+        for (ParameterInfo paramInfo : parameters) {
+            args[paramInfo.getIndex()] = resolveParameter(paramInfo, context);
         }
 
-        return variants;
+        return method.invoke(instance, args);
     }
 
     /**
-     * Deep search in nested structures.
+     * Converts a payload to the context map used for parameter resolution.
      */
-    private Object deepSearch(String paramName, Map<String, Object> context) {
-        // Search in body
-        Object body = context.get("body");
-        if (body instanceof Map) {
-            Object value = findInMap((Map<String, Object>) body, paramName);
-            if (value != null) return value;
-        }
-
-        // Search in data (WebSocket)
-        Object data = context.get("data");
-        if (data instanceof Map) {
-            Object value = findInMap((Map<String, Object>) data, paramName);
-            if (value != null) return value;
-        }
-
-        // Search in payload
-        Object payload = context.get("payload");
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> toContext(Object payload) {
         if (payload instanceof Map) {
-            Object value = findInMap((Map<String, Object>) payload, paramName);
-            if (value != null) return value;
+            return (Map<String, Object>) payload;
         }
-
-        // Search in any Map values at top level
-        for (Map.Entry<String, Object> entry : context.entrySet()) {
-            if (entry.getValue() instanceof Map && 
-                !entry.getKey().startsWith("_")) {  // Skip metadata
-                Object value = findInMap((Map<String, Object>) entry.getValue(), paramName);
-                if (value != null) return value;
-            }
-        }
-
-        return null;
+        return Map.of("body", payload);
     }
 
     /**
-     * Finds a parameter in a map with variant support.
+     * Resolves a single parameter from the context.
+     * Uses protocol-neutral resolution.
      */
-    private Object findInMap(Map<String, Object> map, String paramName) {
-        // Direct match
-        Object value = map.get(paramName);
-        if (value != null) return value;
-
-        // Try variants
-        for (String variant : generateNameVariants(paramName)) {
-            value = map.get(variant);
-            if (value != null) return value;
-        }
+    protected Object resolveParameter(ParameterInfo info, Map<String, Object> context) throws Exception {
+        Object value = ParameterLookup.resolve(context, info.getName(), info.getHints(),
+            info.isRequired(), info.getDefaultValue());
 
-        return null;
-    }
-
-
-    /**
-     * Converts a string to snake_case.
-     */
-    private String toSnakeCase(String camelCase) {
-        return camelCase.replaceAll("([a-z])([A-Z]+)", "$1_$2").toLowerCase();
-    }
+        // Convert to target type
+        if (value != null && !info.getType().isAssignableFrom(value.getClass())) {
+            value = JsonUtils.convertValue(value, info.getType());
+        }
 
-    /**
-     * Converts a string to kebab-case.
-     */
-    private String toKebabCase(String camelCase) {
-        return camelCase.replaceAll("([a-z])([A-Z]+)", "$1-$2").toLowerCase();
+        return value;
     }
 
     // Getters
@@ -320,10 +240,21 @@ public class ConductorMethod {
         return intent;
     }
 
+    protected Object getInstance() {
+        return instance;
+    }
+
     public Method getMethod() {
         return method;
     }
 
+    /**
+     * Checks whether this method is invoked through a generated binder rather than by reflection.
+     */
+    public boolean hasBinder() {
+        return binder != null;
+    }
+
     public List<ParameterInfo> getParameters() {
         return parameters;
     }
@@ -6,7 +6,12 @@ import java.util.Map;
 /**
  * Cache for ConductorMethod metadata to improve performance.
  * Reduces reflection overhead by caching method analysis results.
+ *
+ * @deprecated The cache is shared by every aggregator in the JVM and is no longer filled.
+ *             Use {@link horizon.core.ProtocolAggregator#getRegistrySnapshot()}, which holds
+ *             the conductor methods of one aggregator.
  */
+@Deprecated(forRemoval = true)
 public class ConductorMethodCache {
     private static final ConductorMethodCache INSTANCE = new ConductorMethodCache();
     
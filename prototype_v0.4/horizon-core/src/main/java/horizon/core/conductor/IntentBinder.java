@@ -0,0 +1,26 @@
+package horizon.core.conductor;
+
+import java.util.Map;
+
+/**
+ * Binds the parameters of one conductor method and invokes it without reflection.
+ *
+ * Binders are generated at compile time by {@link IntentBinderProcessor}, one per
+ * {@link horizon.core.annotation.Intent} method, as {@code <Conductor>_<method>Binder}
+ * in the conductor's package. A {@link ConductorMethod} uses its method's binder when
+ * one exists and falls back to reflection otherwise.
+ */
+public interface IntentBinder {
+
+    /**
+     * Resolves the method's parameters from the context and invokes it.
+     *
+     * @param conductor the conductor instance
+     * @param context the invocation context, as built by {@link ConductorMethod}
+     * @return the method's result, or null for void methods
+     * @throws IllegalArgumentException if a parameter is missing or cannot be converted
+     * @throws java.lang.reflect.InvocationTargetException if the method itself throws,
+     *         the same way reflective invocation reports it
+     */
+    Object invoke(Object conductor, Map<String, Object> context) throws Exception;
+}
@@ -0,0 +1,531 @@
+package horizon.core.conductor;
+
+import horizon.core.annotation.BatchIntent;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.Param;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates an {@link IntentBinder} for each {@link Intent} method
+ * of a {@link Conductor}.
+ *
+ * The generated binder looks up every parameter with {@link horizon.core.parameter.ParameterLookup},
+ * converts it with {@link Binders} and calls the conductor directly. Simple DTOs, public classes
+ * whose properties are all set through setters of scalar or enum type and that carry no Jackson
+ * annotations, are filled by a generated mapper. Methods the processor cannot bind, such as
+ * private or overloaded ones, keep being invoked by reflection.
+ *
+ * Enabled together with {@link horizon.core.scanner.ConductorIndexProcessor} by putting
+ * horizon-core on a module's annotation processor path.
+ */
+@SupportedAnnotationTypes("horizon.core.annotation.Intent")
+public class IntentBinderProcessor extends AbstractProcessor {
+    private static final Set<String> RESERVED_NAMES = Set.of("conductor", "context", "failure");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<ExecutableElement>> intentMethods = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Intent.class)) {
+            if (element.getKind() == ElementKind.METHOD
+                    && element.getEnclosingElement().getAnnotation(Conductor.class) != null) {
+                intentMethods.computeIfAbsent((TypeElement) element.getEnclosingElement(), type -> new ArrayList<>())
+                    .add((ExecutableElement) element);
+            }
+        }
+
+        intentMethods.forEach((conductor, methods) -> {
+            Map<String, Integer> nameCounts = new HashMap<>();
+            methods.forEach(method -> nameCounts.merge(method.getSimpleName().toString(), 1, Integer::sum));
+            for (ExecutableElement method : methods) {
+                // Binders are found by method name, which must be unambiguous
+                String reason = nameCounts.get(method.getSimpleName().toString()) > 1
+                    ? "overloaded intent method" : unsupported(conductor, method);
+                if (reason != null) {
+                    note(method, "No binder generated, invoked by reflection: " + reason);
+                    continue;
+                }
+                writeBinder(conductor, method);
+            }
+        });
+        return false;
+    }
+
+    /**
+     * Checks whether a binder can call a method directly.
+     *
+     * @return why it cannot, or null if it can
+     */
+    private String unsupported(TypeElement conductor, ExecutableElement method) {
+        String packageName = packageOf(conductor);
+        if (!isAccessible(conductor, packageName) || !conductor.getTypeParameters().isEmpty()) {
+            return "conductor class is private or generic";
+        }
+        if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)
+                || !method.getTypeParameters().isEmpty() || method.getAnnotation(BatchIntent.class) != null) {
+            return "method is private, static, generic or a batch intent";
+        }
+        for (VariableElement parameter : method.getParameters()) {
+            if (!isAccessible(parameter.asType(), packageName)) {
+                return "type of parameter " + parameter.getSimpleName() + " is not accessible";
+            }
+            // Unannotated scalars are looked up by their compiled name, which depends on -parameters
+            if (parameter.getAnnotation(Param.class) == null && isScalar(parameter.asType())) {
+                return "parameter " + parameter.getSimpleName() + " has no @Param";
+            }
+        }
+        return null;
+    }
+
+    private void writeBinder(TypeElement conductor, ExecutableElement method) {
+        String packageName = packageOf(conductor);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(conductor).toString();
+        String simpleBinaryName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        String binderName = simpleBinaryName.replace('$', '_') + "_" + method.getSimpleName() + "Binder";
+
+        BinderSource source = new BinderSource(packageName);
+        List<String> arguments = new ArrayList<>();
+        List<String> statements = new ArrayList<>();
+        Set<String> locals = new HashSet<>();
+        for (VariableElement parameter : method.getParameters()) {
+            String local = uniqueName(parameter.getSimpleName().toString(), locals);
+            String raw = uniqueName(local + "Value", locals);
+            arguments.add(local);
+
+            Param param = parameter.getAnnotation(Param.class);
+            String lookup;
+            if (param != null) {
+                lookup = "ParameterLookup.resolve(context, " + literal(param.value()) + ", "
+                    + source.hints(local, param.hints()) + ", " + param.required() + ", "
+                    + (param.defaultValue().isEmpty() ? "null" : literal(param.defaultValue())) + ")";
+            } else {
+                // Unannotated objects are the request body
+                lookup = "ParameterLookup.resolve(context, \"body\", " + source.hints(local, new String[]{"body"})
+                    + ", false, null)";
+            }
+            String name = param != null ? param.value() : "body";
+            statements.add("Object " + raw + " = " + lookup + ";");
+            statements.add(parameter.asType() + " " + local + " = " + source.conversion(parameter.asType(), raw, name)
+                + ";");
+        }
+
+        String call = "((" + conductor.getQualifiedName() + ") conductor)." + method.getSimpleName()
+            + "(" + String.join(", ", arguments) + ")";
+        boolean isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+
+        StringBuilder out = new StringBuilder();
+        out.append("// Generated by ").append(getClass().getName()).append(", do not edit\n");
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import horizon.core.conductor.Binders;\n");
+        out.append("import horizon.core.conductor.IntentBinder;\n");
+        out.append("import horizon.core.parameter.ParameterLookup;\n\n");
+        out.append("import java.lang.reflect.InvocationTargetException;\n");
+        out.append("import java.util.Map;\n");
+        out.append("import javax.annotation.processing.Generated;\n\n");
+        out.append("/**\n * Binds the parameters of {@link ").append(conductor.getQualifiedName()).append('#')
+            .append(method.getSimpleName()).append("} and invokes it.\n */\n");
+        out.append("@Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("public final class ").append(binderName).append(" implements IntentBinder {\n");
+        source.fields.forEach(field -> out.append("    ").append(field).append('\n'));
+        out.append('\n');
+        out.append("    @Override\n");
+        if (source.unchecked) {
+            out.append("    @SuppressWarnings(\"unchecked\")\n");
+        }
+        out.append("    public Object invoke(Object conductor, Map<String, Object> context) throws Exception {\n");
+        statements.forEach(statement -> out.append("        ").append(statement).append('\n'));
+        out.append("        try {\n");
+        out.append("            ").append(isVoid ? "" : "return ").append(call).append(";\n");
+        out.append("        } catch (Throwable failure) {\n");
+        out.append("            // Reported like a reflective call, so conductor failures are not taken for bad input\n");
+        out.append("            throw new InvocationTargetException(failure);\n");
+        out.append("        }\n");
+        if (isVoid) {
+            out.append("        return null;\n");
+        }
+        out.append("    }\n");
+        source.mappers.forEach(mapper -> out.append('\n').append(mapper));
+        out.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, conductor).openWriter()) {
+            writer.write(out.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to write " + qualifiedName + ": " + e.getMessage(), method);
+        }
+    }
+
+    private static String uniqueName(String name, Set<String> taken) {
+        while (RESERVED_NAMES.contains(name) || !taken.add(name)) {
+            name = name + "_";
+        }
+        return name;
+    }
+
+    /**
+     * Fields, DTO mappers and conversions of one binder being generated.
+     */
+    private class BinderSource {
+        final String packageName;
+        final List<String> fields = new ArrayList<>();
+        final List<String> mappers = new ArrayList<>();
+        final Map<String, String> mapperNames = new HashMap<>();
+        boolean unchecked;
+
+        BinderSource(String packageName) {
+            this.packageName = packageName;
+        }
+
+        String hints(String local, String[] hints) {
+            if (hints.length == 0) {
+                return "ParameterLookup.NO_HINTS";
+            }
+            String field = local.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_HINTS";
+            List<String> literals = new ArrayList<>();
+            for (String hint : hints) {
+                literals.add(literal(hint));
+            }
+            fields.add("private static final String[] " + field + " = {" + String.join(", ", literals) + "};");
+            return field;
+        }
+
+        /**
+         * Gets the expression converting a raw value to a parameter type.
+         */
+        String conversion(TypeMirror type, String value, String name) {
+            String scalar = scalarConversion(type, value);
+            if (scalar != null) {
+                return type.getKind().isPrimitive() ? "Binders.notNull(" + scalar + ", " + literal(name) + ")" : scalar;
+            }
+            TypeElement element = asTypeElement(type);
+            if (element != null && isSimpleDto(element, packageName)) {
+                return mapper(element) + "(" + value + ")";
+            }
+            TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+            if (type.getKind().isPrimitive()) {
+                String boxed = processingEnv.getTypeUtils().boxedClass((PrimitiveType) type)
+                    .getQualifiedName().toString();
+                return "Binders.notNull(Binders.convert(" + value + ", " + boxed + ".class), " + literal(name) + ")";
+            }
+            String conversion = "Binders.convert(" + value + ", " + erasure + ".class)";
+            if (!processingEnv.getTypeUtils().isSameType(type, erasure)) {
+                unchecked = true;
+                return "(" + type + ") " + conversion;
+            }
+            return conversion;
+        }
+
+        /**
+         * Gets the mapper method of a DTO, generating it on first use.
+         */
+        String mapper(TypeElement dto) {
+            String qualifiedName = dto.getQualifiedName().toString();
+            String existing = mapperNames.get(qualifiedName);
+            if (existing != null) {
+                return existing;
+            }
+            String methodName = "to" + dto.getSimpleName();
+            while (mapperNames.containsValue(methodName)) {
+                methodName = methodName + "_";
+            }
+            mapperNames.put(qualifiedName, methodName);
+
+            StringBuilder mapper = new StringBuilder();
+            mapper.append("    private static ").append(qualifiedName).append(' ').append(methodName)
+                .append("(Object value) {\n");
+            mapper.append("        if (!(value instanceof Map<?, ?> properties)) {\n");
+            mapper.append("            return Binders.convert(value, ").append(qualifiedName).append(".class);\n");
+            mapper.append("        }\n");
+            mapper.append("        ").append(qualifiedName).append(" dto = new ").append(qualifiedName).append("();\n");
+            mapper.append("        for (Map.Entry<?, ?> property : properties.entrySet()) {\n");
+            mapper.append("            switch (String.valueOf(property.getKey())) {\n");
+            for (ExecutableElement setter : setters(dto)) {
+                TypeMirror type = setter.getParameters().get(0).asType();
+                String conversion = scalarConversion(type, "property.getValue()");
+                if (type.getKind().isPrimitive()) {
+                    // Like Jackson, null sets a primitive property to its default
+                    conversion = "property.getValue() == null ? " + defaultValue(type) + " : " + conversion;
+                }
+                mapper.append("                case ").append(literal(propertyName(setter))).append(" -> dto.")
+                    .append(setter.getSimpleName()).append('(').append(conversion).append(");\n");
+            }
+            mapper.append("                default -> {\n");
+            mapper.append("                    // Jackson decides about unknown properties\n");
+            mapper.append("                    return Binders.convert(value, ").append(qualifiedName).append(".class);\n");
+            mapper.append("                }\n");
+            mapper.append("            }\n");
+            mapper.append("        }\n");
+            mapper.append("        return dto;\n");
+            mapper.append("    }\n");
+            mappers.add(mapper.toString());
+            return methodName;
+        }
+    }
+
+    /**
+     * Gets the conversion of a raw value to a string, number, boolean or enum type.
+     *
+     * @return the expression, or null if the type is none of those
+     */
+    private String scalarConversion(TypeMirror type, String value) {
+        switch (type.getKind()) {
+            case INT:
+                return "Binders.toInteger(" + value + ")";
+            case LONG:
+                return "Binders.toLong(" + value + ")";
+            case DOUBLE:
+                return "Binders.toDouble(" + value + ")";
+            case BOOLEAN:
+                return "Binders.toBoolean(" + value + ")";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        TypeElement element = asTypeElement(type);
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return "Binders.toStringValue(" + value + ")";
+            case "java.lang.Integer":
+                return "Binders.toInteger(" + value + ")";
+            case "java.lang.Long":
+                return "Binders.toLong(" + value + ")";
+            case "java.lang.Double":
+                return "Binders.toDouble(" + value + ")";
+            case "java.lang.Boolean":
+                return "Binders.toBoolean(" + value + ")";
+            default:
+                break;
+        }
+        if (element.getKind() == ElementKind.ENUM && !hasJacksonAnnotations(element)) {
+            return "Binders.toEnum(" + value + ", " + element.getQualifiedName() + ".class)";
+        }
+        return null;
+    }
+
+    private static String defaultValue(TypeMirror primitive) {
+        switch (primitive.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case LONG:
+                return "0L";
+            case DOUBLE:
+                return "0.0";
+            default:
+                return "0";
+        }
+    }
+
+    /**
+     * Checks whether a class can be filled by a generated mapper: a public, concrete, non-generic
+     * class with a public no-argument constructor, no public fields and no Jackson annotations,
+     * whose properties are all set through public void setters of a string, number, boolean or enum type.
+     */
+    private boolean isSimpleDto(TypeElement type, String packageName) {
+        if (type.getKind() != ElementKind.CLASS || !type.getModifiers().contains(Modifier.PUBLIC)
+                || type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()
+                || (type.getNestingKind() != NestingKind.TOP_LEVEL && !type.getModifiers().contains(Modifier.STATIC))
+                || !isAccessible(type, packageName) || hasJacksonAnnotations(type)) {
+            return false;
+        }
+        if (!"java.lang.Object".equals(type.getSuperclass().toString())) {
+            return false;
+        }
+        boolean defaultConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                defaultConstructor = true;
+            }
+        }
+        if (!defaultConstructor) {
+            return false;
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.PUBLIC) && !field.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+
+        Set<String> properties = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!isSetter(method)) {
+                continue;
+            }
+            // Jackson also uses non-public setters, so those are left to it
+            TypeMirror propertyType = method.getParameters().get(0).asType();
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getReturnType().getKind() != TypeKind.VOID
+                    || scalarConversion(propertyType, "value") == null || !isAccessible(propertyType, packageName)
+                    || !properties.add(propertyName(method))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<ExecutableElement> setters(TypeElement type) {
+        List<ExecutableElement> setters = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (isSetter(method)) {
+                setters.add(method);
+            }
+        }
+        return setters;
+    }
+
+    private static boolean isSetter(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        return name.length() > 3 && name.startsWith("set") && method.getParameters().size() == 1
+            && !method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    /**
+     * Gets the property name Jackson uses for a setter: {@code setUserId} sets {@code userId},
+     * {@code setURL} sets {@code url}.
+     */
+    private static String propertyName(ExecutableElement setter) {
+        char[] name = setter.getSimpleName().toString().substring(3).toCharArray();
+        for (int i = 0; i < name.length && Character.isUpperCase(name[i]); i++) {
+            name[i] = Character.toLowerCase(name[i]);
+        }
+        return new String(name);
+    }
+
+    private static boolean hasJacksonAnnotations(TypeElement type) {
+        if (hasJacksonAnnotation(type)) {
+            return true;
+        }
+        for (Element member : type.getEnclosedElements()) {
+            if (hasJacksonAnnotation(member)) {
+                return true;
+            }
+            if (member instanceof ExecutableElement executable) {
+                for (VariableElement parameter : executable.getParameters()) {
+                    if (hasJacksonAnnotation(parameter)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJacksonAnnotation(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().startsWith("com.fasterxml.jackson.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isScalar(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        TypeElement element = asTypeElement(type);
+        if (element == null) {
+            return false;
+        }
+        if (element.getQualifiedName().contentEquals("java.lang.String")) {
+            return true;
+        }
+        try {
+            processingEnv.getTypeUtils().unboxedType(type);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a binder generated in a package can name a type.
+     */
+    private boolean isAccessible(TypeMirror type, String packageName) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return isAccessible(((ArrayType) type).getComponentType(), packageName);
+            case DECLARED:
+                if (!isAccessible((TypeElement) ((DeclaredType) type).asElement(), packageName)) {
+                    return false;
+                }
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    if (!isAccessible(argument, packageName)) {
+                        return false;
+                    }
+                }
+                return true;
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                return (wildcard.getExtendsBound() == null || isAccessible(wildcard.getExtendsBound(), packageName))
+                    && (wildcard.getSuperBound() == null || isAccessible(wildcard.getSuperBound(), packageName));
+            default:
+                return type.getKind().isPrimitive();
+        }
+    }
+
+    private boolean isAccessible(TypeElement type, String packageName) {
+        boolean samePackage = packageOf(type).equals(packageName);
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!samePackage && !modifiers.contains(Modifier.PUBLIC))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TypeElement asTypeElement(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) type).asElement() : null;
+    }
+
+    private String packageOf(TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
@@ -0,0 +1,14 @@
+package horizon.core.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request fails fast because the circuit breaker of its intent is open.
+ * It is an overload, so protocols report it the same way, such as HTTP 503 with {@code Retry-After}.
+ */
+public class CircuitOpenException extends OverloadException {
+
+    public CircuitOpenException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
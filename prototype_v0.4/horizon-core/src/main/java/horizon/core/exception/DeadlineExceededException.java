@@ -0,0 +1,12 @@
+package horizon.core.exception;
+
+/**
+ * Exception reported when a request's deadline passes before its conductor method completes.
+ * Protocols report it as a timeout, such as HTTP 504.
+ */
+public class DeadlineExceededException extends HorizonException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
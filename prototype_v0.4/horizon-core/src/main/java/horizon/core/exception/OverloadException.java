@@ -0,0 +1,23 @@
+package horizon.core.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is shed because its intent is at its concurrency limit.
+ * Protocols report it as a retryable overload, such as HTTP 503 with {@code Retry-After}.
+ */
+public class OverloadException extends HorizonException {
+    private final Duration retryAfter;
+
+    public OverloadException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets how long the client should wait before retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,23 @@
+package horizon.core.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request exceeds a {@link horizon.core.annotation.RateLimit}.
+ * Protocols report it as a rate-limited request, such as HTTP 429 with {@code Retry-After}.
+ */
+public class RateLimitException extends HorizonException {
+    private final Duration retryAfter;
+
+    public RateLimitException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets how long the client should wait before the request would be allowed.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,177 @@
+package horizon.core.execution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to measured latency, using a gradient algorithm.
+ *
+ * Two moving averages of latency are kept: a short one that follows current conditions
+ * and a long one that approximates latency without queueing. While the short average stays
+ * close to the long one, the limit grows by roughly its square root per sample; once requests
+ * start to queue and the short average rises, the ratio of the two shrinks the limit.
+ * While less than half of the limit is in use the limit does not grow, and instead decays
+ * slowly toward twice the concurrency in use, so a limit reached in a past burst does not
+ * admit the next burst unchecked.
+ *
+ * Acquiring is lock-free; only callers that wait for a slot take a lock.
+ */
+public class AdaptiveLimiter {
+    private static final double SHORT_SMOOTHING = 2.0 / (10 + 1);
+    private static final double LONG_SMOOTHING = 2.0 / (600 + 1);
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double LIMIT_DECAY = 0.01;
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private volatile double limit;
+
+    // Guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit the limit before any latency has been measured
+     * @param minLimit the lowest the limit can go
+     * @param maxLimit the highest the limit can go
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                "Limits must satisfy 1 <= min <= initial <= max: " + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Gets the current limit.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of acquired slots.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Takes a slot if one is free.
+     *
+     * @return true if a slot was taken
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Takes a slot, waiting up to the given time for one to free up.
+     *
+     * @param maxWaitNanos the longest to wait
+     * @param maxWaiting how many callers may wait at once; further callers fail immediately
+     * @return true if a slot was taken
+     */
+    public boolean acquire(long maxWaitNanos, int maxWaiting) throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        if (maxWaitNanos <= 0) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (!tryAcquire()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = available.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            waiting.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot regardless of the limit, for requests that must never be shed.
+     */
+    public void acquireUnlimited() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Returns a slot and records the latency of the request that held it.
+     *
+     * @param rttNanos the request's latency, or a negative value to skip the sample,
+     *                 for example when the request failed
+     */
+    public void release(long rttNanos) {
+        int heldInFlight = inFlight.getAndDecrement();
+        if (rttNanos >= 0) {
+            sample(rttNanos, heldInFlight);
+        }
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private synchronized void sample(long rttNanos, int heldInFlight) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_SMOOTHING;
+        longRtt += (rtt - longRtt) * LONG_SMOOTHING;
+
+        // After a lasting improvement the long average would lag for minutes; let it catch up
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        if (heldInFlight < current / 2) {
+            double floor = Math.max(minLimit, 2.0 * heldInFlight);
+            limit = current - (current - floor) * LIMIT_DECAY;
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
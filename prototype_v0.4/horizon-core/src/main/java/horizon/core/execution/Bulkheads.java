@@ -0,0 +1,165 @@
+package horizon.core.execution;
+
+import horizon.core.annotation.Bulkhead;
+import horizon.core.annotation.Conductor;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.OverloadException;
+import horizon.core.metrics.MetricsCollector;
+
+import java.lang.reflect.AnnotatedElement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkheads of the conductors of an aggregator, configured by {@link Bulkhead}.
+ *
+ * A bulkhead on a conductor class is one set of slots shared by all of its intents;
+ * one on a method belongs to that intent. Requests that find no free slot are shed
+ * and counted in {@code bulkhead.rejected.<name>}.
+ */
+public class Bulkheads {
+    private static final Compartment[] NONE = new Compartment[0];
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Map<String, Compartment[]> intentCompartments = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Compartment[]> conductorCompartments = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables bulkheads for all intents.
+     * Invocations holding slots when they are disabled still return them.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Takes a slot from every bulkhead of a conductor method.
+     *
+     * @param method the method about to be invoked
+     * @param mayWait false if the calling thread must not block waiting for a slot
+     * @return the slots to pass to {@link #release(Compartment[])}, or null if there are none
+     * @throws OverloadException if a bulkhead has no free slot
+     */
+    public Compartment[] acquire(ConductorMethod method, boolean mayWait) {
+        if (!enabled) {
+            return null;
+        }
+        Compartment[] compartments = intentCompartments.get(method.getIntent());
+        if (compartments == null) {
+            compartments = intentCompartments.computeIfAbsent(method.getIntent(), intent -> compartmentsOf(method));
+        }
+        if (compartments.length == 0) {
+            return null;
+        }
+
+        for (int i = 0; i < compartments.length; i++) {
+            if (!compartments[i].tryAcquire(mayWait)) {
+                for (int j = 0; j < i; j++) {
+                    compartments[j].slots.release();
+                }
+                MetricsCollector.getInstance().incrementCounter("bulkhead.rejected." + compartments[i].name);
+                throw new OverloadException("Bulkhead '" + compartments[i].name + "' is full", RETRY_AFTER);
+            }
+        }
+        return compartments;
+    }
+
+    /**
+     * Returns slots taken by {@link #acquire(ConductorMethod, boolean)}.
+     */
+    public void release(Compartment[] compartments) {
+        if (compartments != null) {
+            for (Compartment compartment : compartments) {
+                compartment.slots.release();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of slots in use in each bulkhead that has been used.
+     */
+    public Map<String, Integer> getActiveCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map<?, Compartment[]> map : List.of(intentCompartments, conductorCompartments)) {
+            for (Compartment[] compartments : map.values()) {
+                for (Compartment compartment : compartments) {
+                    counts.put(compartment.name, compartment.maxConcurrent - compartment.slots.availablePermits());
+                }
+            }
+        }
+        return counts;
+    }
+
+    private Compartment[] compartmentsOf(ConductorMethod method) {
+        Class<?> conductor = method.getMethod().getDeclaringClass();
+        Compartment[] shared = conductorCompartments.computeIfAbsent(conductor,
+            type -> compartmentOf(type, conductorName(type)));
+        Compartment[] own = compartmentOf(method.getMethod(), method.getIntent());
+
+        if (own.length == 0) {
+            return shared;
+        }
+        if (shared.length == 0) {
+            return own;
+        }
+        // Method slots first, so waiting for them does not hold a conductor slot
+        return new Compartment[] {own[0], shared[0]};
+    }
+
+    private static String conductorName(Class<?> type) {
+        Conductor conductor = type.getAnnotation(Conductor.class);
+        return conductor != null && !conductor.namespace().isEmpty() ? conductor.namespace() : type.getSimpleName();
+    }
+
+    private static Compartment[] compartmentOf(AnnotatedElement element, String name) {
+        Bulkhead annotation = element.getAnnotation(Bulkhead.class);
+        return annotation != null ? new Compartment[] {new Compartment(name, annotation)} : NONE;
+    }
+
+    /**
+     * The slots of one bulkhead.
+     */
+    public static final class Compartment {
+        private final String name;
+        private final int maxConcurrent;
+        private final long maxWaitNanos;
+        private final Semaphore slots;
+
+        Compartment(String name, Bulkhead annotation) {
+            if (annotation.maxConcurrent() < 1 || annotation.maxWaitMillis() < 0) {
+                throw new IllegalArgumentException("Invalid @Bulkhead on " + name
+                    + ": maxConcurrent must be positive and maxWaitMillis must not be negative");
+            }
+            this.name = name;
+            this.maxConcurrent = annotation.maxConcurrent();
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(annotation.maxWaitMillis());
+            this.slots = new Semaphore(maxConcurrent);
+        }
+
+        private boolean tryAcquire(boolean mayWait) {
+            if (slots.tryAcquire()) {
+                return true;
+            }
+            if (!mayWait || maxWaitNanos == 0) {
+                return false;
+            }
+            try {
+                return slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
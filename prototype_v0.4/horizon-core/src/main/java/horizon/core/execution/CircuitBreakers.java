@@ -0,0 +1,269 @@
+package horizon.core.execution;
+
+import horizon.core.annotation.CircuitBreaker;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.CircuitOpenException;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.core.metrics.MetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breakers of the conductor methods of an aggregator, configured by {@link CircuitBreaker}.
+ *
+ * Each intent with the annotation, on its method or its conductor class, gets its own
+ * {@link Breaker}. State transitions are exported as the gauge
+ * {@code circuitbreaker.<intent>.state} (0 closed, 1 half-open, 2 open) and the counters
+ * {@code circuitbreaker.<intent>.<state>}; fast failures are counted in
+ * {@code circuitbreaker.rejected.<intent>}.
+ */
+public class CircuitBreakers {
+    private static final Duration HALF_OPEN_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Map<String, Optional<Breaker>> breakers = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+
+    /**
+     * The state of a breaker.
+     */
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables circuit breaking for all intents.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the breaker of a conductor method.
+     *
+     * @return the breaker, or null if the method has none or circuit breaking is disabled
+     */
+    public Breaker forMethod(ConductorMethod method) {
+        if (!enabled) {
+            return null;
+        }
+        Optional<Breaker> breaker = breakers.get(method.getIntent());
+        if (breaker == null) {
+            breaker = breakers.computeIfAbsent(method.getIntent(), intent -> Optional.ofNullable(create(method)));
+        }
+        return breaker.orElse(null);
+    }
+
+    /**
+     * Gets the current state of each breaker that has been used.
+     */
+    public Map<String, State> getStates() {
+        Map<String, State> states = new TreeMap<>();
+        breakers.forEach((intent, breaker) -> breaker.ifPresent(b -> states.put(intent, b.getState())));
+        return states;
+    }
+
+    private static Breaker create(ConductorMethod method) {
+        CircuitBreaker annotation = method.getMethod().getAnnotation(CircuitBreaker.class);
+        if (annotation == null) {
+            annotation = method.getMethod().getDeclaringClass().getAnnotation(CircuitBreaker.class);
+        }
+        return annotation != null ? new Breaker(method.getIntent(), annotation) : null;
+    }
+
+    /**
+     * Circuit breaker over a count-based sliding window of call outcomes.
+     *
+     * Calls take a permit with {@link #acquire()} and report their outcome with
+     * {@link #record(long, long, Throwable)}. Permits carry the breaker's generation,
+     * which changes on every transition, so calls that started before a transition
+     * do not count toward the next state.
+     */
+    public static final class Breaker {
+        private static final Logger logger = LoggerFactory.getLogger(Breaker.class);
+
+        private static final byte FAILED = 1;
+        private static final byte SLOW = 2;
+
+        private final String intent;
+        private final int failureRateThreshold;
+        private final int slowCallRateThreshold;
+        private final long slowCallNanos;
+        private final int minimumCalls;
+        private final long openNanos;
+        private final int halfOpenCalls;
+        private final Class<? extends Throwable>[] ignoreExceptions;
+
+        private volatile State state = State.CLOSED;
+        private volatile long generation;
+
+        // Guarded by this
+        private final byte[] window;
+        private int position;
+        private int recorded;
+        private int failures;
+        private int slowCalls;
+        private long openUntilNanos;
+        private int probesPermitted;
+        private int probesSucceeded;
+
+        Breaker(String intent, CircuitBreaker annotation) {
+            if (annotation.windowSize() < 1 || annotation.minimumCalls() < 1 || annotation.halfOpenCalls() < 1
+                || annotation.openMillis() < 0 || annotation.slowCallMillis() < 0) {
+                throw new IllegalArgumentException("Invalid @CircuitBreaker on intent " + intent);
+            }
+            this.intent = intent;
+            this.failureRateThreshold = annotation.failureRateThreshold();
+            this.slowCallRateThreshold = annotation.slowCallRateThreshold();
+            this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(annotation.slowCallMillis());
+            this.minimumCalls = Math.min(annotation.minimumCalls(), annotation.windowSize());
+            this.openNanos = TimeUnit.MILLISECONDS.toNanos(annotation.openMillis());
+            this.halfOpenCalls = annotation.halfOpenCalls();
+            this.ignoreExceptions = annotation.ignoreExceptions();
+            this.window = new byte[annotation.windowSize()];
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * Takes a permit for a call.
+         *
+         * @return the permit, to pass to {@link #record(long, long, Throwable)} or {@link #release(long)}
+         * @throws CircuitOpenException if the breaker is open, or half-open with all probes taken
+         */
+        public long acquire() {
+            long permit = generation;
+            if (state == State.CLOSED) {
+                return permit;
+            }
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    long remaining = openUntilNanos - System.nanoTime();
+                    if (remaining > 0) {
+                        throw reject(Duration.ofNanos(remaining));
+                    }
+                    transition(State.HALF_OPEN);
+                }
+                if (state == State.HALF_OPEN) {
+                    if (probesPermitted >= halfOpenCalls) {
+                        throw reject(HALF_OPEN_RETRY_AFTER);
+                    }
+                    probesPermitted++;
+                }
+                return generation;
+            }
+        }
+
+        /**
+         * Returns a permit whose call never ran.
+         */
+        public synchronized void release(long permit) {
+            if (permit == generation && state == State.HALF_OPEN) {
+                probesPermitted--;
+            }
+        }
+
+        /**
+         * Records the outcome of a call.
+         *
+         * @param permit the permit the call was made with
+         * @param durationNanos how long the call took
+         * @param error what the call threw, or null if it succeeded
+         */
+        public synchronized void record(long permit, long durationNanos, Throwable error) {
+            if (permit != generation) {
+                return;
+            }
+            if (error != null && isIgnored(error)) {
+                release(permit);
+                return;
+            }
+            byte outcome = (byte) ((error != null ? FAILED : 0) | (durationNanos >= slowCallNanos ? SLOW : 0));
+
+            if (state == State.HALF_OPEN) {
+                if (outcome != 0) {
+                    transition(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+
+            if (recorded == window.length) {
+                byte evicted = window[position];
+                failures -= evicted & FAILED;
+                slowCalls -= (evicted & SLOW) >> 1;
+            } else {
+                recorded++;
+            }
+            window[position] = outcome;
+            failures += outcome & FAILED;
+            slowCalls += (outcome & SLOW) >> 1;
+            position = (position + 1) % window.length;
+
+            if (recorded >= minimumCalls
+                && (failures * 100 >= failureRateThreshold * recorded
+                    || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+                transition(State.OPEN);
+            }
+        }
+
+        private boolean isIgnored(Throwable error) {
+            Throwable cause = error instanceof InvocationTargetException && error.getCause() != null
+                ? error.getCause() : error;
+            if (cause instanceof DeadlineExceededException) {
+                // Missing a deadline is a failure of the method, whatever else is ignored
+                return false;
+            }
+            for (Class<? extends Throwable> ignored : ignoreExceptions) {
+                if (ignored.isInstance(cause)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private CircuitOpenException reject(Duration retryAfter) {
+            MetricsCollector.getInstance().incrementCounter("circuitbreaker.rejected." + intent);
+            return new CircuitOpenException("Circuit breaker of intent '" + intent + "' is open", retryAfter);
+        }
+
+        // Called while holding the lock
+        private void transition(State next) {
+            State previous = state;
+            state = next;
+            generation++;
+            position = 0;
+            recorded = 0;
+            failures = 0;
+            slowCalls = 0;
+            probesPermitted = 0;
+            probesSucceeded = 0;
+            if (next == State.OPEN) {
+                openUntilNanos = System.nanoTime() + openNanos;
+                logger.warn("Circuit breaker of intent {} opened (was {})", intent, previous);
+            } else {
+                logger.info("Circuit breaker of intent {} is {} (was {})", intent, next, previous);
+            }
+
+            MetricsCollector metrics = MetricsCollector.getInstance();
+            metrics.setGauge("circuitbreaker." + intent + ".state", next.ordinal());
+            metrics.incrementCounter("circuitbreaker." + intent + "." + next.name().toLowerCase(Locale.ROOT));
+        }
+    }
+}
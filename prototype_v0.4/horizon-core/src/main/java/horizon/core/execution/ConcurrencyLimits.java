@@ -0,0 +1,149 @@
+package horizon.core.execution;
+
+import horizon.core.annotation.Priority;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.OverloadException;
+import horizon.core.metrics.MetricsCollector;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive concurrency limits of the conductor methods of an aggregator.
+ *
+ * Each intent gets its own {@link AdaptiveLimiter}, shared by every protocol that reaches it.
+ * A request over the limit waits up to the queue timeout for a slot if its intent has
+ * {@link Priority#NORMAL} priority, and is then shed with an {@link OverloadException};
+ * {@link Priority#LOW} intents are shed without waiting and {@link Priority#CRITICAL}
+ * intents are never limited. Requests that run on a thread that must not block, such as
+ * an event loop, are shed without waiting as well. Only limited requests are sampled,
+ * as critical ones would measure latency the limit never admitted.
+ *
+ * Settings apply to intents invoked for the first time after the change.
+ */
+public class ConcurrencyLimits {
+    private static final int DEFAULT_INITIAL_LIMIT = 20;
+    private static final int DEFAULT_MIN_LIMIT = 4;
+    private static final int DEFAULT_MAX_LIMIT = 1000;
+    private static final Duration DEFAULT_QUEUE_TIMEOUT = Duration.ofMillis(50);
+    private static final int DEFAULT_MAX_QUEUED = 256;
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+    private volatile int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private volatile int minLimit = DEFAULT_MIN_LIMIT;
+    private volatile int maxLimit = DEFAULT_MAX_LIMIT;
+    private volatile long queueTimeoutNanos = DEFAULT_QUEUE_TIMEOUT.toNanos();
+    private volatile int maxQueued = DEFAULT_MAX_QUEUED;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables concurrency limiting for all intents.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the initial, lowest and highest concurrency limit of each intent.
+     */
+    public void setLimits(int initialLimit, int minLimit, int maxLimit) {
+        // Validates the combination
+        new AdaptiveLimiter(initialLimit, minLimit, maxLimit);
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Sets how long a request may wait for a slot before it is shed.
+     */
+    public void setQueueTimeout(Duration queueTimeout) {
+        Objects.requireNonNull(queueTimeout, "queueTimeout");
+        if (queueTimeout.isNegative()) {
+            throw new IllegalArgumentException("queueTimeout must not be negative: " + queueTimeout);
+        }
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    /**
+     * Sets how many requests per intent may wait for a slot at once.
+     */
+    public void setMaxQueued(int maxQueued) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative: " + maxQueued);
+        }
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Gets the current limit of each intent that has been invoked.
+     */
+    public Map<String, Integer> getCurrentLimits() {
+        Map<String, Integer> current = new ConcurrentHashMap<>();
+        limiters.forEach((intent, limiter) -> current.put(intent, limiter.getLimit()));
+        return current;
+    }
+
+    /**
+     * Takes a slot for an invocation of a conductor method.
+     *
+     * @param method the method about to be invoked
+     * @param mayWait false if the calling thread must not block waiting for a slot
+     * @return the limiter to release once the invocation completes, or null if limiting is disabled
+     * @throws OverloadException if the intent is at its limit and no slot freed up in time
+     */
+    public AdaptiveLimiter acquire(ConductorMethod method, boolean mayWait) {
+        if (!enabled) {
+            return null;
+        }
+        String intent = method.getIntent();
+        AdaptiveLimiter limiter = limiters.computeIfAbsent(intent,
+            ignored -> new AdaptiveLimiter(initialLimit, minLimit, maxLimit));
+
+        Priority priority = method.getPriority();
+        if (priority == Priority.CRITICAL) {
+            limiter.acquireUnlimited();
+            return limiter;
+        }
+
+        boolean acquired;
+        try {
+            acquired = priority == Priority.LOW || !mayWait
+                ? limiter.tryAcquire()
+                : limiter.acquire(queueTimeoutNanos, maxQueued);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            MetricsCollector metrics = MetricsCollector.getInstance();
+            metrics.incrementCounter("requests.shed");
+            metrics.incrementCounter("requests.shed." + intent);
+            throw new OverloadException(
+                "Intent '" + intent + "' is overloaded (limit " + limiter.getLimit() + ")", RETRY_AFTER);
+        }
+        return limiter;
+    }
+
+    /**
+     * Returns the slot taken for an invocation.
+     *
+     * @param method the invoked method
+     * @param limiter the limiter returned by {@link #acquire}, or null
+     * @param rttNanos the invocation's latency, or a negative value if it says nothing about load
+     */
+    public void release(ConductorMethod method, AdaptiveLimiter limiter, long rttNanos) {
+        if (limiter != null) {
+            limiter.release(method.getPriority() == Priority.CRITICAL ? -1 : rttNanos);
+        }
+    }
+}
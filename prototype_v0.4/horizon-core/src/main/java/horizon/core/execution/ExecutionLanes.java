@@ -0,0 +1,215 @@
+package horizon.core.execution;
+
+import horizon.core.annotation.ExecutionLane;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.OverloadException;
+import horizon.core.metrics.MetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution lanes of the conductor methods of an aggregator, assigned by {@link ExecutionLane}.
+ *
+ * Each lane has a fixed number of workers and a bounded queue. A request that finds its
+ * lane's queue full is shed with an {@link OverloadException} and counted in
+ * {@code lane.rejected.<lane>}. Per lane, the histograms {@code lane.<lane>.queue_time_us}
+ * and {@code lane.<lane>.run_time_us} record how long invocations waited for a worker and
+ * how long they ran, and the gauges {@code lane.<lane>.queued} and {@code lane.<lane>.active}
+ * follow the queue and the busy workers.
+ *
+ * Lanes should be configured before the first request; an intent whose lane does not exist
+ * when it is first dispatched runs in the {@link ExecutionLane#INTERACTIVE} lane.
+ * Unless it is configured, that lane has no workers of its own: its intents run on the
+ * aggregator's conductor executor, so lanes only take over intents assigned to them.
+ */
+public class ExecutionLanes {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionLanes.class);
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, String> intentLanes = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+
+    public ExecutionLanes() {
+        configure(ExecutionLane.CRITICAL, 4, 64);
+        configure(ExecutionLane.BULK, Math.max(2, Runtime.getRuntime().availableProcessors()), 256);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables execution lanes. While disabled, asynchronous invocations
+     * run on the aggregator's conductor executor.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Creates a lane, or replaces one. Invocations already queued in a replaced lane still run.
+     *
+     * @param name the lane name used in {@link ExecutionLane}
+     * @param workers the number of invocations the lane runs at once
+     * @param queueCapacity the number of invocations that may wait for a worker
+     */
+    public void configure(String name, int workers, int queueCapacity) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Lane name must not be empty");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        Lane previous = lanes.put(name, new Lane(name, workers, queueCapacity));
+        if (previous != null) {
+            previous.executor.shutdown();
+        }
+    }
+
+    /**
+     * Gets the lane a conductor method runs in.
+     *
+     * @return the lane, or null if the method runs on the conductor executor, because lanes
+     *         are disabled or it belongs to an interactive lane that has not been configured
+     */
+    public Lane laneFor(ConductorMethod method) {
+        if (!enabled) {
+            return null;
+        }
+        String name = intentLanes.get(method.getIntent());
+        if (name == null) {
+            name = intentLanes.computeIfAbsent(method.getIntent(), intent -> resolve(method));
+        }
+        Lane lane = lanes.get(name);
+        return lane != null ? lane : lanes.get(ExecutionLane.INTERACTIVE);
+    }
+
+    /**
+     * Gets the number of invocations waiting for a worker in each lane.
+     */
+    public Map<String, Integer> getQueuedCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        lanes.forEach((name, lane) -> counts.put(name, lane.executor.getQueue().size()));
+        return counts;
+    }
+
+    /**
+     * Gets the number of busy workers in each lane.
+     */
+    public Map<String, Integer> getActiveCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        lanes.forEach((name, lane) -> counts.put(name, lane.executor.getActiveCount()));
+        return counts;
+    }
+
+    /**
+     * Stops the workers of every lane. Invocations already queued still run.
+     */
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+    }
+
+    private String resolve(ConductorMethod method) {
+        ExecutionLane annotation = method.getMethod().getAnnotation(ExecutionLane.class);
+        if (annotation == null) {
+            annotation = method.getMethod().getDeclaringClass().getAnnotation(ExecutionLane.class);
+        }
+        if (annotation == null) {
+            return ExecutionLane.INTERACTIVE;
+        }
+        if (!lanes.containsKey(annotation.value())) {
+            logger.warn("Intent {} uses unknown execution lane '{}', running it in the {} lane",
+                method.getIntent(), annotation.value(), ExecutionLane.INTERACTIVE);
+            return ExecutionLane.INTERACTIVE;
+        }
+        return annotation.value();
+    }
+
+    /**
+     * A bounded pool of daemon workers with its own queue.
+     */
+    public static final class Lane implements Executor {
+        private final String name;
+        private final ThreadPoolExecutor executor;
+        private final String queueTimeMetric;
+        private final String runTimeMetric;
+        private final String queuedMetric;
+        private final String activeMetric;
+
+        Lane(String name, int workers, int queueCapacity) {
+            this.name = name;
+            this.executor = new ThreadPoolExecutor(workers, workers, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name));
+            // Idle lanes hold no threads
+            this.executor.allowCoreThreadTimeOut(true);
+            this.queueTimeMetric = "lane." + name + ".queue_time_us";
+            this.runTimeMetric = "lane." + name + ".run_time_us";
+            this.queuedMetric = "lane." + name + ".queued";
+            this.activeMetric = "lane." + name + ".active";
+        }
+
+        private static ThreadFactory threadFactory(String name) {
+            AtomicInteger count = new AtomicInteger();
+            return task -> {
+                Thread thread = new Thread(task, "horizon-lane-" + name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Queues a task for the lane's workers.
+         *
+         * @throws OverloadException if the lane's queue is full
+         */
+        @Override
+        public void execute(Runnable task) {
+            long queuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> run(task, queuedAt));
+            } catch (RejectedExecutionException e) {
+                MetricsCollector.getInstance().incrementCounter("lane.rejected." + name);
+                throw new OverloadException("Execution lane '" + name + "' is full", RETRY_AFTER);
+            }
+            MetricsCollector.getInstance().setGauge(queuedMetric, executor.getQueue().size());
+        }
+
+        private void run(Runnable task, long queuedAt) {
+            MetricsCollector metrics = MetricsCollector.getInstance();
+            long start = System.nanoTime();
+            metrics.recordHistogram(queueTimeMetric, TimeUnit.NANOSECONDS.toMicros(start - queuedAt));
+            metrics.setGauge(queuedMetric, executor.getQueue().size());
+            metrics.setGauge(activeMetric, executor.getActiveCount());
+            try {
+                task.run();
+            } finally {
+                metrics.recordHistogram(runTimeMetric, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                // Still counts this worker, which is about to go idle
+                metrics.setGauge(activeMetric, executor.getActiveCount() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package horizon.core.execution;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks with the same key one at a time, in submission order,
+ * while tasks with different keys run in parallel on the underlying executor.
+ *
+ * Each key maps to the tail of its task chain; a new task atomically replaces the
+ * tail and starts once the previous tail completes. The entry is removed as soon as the last task of a key completes,
+ * so idle keys hold no memory and no per-key lock objects are created.
+ */
+public class KeyedSerialExecutor {
+    private final Executor executor;
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Submits a task to run after all previously submitted tasks with the same key.
+     *
+     * @param key the ordering key
+     * @param task the task to run
+     * @return a future completed with the task's result
+     */
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        return submit(key, task, executor);
+    }
+
+    /**
+     * Submits a task to run on the given executor after all previously submitted tasks with the same key.
+     * If the executor rejects the task, the returned future fails and the key's next task still runs.
+     *
+     * @param key the ordering key
+     * @param task the task to run
+     * @param executor the executor to run the task on
+     * @return a future completed with the task's result
+     */
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task, Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        // Only the tail swap is atomic; the task is started outside the map,
+        // so a direct executor may run it inline and it may submit to its own key
+        CompletableFuture<Void> previous = tails.put(key, done);
+        done.whenComplete((ignored, error) -> tails.remove(key, done));
+
+        Runnable start = () -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        result.complete(task.get());
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    } finally {
+                        done.complete(null);
+                    }
+                });
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                done.complete(null);
+            }
+        };
+        if (previous == null) {
+            start.run();
+        } else {
+            // A failed predecessor must not stop its successors, hence whenComplete rather than thenRun
+            previous.whenComplete((ignored, error) -> start.run());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of keys that currently have queued or running tasks.
+     */
+    public int getActiveKeys() {
+        return tails.size();
+    }
+}
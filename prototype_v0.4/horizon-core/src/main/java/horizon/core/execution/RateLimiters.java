@@ -0,0 +1,235 @@
+package horizon.core.execution;
+
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.RateLimit;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.RateLimitException;
+import horizon.core.metrics.MetricsCollector;
+
+import java.lang.reflect.AnnotatedElement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces the {@link RateLimit} annotations of the conductor methods of an aggregator.
+ *
+ * Each limit is a token bucket implemented with the generic cell rate algorithm: a bucket
+ * is a single {@link AtomicLong} holding the time at which it will be full again, and
+ * a request is allowed by advancing that time with one compare-and-set. Keyed limits
+ * keep one bucket per caller key in a concurrent map, so callers with different keys
+ * never contend. A bucket that has refilled behaves exactly like a new one, so idle
+ * buckets are evicted periodically by whichever request finds the sweep due.
+ */
+public class RateLimiters {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String MISSING_KEY = "";
+    private static final Rule[] NO_RULES = new Rule[0];
+
+    private final Map<String, Rule[]> intentRules = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Rule[]> conductorRules = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+
+    /**
+     * Resolves the caller key of a request for a keyed limit.
+     */
+    @FunctionalInterface
+    public interface CallerKeys {
+        /**
+         * @param key the kind of key, one of {@link RateLimit.Key#HEADER}, {@link RateLimit.Key#SESSION}
+         *            or {@link RateLimit.Key#IP}
+         * @param header the header name, for {@link RateLimit.Key#HEADER}
+         * @return the key, or null if the request does not carry it
+         */
+        String resolve(RateLimit.Key key, String header);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables rate limiting for all intents.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Takes a permit from every limit that applies to a request.
+     * If any limit is exhausted, the permits already taken are returned.
+     *
+     * @param protocol the protocol the request arrived on
+     * @param method the method the request is for
+     * @param callerKeys resolves the caller keys of the request
+     * @throws RateLimitException if a limit is exhausted
+     */
+    public void check(String protocol, ConductorMethod method, CallerKeys callerKeys) {
+        if (!enabled) {
+            return;
+        }
+        Rule[] rules = intentRules.get(method.getIntent());
+        if (rules == null) {
+            rules = intentRules.computeIfAbsent(method.getIntent(), intent -> rulesOf(method));
+        }
+        if (rules.length == 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        AtomicLong[] taken = new AtomicLong[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            Rule rule = rules[i];
+            if (!rule.appliesTo(protocol)) {
+                continue;
+            }
+            AtomicLong bucket = rule.bucket(protocol, callerKeys, now);
+            long waitNanos = rule.acquire(bucket, now);
+            if (waitNanos > 0) {
+                for (int j = 0; j < i; j++) {
+                    if (taken[j] != null) {
+                        rules[j].refund(taken[j]);
+                    }
+                }
+                MetricsCollector metrics = MetricsCollector.getInstance();
+                metrics.incrementCounter("ratelimit.limited");
+                metrics.incrementCounter("ratelimit.limited." + rule.name);
+                throw new RateLimitException(
+                    "Rate limit exceeded for intent '" + method.getIntent() + "' (" + rule.name + ")",
+                    Duration.ofNanos(waitNanos));
+            }
+            taken[i] = bucket;
+        }
+    }
+
+    private Rule[] rulesOf(ConductorMethod method) {
+        Class<?> conductor = method.getMethod().getDeclaringClass();
+        Rule[] shared = conductorRules.computeIfAbsent(conductor,
+            type -> createRules(type, conductorScope(type)));
+        Rule[] own = createRules(method.getMethod(), method.getIntent());
+
+        Rule[] rules = Arrays.copyOf(own, own.length + shared.length);
+        System.arraycopy(shared, 0, rules, own.length, shared.length);
+        return rules.length == 0 ? NO_RULES : rules;
+    }
+
+    private static String conductorScope(Class<?> type) {
+        Conductor conductor = type.getAnnotation(Conductor.class);
+        return conductor != null && !conductor.namespace().isEmpty() ? conductor.namespace() : type.getSimpleName();
+    }
+
+    private static Rule[] createRules(AnnotatedElement element, String scope) {
+        RateLimit[] annotations = element.getAnnotationsByType(RateLimit.class);
+        List<Rule> rules = new ArrayList<>(annotations.length);
+        for (RateLimit annotation : annotations) {
+            rules.add(new Rule(annotation, scope));
+        }
+        return rules.toArray(NO_RULES);
+    }
+
+    /**
+     * One {@link RateLimit} annotation and its buckets.
+     */
+    private static final class Rule {
+        private final String name;
+        private final RateLimit.Key key;
+        private final String header;
+        private final Set<String> protocols;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong shared = new AtomicLong(System.nanoTime());
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+
+        Rule(RateLimit annotation, String scope) {
+            if (annotation.permits() < 1 || annotation.period() < 1 || annotation.burst() < 0) {
+                throw new IllegalArgumentException("Invalid @RateLimit on " + scope
+                    + ": permits and period must be positive and burst must not be negative");
+            }
+            if (annotation.key() == RateLimit.Key.HEADER && annotation.header().isEmpty()) {
+                throw new IllegalArgumentException("@RateLimit on " + scope + " is keyed by header but names none");
+            }
+            int burst = annotation.burst() > 0 ? annotation.burst() : annotation.permits();
+            this.key = annotation.key();
+            this.header = annotation.header();
+            this.protocols = Arrays.stream(annotation.protocols())
+                .map(protocol -> protocol.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+            this.intervalNanos = Math.max(1, annotation.unit().toNanos(annotation.period()) / annotation.permits());
+            this.toleranceNanos = intervalNanos * (burst - 1);
+            this.name = scope + "." + key.name().toLowerCase(Locale.ROOT) + "."
+                + annotation.permits() + "per" + annotation.period() + unitSuffix(annotation.unit());
+        }
+
+        boolean appliesTo(String protocol) {
+            return protocols.isEmpty() || (protocol != null && protocols.contains(protocol.toLowerCase(Locale.ROOT)));
+        }
+
+        AtomicLong bucket(String protocol, CallerKeys callerKeys, long now) {
+            if (key == RateLimit.Key.GLOBAL) {
+                return shared;
+            }
+            String bucketKey = key == RateLimit.Key.PROTOCOL ? protocol : callerKeys.resolve(key, header);
+            if (bucketKey == null) {
+                bucketKey = MISSING_KEY;
+            }
+
+            sweepIfDue(now);
+            AtomicLong bucket = buckets.get(bucketKey);
+            return bucket != null ? bucket : buckets.computeIfAbsent(bucketKey, ignored -> new AtomicLong(now));
+        }
+
+        /**
+         * Takes a permit from a bucket.
+         *
+         * @return 0 if the permit was taken, otherwise how long until one is available
+         */
+        long acquire(AtomicLong bucket, long now) {
+            while (true) {
+                long fullAt = bucket.get();
+                long start = fullAt - now > 0 ? fullAt : now;
+                long waitNanos = start - toleranceNanos - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        void refund(AtomicLong bucket) {
+            bucket.addAndGet(-intervalNanos);
+        }
+
+        // A request racing with eviction may take its permit from the evicted bucket
+        private void sweepIfDue(long now) {
+            long due = nextSweepNanos.get();
+            if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+                return;
+            }
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+
+        private static String unitSuffix(TimeUnit unit) {
+            return switch (unit) {
+                case NANOSECONDS -> "ns";
+                case MICROSECONDS -> "us";
+                case MILLISECONDS -> "ms";
+                case SECONDS -> "s";
+                case MINUTES -> "m";
+                case HOURS -> "h";
+                case DAYS -> "d";
+            };
+        }
+    }
+}
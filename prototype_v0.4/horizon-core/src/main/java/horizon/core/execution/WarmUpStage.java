@@ -0,0 +1,281 @@
+package horizon.core.execution;
+
+import horizon.core.annotation.WarmUp;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.metrics.MetricsCollector;
+import horizon.core.protocol.ProtocolAdapter;
+import horizon.core.security.ProtocolAccessValidator;
+import horizon.core.util.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Warms up the intents annotated with {@link WarmUp} before an aggregator's foyers open.
+ *
+ * For each such intent and each protocol allowed to reach it, the stage has the protocol's
+ * adapter create a request from the intent's samples, and sends it through intent extraction,
+ * payload extraction, the conductor method and response building, as a request from a client
+ * would go. The requests go round all intents in turn, until each was sent the configured
+ * number of times or the time budget runs out. They bypass rate limits, concurrency limits,
+ * circuit breakers, bulkheads and execution lanes, whose state should only reflect real
+ * traffic, and are not counted in the request metrics.
+ *
+ * A request that fails stops the warm-up of its intent over that protocol, and is logged
+ * with the failure. The counters {@code warmup.iterations.<intent>} and
+ * {@code warmup.errors.<intent>} and the timing {@code warmup.duration} report each run.
+ *
+ * The stage is disabled by default.
+ */
+public class WarmUpStage {
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpStage.class);
+
+    private final ProtocolAccessValidator accessValidator = new ProtocolAccessValidator();
+
+    private volatile boolean enabled = false;
+    // C2 compiles a method after some ten thousand invocations
+    private volatile int iterations = 10_000;
+    private volatile Duration timeBudget = Duration.ofSeconds(10);
+    private volatile List<Result> results = List.of();
+
+    /**
+     * The outcome of warming up one intent over one protocol.
+     *
+     * @param intent the intent
+     * @param protocol the protocol whose adapter created the requests
+     * @param iterations the number of requests that completed
+     * @param elapsed the time spent on the requests
+     * @param failure what made a request fail, or null if none did
+     */
+    public record Result(String intent, String protocol, int iterations, Duration elapsed, Throwable failure) {
+
+        public boolean succeeded() {
+            return failure == null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables warming up when the aggregator starts.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Sets the number of requests sent to each intent over each protocol.
+     */
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Sets the longest the warm-up may delay the start. Once it has passed, the requests
+     * already under way complete and no more are sent.
+     */
+    public void setTimeBudget(Duration timeBudget) {
+        if (timeBudget == null || timeBudget.isNegative() || timeBudget.isZero()) {
+            throw new IllegalArgumentException("timeBudget must be positive: " + timeBudget);
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Gets the outcome of the last warm-up, ordered by intent and protocol.
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Warms up the annotated conductor methods through the given protocol adapters.
+     *
+     * @param methods the conductor methods, of which those without {@link WarmUp} are skipped
+     * @param adapters the protocol adapters by protocol name
+     * @return the outcome for each intent and protocol
+     */
+    public List<Result> run(Collection<ConductorMethod> methods, Map<String, ProtocolAdapter<?, ?>> adapters) {
+        List<Target<?>> targets = new ArrayList<>();
+        Map<String, ProtocolAdapter<?, ?>> sortedAdapters = new TreeMap<>(adapters);
+        methods.stream()
+            .distinct()
+            .sorted(Comparator.comparing(ConductorMethod::getIntent))
+            .forEach(method -> {
+                List<Map<String, Object>> samples = samples(method);
+                if (samples.isEmpty()) {
+                    return;
+                }
+                sortedAdapters.forEach((protocol, adapter) -> {
+                    if (accessValidator.hasAccess(protocol, method)) {
+                        Target<?> target = target(method, protocol, adapter, samples);
+                        if (target != null) {
+                            targets.add(target);
+                        }
+                    }
+                });
+            });
+
+        if (targets.isEmpty()) {
+            logger.info("No intents to warm up");
+            results = List.of();
+            return results;
+        }
+
+        logger.info("Warming up {} intent routes, {} iterations each, for at most {} ms",
+            targets.size(), iterations, timeBudget.toMillis());
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        List<Target<?>> active = new ArrayList<>(targets);
+        for (int round = 0; round < iterations && !active.isEmpty(); round++) {
+            for (Iterator<Target<?>> it = active.iterator(); it.hasNext(); ) {
+                if (!it.next().send(round)) {
+                    it.remove();
+                }
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                logger.info("Warm-up time budget ran out after {} iterations", round + 1);
+                break;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        metrics.recordTiming("warmup.duration", elapsed / 1_000_000);
+        List<Result> outcome = new ArrayList<>(targets.size());
+        int failed = 0;
+        for (Target<?> target : targets) {
+            Result result = target.result();
+            outcome.add(result);
+            metrics.incrementCounter("warmup.iterations." + result.intent(), result.iterations());
+            if (!result.succeeded()) {
+                failed++;
+                metrics.incrementCounter("warmup.errors." + result.intent());
+            }
+            logger.info("Warmed up {} over {}: {} iterations in {} ms{}", result.intent(), result.protocol(),
+                result.iterations(), result.elapsed().toMillis(), result.succeeded() ? "" : ", failed");
+        }
+        logger.info("Warm-up finished in {} ms, {} of {} intent routes failed",
+            elapsed / 1_000_000, failed, targets.size());
+        results = List.copyOf(outcome);
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> samples(ConductorMethod method) {
+        WarmUp annotation = method.getMethod().getAnnotation(WarmUp.class);
+        if (annotation == null) {
+            return List.of();
+        }
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (String sample : annotation.value()) {
+            try {
+                samples.add(JsonUtils.fromJson(sample, Map.class));
+            } catch (Exception e) {
+                logger.warn("Not warming up intent {}: sample is not a JSON object: {}", method.getIntent(), sample);
+                return List.of();
+            }
+        }
+        return samples;
+    }
+
+    private static <I> Target<I> target(ConductorMethod method, String protocol,
+                                        ProtocolAdapter<I, ?> adapter, List<Map<String, Object>> samples) {
+        Target<I> target = new Target<>(method, protocol, adapter, samples);
+        try {
+            if (adapter.createWarmUpRequest(method, new HashMap<>(samples.getFirst())) == null) {
+                logger.debug("Protocol {} cannot warm up intent {}", protocol, method.getIntent());
+                return null;
+            }
+        } catch (Exception e) {
+            // Reported with the other results, as a sample that does not fit the intent's route
+            target.fail(e);
+        }
+        return target;
+    }
+
+    /**
+     * One intent warmed up over one protocol.
+     */
+    private static final class Target<I> {
+        private final ConductorMethod method;
+        private final String protocol;
+        private final ProtocolAdapter<I, ?> adapter;
+        private final List<Map<String, Object>> samples;
+
+        private int iterations;
+        private long elapsedNanos;
+        private Throwable failure;
+
+        Target(ConductorMethod method, String protocol, ProtocolAdapter<I, ?> adapter,
+               List<Map<String, Object>> samples) {
+            this.method = method;
+            this.protocol = protocol;
+            this.adapter = adapter;
+            this.samples = samples;
+        }
+
+        /**
+         * Sends one request.
+         *
+         * @return whether to keep sending requests
+         */
+        boolean send(int round) {
+            if (failure != null) {
+                return false;
+            }
+            long start = System.nanoTime();
+            try {
+                // Adapters may keep and change the data, as they do with a client's
+                Map<String, Object> sample = new HashMap<>(samples.get(round % samples.size()));
+                I request = adapter.createWarmUpRequest(method, sample);
+                String intent = adapter.extractIntent(request);
+                if (!method.getIntent().equals(intent)) {
+                    throw new IllegalStateException(
+                        String.format("Request resolved to intent '%s' instead", intent));
+                }
+                Object result = method.invoke(adapter.extractPayload(request));
+                adapter.buildResponse(result, request);
+                iterations++;
+                return true;
+            } catch (Exception e) {
+                fail(e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e);
+                return false;
+            } finally {
+                elapsedNanos += System.nanoTime() - start;
+            }
+        }
+
+        void fail(Throwable error) {
+            failure = error;
+            logger.warn("Warm-up of intent {} over {} failed", method.getIntent(), protocol, error);
+        }
+
+        Result result() {
+            return new Result(method.getIntent(), protocol, iterations, Duration.ofNanos(elapsedNanos), failure);
+        }
+    }
+}
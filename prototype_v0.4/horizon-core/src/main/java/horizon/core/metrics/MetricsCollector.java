@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
@@ -15,6 +16,7 @@ public class MetricsCollector {
     private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
     private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
     private final Map<String, TimingStats> timings = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
     
     private MetricsCollector() {}
     
@@ -28,7 +30,14 @@ public class MetricsCollector {
     public void incrementCounter(String name) {
         counters.computeIfAbsent(name, k -> new LongAdder()).increment();
     }
-    
+
+    /**
+     * Increment a counter metric by the given amount.
+     */
+    public void incrementCounter(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
     /**
      * Record a timing in milliseconds.
      */
@@ -36,6 +45,18 @@ public class MetricsCollector {
         timings.computeIfAbsent(name, k -> new TimingStats()).record(milliseconds);
     }
     
+    /**
+     * Record a value in a histogram, for metrics whose percentiles matter more than their mean.
+     * Negative values are recorded as zero.
+     */
+    public void recordHistogram(String name, long value) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, k -> new Histogram());
+        }
+        histogram.record(value);
+    }
+
     /**
      * Set a gauge value.
      */
@@ -64,6 +85,15 @@ public class MetricsCollector {
             metrics.put("timing." + name + ".max", stats.getMax());
             metrics.put("timing." + name + ".min", stats.getMin());
         });
+
+        // Histograms
+        histograms.forEach((name, histogram) -> {
+            metrics.put("histogram." + name + ".count", histogram.getCount());
+            metrics.put("histogram." + name + ".p50", histogram.getPercentile(50));
+            metrics.put("histogram." + name + ".p90", histogram.getPercentile(90));
+            metrics.put("histogram." + name + ".p99", histogram.getPercentile(99));
+            metrics.put("histogram." + name + ".max", histogram.getMax());
+        });
         
         return metrics;
     }
@@ -75,6 +105,7 @@ public class MetricsCollector {
         counters.clear();
         gauges.clear();
         timings.clear();
+        histograms.clear();
     }
     
     /**
@@ -111,4 +142,76 @@ public class MetricsCollector {
         long getMax() { return max.get() == Long.MIN_VALUE ? 0 : max.get(); }
         long getMin() { return min.get() == Long.MAX_VALUE ? 0 : min.get(); }
     }
+
+    /**
+     * Log-linear histogram: values up to 15 have their own bucket, larger ones share
+     * 8 buckets per power of two, so percentiles are within 12.5% of the recorded values.
+     */
+    private static class Histogram {
+        private static final int LINEAR_BUCKETS = 16;
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = LINEAR_BUCKETS + (63 - 4) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long value) {
+            long v = Math.max(0, value);
+            buckets.incrementAndGet(indexOf(v));
+            count.increment();
+
+            long currentMax;
+            do {
+                currentMax = max.get();
+            } while (v > currentMax && !max.compareAndSet(currentMax, v));
+        }
+
+        long getCount() { return count.sum(); }
+        long getMax() { return max.get(); }
+
+        /**
+         * Gets the upper bound of the bucket holding the given percentile, or 0 if nothing was recorded.
+         */
+        long getPercentile(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        static int indexOf(long value) {
+            if (value < LINEAR_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBoundOf(int index) {
+            if (index < LINEAR_BUCKETS) {
+                return index;
+            }
+            int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+            int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+            long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return (SUB_BUCKETS + subBucket) * width + width - 1;
+        }
+    }
 }
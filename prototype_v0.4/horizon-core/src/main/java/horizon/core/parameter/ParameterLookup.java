@@ -0,0 +1,257 @@
+package horizon.core.parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the values of conductor method parameters in an invocation context.
+ * Shared by reflective invocation and by generated {@link horizon.core.conductor.IntentBinder}s,
+ * so both resolve a parameter the same way.
+ */
+public final class ParameterLookup {
+    public static final String[] NO_HINTS = new String[0];
+
+    private ParameterLookup() {
+    }
+
+    /**
+     * Resolves a parameter to its raw value, before conversion to the parameter type.
+     *
+     * @param context the invocation context
+     * @param name the logical name of the parameter
+     * @param hints the areas to search first, may be empty
+     * @param required whether a missing parameter is an error
+     * @param defaultValue the value used when the parameter is missing, or null
+     * @return the value, the default value, or null
+     * @throws IllegalArgumentException if a required parameter is missing
+     */
+    public static Object resolve(Map<String, Object> context, String name, String[] hints,
+                                 boolean required, String defaultValue) {
+        Object value = find(name, hints, context);
+
+        // Validate required parameters
+        if (value == null && required) {
+            throw new IllegalArgumentException(
+                String.format("Required parameter '%s' is missing", name)
+            );
+        }
+
+        // Apply default value if needed
+        if (value == null && defaultValue != null) {
+            value = defaultValue;
+        }
+
+        return value;
+    }
+
+    /**
+     * Protocol-neutral parameter resolution.
+     * Searches for parameters across all possible locations.
+     *
+     * @param paramName the logical name of the parameter
+     * @param hints the areas to search first, may be empty
+     * @param context the invocation context
+     * @return the raw value, or null if it was not found
+     */
+    public static Object find(String paramName, String[] hints, Map<String, Object> context) {
+        // 1. If hints are provided, search in hinted areas first
+        if (hints != null && hints.length > 0) {
+            for (String hint : hints) {
+                Object value = searchInHintArea(hint, paramName, context);
+                if (value != null) return value;
+            }
+        }
+
+        // 2. Perform smart search across all areas
+        return smartParameterSearch(paramName, context);
+    }
+
+    /**
+     * Searches for parameter in a specific hint area.
+     */
+    private static Object searchInHintArea(String hint, String paramName, Map<String, Object> context) {
+        switch (hint.toLowerCase()) {
+            case "path":
+                return context.get("path." + paramName);
+            case "query":
+                return context.get("query." + paramName);
+            case "header":
+                return context.get("header." + paramName);
+            case "body":
+                Object body = context.get("body");
+                if (body instanceof Map) {
+                    return findInMap((Map<String, Object>) body, paramName);
+                }
+                return null;
+            default:
+                // Try direct access for custom hints
+                return context.get(hint + "." + paramName);
+        }
+    }
+
+    /**
+     * Smart parameter search across all possible locations.
+     */
+    private static Object smartParameterSearch(String paramName, Map<String, Object> context) {
+        // 1. Direct search in common locations
+        Object value = directSearch(paramName, context);
+        if (value != null) return value;
+
+        // 2. Search with name variants
+        value = variantSearch(paramName, context);
+        if (value != null) return value;
+
+        // 3. Deep search in nested structures
+        value = deepSearch(paramName, context);
+
+        return value;
+    }
+
+    /**
+     * Direct search in standard locations.
+     */
+    private static Object directSearch(String paramName, Map<String, Object> context) {
+        // Check all standard locations
+        String[] searchPaths = {
+            paramName,                    // Top level
+            "path." + paramName,         // HTTP path
+            "query." + paramName,        // HTTP query
+            "header." + paramName,       // Headers
+            "body." + paramName,         // Request body
+            "data." + paramName,         // WebSocket data
+            "payload." + paramName,      // Generic payload
+            "params." + paramName,       // Generic params
+        };
+
+        for (String path : searchPaths) {
+            Object value = context.get(path);
+            if (value != null) return value;
+        }
+
+        return null;
+    }
+
+    /**
+     * Search with naming convention variants.
+     */
+    private static Object variantSearch(String paramName, Map<String, Object> context) {
+        List<String> variants = generateNameVariants(paramName);
+
+        for (String variant : variants) {
+            Object value = directSearch(variant, context);
+            if (value != null) return value;
+        }
+
+        return null;
+    }
+
+    /**
+     * Generates name variants for flexible matching.
+     */
+    private static List<String> generateNameVariants(String name) {
+        List<String> variants = new ArrayList<>();
+
+        // camelCase to snake_case
+        String snakeCase = toSnakeCase(name);
+        if (!snakeCase.equals(name)) {
+            variants.add(snakeCase);
+        }
+
+        // camelCase to kebab-case
+        String kebabCase = toKebabCase(name);
+        if (!kebabCase.equals(name)) {
+            variants.add(kebabCase);
+        }
+
+        // Common abbreviations
+        if (name.endsWith("Id")) {
+            variants.add(name.substring(0, name.length() - 2));  // userId -> user
+            variants.add("id");                                   // userId -> id
+        }
+
+        // Plural handling
+        if (name.endsWith("s") && name.length() > 1) {
+            variants.add(name.substring(0, name.length() - 1));  // users -> user
+        } else {
+            variants.add(name + "s");                            // user -> users
+        }
+
+        // Common field name mappings
+        if (name.equals("userId")) {
+            variants.add("user_id");
+            variants.add("uid");
+        }
+
+        return variants;
+    }
+
+    /**
+     * Deep search in nested structures.
+     */
+    private static Object deepSearch(String paramName, Map<String, Object> context) {
+        // Search in body
+        Object body = context.get("body");
+        if (body instanceof Map) {
+            Object value = findInMap((Map<String, Object>) body, paramName);
+            if (value != null) return value;
+        }
+
+        // Search in data (WebSocket)
+        Object data = context.get("data");
+        if (data instanceof Map) {
+            Object value = findInMap((Map<String, Object>) data, paramName);
+            if (value != null) return value;
+        }
+
+        // Search in payload
+        Object payload = context.get("payload");
+        if (payload instanceof Map) {
+            Object value = findInMap((Map<String, Object>) payload, paramName);
+            if (value != null) return value;
+        }
+
+        // Search in any Map values at top level
+        for (Map.Entry<String, Object> entry : context.entrySet()) {
+            if (entry.getValue() instanceof Map && 
+                !entry.getKey().startsWith("_")) {  // Skip metadata
+                Object value = findInMap((Map<String, Object>) entry.getValue(), paramName);
+                if (value != null) return value;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds a parameter in a map with variant support.
+     */
+    private static Object findInMap(Map<String, Object> map, String paramName) {
+        // Direct match
+        Object value = map.get(paramName);
+        if (value != null) return value;
+
+        // Try variants
+        for (String variant : generateNameVariants(paramName)) {
+            value = map.get(variant);
+            if (value != null) return value;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Converts a string to snake_case.
+     */
+    private static String toSnakeCase(String camelCase) {
+        return camelCase.replaceAll("([a-z])([A-Z]+)", "$1_$2").toLowerCase();
+    }
+
+    /**
+     * Converts a string to kebab-case.
+     */
+    private static String toKebabCase(String camelCase) {
+        return camelCase.replaceAll("([a-z])([A-Z]+)", "$1-$2").toLowerCase();
+    }
+}
@@ -1,5 +1,7 @@
 package horizon.core.protocol;
 
+import horizon.core.RegistrySnapshot;
+
 /**
  * Resolves intents from protocol-specific requests.
  * 
@@ -13,4 +15,16 @@ public interface IntentResolver<T> {
      * @return the resolved intent string, or null if cannot resolve
      */
     String resolveIntent(T request);
+
+    /**
+     * Resolves the intent from a protocol-specific request with the routes of a registry snapshot.
+     * Resolvers that do not follow the registry ignore the snapshot.
+     *
+     * @param request the protocol-specific request
+     * @param registry the registry snapshot of the request
+     * @return the resolved intent string, or null if cannot resolve
+     */
+    default String resolveIntent(T request, RegistrySnapshot registry) {
+        return resolveIntent(request);
+    }
 }
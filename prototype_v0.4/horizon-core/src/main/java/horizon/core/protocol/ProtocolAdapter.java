@@ -1,5 +1,13 @@
 package horizon.core.protocol;
 
+import horizon.core.RegistrySnapshot;
+import horizon.core.annotation.RateLimit;
+import horizon.core.conductor.ConductorMethod;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Adapts protocol-specific requests and responses to the Horizon format.
  * This is the bridge between diverse protocols and the unified Horizon processing.
@@ -16,6 +24,19 @@ public interface ProtocolAdapter<I, O> {
      * @return the intent string (e.g., "user.create")
      */
     String extractIntent(I request);
+
+    /**
+     * Extracts the intent from a protocol-specific request, given the registry snapshot the
+     * request runs on. Adapters that resolve intents through the registry's routes override
+     * this, so the intent is found in the same snapshot as its conductor method.
+     *
+     * @param request the protocol-specific request
+     * @param registry the registry snapshot of the request
+     * @return the intent string
+     */
+    default String extractIntent(I request, RegistrySnapshot registry) {
+        return extractIntent(request);
+    }
     
     /**
      * Extracts the payload from a protocol-specific request.
@@ -24,7 +45,56 @@ public interface ProtocolAdapter<I, O> {
      * @return the payload object
      */
     Object extractPayload(I request);
+
+    /**
+     * Extracts the payload for an intent whose data was carried inside a request,
+     * such as one entry of a batch envelope.
+     *
+     * @param intent the intent of the entry
+     * @param data the data of the entry
+     * @param request the protocol-specific request that carried the entry
+     * @return the payload object
+     */
+    default Object extractPayload(String intent, Map<String, Object> data, I request) {
+        return data != null ? new HashMap<>(data) : new HashMap<>();
+    }
+
+    /**
+     * Extracts the value identifying the caller of a request, for keyed rate limits.
+     * Called before the payload is extracted, so it should only read cheap metadata.
+     *
+     * @param request the protocol-specific request
+     * @param key the kind of key to extract
+     * @param header the header name, for {@link RateLimit.Key#HEADER}
+     * @return the key, or null if the request does not carry it
+     */
+    default String extractCallerKey(I request, RateLimit.Key key, String header) {
+        return null;
+    }
+
+    /**
+     * Extracts the time the client allows for a request, from which its deadline is set.
+     *
+     * @param request the protocol-specific request
+     * @return the timeout, or null if the request does not set one
+     */
+    default Duration extractTimeout(I request) {
+        return null;
+    }
     
+    /**
+     * Creates a request for an intent, as a client of this protocol would send it,
+     * for warming up the intent before the foyers open.
+     *
+     * @param method the conductor method of the intent
+     * @param data the sample data, which the adapter may keep
+     * @return the request, or null if this protocol cannot create requests for the intent
+     * @throws IllegalArgumentException if the data does not fit the intent's route
+     */
+    default I createWarmUpRequest(ConductorMethod method, Map<String, Object> data) {
+        return null;
+    }
+
     /**
      * Builds a protocol-specific response from the result.
      *
@@ -8,6 +8,9 @@ public final class ProtocolNames {
     // Web protocols
     public static final String HTTP = "HTTP";
     public static final String WEBSOCKET = "WebSocket";
+
+    // RPC protocols
+    public static final String GRPC = "gRPC";
     
     // Future protocols (not yet implemented)
     // public static final String GRAPHQL = "GraphQL";
@@ -0,0 +1,19 @@
+package horizon.core.publish;
+
+/**
+ * Interface for conductors that publish messages to topics.
+ * The framework sets the publisher when the conductor is scanned.
+ *
+ * The publisher covers every foyer that supports topics, so a conductor
+ * does not need to know which protocol its subscribers are connected through.
+ */
+public interface PublisherAware {
+
+    /**
+     * Sets the topic publisher.
+     * Called by the framework after conductor creation.
+     *
+     * @param publisher the topic publisher
+     */
+    void setTopicPublisher(TopicPublisher publisher);
+}
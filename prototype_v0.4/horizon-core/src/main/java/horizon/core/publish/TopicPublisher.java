@@ -0,0 +1,38 @@
+package horizon.core.publish;
+
+/**
+ * Publishes messages to the sessions subscribed to a topic.
+ * Implemented by foyers that keep long-lived sessions, such as WebSocket,
+ * and handed to conductors through {@link PublisherAware}.
+ *
+ * Topics are created on first subscription and dropped once they have no subscribers.
+ */
+public interface TopicPublisher {
+
+    /**
+     * Subscribes a session to a topic.
+     *
+     * @param topic the topic name
+     * @param sessionId the session ID
+     * @return true if the session is known to this publisher and was subscribed
+     */
+    boolean subscribe(String topic, String sessionId);
+
+    /**
+     * Unsubscribes a session from a topic.
+     *
+     * @param topic the topic name
+     * @param sessionId the session ID
+     */
+    void unsubscribe(String topic, String sessionId);
+
+    /**
+     * Publishes a message to all subscribers of a topic.
+     * The message is serialized once, whatever the number of subscribers.
+     *
+     * @param topic the topic name
+     * @param message the message to publish
+     * @return the number of sessions the message was written to
+     */
+    int publish(String topic, Object message);
+}
@@ -0,0 +1,148 @@
+package horizon.core.scanner;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Index of the conductors of an application, generated at compile time by
+ * {@link ConductorIndexProcessor} into {@value #LOCATION}.
+ *
+ * Each line of the index is a tab-separated record:
+ * <pre>
+ * conductor  &lt;class name&gt;  &lt;namespace&gt;
+ * </pre>
+ * Lines starting with {@code #} are comments. Intents and routes are not listed; they are
+ * read from the annotations of the conductor classes when those are registered.
+ *
+ * Reading the index lets {@link ConductorScanner} load only the conductor classes of a
+ * classpath root, instead of every class under a package, and works the same from
+ * directories and JARs.
+ */
+public final class ConductorIndex {
+    public static final String LOCATION = "META-INF/horizon/conductors.idx";
+
+    static final String CONDUCTOR = "conductor";
+
+    private final List<ConductorEntry> conductors = new ArrayList<>();
+
+    private ConductorIndex() {
+    }
+
+    /**
+     * Loads and merges every index visible to a class loader, one per JAR or output directory.
+     *
+     * @param classLoader the class loader to search
+     * @return the merged index, empty if no index was generated
+     * @throws IOException if an index cannot be read
+     */
+    public static ConductorIndex load(ClassLoader classLoader) throws IOException {
+        ConductorIndex index = new ConductorIndex();
+        Enumeration<URL> resources = classLoader.getResources(LOCATION);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (Reader reader = new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)) {
+                index.read(reader, resource.toString());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Loads the index of one classpath root, a directory or a JAR.
+     *
+     * @param root the URL of the root, ending with a slash, such as {@code jar:file:/app.jar!/}
+     * @return the index, or null if the root has none
+     * @throws IOException if the index cannot be read
+     */
+    public static ConductorIndex load(URL root) throws IOException {
+        URL resource = URI.create(root + LOCATION).toURL();
+        ConductorIndex index = new ConductorIndex();
+        try (Reader reader = new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)) {
+            index.read(reader, resource.toString());
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * Reads an index from a reader.
+     *
+     * @param reader the index content
+     * @return the index
+     * @throws IOException if the index cannot be read
+     */
+    public static ConductorIndex read(Reader reader) throws IOException {
+        ConductorIndex index = new ConductorIndex();
+        index.read(reader, "index");
+        return index;
+    }
+
+    private void read(Reader reader, String source) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            switch (fields[0]) {
+                case CONDUCTOR -> {
+                    expectFields(fields, 3, source, number);
+                    conductors.add(new ConductorEntry(fields[1], fields[2]));
+                }
+                // Other records, such as the intents and routes of earlier versions, are skipped
+                default -> { }
+            }
+        }
+    }
+
+    private static void expectFields(String[] fields, int count, String source, int line) throws IOException {
+        if (fields.length != count) {
+            throw new IOException("Malformed " + fields[0] + " record at " + source + ":" + line);
+        }
+    }
+
+    public boolean isEmpty() {
+        return conductors.isEmpty();
+    }
+
+    public List<ConductorEntry> getConductors() {
+        return Collections.unmodifiableList(conductors);
+    }
+
+    /**
+     * Gets the conductors in a package or its subpackages.
+     *
+     * @param basePackage the package name
+     * @return the conductors, in index order
+     */
+    public List<ConductorEntry> getConductors(String basePackage) {
+        String prefix = basePackage + ".";
+        List<ConductorEntry> found = new ArrayList<>();
+        for (ConductorEntry conductor : conductors) {
+            if (conductor.className().startsWith(prefix)) {
+                found.add(conductor);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A class annotated with {@link horizon.core.annotation.Conductor}.
+     */
+    public record ConductorEntry(String className, String namespace) {
+    }
+}
@@ -0,0 +1,166 @@
+package horizon.core.scanner;
+
+import horizon.core.annotation.BatchIntent;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Annotation processor that writes the {@link ConductorIndex} of the classes being compiled,
+ * and checks their intents and routes.
+ *
+ * Add horizon-core to the annotation processor path of a module with conductors, for
+ * example {@code annotationProcessor project(':horizon-core')} in Gradle. Two methods
+ * handling the same intent fail the compilation; two intents with the same route only
+ * produce a warning, since the route registered last wins at runtime.
+ */
+@SupportedAnnotationTypes("horizon.core.annotation.Conductor")
+public class ConductorIndexProcessor extends AbstractProcessor {
+
+    // Sorted by class name, so the index is the same on every build
+    private final Map<String, TypeElement> conductors = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Conductor.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@Conductor can only be applied to classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            conductors.put(processingEnv.getElementUtils().getBinaryName(type).toString(), type);
+        }
+
+        if (roundEnv.processingOver() && !conductors.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        List<String> lines = new ArrayList<>();
+        Map<String, String> intentOwners = new HashMap<>();
+        Map<String, String> routeOwners = new HashMap<>();
+
+        for (Map.Entry<String, TypeElement> entry : conductors.entrySet()) {
+            String className = entry.getKey();
+            TypeElement type = entry.getValue();
+            String namespace = type.getAnnotation(Conductor.class).namespace();
+            lines.add(record(ConductorIndex.CONDUCTOR, className, namespace));
+
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                List<String> names = intentNames(method);
+                if (names.isEmpty()) {
+                    continue;
+                }
+                String owner = className + "#" + method.getSimpleName();
+                for (String name : names) {
+                    String intent = namespace.isEmpty() ? name : namespace + "." + name;
+                    String previous = intentOwners.putIfAbsent(intent, owner);
+                    if (previous != null) {
+                        error(method, "Intent '" + intent + "' is already handled by " + previous);
+                    }
+                }
+
+                String intent = namespace.isEmpty() ? names.get(0) : namespace + "." + names.get(0);
+                routes(type, method).forEach((protocol, schema) -> {
+                    String previous = routeOwners.putIfAbsent(protocol + " " + schema, intent);
+                    if (previous != null) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            protocol + " route '" + schema + "' of " + intent + " is also used by " + previous,
+                            method);
+                    }
+                });
+            }
+        }
+
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                ConductorIndex.LOCATION, conductors.values().toArray(new Element[0]));
+            try (Writer writer = index.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to write " + ConductorIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the intent names of a method, the primary one first, without the namespace.
+     */
+    private static List<String> intentNames(ExecutableElement method) {
+        List<String> names = new ArrayList<>();
+        Intent intent = method.getAnnotation(Intent.class);
+        if (intent != null) {
+            names.add(intent.value());
+            names.addAll(List.of(intent.aliases()));
+        }
+        BatchIntent batchIntent = method.getAnnotation(BatchIntent.class);
+        if (batchIntent != null) {
+            names.add(batchIntent.value());
+            names.addAll(List.of(batchIntent.aliases()));
+        }
+        return names;
+    }
+
+    /**
+     * Gets the schema of each protocol the way the runtime resolves it: the first schema of
+     * the method's {@link ProtocolAccess}, falling back to the conductor's.
+     */
+    private static Map<String, String> routes(TypeElement type, ExecutableElement method) {
+        Map<String, String> routes = new LinkedHashMap<>();
+        addRoutes(routes, method.getAnnotation(ProtocolAccess.class));
+        addRoutes(routes, type.getAnnotation(ProtocolAccess.class));
+        routes.values().removeIf(String::isEmpty);
+        return routes;
+    }
+
+    private static void addRoutes(Map<String, String> routes, ProtocolAccess access) {
+        if (access != null) {
+            for (ProtocolSchema schema : access.schema()) {
+                routes.putIfAbsent(schema.protocol(), schema.value());
+            }
+        }
+    }
+
+    private static String record(String... fields) {
+        return String.join("\t", fields);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
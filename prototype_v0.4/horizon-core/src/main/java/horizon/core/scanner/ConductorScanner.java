@@ -1,23 +1,34 @@
 package horizon.core.scanner;
 
 import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.BatchIntent;
 import horizon.core.annotation.Conductor;
 import horizon.core.annotation.Intent;
+import horizon.core.conductor.BatchConductorMethod;
 import horizon.core.conductor.ConductorMethod;
-import horizon.core.protocol.ProtocolNames;
+import horizon.core.publish.PublisherAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.lang.reflect.Method;
+import java.net.JarURLConnection;
+import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * Scans for classes annotated with @Conductor and registers them with the ProtocolAggregator.
+ *
+ * Conductors are looked up in the {@link ConductorIndex} generated at compile time, which
+ * loads only the conductor classes. Classpath roots without an index, such as JARs compiled
+ * without {@link ConductorIndexProcessor}, are scanned class by class instead.
  */
 public class ConductorScanner {
     private static final Logger logger = LoggerFactory.getLogger(ConductorScanner.class);
@@ -41,14 +52,11 @@ public class ConductorScanner {
                     logger.debug("Found conductor class: {}", clazz.getName());
                     conductorCount++;
 
-                    List<ConductorMethod> methods = processConductorClass(clazz);
+                    List<ConductorMethod> methods = processConductorClass(clazz, aggregator);
                     allMethods.addAll(methods);
                 }
             }
 
-            // Register protocol-specific mappings
-            registerProtocolMappings(allMethods, aggregator);
-
             logger.info("Found {} conductors with {} intent methods", conductorCount, allMethods.size());
 
         } catch (Exception e) {
@@ -59,51 +67,10 @@ public class ConductorScanner {
         return allMethods;
     }
 
-    /**
-     * Registers protocol mappings from conductor methods.
-     */
-    private void registerProtocolMappings(List<ConductorMethod> methods, ProtocolAggregator aggregator) {
-        // Register HTTP mappings if an HTTP adapter is available
-        registerHttpMappings(methods, aggregator);
-    }
-    
-    /**
-     * Registers HTTP mappings for conductor methods.
-     */
-    private void registerHttpMappings(List<ConductorMethod> methods, ProtocolAggregator aggregator) {
-        try {
-            Object httpAdapter = aggregator.getProtocolAdapter(ProtocolNames.HTTP);
-            if (httpAdapter != null) {
-                // Check if the adapter is configurable
-                if (httpAdapter.getClass().getName().contains("ConfigurableHttpProtocolAdapter")) {
-                    registerHttpMappingsViaReflection(methods, httpAdapter);
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not register HTTP mappings: {}", e.getMessage());
-        }
-    }
-    
-    private void registerHttpMappingsViaReflection(List<ConductorMethod> methods, Object httpAdapter) throws Exception {
-        Class<?> resolverClass = Class.forName("horizon.web.http.resolver.AnnotationBasedHttpIntentResolver");
-        Object annotationResolver = resolverClass.getDeclaredConstructor().newInstance();
-
-        Method registerMethod = resolverClass.getMethod("registerConductorMethod", ConductorMethod.class);
-        for (ConductorMethod method : methods) {
-            registerMethod.invoke(annotationResolver, method);
-        }
-
-        Method addResolverMethod = httpAdapter.getClass().getMethod("addResolver", 
-            Class.forName("horizon.core.protocol.IntentResolver"));
-        addResolverMethod.invoke(httpAdapter, annotationResolver);
-
-        logger.debug("Registered {} HTTP mappings", methods.size());
-    }
-
     /**
      * Processes a single Conductor class and extracts its intent methods.
      */
-    private List<ConductorMethod> processConductorClass(Class<?> clazz) {
+    private List<ConductorMethod> processConductorClass(Class<?> clazz, ProtocolAggregator aggregator) {
         List<ConductorMethod> methods = new ArrayList<>();
 
         Conductor conductorAnnotation = clazz.getAnnotation(Conductor.class);
@@ -118,6 +85,10 @@ public class ConductorScanner {
             return methods;
         }
 
+        if (instance instanceof PublisherAware) {
+            ((PublisherAware) instance).setTopicPublisher(aggregator.getTopicPublisher());
+        }
+
         // Process methods
         for (Method method : clazz.getDeclaredMethods()) {
             Intent intentAnnotation = method.getAnnotation(Intent.class);
@@ -137,13 +108,33 @@ public class ConductorScanner {
                     methods.add(new ConductorMethod(instance, method, fullAlias));
                 }
             }
+
+            BatchIntent batchAnnotation = method.getAnnotation(BatchIntent.class);
+            if (batchAnnotation != null) {
+                String batchIntent = batchAnnotation.value();
+                String fullIntent = namespace.isEmpty() ? batchIntent : namespace + "." + batchIntent;
+
+                logger.debug("Registering batch intent method: {} -> {}#{} (key: {})",
+                    fullIntent, clazz.getSimpleName(), method.getName(), batchAnnotation.key());
+
+                BatchConductorMethod batchMethod = new BatchConductorMethod(instance, method, fullIntent);
+                methods.add(batchMethod);
+
+                // Aliases share the same batches
+                for (String alias : batchAnnotation.aliases()) {
+                    String fullAlias = namespace.isEmpty() ? alias : namespace + "." + alias;
+                    methods.add(batchMethod.forAlias(fullAlias));
+                }
+            }
         }
 
         return methods;
     }
 
     /**
-     * Finds all classes in the specified package.
+     * Finds the classes of the specified package in every classpath root, without initializing
+     * them. A root with a conductor index contributes only its indexed conductors; other roots,
+     * such as JARs compiled without {@link ConductorIndexProcessor}, are scanned class by class.
      */
     private List<Class<?>> findClasses(String packageName) throws Exception {
         List<Class<?>> classes = new ArrayList<>();
@@ -154,32 +145,82 @@ public class ConductorScanner {
 
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
-            if (resource.getProtocol().equals("file")) {
+            ConductorIndex index = ConductorIndex.load(rootOf(resource, path));
+            if (index != null) {
+                findIndexedClasses(index, packageName, classLoader, classes);
+            } else if (resource.getProtocol().equals("file")) {
+                logger.info("No conductor index in {}, scanning its classes", resource);
                 File directory = new File(resource.toURI());
                 if (directory.exists()) {
-                    findClassesInDirectory(directory, packageName, classes);
+                    findClassesInDirectory(directory, packageName, classLoader, classes);
                 }
+            } else if (resource.getProtocol().equals("jar")) {
+                logger.info("No conductor index in {}, scanning its classes", resource);
+                JarURLConnection connection = (JarURLConnection) resource.openConnection();
+                // The JAR stays cached for loading the classes found in it
+                findClassesInJar(connection.getJarFile(), path, classLoader, classes);
             }
-            // TODO: Add support for JAR files when needed
         }
 
         return classes;
     }
 
+    /**
+     * Gets the classpath root of a package resource, such as {@code jar:file:/app.jar!/} for
+     * {@code jar:file:/app.jar!/com/example}.
+     */
+    private static URL rootOf(URL resource, String path) throws Exception {
+        String url = resource.toString();
+        return URI.create(url.substring(0, url.lastIndexOf(path))).toURL();
+    }
+
+    /**
+     * Finds the conductor classes of the specified package in the index of one classpath root.
+     */
+    private void findIndexedClasses(ConductorIndex index, String packageName, ClassLoader classLoader,
+                                    List<Class<?>> classes) {
+        for (ConductorIndex.ConductorEntry conductor : index.getConductors(packageName)) {
+            try {
+                classes.add(Class.forName(conductor.className(), false, classLoader));
+            } catch (ClassNotFoundException e) {
+                logger.warn("Indexed conductor class not found: {}", conductor.className());
+            }
+        }
+    }
+
+    /**
+     * Finds classes in a package of a JAR file, including its subpackages.
+     */
+    private void findClassesInJar(JarFile jar, String path, ClassLoader classLoader, List<Class<?>> classes) {
+        String prefix = path + "/";
+        for (JarEntry entry : Collections.list(jar.entries())) {
+            String name = entry.getName();
+            if (name.startsWith(prefix) && name.endsWith(".class")) {
+                String className = name.substring(0, name.length() - 6).replace('/', '.');
+                try {
+                    classes.add(Class.forName(className, false, classLoader));
+                } catch (ClassNotFoundException e) {
+                    logger.warn("Failed to load class: {}", className);
+                }
+            }
+        }
+    }
+
     /**
      * Recursively finds classes in a directory.
      */
-    private void findClassesInDirectory(File directory, String packageName, List<Class<?>> classes) {
+    private void findClassesInDirectory(File directory, String packageName, ClassLoader classLoader,
+                                        List<Class<?>> classes) {
         File[] files = directory.listFiles();
         if (files == null) return;
 
         for (File file : files) {
             if (file.isDirectory()) {
-                findClassesInDirectory(file, packageName + "." + file.getName(), classes);
+                findClassesInDirectory(file, packageName + "." + file.getName(), classLoader, classes);
             } else if (file.getName().endsWith(".class")) {
                 String className = packageName + '.' + file.getName().substring(0, file.getName().length() - 6);
                 try {
-                    classes.add(Class.forName(className));
+                    classes.add(Class.forName(className, false, classLoader));
                 } catch (ClassNotFoundException e) {
                     logger.warn("Failed to load class: {}", className);
                 }
@@ -1,6 +1,8 @@
 package horizon.demo;
 
 import horizon.core.ProtocolAggregator;
+import horizon.web.grpc.GrpcFoyer;
+import horizon.web.grpc.GrpcProtocol;
 import horizon.web.http.HttpFoyer;
 import horizon.web.http.HttpProtocol;
 import horizon.web.websocket.WebSocketFoyer;
@@ -10,7 +12,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Horizon Framework Demo Application.
- * Demonstrates protocol-neutral development with HTTP and WebSocket.
+ * Demonstrates protocol-neutral development with HTTP, WebSocket and gRPC.
  */
 public class DemoApplication {
     private static final Logger logger = LoggerFactory.getLogger(DemoApplication.class);
@@ -22,17 +24,10 @@ public class DemoApplication {
 
         logger.info("Starting Horizon Framework v0.4 Demo");
 
-        // Create the Protocol Aggregator
-        ProtocolAggregator aggregator = new ProtocolAggregator();
-
-        // Register protocols
-        aggregator.registerProtocol(new HttpProtocol(), new HttpFoyer(8080));
-        aggregator.registerProtocol(new WebSocketProtocol(), new WebSocketFoyer(8081));
-
-        // Scan and register conductors
-        aggregator.scanConductors("horizon.demo.conductor");
-
-        // Start the aggregator
+        // Create the Protocol Aggregator and start it
+        ProtocolAggregator aggregator = createAggregator(new HttpFoyer(8080), new WebSocketFoyer(8081), new GrpcFoyer(9090));
+        // Compile the @WarmUp intents before the first request arrives
+        aggregator.getWarmUpStage().setEnabled(true);
         aggregator.start();
 
         printStartupMessage();
@@ -51,6 +46,34 @@ public class DemoApplication {
         }
     }
 
+    /**
+     * Creates the demo's aggregator, with its protocols and conductors registered but not started.
+     * Tools that drive the demo in-process pass foyers on port 0 and read the bound ports once started.
+     */
+    public static ProtocolAggregator createAggregator(HttpFoyer httpFoyer, WebSocketFoyer webSocketFoyer) {
+        return createAggregator(httpFoyer, webSocketFoyer, null);
+    }
+
+    /**
+     * Creates the demo's aggregator, also serving UserService over gRPC unless the gRPC foyer is null.
+     */
+    public static ProtocolAggregator createAggregator(HttpFoyer httpFoyer, WebSocketFoyer webSocketFoyer,
+                                                      GrpcFoyer grpcFoyer) {
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+
+        // Register protocols
+        aggregator.registerProtocol(new HttpProtocol(), httpFoyer);
+        aggregator.registerProtocol(new WebSocketProtocol(), webSocketFoyer);
+        if (grpcFoyer != null) {
+            grpcFoyer.addService(UserServiceGrpc.getServiceDescriptor());
+            aggregator.registerProtocol(new GrpcProtocol(), grpcFoyer);
+        }
+
+        // Scan and register conductors
+        aggregator.scanConductors("horizon.demo.conductor");
+        return aggregator;
+    }
+
     private static void printStartupMessage() {
         System.out.println("""
 
@@ -78,6 +101,11 @@ public class DemoApplication {
             ║   Connect: ws://localhost:8081/ws                        ║
             ║   Send: {"intent": "user.create", "data": {...}}         ║
             ║                                                          ║
+            ║ gRPC (port 9090):                                        ║
+            ║   UserService/CreateUser     → user.create               ║
+            ║   UserService/GetUser        → user.get                  ║
+            ║   UserService/StreamUsers    → user.stream (streaming)   ║
+            ║                                                          ║
             ╠══════════════════════════════════════════════════════════╣
             ║  The SAME @Conductor handles ALL protocols! 🎉           ║
             ╚══════════════════════════════════════════════════════════╝
@@ -2,6 +2,8 @@ package horizon.demo.conductor;
 
 import horizon.core.annotation.*;
 import horizon.core.protocol.ProtocolNames;
+import horizon.core.publish.PublisherAware;
+import horizon.core.publish.TopicPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,17 +17,27 @@ import java.util.stream.Collectors;
  * Primarily designed for WebSocket but also accessible via HTTP for certain operations.
  * 
  * This conductor demonstrates how to handle real-time, session-based interactions
- * in the Horizon Framework.
+ * in the Horizon Framework. WebSocket sessions that join are subscribed to the
+ * chat room topic and receive messages, typing indicators and system messages as they happen.
  */
 @Conductor(namespace = "chat")
 @ProtocolAccess({ProtocolNames.WEBSOCKET, ProtocolNames.HTTP})
-public class ChatConductor {
+public class ChatConductor implements PublisherAware {
     private static final Logger logger = LoggerFactory.getLogger(ChatConductor.class);
+
+    static final String ROOM_TOPIC = "chat.room";
+    
+    private volatile TopicPublisher publisher;
     
     // Active sessions and messages
     private final Map<String, ChatSession> sessions = new ConcurrentHashMap<>();
     private final List<ChatMessage> messageHistory = Collections.synchronizedList(new ArrayList<>());
     private final int MAX_HISTORY = 100;
+
+    @Override
+    public void setTopicPublisher(TopicPublisher publisher) {
+        this.publisher = publisher;
+    }
     
     /**
      * Join the chat room.
@@ -42,7 +54,7 @@ public class ChatConductor {
     )
     public Map<String, Object> joinChat(
         @Param("username") String username,
-        @Param(value = "_sessionId", required = false) String sessionId
+        @Param(value = "_sessionId", required = false) @OrderingKey String sessionId
     ) {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("Username is required");
@@ -69,6 +81,9 @@ public class ChatConductor {
         // Create session
         ChatSession session = new ChatSession(sessionId, username, Instant.now());
         sessions.put(sessionId, session);
+        if (publisher != null) {
+            publisher.subscribe(ROOM_TOPIC, sessionId);
+        }
         
         // Prepare response
         Map<String, Object> response = new HashMap<>();
@@ -78,7 +93,7 @@ public class ChatConductor {
         response.put("activeUsers", getActiveUsers());
         response.put("recentMessages", getRecentMessages(10));
         
-        // Broadcast user joined (in real app, would use WebSocket broadcast)
+        // Broadcast user joined
         broadcastSystemMessage(username + " joined the chat");
         
         return response;
@@ -89,8 +104,10 @@ public class ChatConductor {
      * Protocol mappings:
      * - WebSocket: chat.message
      * - HTTP: POST /chat/message (for testing)
+     * Each session may send 5 messages per second, in bursts of up to 10.
      */
     @Intent("message")
+    @RateLimit(permits = 5, burst = 10, key = RateLimit.Key.SESSION, protocols = ProtocolNames.WEBSOCKET)
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "WebSocket", value = "chat.message"),
@@ -99,7 +116,7 @@ public class ChatConductor {
     )
     public Map<String, Object> sendMessage(
         @Param("message") String message,
-        @Param(value = "_sessionId", required = false) String sessionId,
+        @Param(value = "_sessionId", required = false) @OrderingKey String sessionId,
         @Param(value = "sessionId", required = false) String httpSessionId
     ) {
         // Support both WebSocket automatic session ID and HTTP explicit session ID
@@ -146,13 +163,14 @@ public class ChatConductor {
         response.put("messageId", chatMessage.id);
         response.put("timestamp", chatMessage.timestamp.toString());
         
-        // In a real implementation, would broadcast to all connected users
+        // Broadcast to everyone in the room
         Map<String, Object> broadcast = new HashMap<>();
         broadcast.put("type", "message");
         broadcast.put("from", chatMessage.username);
         broadcast.put("message", chatMessage.message);
         broadcast.put("timestamp", chatMessage.timestamp.toString());
         response.put("broadcast", broadcast);
+        publish(broadcast);
         
         return response;
     }
@@ -171,7 +189,7 @@ public class ChatConductor {
         }
     )
     public Map<String, Object> leaveChat(
-        @Param(value = "_sessionId", required = false) String sessionId,
+        @Param(value = "_sessionId", required = false) @OrderingKey String sessionId,
         @Param(value = "sessionId", required = false) String httpSessionId
     ) {
         String sid = sessionId != null ? sessionId : httpSessionId;
@@ -185,6 +203,9 @@ public class ChatConductor {
         Map<String, Object> response = new HashMap<>();
         if (session != null) {
             logger.info("User {} left chat", session.username);
+            if (publisher != null) {
+                publisher.unsubscribe(ROOM_TOPIC, sid);
+            }
             
             response.put("success", true);
             response.put("message", "Goodbye, " + session.username + "!");
@@ -281,7 +302,7 @@ public class ChatConductor {
         schema = @ProtocolSchema(protocol = "WebSocket", value = "chat.typing")
     )
     public Map<String, Object> typing(
-        @Param(value = "_sessionId") String sessionId,
+        @Param(value = "_sessionId") @OrderingKey String sessionId,
         @Param(value = "typing", defaultValue = "true") boolean isTyping
     ) {
         ChatSession session = sessions.get(sessionId);
@@ -296,7 +317,7 @@ public class ChatConductor {
         session.isTyping = isTyping;
         session.lastActivity = Instant.now();
         
-        // In real implementation, would broadcast typing status
+        // Broadcast typing status
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         
@@ -305,6 +326,7 @@ public class ChatConductor {
         broadcast.put("username", session.username);
         broadcast.put("typing", isTyping);
         response.put("broadcast", broadcast);
+        publish(broadcast);
         
         return response;
     }
@@ -352,6 +374,14 @@ public class ChatConductor {
         if (messageHistory.size() > MAX_HISTORY) {
             messageHistory.remove(0);
         }
+
+        publish(messageToMap(systemMessage));
+    }
+
+    private void publish(Map<String, Object> event) {
+        if (publisher != null) {
+            publisher.publish(ROOM_TOPIC, event);
+        }
     }
     
     // Data classes
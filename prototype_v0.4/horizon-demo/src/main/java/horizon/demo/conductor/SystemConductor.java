@@ -1,5 +1,6 @@
 package horizon.demo.conductor;
 
+import horizon.core.HorizonContext;
 import horizon.core.annotation.*;
 import horizon.core.metrics.MetricsCollector;
 import horizon.core.protocol.ProtocolNames;
@@ -31,8 +32,14 @@ public class SystemConductor {
      * Protocol mappings:
      * - HTTP: GET /health
      * - WebSocket: system.health
+     * Health probes poll often and the body is tiny, so it is never compressed.
+     * Runs in the critical lane, so it answers while other intents are saturated.
+     * Warmed up at startup, so the first probes after a deploy are answered by compiled code.
      */
-    @Intent("health")
+    @Intent(value = "health", priority = Priority.CRITICAL)
+    @ExecutionLane(ExecutionLane.CRITICAL)
+    @WarmUp
+    @ResponseCompression(enabled = false)
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "GET /health"),
@@ -60,7 +67,9 @@ public class SystemConductor {
      * - HTTP: GET /info
      * - WebSocket: system.info
      */
-    @Intent("info")
+    @Intent(value = "info", priority = Priority.CRITICAL)
+    @ExecutionLane(ExecutionLane.CRITICAL)
+    @WarmUp
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "GET /info"),
@@ -110,7 +119,9 @@ public class SystemConductor {
      * - HTTP: GET /metrics
      * - WebSocket: system.metrics
      */
-    @Intent("metrics")
+    @Intent(value = "metrics", priority = Priority.CRITICAL)
+    @ExecutionLane(ExecutionLane.CRITICAL)
+    @WarmUp("{\"detailed\": false}")
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "GET /metrics"),
@@ -167,8 +178,10 @@ public class SystemConductor {
      * Protocol mappings:
      * - HTTP: GET /
      * - WebSocket: system.welcome
+     * The body never changes, so its compressed form is cached under the framework version.
      */
     @Intent("welcome")
+    @ResponseCompression(cached = true)
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "GET /"),
@@ -176,6 +189,10 @@ public class SystemConductor {
         }
     )
     public Map<String, Object> welcome() {
+        HorizonContext context = HorizonContext.current();
+        if (context != null) {
+            context.setAttribute(ResponseCompression.VERSION, "0.4");
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Welcome to Horizon Framework v0.4");
         response.put("description", "A protocol aggregation framework for building multi-protocol services");
@@ -210,13 +227,42 @@ public class SystemConductor {
         return response;
     }
     
+    /**
+     * Waits before answering, to try out deadlines and cancellation.
+     * Protocol mappings:
+     * - HTTP: GET /delay?millis=... (a shorter X-Request-Timeout header applies)
+     * - WebSocket: system.delay (a shorter "timeout" field applies)
+     * Waits longer than 5 seconds fail with a deadline exceeded error.
+     * Runs in the bulk lane, so long waits queue there instead of delaying health checks.
+     */
+    @Intent(value = "delay", timeout = 5000)
+    @ExecutionLane(ExecutionLane.BULK)
+    @ProtocolAccess(
+        schema = {
+            @ProtocolSchema(protocol = "HTTP", value = "GET /delay"),
+            @ProtocolSchema(protocol = "WebSocket", value = "system.delay")
+        }
+    )
+    public Map<String, Object> delay(
+        @Param(value = "millis", required = false) Long millis
+    ) throws InterruptedException {
+        long wait = millis != null ? millis : 1000;
+        Thread.sleep(wait);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("waitedMillis", wait);
+        response.put("timestamp", Instant.now().toString());
+        return response;
+    }
+
     /**
      * Reset metrics endpoint.
      * Protocol mappings:
      * - HTTP: POST /metrics/reset
      * - WebSocket: system.metrics.reset
      */
-    @Intent("metrics.reset")
+    @Intent(value = "metrics.reset", priority = Priority.CRITICAL)
+    @ExecutionLane(ExecutionLane.CRITICAL)
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "POST /metrics/reset"),
@@ -7,11 +7,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * User management conductor demonstrating protocol-neutral parameter handling with DTOs.
- * This single implementation works seamlessly with HTTP and WebSocket.
+ * This single implementation works seamlessly with HTTP, WebSocket and gRPC.
  */
 @Conductor(namespace = "user")
 @ProtocolAccess({ProtocolNames.HTTP, ProtocolNames.WEBSOCKET})
@@ -26,12 +30,16 @@ public class UserConductor {
      * Protocol-neutral parameters automatically work with:
      * - HTTP: POST /users with JSON body
      * - WebSocket: {intent: "user.create", data: {...}}
+     * - gRPC: UserService/CreateUser with a CreateUserRequest message
+     * Each client IP may create 10 users per second.
      */
     @Intent("create")
+    @RateLimit(permits = 10, key = RateLimit.Key.IP)
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "POST /users"),
-            @ProtocolSchema(protocol = "WebSocket", value = "user.create")
+            @ProtocolSchema(protocol = "WebSocket", value = "user.create"),
+            @ProtocolSchema(protocol = "gRPC", value = "UserService/CreateUser")
         }
     )
     public CreateUserResponse createUser(
@@ -102,12 +110,14 @@ public class UserConductor {
      * @Param automatically finds userId from:
      * - HTTP: /users/{userId} or ?userId=xxx
      * - WebSocket: data.userId
+     * - gRPC: the user_id field of GetUserRequest
      */
     @Intent("get")
     @ProtocolAccess(
         schema = {
             @ProtocolSchema(protocol = "HTTP", value = "GET /users/{userId}"),
-            @ProtocolSchema(protocol = "WebSocket", value = "user.get")
+            @ProtocolSchema(protocol = "WebSocket", value = "user.get"),
+            @ProtocolSchema(protocol = "gRPC", value = "UserService/GetUser")
         }
     )
     public GetUserResponse getUser(@Param("userId") String userId) {
@@ -126,6 +136,36 @@ public class UserConductor {
         );
     }
 
+    /**
+     * Gets user summaries for many IDs in one lookup.
+     * Callers still send one userId per request:
+     * - HTTP: GET /users/{userId}/summary
+     * - WebSocket: {intent: "user.summary", data: {userId: "..."}}
+     * Requests arriving within 2ms of each other are served by a single call.
+     */
+    @BatchIntent(value = "summary", key = "userId", maxDelayMs = 2, maxBatchSize = 64)
+    @ProtocolAccess(
+        schema = {
+            @ProtocolSchema(protocol = "HTTP", value = "GET /users/{userId}/summary"),
+            @ProtocolSchema(protocol = "WebSocket", value = "user.summary")
+        }
+    )
+    public Map<String, Map<String, Object>> getUserSummaries(List<String> userIds) {
+        logger.info("Getting {} user summaries in one batch", userIds.size());
+
+        Map<String, Map<String, Object>> summaries = new HashMap<>();
+        for (String userId : userIds) {
+            UserData userData = users.get(userId);
+            if (userData != null) {
+                summaries.put(userId, Map.of(
+                    "userId", userData.userId(),
+                    "name", userData.name()
+                ));
+            }
+        }
+        return summaries;
+    }
+
     /**
      * Tests parameter resolution with multiple parameters.
      */
@@ -220,6 +260,118 @@ public class UserConductor {
         );
     }
 
+    /**
+     * Streams users to a gRPC client through UserService/StreamUsers.
+     * Users are read from storage only as the client is ready to receive them.
+     */
+    @Intent("stream")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/StreamUsers"))
+    public Stream<Map<String, Object>> streamUsers(@Param(value = "limit", defaultValue = "0") int limit) {
+        logger.info("Streaming users - limit: {}", limit);
+
+        return users.values().stream()
+            .limit(limit > 0 ? limit : Long.MAX_VALUE)
+            .map(user -> Map.of(
+                "id", user.userId(),
+                "name", user.name(),
+                "email", user.email()
+            ));
+    }
+
+    /**
+     * Creates the users a gRPC client streams through UserService/ImportUsers, and answers
+     * once the client has sent them all. Each user is read from the call only after the
+     * previous one was created, so a fast client is held back by flow control.
+     * An invalid user fails the import; the users created before it are kept.
+     */
+    @Intent("import")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/ImportUsers"))
+    public Map<String, Object> importUsers(Flow.Publisher<horizon.demo.CreateUserRequest> requests)
+            throws InterruptedException {
+        List<String> userIds = new ArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        requests.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(horizon.demo.CreateUserRequest request) {
+                try {
+                    userIds.add(createUser(request.getName(), request.getEmail()).getUserId());
+                } catch (RuntimeException e) {
+                    subscription.cancel();
+                    done.completeExceptionally(e);
+                    return;
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        try {
+            done.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException error ? error : new IllegalStateException(e.getCause());
+        }
+        logger.info("Imported {} users", userIds.size());
+        return Map.of("created", userIds.size(), "userIds", userIds);
+    }
+
+    /**
+     * Validates each user a gRPC client streams through UserService/ValidateUsers, answering
+     * each one as it arrives. The next user is read only once the answer could be sent.
+     */
+    @Intent("validate.stream")
+    @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/ValidateUsers"))
+    public Flow.Publisher<Map<String, Object>> validateUsers(Flow.Publisher<horizon.demo.ValidateUserRequest> requests) {
+        // Requests for answers pass straight through to the client's stream
+        return subscriber -> requests.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(horizon.demo.ValidateUserRequest request) {
+                subscriber.onNext(validate(request.getName(), request.getEmail()));
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                subscriber.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    private static Map<String, Object> validate(String name, String email) {
+        Map<String, String> errors = new HashMap<>();
+        if (name == null || name.trim().isEmpty()) {
+            errors.put("name", "Name is required");
+        }
+        if (email == null || !email.contains("@")) {
+            errors.put("email", "Valid email is required");
+        }
+        return Map.of("valid", errors.isEmpty(), "errors", errors);
+    }
+
     /**
      * Simple user data record for internal storage.
      */
@@ -0,0 +1,110 @@
+package horizon.demo;
+
+import horizon.core.execution.AdaptiveLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the gradient concurrency limiter behind load shedding.
+ */
+public class AdaptiveLimiterTest {
+
+    @Test
+    public void testRejectsOverLimitAndReleases() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.acquire(TimeUnit.MILLISECONDS.toNanos(10), 4));
+
+        limiter.release(-1);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        // Unlimited slots are counted but never refused
+        limiter.acquireUnlimited();
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100);
+        long rtt = TimeUnit.MILLISECONDS.toNanos(5);
+
+        for (int i = 0; i < 50; i++) {
+            fill(limiter);
+            drain(limiter, rtt);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(50, 4, 100);
+
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            drain(limiter, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            drain(limiter, TimeUnit.MILLISECONDS.toNanos(50));
+        }
+
+        assertTrue(limiter.getLimit() < before,
+            "limit should shrink, was " + before + " now " + limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitDecaysUnderLightLoad() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(100, 4, 100);
+        long rtt = TimeUnit.MILLISECONDS.toNanos(5);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(rtt);
+        }
+
+        int limit = limiter.getLimit();
+        assertTrue(limit < 10, "limit should decay, was " + limit);
+        assertTrue(limit >= 4, "limit should stay at or above the minimum, was " + limit);
+    }
+
+    @Test
+    public void testWaiterGetsReleasedSlot() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 1);
+        assertTrue(limiter.tryAcquire());
+
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(20));
+        });
+
+        assertTrue(limiter.acquire(TimeUnit.SECONDS.toNanos(5), 4));
+        releaser.join();
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    private static void fill(AdaptiveLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // Take every free slot so samples count as load
+        }
+    }
+
+    private static void drain(AdaptiveLimiter limiter, long rttNanos) {
+        while (limiter.getInFlight() > 0) {
+            limiter.release(rttNanos);
+        }
+    }
+}
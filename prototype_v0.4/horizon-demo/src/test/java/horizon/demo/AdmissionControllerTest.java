@@ -0,0 +1,115 @@
+package horizon.demo;
+
+import horizon.web.common.AdmissionPolicy;
+import horizon.web.websocket.WebSocketFoyer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the connection limit of a foyer, with connections over it rejected or held back.
+ */
+public class AdmissionControllerTest {
+    // Not an upgrade, so an admitted connection is answered with a 404
+    private static final String REQUEST = "GET /elsewhere HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private WebSocketFoyer foyer;
+
+    @BeforeEach
+    public void setUp() {
+        foyer = new WebSocketFoyer(0);
+        foyer.getAdmission().setMaxConnections(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        foyer.close();
+    }
+
+    @Test
+    public void testConnectionsOverTheLimitAreRejected() throws Exception {
+        foyer.open();
+        try (Socket first = connect()) {
+            awaitActive(1);
+            try (Socket second = connect()) {
+                String head = readHead(second);
+                assertTrue(head.startsWith("HTTP/1.1 503"), head);
+                assertTrue(head.contains("Retry-After: 1"), head);
+            }
+            assertEquals(1, foyer.getAdmission().getActiveConnections());
+        }
+        awaitActive(0);
+
+        try (Socket third = connect()) {
+            send(third, REQUEST);
+            assertTrue(readHead(third).startsWith("HTTP/1.1 404"));
+        }
+    }
+
+    @Test
+    public void testPausedAcceptsResumeWhenAConnectionCloses() throws Exception {
+        foyer.getAdmission().setPolicy(AdmissionPolicy.PAUSE);
+        foyer.open();
+        Socket first = connect();
+        try {
+            awaitActive(1);
+            try (Socket second = connect()) {
+                assertTrue(readHead(second).startsWith("HTTP/1.1 503"));
+            }
+
+            // Accepts are paused, so this connection waits in the backlog rather than being turned away
+            try (Socket third = connect()) {
+                send(third, REQUEST);
+                third.setSoTimeout(300);
+                assertThrows(SocketTimeoutException.class, () -> third.getInputStream().read());
+
+                first.close();
+                third.setSoTimeout(5000);
+                assertTrue(readHead(third).startsWith("HTTP/1.1 404"));
+            }
+        } finally {
+            first.close();
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", foyer.getBoundPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static void send(Socket socket, String request) throws IOException {
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+    }
+
+    private static String readHead(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            head.write(b);
+            if (head.toString(StandardCharsets.US_ASCII).endsWith("\r\n\r\n")) {
+                break;
+            }
+        }
+        return head.toString(StandardCharsets.US_ASCII);
+    }
+
+    private void awaitActive(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (foyer.getAdmission().getActiveConnections() != count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, foyer.getAdmission().getActiveConnections());
+    }
+}
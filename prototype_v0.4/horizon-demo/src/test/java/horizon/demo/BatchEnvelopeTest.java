@@ -0,0 +1,134 @@
+package horizon.demo;
+
+import horizon.core.Foyer;
+import horizon.core.ProtocolAggregator;
+import horizon.core.Rendezvous;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.OrderingKey;
+import horizon.core.annotation.Param;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.protocol.ProtocolNames;
+import horizon.web.common.BatchEnvelope;
+import horizon.web.http.HttpProtocol;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test running batch envelope entries through the Rendezvous.
+ */
+public class BatchEnvelopeTest {
+
+    @Conductor(namespace = "probe")
+    @ProtocolAccess(ProtocolNames.HTTP)
+    public static class ProbeConductor {
+        final List<Integer> appended = new CopyOnWriteArrayList<>();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Intent("append")
+        public int append(@Param("account") @OrderingKey String account, @Param("n") int n) throws InterruptedException {
+            // Earlier entries sleep longer, so only ordering keeps them first
+            Thread.sleep(20 - n);
+            appended.add(n);
+            return n;
+        }
+
+        @Intent("hang")
+        public String hang() {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }
+    }
+
+    private static class CapturingFoyer implements Foyer<FullHttpRequest> {
+        Rendezvous<FullHttpRequest, ?> rendezvous;
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void connectToRendezvous(Rendezvous<FullHttpRequest, ?> rendezvous) {
+            this.rendezvous = rendezvous;
+        }
+    }
+
+    private final ProbeConductor conductor = new ProbeConductor();
+    private final CapturingFoyer foyer = new CapturingFoyer();
+    private final BatchEnvelope envelope = new BatchEnvelope();
+    private final FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/_batch");
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new HttpProtocol(), foyer);
+        aggregator.registerConductorMethod(new ConductorMethod(conductor,
+            ProbeConductor.class.getMethod("append", String.class, int.class), "probe.append"));
+        aggregator.registerConductorMethod(new ConductorMethod(conductor,
+            ProbeConductor.class.getMethod("hang"), "probe.hang"));
+    }
+
+    @Test
+    public void testEntriesWithOneOrderingKeyRunInEnvelopeOrder() throws Exception {
+        List<Object> items = new ArrayList<>();
+        for (int n = 0; n < 10; n++) {
+            items.add(Map.of("intent", "probe.append", "data", Map.of("account", "a1", "n", n)));
+        }
+
+        List<Object> results = run(envelope.parse(items));
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), conductor.appended);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), results);
+    }
+
+    @Test
+    public void testEntriesPastTheDeadlineAreCancelled() throws Exception {
+        envelope.setDeadline(Duration.ofSeconds(1));
+        List<Object> results = run(envelope.parse(List.of(
+            Map.of("intent", "probe.append", "data", Map.of("account", "a1", "n", 1)),
+            Map.of("intent", "probe.hang")
+        )));
+
+        assertEquals(1, results.get(0));
+        assertInstanceOf(TimeoutException.class, results.get(1));
+        assertTrue(conductor.interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private List<Object> run(List<BatchEnvelope.Entry> entries) throws Exception {
+        return envelope.<Object>executeAsync(
+            entries,
+            entry -> foyer.rendezvous.encounterAsync(entry.getIntent(), entry.getData(), request),
+            (entry, context) -> context.hasError() ? context.getError() : context.getResult(),
+            (entry, error) -> error
+        ).get(10, TimeUnit.SECONDS);
+    }
+}
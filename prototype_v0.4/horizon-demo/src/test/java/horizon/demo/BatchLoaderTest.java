@@ -0,0 +1,106 @@
+package horizon.demo;
+
+import horizon.core.annotation.BatchIntent;
+import horizon.core.batch.BatchLoader;
+import horizon.core.conductor.BatchConductorMethod;
+import horizon.core.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test micro-batching of single-key loads.
+ */
+public class BatchLoaderTest {
+
+    @Test
+    public void testKeysWithinWindowShareOneCall() throws Exception {
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        BatchLoader<String, String> loader = new BatchLoader<>("test.window", keys -> {
+            calls.add(keys);
+            Map<String, String> result = new HashMap<>();
+            keys.forEach(key -> result.put(key, key.toUpperCase()));
+            return result;
+        }, Duration.ofMillis(50), 100);
+
+        CompletableFuture<String> a = loader.load("a");
+        CompletableFuture<String> b = loader.load("b");
+        CompletableFuture<String> again = loader.load("a");
+
+        assertEquals("A", a.get(1, TimeUnit.SECONDS));
+        assertEquals("B", b.get(1, TimeUnit.SECONDS));
+        assertEquals("A", again.get(1, TimeUnit.SECONDS));
+        assertEquals(1, calls.size());
+        assertEquals(List.of("a", "b"), calls.get(0));
+    }
+
+    @Test
+    public void testFullBatchDispatchesImmediately() throws Exception {
+        List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+        BatchLoader<Integer, Integer> loader = new BatchLoader<>("test.size", keys -> {
+            calls.add(keys);
+            Map<Integer, Integer> result = new HashMap<>();
+            keys.forEach(key -> result.put(key, key * 2));
+            return result;
+        }, Duration.ofSeconds(10), 3);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(loader.load(i));
+        }
+
+        // The window is 10 seconds, so completion proves the size trigger fired
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i * 2, futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void testMissingKeyAndFailure() throws Exception {
+        BatchLoader<String, String> partial = new BatchLoader<>("test.partial",
+            keys -> Map.of("known", "value"), Duration.ofMillis(1), 10);
+        assertNull(partial.load("unknown").get(1, TimeUnit.SECONDS));
+
+        BatchLoader<String, String> failing = new BatchLoader<>("test.failing", keys -> {
+            throw new IllegalStateException("backend down");
+        }, Duration.ofMillis(1), 10);
+        CompletableFuture<String> future = failing.load("key");
+        Exception e = assertThrows(Exception.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    public static class SlowBatch {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @BatchIntent(value = "slow", key = "id", maxDelayMs = 1, timeout = 50)
+        public Map<String, String> load(List<String> ids) throws InterruptedException {
+            release.await();
+            return Map.of();
+        }
+    }
+
+    @Test
+    public void testBatchWaitIsBounded() throws Exception {
+        SlowBatch batch = new SlowBatch();
+        BatchConductorMethod method = new BatchConductorMethod(batch,
+            SlowBatch.class.getMethod("load", List.class), "test.slow");
+        try {
+            long start = System.nanoTime();
+            assertThrows(DeadlineExceededException.class, () -> method.invoke(Map.of("id", "a")));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            batch.release.countDown();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package horizon.demo;
+
+import horizon.core.annotation.Bulkhead;
+import horizon.core.annotation.CircuitBreaker;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.CircuitOpenException;
+import horizon.core.exception.OverloadException;
+import horizon.core.execution.Bulkheads;
+import horizon.core.execution.CircuitBreakers;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test circuit breakers and bulkheads around conductor methods.
+ */
+public class CircuitBreakersTest {
+
+    @Conductor(namespace = "remote")
+    @Bulkhead(maxConcurrent = 2)
+    public static class RemoteConductor {
+
+        @Intent("fetch")
+        @CircuitBreaker(windowSize = 4, minimumCalls = 4, failureRateThreshold = 50,
+            slowCallMillis = 1000, openMillis = 50, halfOpenCalls = 2)
+        public String fetch() {
+            return "ok";
+        }
+
+        @Intent("store")
+        @Bulkhead(maxConcurrent = 1)
+        public String store() {
+            return "ok";
+        }
+
+        @Intent("report")
+        @Bulkhead(maxConcurrent = 1, maxWaitMillis = 5000)
+        public String report() {
+            return "ok";
+        }
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndClosesAfterProbes() throws Exception {
+        CircuitBreakers.Breaker breaker = new CircuitBreakers().forMethod(method("fetch"));
+        long fast = TimeUnit.MILLISECONDS.toNanos(1);
+
+        breaker.record(breaker.acquire(), fast, null);
+        breaker.record(breaker.acquire(), fast, null);
+        breaker.record(breaker.acquire(), fast, new IllegalStateException("down"));
+        assertEquals(CircuitBreakers.State.CLOSED, breaker.getState());
+        breaker.record(breaker.acquire(), fast, new IllegalStateException("down"));
+        assertEquals(CircuitBreakers.State.OPEN, breaker.getState());
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertFalse(e.getRetryAfter().isNegative());
+
+        Thread.sleep(80);
+        long first = breaker.acquire();
+        long second = breaker.acquire();
+        assertEquals(CircuitBreakers.State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        breaker.record(first, fast, null);
+        breaker.record(second, fast, null);
+        assertEquals(CircuitBreakers.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testCallerErrorsAndSlowProbesAreClassified() throws Exception {
+        CircuitBreakers.Breaker breaker = new CircuitBreakers().forMethod(method("fetch"));
+        long fast = TimeUnit.MILLISECONDS.toNanos(1);
+
+        for (int i = 0; i < 8; i++) {
+            breaker.record(breaker.acquire(), fast, new IllegalArgumentException("bad request"));
+        }
+        assertEquals(CircuitBreakers.State.CLOSED, breaker.getState());
+
+        for (int i = 0; i < 4; i++) {
+            breaker.record(breaker.acquire(), fast, new IllegalStateException("down"));
+        }
+        Thread.sleep(80);
+        breaker.record(breaker.acquire(), TimeUnit.SECONDS.toNanos(2), null);
+        assertEquals(CircuitBreakers.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testBulkheadsShedWhenFull() throws Exception {
+        Bulkheads bulkheads = new Bulkheads();
+        ConductorMethod store = method("store");
+        ConductorMethod fetch = method("fetch");
+
+        Bulkheads.Compartment[] held = bulkheads.acquire(store, true);
+        assertThrows(OverloadException.class, () -> bulkheads.acquire(store, true));
+
+        // The conductor-wide bulkhead has one slot left, and a rejected store took none of it
+        Bulkheads.Compartment[] other = bulkheads.acquire(fetch, true);
+        assertThrows(OverloadException.class, () -> bulkheads.acquire(fetch, true));
+
+        bulkheads.release(held);
+        bulkheads.release(other);
+        assertNotNull(bulkheads.acquire(store, true));
+        assertEquals(1, bulkheads.getActiveCounts().get("remote.store"));
+    }
+
+    @Test
+    public void testBulkheadsWaitOnlyWhereTheCallerMayBlock() throws Exception {
+        Bulkheads bulkheads = new Bulkheads();
+        ConductorMethod report = method("report");
+        Bulkheads.Compartment[] held = bulkheads.acquire(report, true);
+
+        // On an event loop the request is shed at once instead of waiting up to maxWaitMillis
+        long start = System.nanoTime();
+        assertThrows(OverloadException.class, () -> bulkheads.acquire(report, false));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        CompletableFuture<Bulkheads.Compartment[]> waiting = CompletableFuture.supplyAsync(
+            () -> bulkheads.acquire(report, true));
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+        bulkheads.release(held);
+        bulkheads.release(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    private static ConductorMethod method(String name) throws Exception {
+        Intent intent = RemoteConductor.class.getMethod(name).getAnnotation(Intent.class);
+        return new ConductorMethod(new RemoteConductor(), RemoteConductor.class.getMethod(name),
+            "remote." + intent.value());
+    }
+}
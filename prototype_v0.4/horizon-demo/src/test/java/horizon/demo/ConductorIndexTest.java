@@ -0,0 +1,200 @@
+package horizon.demo;
+
+import horizon.core.ProtocolAggregator;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.scanner.ConductorIndex;
+import horizon.core.scanner.ConductorIndexProcessor;
+import horizon.core.scanner.ConductorScanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the conductor index generated at compile time.
+ */
+public class ConductorIndexTest {
+
+    @Test
+    public void testDemoConductorsAreIndexed() throws Exception {
+        ConductorIndex index = ConductorIndex.load(getClass().getClassLoader());
+
+        assertEquals(List.of("horizon.demo.conductor.ChatConductor", "horizon.demo.conductor.SystemConductor",
+                "horizon.demo.conductor.UserConductor"),
+            index.getConductors("horizon.demo.conductor").stream().map(ConductorIndex.ConductorEntry::className).toList());
+        assertTrue(index.getConductors("horizon.demo.other").isEmpty());
+    }
+
+    @Test
+    public void testReadSkipsCommentsAndRejectsMalformedRecords() throws Exception {
+        ConductorIndex index = ConductorIndex.read(new StringReader(
+            "# comment\nconductor\tapp.OrderConductor\torder\nfuture\tx\nintent\torder.get\tapp.OrderConductor\tget\n"));
+        assertEquals(List.of(new ConductorIndex.ConductorEntry("app.OrderConductor", "order")), index.getConductors());
+
+        assertThrows(IOException.class, () -> ConductorIndex.read(new StringReader("conductor\tapp.OrderConductor\n")));
+    }
+
+    @Test
+    public void testRootWithoutIndexIsScannedNextToAnIndexedOne(@TempDir Path indexed, @TempDir Path plain)
+            throws Exception {
+        assertTrue(compile(indexed, true, new Source("app/OrderConductor.java", """
+            package app;
+            import horizon.core.annotation.*;
+            @Conductor(namespace = "order")
+            public class OrderConductor {
+                @Intent("get") public String get() { return "order"; }
+            }
+            """)).call());
+        assertTrue(compile(plain, false, new Source("app/StockConductor.java", """
+            package app;
+            import horizon.core.annotation.*;
+            @Conductor(namespace = "stock")
+            public class StockConductor {
+                @Intent("get") public String get() { return "stock"; }
+            }
+            """)).call());
+        assertNull(ConductorIndex.load(plain.toUri().toURL()));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{indexed.toUri().toURL(), plain.toUri().toURL()}, getClass().getClassLoader())) {
+            thread.setContextClassLoader(classLoader);
+            List<String> intents = new ConductorScanner().scan("app", new ProtocolAggregator()).stream()
+                .map(ConductorMethod::getIntent)
+                .sorted()
+                .toList();
+            assertEquals(List.of("order.get", "stock.get"), intents);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    public void testJarWithoutIndexIsScannedNextToAnIndexedOne(@TempDir Path indexed, @TempDir Path plain,
+                                                              @TempDir Path jars) throws Exception {
+        assertTrue(compile(indexed, true, new Source("app/OrderConductor.java", """
+            package app;
+            import horizon.core.annotation.*;
+            @Conductor(namespace = "order")
+            public class OrderConductor {
+                @Intent("get") public String get() { return "order"; }
+            }
+            """)).call());
+        assertTrue(compile(plain, false, new Source("app/stock/StockConductor.java", """
+            package app.stock;
+            import horizon.core.annotation.*;
+            @Conductor(namespace = "stock")
+            public class StockConductor {
+                @Intent("get") public String get() { return "stock"; }
+            }
+            """)).call());
+        Path indexedJar = jar(indexed, jars.resolve("indexed.jar"));
+        Path plainJar = jar(plain, jars.resolve("plain.jar"));
+        assertNotNull(ConductorIndex.load(URI.create("jar:" + indexedJar.toUri() + "!/").toURL()));
+        assertNull(ConductorIndex.load(URI.create("jar:" + plainJar.toUri() + "!/").toURL()));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{indexedJar.toUri().toURL(), plainJar.toUri().toURL()}, getClass().getClassLoader())) {
+            thread.setContextClassLoader(classLoader);
+            // The plain JAR's conductor sits in a subpackage, found only by walking the JAR's entries
+            List<String> intents = new ConductorScanner().scan("app", new ProtocolAggregator()).stream()
+                .map(ConductorMethod::getIntent)
+                .sorted()
+                .toList();
+            assertEquals(List.of("order.get", "stock.get"), intents);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    public void testDuplicateIntentFailsCompilation(@TempDir Path output) {
+        String source = """
+            package app;
+            import horizon.core.annotation.*;
+            @Conductor(namespace = "order")
+            public class OrderConductor {
+                @Intent("get") public String get() { return "a"; }
+                @Intent(value = "find", aliases = "get") public String find() { return "b"; }
+            }
+            """;
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task = compile(output, true, diagnostics, new Source("app/OrderConductor.java", source));
+
+        assertFalse(task.call());
+        assertTrue(diagnostics.getDiagnostics().stream().anyMatch(diagnostic ->
+            diagnostic.getKind() == Diagnostic.Kind.ERROR
+                && diagnostic.getMessage(null).contains("Intent 'order.get' is already handled by app.OrderConductor#get")));
+    }
+
+    private static JavaCompiler.CompilationTask compile(Path output, boolean indexed, Source source) {
+        return compile(output, indexed, new DiagnosticCollector<>(), source);
+    }
+
+    private static JavaCompiler.CompilationTask compile(Path output, boolean indexed,
+                                                        DiagnosticCollector<JavaFileObject> diagnostics, Source source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+            List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path")),
+            null, List.of(source));
+        task.setProcessors(indexed ? List.of(new ConductorIndexProcessor()) : List.of());
+        return task;
+    }
+
+    /**
+     * Packages a directory of compiled classes, and any index generated for them, into a JAR.
+     */
+    private static Path jar(Path directory, Path file) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(file));
+             Stream<Path> paths = Files.walk(directory)) {
+            // Directory entries too, as the jar tool writes them, for the class loader to find packages
+            for (Path path : paths.filter(path -> !path.equals(directory)).sorted().toList()) {
+                String name = directory.relativize(path).toString().replace('\\', '/');
+                if (Files.isDirectory(path)) {
+                    out.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(path, (OutputStream) out);
+                }
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String code;
+
+        Source(String path, String code) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
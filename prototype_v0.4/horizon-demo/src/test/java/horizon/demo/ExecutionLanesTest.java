@@ -0,0 +1,101 @@
+package horizon.demo;
+
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.ExecutionLane;
+import horizon.core.annotation.Intent;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.OverloadException;
+import horizon.core.execution.ExecutionLanes;
+import horizon.core.metrics.MetricsCollector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test assigning intents to execution lanes and shedding from full lanes.
+ */
+public class ExecutionLanesTest {
+
+    @Conductor(namespace = "report")
+    @ExecutionLane(ExecutionLane.BULK)
+    public static class ReportConductor {
+
+        @Intent("build")
+        public String build() {
+            return "built";
+        }
+
+        @Intent("status")
+        @ExecutionLane(ExecutionLane.CRITICAL)
+        public String status() {
+            return "ok";
+        }
+
+        @Intent("archive")
+        @ExecutionLane("archive")
+        public String archive() {
+            return "archived";
+        }
+    }
+
+    @Test
+    public void testMethodLaneOverridesConductorLane() throws Exception {
+        ExecutionLanes lanes = new ExecutionLanes();
+
+        assertEquals(ExecutionLane.BULK, lanes.laneFor(method("build")).getName());
+        assertEquals(ExecutionLane.CRITICAL, lanes.laneFor(method("status")).getName());
+        // Unknown lanes fall back to the default one, which runs on the conductor executor until it is configured
+        assertNull(lanes.laneFor(method("archive")));
+        lanes.configure(ExecutionLane.INTERACTIVE, 2, 8);
+        assertEquals(ExecutionLane.INTERACTIVE, lanes.laneFor(method("archive")).getName());
+
+        lanes.setEnabled(false);
+        assertNull(lanes.laneFor(method("build")));
+    }
+
+    @Test
+    public void testFullLaneShedsWithoutStarvingOthers() throws Exception {
+        ExecutionLanes lanes = new ExecutionLanes();
+        lanes.configure(ExecutionLane.BULK, 1, 1);
+        ExecutionLanes.Lane bulk = lanes.laneFor(method("build"));
+        ExecutionLanes.Lane critical = lanes.laneFor(method("status"));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        bulk.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulk.execute(() -> { });
+        assertThrows(OverloadException.class, () -> bulk.execute(() -> { }));
+        assertEquals(1, lanes.getQueuedCounts().get(ExecutionLane.BULK));
+
+        CountDownLatch answered = new CountDownLatch(1);
+        critical.execute(answered::countDown);
+        assertTrue(answered.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        Map<String, Object> metrics = MetricsCollector.getInstance().getMetrics();
+        assertTrue((Long) metrics.get("counter.lane.rejected.bulk") >= 1);
+        assertTrue((Long) metrics.get("histogram.lane.critical.queue_time_us.count") >= 1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConductorMethod method(String name) throws Exception {
+        Intent intent = ReportConductor.class.getMethod(name).getAnnotation(Intent.class);
+        return new ConductorMethod(new ReportConductor(), ReportConductor.class.getMethod(name),
+            "report." + intent.value());
+    }
+}
@@ -0,0 +1,185 @@
+package horizon.demo;
+
+import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.conductor.ConductorMethod;
+import horizon.web.grpc.GrpcFoyer;
+import horizon.web.grpc.GrpcProtocol;
+import horizon.web.grpc.GrpcProtocolAdapter;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test serving conductors over gRPC with protobuf messages.
+ */
+public class GrpcFoyerTest {
+
+    @Conductor(namespace = "probe")
+    public static class ProbeConductor {
+        final List<Object> received = new CopyOnWriteArrayList<>();
+
+        @Intent("validate")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "horizon.demo.UserService/ValidateUser"))
+        public Map<String, Object> validate(ValidateUserRequest request) {
+            received.add(request);
+            return request.getEmail().contains("@")
+                ? Map.of("valid", true)
+                : Map.of("valid", false, "errors", Map.of("email", "must contain @"));
+        }
+
+        @Intent("update")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/UpdateUser"))
+        public UpdateUserResponse update(UpdateUserRequest request) {
+            received.add(request);
+            return UpdateUserResponse.newBuilder()
+                .setSuccess(true)
+                .setUser(UserInfo.newBuilder().setId(request.getUserId()).setName(request.getName()))
+                .build();
+        }
+    }
+
+    private ProtocolAggregator aggregator;
+    private ManagedChannel channel;
+    private UserServiceGrpc.UserServiceBlockingStub users;
+    private ProbeConductor probe;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        GrpcFoyer foyer = new GrpcFoyer(0);
+        foyer.addService(UserServiceGrpc.getServiceDescriptor());
+        aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new GrpcProtocol(), foyer);
+        aggregator.scanConductors("horizon.demo.conductor");
+        probe = new ProbeConductor();
+        aggregator.registerConductorMethod(new ConductorMethod(probe,
+            ProbeConductor.class.getMethod("validate", ValidateUserRequest.class), "probe.validate"));
+        aggregator.registerConductorMethod(new ConductorMethod(probe,
+            ProbeConductor.class.getMethod("update", UpdateUserRequest.class), "probe.update"));
+        aggregator.start();
+
+        channel = Grpc.newChannelBuilder("localhost:" + foyer.getBoundPort(), InsecureChannelCredentials.create())
+            .build();
+        users = UserServiceGrpc.newBlockingStub(channel).withDeadlineAfter(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        aggregator.stop();
+    }
+
+    @Test
+    public void testMessageFieldsBindParametersAndResultsBecomeMessages() {
+        CreateUserResponse created = users.createUser(
+            CreateUserRequest.newBuilder().setName("Ada").setEmail("ada@example.com").build());
+        assertTrue(created.getSuccess());
+        assertFalse(created.getUserId().isEmpty());
+
+        GetUserResponse found = users.getUser(GetUserRequest.newBuilder().setUserId(created.getUserId()).build());
+        assertTrue(found.getFound());
+        assertEquals("Ada", found.getName());
+        assertEquals("ada@example.com", found.getEmail());
+        assertEquals(created.getUserId(), found.getUserId());
+    }
+
+    @Test
+    public void testConductorsTakeAndReturnProtobufMessages() {
+        UpdateUserRequest update = UpdateUserRequest.newBuilder().setUserId("u1").setName("Bob").build();
+        UpdateUserResponse updated = users.updateUser(update);
+        assertTrue(updated.getSuccess());
+        assertEquals("u1", updated.getUser().getId());
+        assertEquals(List.of(update), probe.received);
+
+        ValidateUserResponse invalid = users.validateUser(
+            ValidateUserRequest.newBuilder().setName("Bob").setEmail("bob").build());
+        assertFalse(invalid.getValid());
+        assertEquals(Map.of("email", "must contain @"), invalid.getErrorsMap());
+        assertTrue(users.validateUser(ValidateUserRequest.newBuilder().setEmail("bob@example.com").build()).getValid());
+    }
+
+    @Test
+    public void testDemoImportsAndValidatesStreamedUsers() throws Exception {
+        CompletableFuture<List<ImportUsersResponse>> imported = new CompletableFuture<>();
+        StreamObserver<CreateUserRequest> creates = UserServiceGrpc.newStub(channel)
+            .withDeadlineAfter(10, TimeUnit.SECONDS)
+            .importUsers(collect(imported));
+        for (int i = 0; i < 20; i++) {
+            creates.onNext(CreateUserRequest.newBuilder().setName("User" + i).setEmail("user" + i + "@example.com").build());
+        }
+        creates.onCompleted();
+        ImportUsersResponse response = imported.get(10, TimeUnit.SECONDS).get(0);
+        assertEquals(20, response.getCreated());
+        assertEquals("User19", users.getUser(GetUserRequest.newBuilder().setUserId(response.getUserIds(19)).build()).getName());
+
+        CompletableFuture<List<ValidateUserResponse>> validated = new CompletableFuture<>();
+        StreamObserver<ValidateUserRequest> validations = UserServiceGrpc.newStub(channel)
+            .withDeadlineAfter(10, TimeUnit.SECONDS)
+            .validateUsers(collect(validated));
+        validations.onNext(ValidateUserRequest.newBuilder().setName("Ada").setEmail("ada@example.com").build());
+        validations.onNext(ValidateUserRequest.newBuilder().setName("Bob").setEmail("bob").build());
+        validations.onCompleted();
+        List<ValidateUserResponse> answers = validated.get(10, TimeUnit.SECONDS);
+        assertEquals(2, answers.size());
+        assertTrue(answers.get(0).getValid());
+        assertFalse(answers.get(1).getValid());
+        assertEquals(Map.of("email", "Valid email is required"), answers.get(1).getErrorsMap());
+    }
+
+    @Test
+    public void testErrorsMapToStatuses() {
+        StatusRuntimeException unmapped = assertThrows(StatusRuntimeException.class,
+            () -> users.deleteUser(DeleteUserRequest.newBuilder().setUserId("u1").build()));
+        assertEquals(Status.Code.UNIMPLEMENTED, unmapped.getStatus().getCode());
+
+        StatusRuntimeException invalid = assertThrows(StatusRuntimeException.class,
+            () -> users.createUser(CreateUserRequest.newBuilder().setName("Ada").setEmail("nowhere").build()));
+        assertEquals(Status.Code.INVALID_ARGUMENT, invalid.getStatus().getCode());
+        assertEquals("Valid email is required", invalid.getStatus().getDescription());
+
+        // Unexpected errors do not send their messages to the client
+        Status internal = GrpcProtocolAdapter.statusFor(new IllegalStateException("pool /var/db/users exhausted"));
+        assertEquals(Status.Code.INTERNAL, internal.getCode());
+        assertEquals("Internal Server Error", internal.getDescription());
+    }
+
+    /**
+     * Collects the messages of a call, completing once the call does.
+     */
+    private static <T> StreamObserver<T> collect(CompletableFuture<List<T>> completion) {
+        List<T> received = new CopyOnWriteArrayList<>();
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T message) {
+                received.add(message);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                completion.completeExceptionally(error);
+            }
+
+            @Override
+            public void onCompleted() {
+                completion.complete(received);
+            }
+        };
+    }
+}
@@ -0,0 +1,266 @@
+package horizon.demo;
+
+import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.conductor.ConductorMethod;
+import horizon.web.grpc.GrpcFoyer;
+import horizon.web.grpc.GrpcProtocol;
+import io.grpc.Context;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test streaming gRPC calls through conductors, with flow control holding back fast producers.
+ */
+public class GrpcStreamingTest {
+    private static final String PADDING = "x".repeat(64 * 1024);
+
+    @Conductor(namespace = "stream")
+    public static class StreamConductor {
+        final AtomicInteger pulled = new AtomicInteger();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Intent("users")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/StreamUsers"))
+        public Stream<Map<String, Object>> users(ListUsersRequest request) {
+            // Without a limit the users never end, and are only pulled as the client reads them
+            Stream<Integer> ids = request.getLimit() > 0
+                ? IntStream.range(0, request.getLimit()).boxed()
+                : Stream.iterate(0, id -> id + 1);
+            return ids
+                .peek(id -> pulled.incrementAndGet())
+                .map(id -> Map.<String, Object>of("id", "u" + id, "name", request.getLimit() > 0 ? "User " + id : PADDING))
+                .onClose(closed::countDown);
+        }
+
+        @Intent("import")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/ImportUsers"))
+        public Map<String, Object> importUsers(Flow.Publisher<CreateUserRequest> requests) {
+            List<String> userIds = new ArrayList<>();
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            requests.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(CreateUserRequest request) {
+                    userIds.add(request.getName().toLowerCase());
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    done.completeExceptionally(error);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(null);
+                }
+            });
+            done.join();
+            return Map.of("created", userIds.size(), "userIds", userIds);
+        }
+
+        @Intent("validate")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "gRPC", value = "UserService/ValidateUsers"))
+        public Stream<ValidateUserResponse> validateUsers(Flow.Publisher<ValidateUserRequest> requests) {
+            // A bounded queue, so the next request is read only once its answer has room
+            BlockingQueue<Optional<ValidateUserResponse>> answers = new ArrayBlockingQueue<>(4);
+            requests.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ValidateUserRequest request) {
+                    put(Optional.of(ValidateUserResponse.newBuilder().setValid(request.getEmail().contains("@")).build()));
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    put(Optional.empty());
+                }
+
+                @Override
+                public void onComplete() {
+                    put(Optional.empty());
+                }
+
+                private void put(Optional<ValidateUserResponse> answer) {
+                    try {
+                        answers.put(answer);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            return Stream.generate(() -> {
+                    try {
+                        return answers.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return Optional.<ValidateUserResponse>empty();
+                    }
+                })
+                .takeWhile(Optional::isPresent)
+                .map(Optional::get);
+        }
+    }
+
+    private ProtocolAggregator aggregator;
+    private ManagedChannel channel;
+    private StreamConductor conductor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        GrpcFoyer foyer = new GrpcFoyer(0);
+        foyer.addService(UserServiceGrpc.getServiceDescriptor());
+        aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new GrpcProtocol(), foyer);
+        conductor = new StreamConductor();
+        aggregator.registerConductorMethod(new ConductorMethod(conductor,
+            StreamConductor.class.getMethod("users", ListUsersRequest.class), "stream.users"));
+        aggregator.registerConductorMethod(new ConductorMethod(conductor,
+            StreamConductor.class.getMethod("importUsers", Flow.Publisher.class), "stream.import"));
+        aggregator.registerConductorMethod(new ConductorMethod(conductor,
+            StreamConductor.class.getMethod("validateUsers", Flow.Publisher.class), "stream.validate"));
+        aggregator.start();
+
+        channel = Grpc.newChannelBuilder("localhost:" + foyer.getBoundPort(), InsecureChannelCredentials.create())
+            .build();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        aggregator.stop();
+    }
+
+    @Test
+    public void testServerStreamsTheElementsOfAStream() throws Exception {
+        Iterator<UserInfo> users = UserServiceGrpc.newBlockingStub(channel)
+            .withDeadlineAfter(10, TimeUnit.SECONDS)
+            .streamUsers(ListUsersRequest.newBuilder().setLimit(3).build());
+
+        List<String> names = new ArrayList<>();
+        users.forEachRemaining(user -> names.add(user.getName()));
+        assertEquals(List.of("User 0", "User 1", "User 2"), names);
+        assertTrue(conductor.closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowClientHoldsBackAnEndlessStream() throws Exception {
+        try (Context.CancellableContext call = Context.current().withCancellation()) {
+            Iterator<UserInfo> users = call.call(() -> UserServiceGrpc.newBlockingStub(channel)
+                .streamUsers(ListUsersRequest.getDefaultInstance()));
+
+            assertEquals("u0", users.next().getId());
+            Thread.sleep(500);
+            // Only what fits the flow control windows is produced ahead of the client
+            int pulled = conductor.pulled.get();
+            assertTrue(pulled < 200, "Pulled " + pulled + " users for a client that read one");
+
+            for (int id = 1; id <= 20; id++) {
+                assertEquals("u" + id, users.next().getId());
+            }
+
+            call.cancel(null);
+            assertTrue(conductor.closed.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testConductorConsumesAClientStream() throws Exception {
+        CompletableFuture<ImportUsersResponse> imported = new CompletableFuture<>();
+        StreamObserver<CreateUserRequest> requests = UserServiceGrpc.newStub(channel)
+            .withDeadlineAfter(10, TimeUnit.SECONDS)
+            .importUsers(observer(imported, new CopyOnWriteArrayList<>()));
+        for (int i = 0; i < 100; i++) {
+            requests.onNext(CreateUserRequest.newBuilder().setName("User" + i).build());
+        }
+        requests.onCompleted();
+
+        ImportUsersResponse response = imported.get(10, TimeUnit.SECONDS);
+        assertEquals(100, response.getCreated());
+        assertEquals("user0", response.getUserIds(0));
+        assertEquals("user99", response.getUserIds(99));
+    }
+
+    @Test
+    public void testBidiStreamAnswersEachMessage() throws Exception {
+        CompletableFuture<ValidateUserResponse> completed = new CompletableFuture<>();
+        List<ValidateUserResponse> answers = new CopyOnWriteArrayList<>();
+        StreamObserver<ValidateUserRequest> requests = UserServiceGrpc.newStub(channel)
+            .withDeadlineAfter(10, TimeUnit.SECONDS)
+            .validateUsers(observer(completed, answers));
+        for (int i = 0; i < 50; i++) {
+            requests.onNext(ValidateUserRequest.newBuilder().setEmail(i % 2 == 0 ? "user@example.com" : "user").build());
+        }
+        requests.onCompleted();
+
+        completed.get(10, TimeUnit.SECONDS);
+        assertEquals(50, answers.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 2 == 0, answers.get(i).getValid());
+        }
+    }
+
+    /**
+     * Collects the messages of a call, completing with the last one.
+     */
+    private static <T> StreamObserver<T> observer(CompletableFuture<T> completion, List<T> received) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T message) {
+                received.add(message);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                completion.completeExceptionally(error);
+            }
+
+            @Override
+            public void onCompleted() {
+                completion.complete(received.isEmpty() ? null : received.get(received.size() - 1));
+            }
+        };
+    }
+}
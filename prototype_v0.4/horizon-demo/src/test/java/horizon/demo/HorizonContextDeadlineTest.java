@@ -0,0 +1,136 @@
+package horizon.demo;
+
+import horizon.core.Foyer;
+import horizon.core.HorizonContext;
+import horizon.core.ProtocolAggregator;
+import horizon.core.Rendezvous;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.web.http.HttpProtocol;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test deadlines and cancellation carried by the context.
+ */
+public class HorizonContextDeadlineTest {
+
+    @Conductor(namespace = "probe")
+    public static class InterruptingConductor {
+        @Intent("interrupt")
+        public String interrupt() {
+            Thread.currentThread().interrupt();
+            return "done";
+        }
+    }
+
+    private static class CapturingFoyer implements Foyer<FullHttpRequest> {
+        Rendezvous<FullHttpRequest, ?> rendezvous;
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void connectToRendezvous(Rendezvous<FullHttpRequest, ?> rendezvous) {
+            this.rendezvous = rendezvous;
+        }
+    }
+
+    @Test
+    public void testEarliestTimeoutWins() {
+        HorizonContext context = new HorizonContext();
+        assertFalse(context.hasDeadline());
+        assertNull(context.getRemainingTime());
+
+        context.applyTimeout(Duration.ofSeconds(1));
+        context.applyTimeout(Duration.ofSeconds(30));
+        context.applyTimeout(null);
+
+        assertTrue(context.hasDeadline());
+        Duration remaining = context.getRemainingTime();
+        assertTrue(remaining.compareTo(Duration.ofSeconds(1)) <= 0 && !remaining.isNegative(), "remaining " + remaining);
+    }
+
+    @Test
+    public void testCancellationTakesPrecedenceAndRunsListenersOnce() {
+        HorizonContext context = new HorizonContext();
+        context.setIntent("report.build");
+        AtomicInteger cancelled = new AtomicInteger();
+        context.onCancel(cancelled::incrementAndGet);
+
+        assertTrue(context.cancel(new DeadlineExceededException("too slow")));
+        assertFalse(context.cancel());
+        context.setResult("late result");
+
+        assertEquals(1, cancelled.get());
+        assertTrue(context.hasError());
+        assertInstanceOf(DeadlineExceededException.class, context.getError());
+        assertThrows(DeadlineExceededException.class, context::throwIfCancelled);
+
+        // Registered after the fact, a listener runs immediately
+        context.onCancel(cancelled::incrementAndGet);
+        assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    public void testClientCancellation() {
+        HorizonContext context = new HorizonContext();
+        assertNull(HorizonContext.current());
+        assertFalse(context.isCancelled());
+
+        context.cancel();
+
+        assertTrue(context.isCancelled());
+        assertInstanceOf(CancellationException.class, context.getError());
+    }
+
+    @Test
+    public void testInterruptNotCausedByCancellationIsKept() throws Exception {
+        CapturingFoyer foyer = new CapturingFoyer();
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new HttpProtocol(), foyer);
+        aggregator.registerConductorMethod(new ConductorMethod(new InterruptingConductor(),
+            InterruptingConductor.class.getMethod("interrupt"), "probe.interrupt"));
+
+        try {
+            // Runs on this thread, which interrupts itself
+            HorizonContext context = foyer.rendezvous.encounter("probe.interrupt", Map.of(),
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/_batch"));
+            assertEquals("done", context.getResult());
+            assertTrue(Thread.interrupted());
+        } finally {
+            Thread.interrupted();
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testNullAttributeRemovesIt() {
+        HorizonContext context = new HorizonContext();
+        context.setAttribute("protocol", "HTTP");
+        context.setAttribute("protocol", null);
+        assertNull(context.getAttribute("protocol"));
+    }
+}
@@ -0,0 +1,264 @@
+package horizon.demo;
+
+import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.Param;
+import horizon.core.conductor.ConductorMethod;
+import horizon.web.http.HttpFoyer;
+import horizon.web.http.HttpProtocol;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test serving HTTP requests over a real connection: where conductors run,
+ * pipelining and its backpressure, and keep-alive.
+ */
+public class HttpFoyerTest {
+
+    @Conductor(namespace = "probe")
+    public static class ProbeConductor {
+        final CountDownLatch held = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger echoes = new AtomicInteger();
+
+        @Intent("hold")
+        public String hold() throws InterruptedException {
+            held.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "released";
+        }
+
+        @Intent("echo")
+        public int echo(@Param("n") int n) {
+            echoes.incrementAndGet();
+            return n;
+        }
+
+        @Intent("thread")
+        public boolean thread() {
+            // Netty's event loops run on FastThreadLocalThreads
+            return Thread.currentThread() instanceof FastThreadLocalThread;
+        }
+    }
+
+    private final BlockingQueue<Channel> channels = new LinkedBlockingQueue<>();
+    private final List<FullHttpRequest> received = new CopyOnWriteArrayList<>();
+    private ProbeConductor conductor;
+    private HttpFoyer foyer;
+    private ProtocolAggregator aggregator;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        foyer = new HttpFoyer(0) {
+            // Hands the server side of each connection, and every request read from it, to the test
+            @Override
+            protected ChannelInitializer<?> createChannelInitializer() {
+                ChannelInitializer<?> initializer = super.createChannelInitializer();
+                return new ChannelInitializer<>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        channels.add(ch);
+                        ch.pipeline().addLast(initializer);
+                        ch.pipeline().addAfter(ch.pipeline().context(HttpObjectAggregator.class).name(), "received",
+                            new ChannelInboundHandlerAdapter() {
+                                @Override
+                                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                    received.add((FullHttpRequest) msg);
+                                    ctx.fireChannelRead(msg);
+                                }
+                            });
+                    }
+                };
+            }
+        };
+        conductor = new ProbeConductor();
+        aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new HttpProtocol(), foyer);
+        aggregator.registerConductorMethods(List.of(
+            new ConductorMethod(conductor, ProbeConductor.class.getMethod("thread"), "probe.thread"),
+            new ConductorMethod(conductor, ProbeConductor.class.getMethod("hold"), "probe.hold"),
+            new ConductorMethod(conductor, ProbeConductor.class.getMethod("echo", int.class), "probe.echo")));
+        aggregator.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        conductor.release.countDown();
+        aggregator.stop();
+    }
+
+    @Test
+    public void testConductorsRunOffTheEventLoop() throws Exception {
+        try (Socket socket = connect()) {
+            send(socket, "GET /probe/thread HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            String response = readResponse(socket);
+            assertTrue(response.startsWith("HTTP/1.1 200"), response);
+            assertTrue(response.endsWith("false"), response);
+        }
+    }
+
+    @Test
+    public void testPipelinedResponsesKeepRequestOrder() throws Exception {
+        try (Socket socket = connect()) {
+            send(socket, get("/probe/hold") + get("/probe/echo?n=1") + get("/probe/echo?n=2"));
+            assertTrue(conductor.held.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            // The later requests wait for the held one, rather than overtaking it
+            assertEquals(0, conductor.echoes.get());
+
+            conductor.release.countDown();
+            assertTrue(readResponse(socket).endsWith("\"released\""));
+            assertTrue(readResponse(socket).endsWith("1"));
+            assertTrue(readResponse(socket).endsWith("2"));
+        }
+    }
+
+    @Test
+    public void testReadsPauseWhileTooManyRequestsAreQueued() throws Exception {
+        try (Socket socket = connect()) {
+            Channel channel = channels.take();
+            StringBuilder requests = new StringBuilder(get("/probe/hold"));
+            for (int n = 1; n <= 16; n++) {
+                requests.append(get("/probe/echo?n=" + n));
+            }
+            send(socket, requests.toString());
+            assertTrue(conductor.held.await(5, TimeUnit.SECONDS));
+            awaitAutoRead(channel, false);
+
+            conductor.release.countDown();
+            assertTrue(readResponse(socket).endsWith("\"released\""));
+            for (int n = 1; n <= 16; n++) {
+                assertTrue(readResponse(socket).endsWith(String.valueOf(n)));
+            }
+            awaitAutoRead(channel, true);
+        }
+    }
+
+    @Test
+    public void testConnectionCloseIsHonoured() throws Exception {
+        try (Socket socket = connect()) {
+            // The request after the one asking to close is never answered
+            send(socket, "GET /probe/echo?n=1 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                + get("/probe/echo?n=2"));
+            String response = readResponse(socket);
+            assertTrue(response.toLowerCase(Locale.ROOT).contains("connection: close"), response);
+            assertTrue(response.endsWith("1"), response);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+
+        try (Socket socket = connect()) {
+            send(socket, "GET /probe/echo?n=3 HTTP/1.0\r\n\r\n");
+            assertTrue(readResponse(socket).endsWith("3"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+
+        // HTTP/1.1 connections stay open by default
+        try (Socket socket = connect()) {
+            send(socket, get("/probe/echo?n=4"));
+            assertTrue(readResponse(socket).endsWith("4"));
+            send(socket, get("/probe/echo?n=5"));
+            assertTrue(readResponse(socket).endsWith("5"));
+        }
+    }
+
+    @Test
+    public void testQueuedRequestsAreReleasedWhenTheConnectionCloses() throws Exception {
+        Channel channel;
+        try (Socket socket = connect()) {
+            channel = channels.take();
+            send(socket, get("/probe/hold") + get("/probe/echo?n=1") + get("/probe/echo?n=2"));
+            assertTrue(conductor.held.await(5, TimeUnit.SECONDS));
+            awaitReceived(3);
+        }
+        assertTrue(channel.closeFuture().await(5, TimeUnit.SECONDS));
+
+        conductor.release.countDown();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (received.stream().anyMatch(request -> request.refCnt() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        for (FullHttpRequest request : received) {
+            assertEquals(0, request.refCnt());
+        }
+        assertEquals(0, conductor.echoes.get());
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", foyer.getBoundPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static String get(String uri) {
+        return "GET " + uri + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    }
+
+    private static void send(Socket socket, String requests) throws IOException {
+        socket.getOutputStream().write(requests.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+    }
+
+    private static void awaitAutoRead(Channel channel, boolean expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (channel.config().isAutoRead() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, channel.config().isAutoRead());
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (received.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, received.size());
+    }
+
+    /**
+     * Reads one response, head and body, sized by its Content-Length.
+     */
+    private static String readResponse(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int b;
+        while (!head.toString(StandardCharsets.US_ASCII).endsWith("\r\n\r\n")) {
+            if ((b = in.read()) == -1) {
+                throw new IOException("Connection closed by the server");
+            }
+            head.write(b);
+        }
+        String text = head.toString(StandardCharsets.US_ASCII);
+        int length = 0;
+        for (String line : text.split("\r\n")) {
+            if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                length = Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        return text + new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
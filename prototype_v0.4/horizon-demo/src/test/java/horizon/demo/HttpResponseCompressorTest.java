@@ -0,0 +1,163 @@
+package horizon.demo;
+
+import horizon.core.annotation.ResponseCompression;
+import horizon.core.metrics.MetricsCollector;
+import horizon.web.http.HttpResponseCompressor;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test HTTP response compression, content negotiation and the cache of compressed bodies.
+ */
+public class HttpResponseCompressorTest {
+
+    private static final String BODY = "{\"items\":[" + "\"horizon\",".repeat(200) + "\"end\"]}";
+
+    @Test
+    public void testGzipRoundTrip() throws IOException {
+        HttpResponseCompressor compressor = new HttpResponseCompressor();
+
+        FullHttpResponse response = compressor.compress(newResponse(BODY), "deflate;q=0.5, gzip", null, "test");
+
+        assertEquals("gzip", response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("accept-encoding", response.headers().get(HttpHeaderNames.VARY).toLowerCase());
+        assertEquals(response.content().readableBytes(), response.headers().getInt(HttpHeaderNames.CONTENT_LENGTH));
+        assertTrue(response.content().readableBytes() < BODY.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteBufInputStream(response.content().duplicate()))) {
+            assertEquals(BODY, new String(in.readAllBytes(), CharsetUtil.UTF_8));
+        }
+        response.release();
+    }
+
+    @Test
+    public void testSmallBodiesAreNotCompressed() {
+        HttpResponseCompressor compressor = new HttpResponseCompressor();
+
+        FullHttpResponse response = compressor.compress(newResponse("{\"ok\":true}"), "gzip", null, "test");
+
+        assertFalse(response.headers().contains(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("{\"ok\":true}", response.content().toString(CharsetUtil.UTF_8));
+        response.release();
+    }
+
+    @Test
+    public void testRefusedEncodingsAreNotUsed() {
+        HttpResponseCompressor compressor = new HttpResponseCompressor();
+
+        FullHttpResponse response = compressor.compress(newResponse(BODY), "gzip;q=0, identity", null, "test");
+
+        assertFalse(response.headers().contains(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals(BODY.length(), response.content().readableBytes());
+        response.release();
+    }
+
+    @Test
+    public void testVaryKeepsExistingFields() {
+        HttpResponseCompressor compressor = new HttpResponseCompressor();
+
+        FullHttpResponse response = newResponse(BODY);
+        response.headers().set(HttpHeaderNames.VARY, "Origin");
+        response = compressor.compress(response, "deflate", null, "test");
+        assertEquals("deflate", response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("Origin, accept-encoding", response.headers().get(HttpHeaderNames.VARY));
+        assertEquals(1, response.headers().getAll(HttpHeaderNames.VARY).size());
+        response.release();
+
+        response = newResponse(BODY);
+        response.headers().set(HttpHeaderNames.VARY, "Accept-Encoding");
+        response = compressor.compress(response, "gzip", null, "test");
+        assertEquals("Accept-Encoding", response.headers().get(HttpHeaderNames.VARY));
+        response.release();
+    }
+
+    @Test
+    public void testCachedBodiesAreReusedPerVersion() throws IOException {
+        HttpResponseCompressor compressor = new HttpResponseCompressor();
+        ResponseCompression cached = cachedSettings();
+        String changed = BODY.replace("end", "changed");
+        long hits = hits();
+
+        compressor.compress(newResponse(BODY), "gzip", cached, "test", "v1").release();
+        long bytes = compressor.getCachedBytes();
+        assertTrue(bytes > 0);
+        compressor.compress(newResponse(BODY), "gzip", cached, "test", "v1").release();
+        assertEquals(hits + 1, hits());
+
+        // A new version is compressed from its own body
+        FullHttpResponse response = compressor.compress(newResponse(changed), "gzip", cached, "test", "v2");
+        assertEquals(hits + 1, hits());
+        assertEquals(changed, gunzip(response));
+        response.release();
+
+        // Without a version, nothing identifies the body, so it is not cached
+        long cachedBytes = compressor.getCachedBytes();
+        compressor.compress(newResponse(BODY), "gzip", cached, "other", null).release();
+        compressor.compress(newResponse(BODY), "gzip", cached, "other", null).release();
+        assertEquals(cachedBytes, compressor.getCachedBytes());
+        assertEquals(hits + 1, hits());
+    }
+
+    @Test
+    public void testCacheIsBoundedByTotalBytes() throws IOException {
+        HttpResponseCompressor compressor = new HttpResponseCompressor();
+        ResponseCompression cached = cachedSettings();
+        compressor.compress(newResponse(BODY), "gzip", cached, "a", "v1").release();
+        long entry = compressor.getCachedBytes();
+        long hits = hits();
+
+        // Room for one body only, so caching the second evicts the first
+        compressor.setCacheMaxBytes(entry * 3 / 2);
+        compressor.compress(newResponse(BODY), "gzip", cached, "b", "v1").release();
+        assertEquals(entry, compressor.getCachedBytes());
+        compressor.compress(newResponse(BODY), "gzip", cached, "a", "v1").release();
+        assertEquals(hits, hits());
+        compressor.compress(newResponse(BODY), "gzip", cached, "a", "v1").release();
+        assertEquals(hits + 1, hits());
+
+        compressor.setCacheMaxBytes(0);
+        assertEquals(0, compressor.getCachedBytes());
+    }
+
+    @ResponseCompression(cached = true)
+    private static void cachedIntent() {
+    }
+
+    private static ResponseCompression cachedSettings() {
+        try {
+            return HttpResponseCompressorTest.class.getDeclaredMethod("cachedIntent")
+                .getAnnotation(ResponseCompression.class);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static long hits() {
+        Object hits = MetricsCollector.getInstance().getMetrics().get("counter.http.compression.cache.hits");
+        return hits != null ? (Long) hits : 0;
+    }
+
+    private static String gunzip(FullHttpResponse response) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteBufInputStream(response.content().duplicate()))) {
+            return new String(in.readAllBytes(), CharsetUtil.UTF_8);
+        }
+    }
+
+    private static FullHttpResponse newResponse(String body) {
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+            Unpooled.copiedBuffer(body, CharsetUtil.UTF_8));
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+        return response;
+    }
+}
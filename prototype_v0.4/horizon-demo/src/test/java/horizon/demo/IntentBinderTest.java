@@ -0,0 +1,81 @@
+package horizon.demo;
+
+import horizon.core.conductor.Binders;
+import horizon.core.conductor.ConductorMethod;
+import horizon.demo.conductor.UserConductor;
+import horizon.demo.dto.CreateUserRequest;
+import horizon.demo.dto.CreateUserResponse;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test invoking conductor methods through the binders generated at compile time.
+ */
+public class IntentBinderTest {
+
+    @Test
+    public void testScalarParametersAreConvertedWithoutReflection() throws Exception {
+        ConductorMethod method = method("listUsers", "user.list");
+        assertTrue(method.hasBinder());
+
+        Map<?, ?> result = (Map<?, ?>) method.invoke(Map.of("query.limit", "5", "query.offset", "0"));
+        assertEquals(5, result.get("limit"));
+        assertEquals(0, result.get("offset"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> method.invoke(Map.of("query.limit", "five", "query.offset", "0")));
+        assertFalse(error instanceof NumberFormatException, "Jackson reports unconvertible values");
+    }
+
+    @Test
+    public void testDtoIsFilledBySettersAndUnknownPropertiesAreLeftToJackson() throws Exception {
+        ConductorMethod method = method("createUserWithDto", "user.create.dto");
+        assertTrue(method.hasBinder());
+
+        CreateUserResponse response = (CreateUserResponse) method.invoke(
+            Map.of("body", Map.of("name", "Ada", "email", "ada@example.com")));
+        assertEquals("Ada", response.getName());
+        assertEquals("ada@example.com", response.getEmail());
+
+        assertThrows(IllegalArgumentException.class, () -> method.invoke(
+            Map.of("body", Map.of("name", "Ada", "email", "ada@example.com", "admin", true))));
+    }
+
+    @Test
+    public void testConductorFailuresAreReportedLikeReflectiveCalls() throws Exception {
+        ConductorMethod method = method("createUserWithDto", "user.create.dto");
+
+        InvocationTargetException error = assertThrows(InvocationTargetException.class,
+            () -> method.invoke(Map.of("body", new CreateUserRequest("Ada", "not an email"))));
+        assertEquals("Valid email is required", error.getCause().getMessage());
+    }
+
+    @Test
+    public void testConversions() {
+        assertEquals(12, Binders.toInteger("12"));
+        assertEquals(12, Binders.toInteger(12L));
+        assertEquals(1, Binders.toInteger(1.9));
+        assertEquals(3000000000L, Binders.toLong("3000000000"));
+        assertEquals(1.5, Binders.toDouble("1.5"));
+        assertEquals(Boolean.TRUE, Binders.toBoolean("true"));
+        assertEquals("5", Binders.toStringValue(5));
+        assertEquals(TimeUnit.SECONDS, Binders.toEnum("SECONDS", TimeUnit.class));
+        assertNull(Binders.toInteger(null));
+        assertThrows(IllegalArgumentException.class, () -> Binders.notNull(null, "limit"));
+    }
+
+    private static ConductorMethod method(String name, String intent) {
+        for (Method method : UserConductor.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return new ConductorMethod(new UserConductor(), method, intent);
+            }
+        }
+        throw new AssertionError("No method " + name);
+    }
+}
@@ -0,0 +1,101 @@
+package horizon.demo;
+
+import horizon.core.execution.KeyedSerialExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test per-key ordering of conductor invocations.
+ */
+public class KeyedSerialExecutorTest {
+
+    @Test
+    public void testSameKeyRunsInSubmissionOrder() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            futures.add(executor.submit("session-1", () -> {
+                seen.add(n);
+                return n;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    public void testDifferentKeysRunInParallel() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> a = executor.submit("a", () -> awaitQuietly(bothRunning));
+        CompletableFuture<Boolean> b = executor.submit("b", () -> awaitQuietly(bothRunning));
+
+        assertTrue(a.get(5, TimeUnit.SECONDS));
+        assertTrue(b.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailureDoesNotBlockKeyAndIdleKeysAreRemoved() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor(Executors.newVirtualThreadPerTaskExecutor());
+
+        CompletableFuture<String> failed = executor.submit("user-1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> next = executor.submit("user-1", () -> "ok");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals("ok", next.get(5, TimeUnit.SECONDS));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.getActiveKeys());
+    }
+
+    @Test
+    public void testTaskOnDirectExecutorMaySubmitToItsOwnKey() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor(Runnable::run);
+        List<String> seen = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<String>> inner = new ArrayList<>();
+
+        CompletableFuture<String> outer = executor.submit("user-1", () -> {
+            seen.add("outer");
+            inner.add(executor.submit("user-1", () -> {
+                seen.add("inner");
+                return "inner";
+            }));
+            // The inner task is queued behind this one, not run inside it
+            seen.add("outer done");
+            return "outer";
+        });
+
+        assertEquals("outer", outer.get(5, TimeUnit.SECONDS));
+        assertEquals("inner", inner.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("outer", "outer done", "inner"), seen);
+        assertEquals(0, executor.getActiveKeys());
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package horizon.demo;
+
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.RateLimit;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.RateLimitException;
+import horizon.core.execution.RateLimiters;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test @RateLimit enforcement before payload extraction.
+ */
+public class RateLimitersTest {
+
+    @Conductor(namespace = "limited")
+    @RateLimit(permits = 5, period = 1, unit = TimeUnit.HOURS)
+    public static class LimitedConductor {
+
+        @Intent("search")
+        @RateLimit(permits = 2, period = 1, unit = TimeUnit.HOURS, key = RateLimit.Key.IP)
+        public String search() {
+            return "ok";
+        }
+
+        @Intent("post")
+        @RateLimit(permits = 1, period = 1, unit = TimeUnit.HOURS, key = RateLimit.Key.SESSION, protocols = "WebSocket")
+        public String post() {
+            return "ok";
+        }
+    }
+
+    @Test
+    public void testKeyedLimitRejectsOverBurstPerKey() throws Exception {
+        RateLimiters limiters = new RateLimiters();
+        ConductorMethod search = method("search");
+
+        limiters.check("HTTP", search, (key, header) -> "10.0.0.1");
+        limiters.check("HTTP", search, (key, header) -> "10.0.0.1");
+        RateLimitException e = assertThrows(RateLimitException.class,
+            () -> limiters.check("HTTP", search, (key, header) -> "10.0.0.1"));
+        assertTrue(e.getRetryAfter().toMinutes() > 0, "retry after " + e.getRetryAfter());
+
+        // Another client has its own bucket
+        limiters.check("HTTP", search, (key, header) -> "10.0.0.2");
+    }
+
+    @Test
+    public void testConductorLimitIsSharedAndRefundedOnRejection() throws Exception {
+        RateLimiters limiters = new RateLimiters();
+        ConductorMethod search = method("search");
+        ConductorMethod post = method("post");
+
+        // Rejected by the per-IP limit; the conductor-wide permit is returned
+        limiters.check("HTTP", search, (key, header) -> "a");
+        limiters.check("HTTP", search, (key, header) -> "a");
+        assertThrows(RateLimitException.class, () -> limiters.check("HTTP", search, (key, header) -> "a"));
+
+        // Three conductor-wide permits remain, shared with the other intent
+        limiters.check("HTTP", post, (key, header) -> null);
+        limiters.check("HTTP", post, (key, header) -> null);
+        limiters.check("HTTP", search, (key, header) -> "b");
+        assertThrows(RateLimitException.class, () -> limiters.check("HTTP", post, (key, header) -> null));
+    }
+
+    @Test
+    public void testLimitAppliesOnlyToListedProtocols() throws Exception {
+        RateLimiters limiters = new RateLimiters();
+        ConductorMethod post = method("post");
+
+        limiters.check("WebSocket", post, (key, header) -> "session-1");
+        assertThrows(RateLimitException.class,
+            () -> limiters.check("WebSocket", post, (key, header) -> "session-1"));
+
+        limiters.setEnabled(false);
+        limiters.check("WebSocket", post, (key, header) -> "session-1");
+    }
+
+    private static ConductorMethod method(String name) throws Exception {
+        Intent intent = LimitedConductor.class.getMethod(name).getAnnotation(Intent.class);
+        return new ConductorMethod(new LimitedConductor(), LimitedConductor.class.getMethod(name),
+            "limited." + intent.value());
+    }
+}
@@ -0,0 +1,132 @@
+package horizon.demo;
+
+import horizon.core.ConductorRegistry;
+import horizon.core.ProtocolAggregator;
+import horizon.core.RegistrySnapshot;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.protocol.ProtocolAdapter;
+import horizon.core.protocol.ProtocolNames;
+import horizon.web.http.HttpFoyer;
+import horizon.web.http.HttpProtocol;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test publishing registered conductor methods as immutable snapshots.
+ */
+public class RegistrySnapshotTest {
+
+    @Conductor(namespace = "probe")
+    @ProtocolAccess({ProtocolNames.HTTP, ProtocolNames.WEBSOCKET})
+    public static class ProbeConductor {
+
+        @Intent("get")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "GET /probe-status/{id}"))
+        public String get() {
+            return "probe";
+        }
+
+        @Intent("any")
+        public String any() {
+            return "any";
+        }
+    }
+
+    @Test
+    public void testExactIntentsThenLongestWildcardPrefix() throws Exception {
+        ConductorRegistry registry = new ConductorRegistry();
+        ConductorMethod admin = method("any", "admin.*");
+        ConductorMethod adminUsers = method("any", "admin.users.*");
+        ConductorMethod purge = method("any", "admin.users.purge");
+        ConductorMethod user = method("any", "user.?et");
+        registry.registerAll(List.of(admin, adminUsers, purge, user));
+
+        assertSame(purge, registry.find("admin.users.purge"));
+        assertSame(adminUsers, registry.find("admin.users.list"));
+        assertSame(admin, registry.find("admin.stats"));
+        assertSame(user, registry.find("user.get"));
+        assertNull(registry.find("user.gets"));
+        assertNull(registry.find("nothing.here"));
+    }
+
+    @Test
+    public void testReplacedSnapshotKeepsServingItsMethods() throws Exception {
+        ConductorRegistry registry = new ConductorRegistry();
+        ConductorMethod old = method("any", "probe.*");
+        registry.register(old);
+        RegistrySnapshot before = registry.getSnapshot();
+
+        ConductorMethod replacement = method("get", "probe.get");
+        RegistrySnapshot after = registry.replace(List.of(replacement));
+
+        // A request holding the old snapshot finishes on it
+        assertSame(old, before.find("probe.any"));
+        assertNull(after.find("probe.any"));
+        assertSame(replacement, registry.find("probe.get"));
+        assertTrue(after.getVersion() > before.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> after.getMethods().add(old));
+    }
+
+    @Test
+    public void testAccessAndRoutesAreDecidedPerSnapshot() throws Exception {
+        ConductorRegistry registry = new ConductorRegistry();
+        registry.addProtocol(ProtocolNames.HTTP);
+        registry.addProtocol(ProtocolNames.WEBSOCKET);
+        ConductorMethod get = method("get", "probe.get");
+        ConductorMethod any = method("any", "probe.any");
+        registry.registerAll(List.of(get, any));
+
+        RegistrySnapshot snapshot = registry.getSnapshot();
+        assertEquals(Set.of(ProtocolNames.HTTP, ProtocolNames.WEBSOCKET), snapshot.getProtocols());
+        assertTrue(snapshot.hasAccess(ProtocolNames.HTTP, get));
+        assertFalse(snapshot.hasAccess(ProtocolNames.WEBSOCKET, get));
+        assertTrue(snapshot.hasAccess(ProtocolNames.WEBSOCKET, any));
+        assertEquals("probe.get", snapshot.getRoutes(ProtocolNames.HTTP).get("GET /probe-status/{id}"));
+        assertTrue(snapshot.getRoutes(ProtocolNames.WEBSOCKET).isEmpty());
+    }
+
+    @Test
+    public void testReloadSwapsConductorsAndRoutes() throws Exception {
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new HttpProtocol(), new HttpFoyer(0));
+        aggregator.registerConductorMethod(method("get", "probe.get"));
+        ProtocolAdapter<FullHttpRequest, FullHttpResponse> http = aggregator.getProtocolAdapter(ProtocolNames.HTTP);
+        assertEquals("probe.get", http.extractIntent(get("/probe-status/1")));
+
+        // Another aggregator in the same JVM has conductors of its own
+        ProtocolAggregator other = new ProtocolAggregator();
+        other.registerConductorMethod(method("any", "probe.get"));
+        assertNotSame(other.getConductorMethod("probe.get"), aggregator.getConductorMethod("probe.get"));
+
+        RegistrySnapshot before = aggregator.getRegistrySnapshot();
+        RegistrySnapshot reloaded = aggregator.reloadConductors("horizon.demo.conductor");
+        assertSame(reloaded, aggregator.getRegistrySnapshot());
+        assertNull(aggregator.getConductorMethod("probe.get"));
+        assertNotNull(aggregator.getConductorMethod("system.health"));
+        assertEquals("system.health", http.extractIntent(get("/health")));
+        assertNotEquals("probe.get", http.extractIntent(get("/probe-status/1")));
+        // A request that started before the reload still matches the routes of its snapshot
+        assertEquals("probe.get", http.extractIntent(get("/probe-status/1"), before));
+    }
+
+    private static FullHttpRequest get(String uri) {
+        return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+    }
+
+    private static ConductorMethod method(String name, String intent) throws Exception {
+        return new ConductorMethod(new ProbeConductor(), ProbeConductor.class.getMethod(name), intent);
+    }
+}
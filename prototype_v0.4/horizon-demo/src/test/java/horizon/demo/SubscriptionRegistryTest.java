@@ -0,0 +1,68 @@
+package horizon.demo;
+
+import horizon.web.websocket.SubscriptionRegistry;
+import io.netty.channel.DefaultChannelId;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test topic subscriptions and fan-out.
+ */
+public class SubscriptionRegistryTest {
+
+    @Test
+    public void testPublishReachesEverySubscriber() {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        EmbeddedChannel first = newChannel();
+        EmbeddedChannel second = newChannel();
+        EmbeddedChannel other = newChannel();
+
+        registry.subscribe("room", first);
+        registry.subscribe("room", second);
+        registry.subscribe("lobby", other);
+
+        assertEquals(2, registry.publish("room", Map.of("hello", true)));
+
+        for (EmbeddedChannel channel : new EmbeddedChannel[] {first, second}) {
+            TextWebSocketFrame frame = channel.readOutbound();
+            assertEquals("{\"hello\":true}", frame.text());
+            frame.release();
+        }
+        assertNull(other.readOutbound());
+    }
+
+    @Test
+    public void testClosedChannelsLeaveTheirTopics() {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        EmbeddedChannel channel = newChannel();
+
+        registry.subscribe("room", channel);
+        assertEquals(1, registry.getSubscriberCount("room"));
+
+        channel.close();
+        assertEquals(0, registry.publish("room", Map.of()));
+        assertEquals(0, registry.getSubscriberCount("room"));
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        SubscriptionRegistry registry = new SubscriptionRegistry();
+        EmbeddedChannel channel = newChannel();
+
+        registry.subscribe("room", channel);
+        registry.unsubscribe("room", channel);
+
+        assertEquals(0, registry.publish("room", Map.of()));
+        assertNull(channel.readOutbound());
+    }
+
+    private static EmbeddedChannel newChannel() {
+        // Embedded channels share one ID by default, and channel groups are keyed by ID
+        return new EmbeddedChannel(DefaultChannelId.newInstance());
+    }
+}
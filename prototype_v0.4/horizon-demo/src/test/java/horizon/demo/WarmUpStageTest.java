@@ -0,0 +1,184 @@
+package horizon.demo;
+
+import horizon.core.Foyer;
+import horizon.core.ProtocolAggregator;
+import horizon.core.Rendezvous;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.annotation.Param;
+import horizon.core.annotation.ProtocolAccess;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.annotation.WarmUp;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.execution.WarmUpStage;
+import horizon.core.protocol.ProtocolAdapter;
+import horizon.core.protocol.ProtocolNames;
+import horizon.web.http.HttpProtocol;
+import horizon.web.websocket.WebSocketMessage;
+import horizon.web.websocket.WebSocketProtocol;
+import horizon.web.websocket.WebSocketProtocolAdapter;
+import io.netty.handler.codec.http.FullHttpRequest;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test warming up annotated intents through the protocol adapters before the foyers open.
+ */
+public class WarmUpStageTest {
+
+    @Conductor(namespace = "probe")
+    @ProtocolAccess({ProtocolNames.HTTP, ProtocolNames.WEBSOCKET})
+    public static class ProbeConductor {
+        final AtomicInteger echoes = new AtomicInteger();
+        final AtomicInteger resets = new AtomicInteger();
+
+        @Intent("echo")
+        @WarmUp({"{\"name\": \"ada\", \"times\": 2}", "{\"name\": \"bob\", \"times\": 1}"})
+        @ProtocolAccess(
+            schema = {
+                @ProtocolSchema(protocol = "HTTP", value = "GET /probes/{name}"),
+                @ProtocolSchema(protocol = "WebSocket", value = "probe.echo")
+            }
+        )
+        public String echo(@Param("name") String name, @Param("times") int times) {
+            echoes.incrementAndGet();
+            return name.repeat(times);
+        }
+
+        @Intent("reset")
+        public void reset() {
+            resets.incrementAndGet();
+        }
+
+        @Intent("rename")
+        @WarmUp("{\"name\": \"ada\"}")
+        @ProtocolAccess(schema = @ProtocolSchema(protocol = "HTTP", value = "PUT /probes/{id}"))
+        public String rename(@Param("id") String id, @Param("name") String name) {
+            return name;
+        }
+    }
+
+    /**
+     * Records how many echoes the conductor had answered when the foyer opened.
+     */
+    private static class RecordingFoyer<I> implements Foyer<I> {
+        private final ProbeConductor conductor;
+        private int echoesWhenOpened = -1;
+
+        RecordingFoyer(ProbeConductor conductor) {
+            this.conductor = conductor;
+        }
+
+        @Override
+        public void open() {
+            echoesWhenOpened = conductor.echoes.get();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return echoesWhenOpened >= 0;
+        }
+
+        @Override
+        public void connectToRendezvous(Rendezvous<I, ?> rendezvous) {
+        }
+    }
+
+    @Test
+    public void testAnnotatedIntentsAreWarmedUpBeforeFoyersOpen() throws Exception {
+        ProbeConductor conductor = new ProbeConductor();
+        RecordingFoyer<FullHttpRequest> httpFoyer = new RecordingFoyer<>(conductor);
+        RecordingFoyer<WebSocketMessage> webSocketFoyer = new RecordingFoyer<>(conductor);
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new HttpProtocol(), httpFoyer);
+        aggregator.registerProtocol(new WebSocketProtocol(), webSocketFoyer);
+        register(aggregator, conductor);
+
+        WarmUpStage stage = aggregator.getWarmUpStage();
+        stage.setEnabled(true);
+        stage.setIterations(20);
+        aggregator.start();
+
+        // Both protocols sent every request before either foyer opened
+        assertEquals(40, httpFoyer.echoesWhenOpened);
+        assertEquals(40, webSocketFoyer.echoesWhenOpened);
+        assertEquals(0, conductor.resets.get(), "Intents without @WarmUp are never invoked");
+
+        List<WarmUpStage.Result> results = stage.getResults();
+        assertEquals(List.of("probe.echo HTTP", "probe.echo WebSocket", "probe.rename HTTP"),
+            results.stream().map(result -> result.intent() + " " + result.protocol()).toList());
+        assertTrue(results.get(0).succeeded());
+        assertEquals(20, results.get(0).iterations());
+        assertEquals(20, results.get(1).iterations());
+
+        // The sample has no value for the route's path variable
+        WarmUpStage.Result rename = results.get(2);
+        assertFalse(rename.succeeded());
+        assertInstanceOf(IllegalArgumentException.class, rename.failure());
+        assertEquals(0, rename.iterations());
+    }
+
+    @Test
+    public void testRequestsAreSentThroughTheAdapters() throws Exception {
+        ProbeConductor conductor = new ProbeConductor();
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new HttpProtocol(), new RecordingFoyer<>(conductor));
+        register(aggregator, conductor);
+        ConductorMethod echo = aggregator.getConductorMethod("probe.echo");
+
+        ProtocolAdapter<Object, Object> http = aggregator.getProtocolAdapter(ProtocolNames.HTTP);
+        Object request = http.createWarmUpRequest(echo, new HashMap<>(Map.of("name", "ada", "times", 2)));
+        assertEquals("probe.echo", http.extractIntent(request));
+        assertEquals("adaada", echo.invoke(http.extractPayload(request)));
+
+        WebSocketProtocolAdapter webSocket = new WebSocketProtocolAdapter();
+        webSocket.setProtocolAggregator(aggregator);
+        WebSocketMessage message = webSocket.createWarmUpRequest(echo, new HashMap<>(Map.of("name", "bob", "times", 3)));
+        assertEquals(WebSocketProtocolAdapter.WARM_UP_SESSION_ID, message.getSessionId());
+        assertEquals("bobbobbob", echo.invoke(webSocket.extractPayload(message)));
+    }
+
+    @Test
+    public void testTimeBudgetEndsTheWarmUp() throws Exception {
+        ProbeConductor conductor = new ProbeConductor();
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new WebSocketProtocol(), new RecordingFoyer<>(conductor));
+        register(aggregator, conductor);
+
+        WarmUpStage stage = new WarmUpStage();
+        stage.setIterations(Integer.MAX_VALUE);
+        stage.setTimeBudget(Duration.ofMillis(50));
+        long start = System.nanoTime();
+        List<WarmUpStage.Result> results = stage.run(List.of(aggregator.getConductorMethod("probe.echo")),
+            Map.of(ProtocolNames.WEBSOCKET, aggregator.getProtocolAdapter(ProtocolNames.WEBSOCKET)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+        assertEquals(1, results.size());
+        assertTrue(results.getFirst().iterations() > 0);
+        assertEquals(results.getFirst().iterations(), conductor.echoes.get());
+
+        assertThrows(IllegalArgumentException.class, () -> stage.setIterations(0));
+        assertThrows(IllegalArgumentException.class, () -> stage.setTimeBudget(Duration.ZERO));
+    }
+
+    private static void register(ProtocolAggregator aggregator, ProbeConductor conductor) {
+        for (Method method : ProbeConductor.class.getDeclaredMethods()) {
+            Intent intent = method.getAnnotation(Intent.class);
+            if (intent != null) {
+                aggregator.registerConductorMethod(new ConductorMethod(conductor, method, "probe." + intent.value()));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package horizon.demo;
+
+import horizon.web.websocket.WebSocketMessage;
+import horizon.web.websocket.codec.JacksonWebSocketCodec;
+import horizon.web.websocket.codec.WebSocketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test decoding and encoding of WebSocket messages across codecs.
+ */
+public class WebSocketCodecTest {
+
+    @Test
+    public void testBinaryCodecsRoundTrip() throws Exception {
+        for (WebSocketCodec codec : List.of(JacksonWebSocketCodec.cbor(), JacksonWebSocketCodec.smile())) {
+            assertTrue(codec.isBinary());
+
+            Map<String, Object> frame = Map.of(
+                "id", 7,
+                "intent", "user.create",
+                "data", Map.of("name", "Ada", "email", "ada@example.com")
+            );
+            ByteBuf encoded = codec.encode(frame, ByteBufAllocator.DEFAULT);
+            try {
+                WebSocketMessage message = (WebSocketMessage) codec.decode(encoded);
+                assertEquals(7, message.getId());
+                assertEquals("user.create", message.getIntent());
+                assertEquals("Ada", message.getData().get("name"));
+                assertEquals("ada@example.com", message.getData().get("email"));
+            } finally {
+                encoded.release();
+            }
+        }
+    }
+
+    @Test
+    public void testJsonSkipsUnknownFieldsInAnyOrder() throws Exception {
+        WebSocketCodec codec = JacksonWebSocketCodec.json();
+        ByteBuf content = Unpooled.copiedBuffer(
+            "{\"data\":{\"userId\":\"42\"},\"meta\":{\"trace\":[1,2]},\"intent\":\"user.get\"}", CharsetUtil.UTF_8);
+
+        WebSocketMessage message = (WebSocketMessage) codec.decode(content);
+        assertEquals("user.get", message.getIntent());
+        assertEquals("42", message.getData().get("userId"));
+        assertNull(message.getId());
+        assertEquals(0, content.readerIndex());
+        content.release();
+    }
+
+    @Test
+    public void testArrayDecodesAsBatch() throws Exception {
+        WebSocketCodec codec = JacksonWebSocketCodec.json();
+        ByteBuf content = Unpooled.copiedBuffer("[{\"intent\":\"system.health\"}]", CharsetUtil.UTF_8);
+
+        Object decoded = codec.decode(content);
+        assertInstanceOf(List.class, decoded);
+        assertEquals(1, ((List<?>) decoded).size());
+        content.release();
+    }
+}
@@ -0,0 +1,699 @@
+package horizon.demo;
+
+import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.Conductor;
+import horizon.core.annotation.Intent;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.metrics.MetricsCollector;
+import horizon.web.websocket.OutboundOverflowPolicy;
+import horizon.web.websocket.WebSocketFoyer;
+import horizon.web.websocket.WebSocketMessage;
+import horizon.web.websocket.WebSocketProtocol;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test WebSocket upgrades, request correlation and batches, the in-flight limit, the outbound
+ * queue, the negotiated compression, heartbeats of busy sessions, and session resumption.
+ */
+public class WebSocketFoyerTest {
+
+    @Conductor(namespace = "probe")
+    public static class HoldingConductor {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Intent("hold")
+        public String hold() throws InterruptedException {
+            release.await(10, TimeUnit.SECONDS);
+            return "released";
+        }
+
+        @Intent("echo")
+        public String echo() {
+            return "echoed";
+        }
+    }
+
+    private final BlockingQueue<Channel> channels = new LinkedBlockingQueue<>();
+    private WebSocketFoyer foyer;
+
+    @BeforeEach
+    public void setUp() {
+        foyer = new WebSocketFoyer(0) {
+            // Hands the server side of each connection to the test, so it can stall the event loop
+            @Override
+            protected ChannelInitializer<?> createChannelInitializer() {
+                ChannelInitializer<?> initializer = super.createChannelInitializer();
+                return new ChannelInitializer<>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        channels.add(ch);
+                        ch.pipeline().addLast(initializer);
+                    }
+                };
+            }
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        foyer.close();
+    }
+
+    @Test
+    public void testOnlyTheWebSocketPathIsUpgraded() throws Exception {
+        foyer.open();
+        try (Socket socket = upgrade("/ws?compression=off", null)) {
+            assertTrue(readHead(socket).startsWith("HTTP/1.1 101"));
+        }
+        try (Socket socket = upgrade("/ws/chat", null)) {
+            assertTrue(readHead(socket).startsWith("HTTP/1.1 101"));
+        }
+        try (Socket socket = upgrade("/wsXYZ", null)) {
+            assertTrue(readHead(socket).startsWith("HTTP/1.1 404"));
+        }
+    }
+
+    @Test
+    public void testResponsesCompletingOutOfOrderEchoTheirIds() throws Exception {
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = start(conductor);
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            readFrame(socket);
+            sendText(socket, "{\"intent\":\"probe.hold\",\"id\":1}");
+            sendText(socket, "{\"intent\":\"probe.echo\",\"id\":\"second\"}");
+
+            // The second request overtakes the first, which is still held
+            String first = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(first.contains("echoed"), first);
+            assertEquals("second", field(first, "id"));
+
+            conductor.release.countDown();
+            String second = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(second.contains("released"), second);
+            assertTrue(second.contains("\"id\":1"), second);
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testBatchRepliesCarryEntryAndEnvelopeIds() throws Exception {
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = start(conductor);
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            readFrame(socket);
+            sendText(socket, "{\"id\":\"held\",\"batch\":[{\"intent\":\"probe.hold\",\"id\":\"h1\"}]}");
+            sendText(socket, "{\"id\":\"quick\",\"batch\":["
+                + "{\"intent\":\"probe.echo\",\"id\":\"e1\"},{\"intent\":\"probe.missing\",\"id\":\"e2\"}]}");
+
+            // The second batch completes first, and says which batch it answers
+            String quick = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(quick.startsWith("{\"id\":\"quick\",\"batch\":["), quick);
+            assertTrue(quick.indexOf("\"id\":\"e1\"") < quick.indexOf("\"id\":\"e2\""), quick);
+            assertTrue(quick.contains("echoed"), quick);
+            assertTrue(quick.contains("probe.missing.error"), quick);
+
+            conductor.release.countDown();
+            String held = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(held.startsWith("{\"id\":\"held\",\"batch\":["), held);
+            assertTrue(held.contains("\"id\":\"h1\""), held);
+
+            // A bare array is still answered with a bare array
+            sendText(socket, "[{\"intent\":\"probe.echo\",\"id\":3}]");
+            String bare = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(bare.startsWith("["), bare);
+            assertTrue(bare.contains("\"id\":3"), bare);
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testInFlightLimitPausesAndResumesReads() throws Exception {
+        foyer.setMaxInFlightPerSession(1);
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = start(conductor);
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            readFrame(socket);
+            sendText(socket, "{\"intent\":\"probe.hold\",\"id\":1}");
+            awaitStat("inFlight", 1);
+            assertEquals(false, onlySession().get("readsPaused"));
+
+            // The second request waits for the first, and reads stop until it can start
+            sendText(socket, "{\"intent\":\"probe.echo\",\"id\":2}");
+            awaitStat("readsPaused", true);
+
+            conductor.release.countDown();
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"id\":1"));
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"id\":2"));
+            awaitStat("readsPaused", false);
+            awaitStat("inFlight", 0);
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testTextFramesOnABinarySessionAreAnsweredInJson() throws Exception {
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = start(conductor);
+
+        try (Socket socket = upgrade("/ws", null, "cbor")) {
+            assertTrue(readHead(socket).contains("cbor"));
+            // The session announcement is encoded with the negotiated codec
+            assertEquals(0x82, socket.getInputStream().read());
+            readPayload(socket);
+
+            sendText(socket, "{\"intent\":\"probe.echo\",\"id\":1}");
+            assertEquals(0x81, socket.getInputStream().read());
+            String reply = new String(readPayload(socket), StandardCharsets.UTF_8);
+            assertTrue(reply.contains("echoed") && reply.contains("\"id\":1"), reply);
+
+            sendText(socket, "not json");
+            assertEquals(0x81, socket.getInputStream().read());
+            String error = new String(readPayload(socket), StandardCharsets.UTF_8);
+            assertTrue(error.contains("\"success\":false"), error);
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testQueuedFramesAreWrittenWithOneFlush() throws Exception {
+        foyer.open();
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String sessionId = field(new String(readFrame(socket), StandardCharsets.UTF_8), "sessionId");
+            long flushes = metric("counter.websocket.outbound.flushes");
+            long frames = metric("counter.websocket.outbound.frames");
+
+            CountDownLatch resume = stall(channels.take());
+            try {
+                for (int n = 1; n <= 10; n++) {
+                    foyer.sendToSession(sessionId, note(n));
+                }
+                assertEquals(10, onlySession().get("queueDepth"));
+            } finally {
+                resume.countDown();
+            }
+
+            for (int n = 1; n <= 10; n++) {
+                assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"n\":" + n));
+            }
+            awaitMetric("counter.websocket.outbound.frames", frames + 10);
+            assertEquals(flushes + 1, metric("counter.websocket.outbound.flushes"));
+        }
+    }
+
+    @Test
+    public void testDropOldestDropsPublishedFramesButKeepsReplies() throws Exception {
+        foyer.setOutboundHighWaterMark(3);
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = start(conductor);
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String sessionId = field(new String(readFrame(socket), StandardCharsets.UTF_8), "sessionId");
+            assertTrue(foyer.subscribe("ticks", sessionId));
+            sendText(socket, "{\"intent\":\"probe.hold\",\"id\":1}");
+            awaitStat("inFlight", 1);
+            long dropped = metric("counter.websocket.outbound.dropped");
+
+            CountDownLatch resume = stall(channels.take());
+            try {
+                for (int n = 1; n <= 3; n++) {
+                    foyer.publish("ticks", Map.of("n", n));
+                }
+                // The reply makes room for itself by dropping the oldest tick
+                conductor.release.countDown();
+                awaitStat("droppedFrames", 1L);
+                for (int n = 4; n <= 6; n++) {
+                    foyer.publish("ticks", Map.of("n", n));
+                }
+                assertEquals(3, onlySession().get("queueDepth"));
+                assertEquals(4L, onlySession().get("droppedFrames"));
+            } finally {
+                resume.countDown();
+            }
+
+            String reply = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(reply.contains("released") && reply.contains("\"id\":1"), reply);
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"n\":5"));
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"n\":6"));
+            assertEquals(dropped + 4, metric("counter.websocket.outbound.dropped"));
+            awaitStat("queueDepth", 0);
+            awaitMetric("gauge.websocket.outbound.depth", 0);
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testCoalesceReplacesQueuedFramesOfTheSameTopic() throws Exception {
+        foyer.setOutboundHighWaterMark(3);
+        foyer.setOutboundOverflowPolicy(OutboundOverflowPolicy.COALESCE);
+        foyer.open();
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String sessionId = field(new String(readFrame(socket), StandardCharsets.UTF_8), "sessionId");
+            assertTrue(foyer.subscribe("a", sessionId));
+            assertTrue(foyer.subscribe("b", sessionId));
+
+            CountDownLatch resume = stall(channels.take());
+            try {
+                foyer.publish("a", Map.of("n", 1));
+                foyer.publish("b", Map.of("n", 1));
+                foyer.publish("a", Map.of("n", 2));
+                // Supersedes both queued frames of topic a
+                foyer.publish("a", Map.of("n", 3));
+                assertEquals(2L, onlySession().get("coalescedFrames"));
+                foyer.publish("b", Map.of("n", 2));
+                foyer.publish("a", Map.of("n", 4));
+                assertEquals(3L, onlySession().get("coalescedFrames"));
+                assertEquals(0L, onlySession().get("droppedFrames"));
+            } finally {
+                resume.countDown();
+            }
+
+            for (String expected : new String[] {"\"b\"", "\"b\"", "\"a\""}) {
+                String frame = new String(readDataFrame(socket), StandardCharsets.UTF_8);
+                assertTrue(frame.contains("\"intent\":" + expected), frame);
+            }
+            awaitStat("queueDepth", 0);
+        }
+    }
+
+    @Test
+    public void testQueueFullOfRepliesClosesTheConnection() throws Exception {
+        foyer.setOutboundHighWaterMark(2);
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = start(conductor);
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            readFrame(socket);
+            for (int id = 1; id <= 3; id++) {
+                sendText(socket, "{\"intent\":\"probe.hold\",\"id\":" + id + "}");
+            }
+            awaitStat("inFlight", 3);
+            long disconnected = metric("counter.websocket.outbound.disconnected");
+
+            CountDownLatch resume = stall(channels.take());
+            try {
+                // No reply may be dropped, so the third one closes the connection
+                conductor.release.countDown();
+                awaitMetric("counter.websocket.outbound.disconnected", disconnected + 1);
+            } finally {
+                resume.countDown();
+            }
+            assertClosed(socket);
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testDisconnectPolicyClosesTheConnection() throws Exception {
+        foyer.setOutboundHighWaterMark(2);
+        foyer.setOutboundOverflowPolicy(OutboundOverflowPolicy.DISCONNECT);
+        foyer.open();
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String sessionId = field(new String(readFrame(socket), StandardCharsets.UTF_8), "sessionId");
+            assertTrue(foyer.subscribe("ticks", sessionId));
+            long disconnected = metric("counter.websocket.outbound.disconnected");
+
+            CountDownLatch resume = stall(channels.take());
+            try {
+                for (int n = 1; n <= 3; n++) {
+                    foyer.publish("ticks", Map.of("n", n));
+                }
+                assertEquals(disconnected + 1, metric("counter.websocket.outbound.disconnected"));
+            } finally {
+                resume.countDown();
+            }
+            assertClosed(socket);
+        }
+    }
+
+    @Test
+    public void testCompressionIsReportedOnlyWhenNegotiated() throws Exception {
+        foyer.getCompression().setServerWindowSizeAllowed(false);
+        foyer.open();
+
+        try (Socket socket = upgrade("/ws", "permessage-deflate")) {
+            String head = readHead(socket);
+            assertTrue(head.contains("permessage-deflate"), head);
+            readFrame(socket);
+            assertEquals(true, onlySession().get("compressed"));
+        }
+        awaitNoSessions();
+
+        // The client offers compression with a parameter the server does not allow, so it is declined
+        try (Socket socket = upgrade("/ws", "permessage-deflate; server_max_window_bits=10")) {
+            String head = readHead(socket);
+            assertFalse(head.contains("permessage-deflate"), head);
+            readFrame(socket);
+            assertEquals(false, onlySession().get("compressed"));
+        }
+    }
+
+    @Test
+    public void testSessionWithPausedReadsIsNotReaped() throws Exception {
+        foyer.setMaxInFlightPerSession(1);
+        foyer.getHeartbeat().setPingInterval(Duration.ofMillis(100));
+        foyer.getHeartbeat().setPongTimeout(Duration.ofMillis(100));
+        HoldingConductor conductor = new HoldingConductor();
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new WebSocketProtocol(), foyer);
+        aggregator.registerConductorMethod(new ConductorMethod(conductor,
+            HoldingConductor.class.getMethod("hold"), "probe.hold"));
+        aggregator.start();
+
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            readFrame(socket);
+            // The second message waits for the first, which pauses reads; this client never answers pings
+            sendText(socket, "{\"intent\":\"probe.hold\",\"id\":1}");
+            sendText(socket, "{\"intent\":\"probe.hold\",\"id\":2}");
+            Thread.sleep(2000);
+
+            conductor.release.countDown();
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("released"));
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("released"));
+        } finally {
+            aggregator.stop();
+        }
+    }
+
+    @Test
+    public void testResumedSessionIsSentTheFramesItMissed() throws Exception {
+        foyer.open();
+        String sessionId;
+        String token;
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String opened = new String(readFrame(socket), StandardCharsets.UTF_8);
+            sessionId = field(opened, "sessionId");
+            token = field(opened, "resumeToken");
+
+            foyer.sendToSession(sessionId, note(1));
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"n\":1"));
+        }
+        // Dropped without a close handshake, so the session is kept
+        awaitSuspended(1);
+        foyer.sendToSession(sessionId, note(2));
+        foyer.sendToSession(sessionId, note(3));
+
+        try (Socket socket = upgrade("/ws?resume=" + token + "&seq=1", null)) {
+            readHead(socket);
+            String resumed = new String(readFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(resumed.contains("session.resumed"), resumed);
+            assertEquals(sessionId, field(resumed, "sessionId"));
+            assertTrue(resumed.contains("\"complete\":true"), resumed);
+            assertTrue(resumed.contains("\"replayed\":2"), resumed);
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"n\":2"));
+            assertTrue(new String(readDataFrame(socket), StandardCharsets.UTF_8).contains("\"n\":3"));
+            assertEquals(0, foyer.getResumption().getSuspendedCount());
+        }
+    }
+
+    @Test
+    public void testOverflowedReplayBufferIsReportedIncomplete() throws Exception {
+        foyer.getResumption().setReplayFrames(2);
+        foyer.open();
+        String sessionId;
+        String token;
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String opened = new String(readFrame(socket), StandardCharsets.UTF_8);
+            sessionId = field(opened, "sessionId");
+            token = field(opened, "resumeToken");
+        }
+        awaitSuspended(1);
+        for (int n = 1; n <= 5; n++) {
+            foyer.sendToSession(sessionId, note(n));
+        }
+
+        try (Socket socket = upgrade("/ws?resume=" + token + "&seq=0", null)) {
+            readHead(socket);
+            String resumed = new String(readFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(resumed.contains("session.resumed"), resumed);
+            assertEquals(sessionId, field(resumed, "sessionId"));
+            // The first frames were dropped, so none are replayed and the client must catch up itself
+            assertTrue(resumed.contains("\"complete\":false"), resumed);
+            assertTrue(resumed.contains("\"replayed\":0"), resumed);
+        }
+    }
+
+    @Test
+    public void testExpiredTokenOpensANewSession() throws Exception {
+        foyer.getResumption().setWindow(Duration.ofMillis(100));
+        foyer.open();
+        String sessionId;
+        String token;
+        try (Socket socket = upgrade("/ws", null)) {
+            readHead(socket);
+            String opened = new String(readFrame(socket), StandardCharsets.UTF_8);
+            sessionId = field(opened, "sessionId");
+            token = field(opened, "resumeToken");
+        }
+        awaitSuspended(1);
+        awaitSuspended(0);
+
+        try (Socket socket = upgrade("/ws?resume=" + token + "&seq=0", null)) {
+            readHead(socket);
+            String opened = new String(readFrame(socket), StandardCharsets.UTF_8);
+            assertTrue(opened.contains("session.opened"), opened);
+            assertNotEquals(sessionId, field(opened, "sessionId"));
+        }
+    }
+
+    /**
+     * Opens the foyer with the probe conductor registered.
+     */
+    private ProtocolAggregator start(HoldingConductor conductor) throws NoSuchMethodException {
+        ProtocolAggregator aggregator = new ProtocolAggregator();
+        aggregator.registerProtocol(new WebSocketProtocol(), foyer);
+        aggregator.registerConductorMethods(List.of(
+            new ConductorMethod(conductor, HoldingConductor.class.getMethod("hold"), "probe.hold"),
+            new ConductorMethod(conductor, HoldingConductor.class.getMethod("echo"), "probe.echo")));
+        aggregator.start();
+        return aggregator;
+    }
+
+    private Socket upgrade(String uri, String extensions) throws IOException {
+        return upgrade(uri, extensions, null);
+    }
+
+    private Socket upgrade(String uri, String extensions, String subprotocol) throws IOException {
+        Socket socket = new Socket("localhost", foyer.getBoundPort());
+        socket.setSoTimeout(5000);
+        String request = "GET " + uri + " HTTP/1.1\r\n"
+            + "Host: localhost\r\n"
+            + "Upgrade: websocket\r\n"
+            + "Connection: Upgrade\r\n"
+            + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+            + "Sec-WebSocket-Version: 13\r\n"
+            + (extensions != null ? "Sec-WebSocket-Extensions: " + extensions + "\r\n" : "")
+            + (subprotocol != null ? "Sec-WebSocket-Protocol: " + subprotocol + "\r\n" : "")
+            + "\r\n";
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+
+    private static String readHead(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            head.write(b);
+            String text = head.toString(StandardCharsets.US_ASCII);
+            if (text.endsWith("\r\n\r\n")) {
+                return text;
+            }
+        }
+        return head.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the payload of a server frame, which comes unmasked. The session announcement is sent once the upgrade
+     * is complete, so reading it orders the checks after the handshake.
+     */
+    private static byte[] readFrame(Socket socket) throws IOException {
+        socket.getInputStream().read();
+        return readPayload(socket);
+    }
+
+    private static byte[] readPayload(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        long length = in.read() & 0x7f;
+        if (length == 126) {
+            length = (in.read() << 8) | in.read();
+        } else if (length == 127) {
+            length = 0;
+            for (int i = 0; i < 8; i++) {
+                length = (length << 8) | in.read();
+            }
+        }
+        return in.readNBytes((int) length);
+    }
+
+    /**
+     * Reads frames up to the next text or binary one, skipping pings.
+     */
+    private static byte[] readDataFrame(Socket socket) throws IOException {
+        while (true) {
+            int first = socket.getInputStream().read();
+            if (first == -1 || (first & 0x0f) == 0x8) {
+                throw new IOException("Connection closed by the server");
+            }
+            byte[] payload = readPayload(socket);
+            if ((first & 0x0f) == 0x1 || (first & 0x0f) == 0x2) {
+                return payload;
+            }
+        }
+    }
+
+    /**
+     * Sends a text frame, masked as client frames must be.
+     */
+    private static void sendText(Socket socket, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        byte[] mask = {1, 2, 3, 4};
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x81);
+        if (payload.length < 126) {
+            frame.write(0x80 | payload.length);
+        } else {
+            frame.write(0x80 | 126);
+            frame.write(payload.length >> 8);
+            frame.write(payload.length & 0xff);
+        }
+        frame.write(mask);
+        for (int i = 0; i < payload.length; i++) {
+            frame.write(payload[i] ^ mask[i % 4]);
+        }
+        socket.getOutputStream().write(frame.toByteArray());
+        socket.getOutputStream().flush();
+    }
+
+    private static WebSocketMessage note(int n) {
+        return new WebSocketMessage("note", Map.of("n", n));
+    }
+
+    private static String field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":\"([^\"]*)\"").matcher(json);
+        assertTrue(matcher.find(), json);
+        return matcher.group(1);
+    }
+
+    private void awaitSuspended(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (foyer.getResumption().getSuspendedCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, foyer.getResumption().getSuspendedCount());
+    }
+
+    private Map<String, Object> onlySession() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Map<String, Map<String, Object>> stats = foyer.getSessionStats();
+            if (stats.size() == 1) {
+                return stats.values().iterator().next();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Expected one session, found " + foyer.getSessionStats().size());
+    }
+
+    /**
+     * Blocks the event loop of a channel, so frames queue up for it, until the returned latch is released.
+     */
+    private static CountDownLatch stall(Channel channel) throws InterruptedException {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        channel.eventLoop().execute(() -> {
+            stalled.countDown();
+            try {
+                resume.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+        return resume;
+    }
+
+    /**
+     * Reads frames until the server closes the connection, which must not take until the read timeout.
+     */
+    private static void assertClosed(Socket socket) {
+        IOException closed = assertThrows(IOException.class, () -> {
+            while (true) {
+                readDataFrame(socket);
+            }
+        });
+        assertEquals("Connection closed by the server", closed.getMessage());
+    }
+
+    private static long metric(String name) {
+        Object value = MetricsCollector.getInstance().getMetrics().get(name);
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static void awaitMetric(String name, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (metric(name) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, metric(name));
+    }
+
+    private void awaitStat(String name, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!expected.equals(onlySession().get(name)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, onlySession().get(name));
+    }
+
+    private void awaitNoSessions() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!foyer.getSessionStats().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(foyer.getSessionStats().isEmpty());
+    }
+}
@@ -0,0 +1,27 @@
+package horizon.loadtest;
+
+/**
+ * One request of a run, from the moment it was scheduled until its response.
+ */
+final class Exchange {
+    final LoadMix.Request request;
+    final long intendedNanos;
+    final boolean measured;
+
+    Exchange(LoadMix.Request request, long intendedNanos, boolean measured) {
+        this.request = request;
+        this.intendedNanos = intendedNanos;
+        this.measured = measured;
+    }
+
+    /**
+     * Receives the outcome of exchanges.
+     */
+    interface Completion {
+        /**
+         * @param exchange the exchange that ended
+         * @param error the kind of error, or null if it succeeded
+         */
+        void complete(Exchange exchange, String error);
+    }
+}
@@ -0,0 +1,194 @@
+package horizon.loadtest;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Sends requests over a fixed pool of HTTP/1.1 keep-alive connections, one request per
+ * connection at a time. Requests that find every connection busy wait in a queue, and
+ * that wait counts toward their latency.
+ */
+final class HttpLoadClient implements AutoCloseable {
+    private static final int MAX_RESPONSE_BYTES = 4 * 1024 * 1024;
+
+    private final EventLoopGroup group;
+    private final InetSocketAddress address;
+    private final String host;
+    private final Exchange.Completion completion;
+    private final Queue<Exchange> waiting = new ConcurrentLinkedQueue<>();
+    private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Bootstrap bootstrap;
+    private volatile boolean closing;
+
+    HttpLoadClient(EventLoopGroup group, InetSocketAddress address, Exchange.Completion completion) {
+        this.group = group;
+        this.address = address;
+        this.host = address.getHostString() + ":" + address.getPort();
+        this.completion = completion;
+        this.bootstrap = new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, true);
+    }
+
+    /**
+     * Opens the connection pool.
+     */
+    void connect(int connections) throws InterruptedException {
+        for (int i = 0; i < connections; i++) {
+            open().sync();
+        }
+    }
+
+    private ChannelFuture open() {
+        Connection connection = new Connection();
+        return bootstrap.clone(group)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel channel) {
+                    channel.pipeline()
+                        .addLast(new HttpClientCodec())
+                        .addLast(new HttpObjectAggregator(MAX_RESPONSE_BYTES))
+                        .addLast(connection);
+                }
+            })
+            .connect(address)
+            .addListener((ChannelFutureListener) future -> {
+                if (future.isSuccess()) {
+                    // Before channelActive, which fires after this listener
+                    connection.channel = future.channel();
+                    connections.add(connection);
+                    release(connection);
+                }
+            });
+    }
+
+    /**
+     * Sends a request, or queues it until a connection is free.
+     */
+    void send(Exchange exchange) {
+        waiting.add(exchange);
+        dispatch();
+    }
+
+    private void release(Connection connection) {
+        idle.push(connection);
+        dispatch();
+    }
+
+    // Every change to either queue is followed by a dispatch, so no request is left waiting beside an idle connection
+    private void dispatch() {
+        while (!waiting.isEmpty()) {
+            Connection connection = idle.poll();
+            if (connection == null) {
+                return;
+            }
+            Exchange exchange = waiting.poll();
+            if (exchange == null) {
+                idle.push(connection);
+                return;
+            }
+            connection.send(exchange);
+        }
+    }
+
+    @Override
+    public void close() {
+        closing = true;
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+    }
+
+    private FullHttpRequest toHttpRequest(LoadMix.Request request) {
+        HttpMethod method = HttpMethod.valueOf(request.method());
+        FullHttpRequest http;
+        if (request.body() != null) {
+            http = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, request.target(),
+                Unpooled.wrappedBuffer(request.body().getBytes(StandardCharsets.UTF_8)));
+            http.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+        } else {
+            http = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, request.target());
+        }
+        http.headers().set(HttpHeaderNames.HOST, host);
+        http.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, http.content().readableBytes());
+        return http;
+    }
+
+    /**
+     * One keep-alive connection and the request it is waiting on.
+     */
+    private final class Connection extends SimpleChannelInboundHandler<FullHttpResponse> {
+        private volatile Channel channel;
+        private volatile Exchange current;
+
+        void send(Exchange exchange) {
+            current = exchange;
+            channel.writeAndFlush(toHttpRequest(exchange.request)).addListener(future -> {
+                if (!future.isSuccess()) {
+                    channel.close();
+                }
+            });
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            Exchange exchange = current;
+            current = null;
+            if (exchange != null) {
+                int status = response.status().code();
+                completion.complete(exchange, status >= 400 ? "http " + status : null);
+            }
+            release(this);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            connections.remove(this);
+            idle.remove(this);
+            Exchange exchange = current;
+            current = null;
+            if (exchange != null) {
+                completion.complete(exchange, "connection closed");
+            }
+            // Keep the pool at its size while the run lasts
+            if (!closing) {
+                open();
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+    }
+}
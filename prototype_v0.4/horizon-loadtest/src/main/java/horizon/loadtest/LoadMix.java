@@ -0,0 +1,139 @@
+package horizon.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A weighted mix of requests to send.
+ *
+ * Each non-empty line of a mix is {@code <weight> <http|ws> <request>}, where an HTTP request is
+ * {@code METHOD /path [json body]} and a WebSocket request is {@code intent [json data]}.
+ * Lines starting with {@code #} are comments.
+ */
+final class LoadMix {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The protocol a request is sent over.
+     */
+    enum Protocol { HTTP, WEBSOCKET }
+
+    /**
+     * One kind of request in the mix.
+     *
+     * @param name the label the request is reported under
+     * @param protocol the protocol it is sent over
+     * @param method the HTTP method, or null for WebSocket
+     * @param target the HTTP path and query, or the WebSocket intent
+     * @param body the JSON body or data, or null
+     */
+    record Request(String name, Protocol protocol, String method, String target, String body) {
+    }
+
+    private final List<Request> requests;
+    private final int[] sequence;
+
+    private LoadMix(List<Request> requests, List<Integer> weights) {
+        this.requests = List.copyOf(requests);
+
+        // Requests are picked from a shuffled cycle, so every window of the run has the same mix
+        List<Integer> picks = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            for (int j = 0; j < weights.get(i); j++) {
+                picks.add(i);
+            }
+        }
+        Collections.shuffle(picks, new Random(42));
+        this.sequence = picks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static LoadMix load(String file) throws IOException {
+        if (file == null) {
+            try (InputStream in = LoadMix.class.getResourceAsStream("/default-mix.txt")) {
+                return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parse(Files.readString(Path.of(file)));
+    }
+
+    static LoadMix parse(String text) {
+        List<Request> requests = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        List<String> lines = text.lines().toList();
+
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+", 3);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Line " + number + ": expected <weight> <http|ws> <request>");
+            }
+            int weight = Integer.parseInt(parts[0]);
+            if (weight < 1) {
+                throw new IllegalArgumentException("Line " + number + ": weight must be positive");
+            }
+            requests.add(switch (parts[1].toLowerCase(Locale.ROOT)) {
+                case "http" -> httpRequest(parts[2], number);
+                case "ws", "websocket" -> webSocketRequest(parts[2], number);
+                default -> throw new IllegalArgumentException("Line " + number + ": unknown protocol " + parts[1]);
+            });
+            weights.add(weight);
+        }
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no requests");
+        }
+        return new LoadMix(requests, weights);
+    }
+
+    private static Request httpRequest(String spec, int number) {
+        String[] parts = spec.split("\\s+", 3);
+        if (parts.length < 2 || !parts[1].startsWith("/")) {
+            throw new IllegalArgumentException("Line " + number + ": expected METHOD /path [json body]");
+        }
+        String method = parts[0].toUpperCase(Locale.ROOT);
+        String body = parts.length == 3 ? json(parts[2], number) : null;
+        return new Request("http " + method + " " + parts[1], Protocol.HTTP, method, parts[1], body);
+    }
+
+    private static Request webSocketRequest(String spec, int number) {
+        String[] parts = spec.split("\\s+", 2);
+        String data = parts.length == 2 ? json(parts[1], number) : null;
+        return new Request("ws " + parts[0], Protocol.WEBSOCKET, null, parts[0], data);
+    }
+
+    private static String json(String value, int number) {
+        try {
+            // Normalized, so it can be embedded in a frame as is
+            return MAPPER.writeValueAsString(MAPPER.readTree(value));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Line " + number + ": invalid JSON " + value, e);
+        }
+    }
+
+    List<Request> getRequests() {
+        return requests;
+    }
+
+    boolean uses(Protocol protocol) {
+        return requests.stream().anyMatch(request -> request.protocol() == protocol);
+    }
+
+    /**
+     * Gets the request to send as the given request of the run.
+     */
+    Request pick(long index) {
+        return requests.get(sequence[(int) (index % sequence.length)]);
+    }
+}
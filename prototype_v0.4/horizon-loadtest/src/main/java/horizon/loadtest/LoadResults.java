@@ -0,0 +1,131 @@
+package horizon.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one run, per request of the mix.
+ *
+ * Latency is measured from the moment a request was scheduled to be sent, not from when it
+ * was written, so time spent waiting behind a slow server counts against the server
+ * instead of silently lowering the sending rate.
+ */
+final class LoadResults {
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    LoadResults(LoadMix mix) {
+        for (LoadMix.Request request : mix.getRequests()) {
+            stats.put(request.name(), new Stats());
+        }
+    }
+
+    /**
+     * Records a response.
+     *
+     * @param request the request answered
+     * @param intendedNanos when the request was scheduled to be sent
+     * @param error the kind of error, or null if it succeeded
+     */
+    void record(LoadMix.Request request, long intendedNanos, String error) {
+        Stats stat = stats.get(request.name());
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+        stat.latency.recordValue(Math.max(0, Math.min(micros, HIGHEST_MICROS)));
+        if (error != null) {
+            stat.errors.computeIfAbsent(error, kind -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records a request that got no response before the end of the run.
+     */
+    void recordIncomplete(LoadMix.Request request) {
+        stats.get(request.name()).incomplete.increment();
+    }
+
+    /**
+     * Summarizes the run, after all responses were recorded.
+     *
+     * @param measuredNanos how long requests were sent for, after warm-up
+     */
+    Summary summarize(long measuredNanos) {
+        Map<String, Summary> rows = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        Map<String, Long> totalErrors = new TreeMap<>();
+        long totalIncomplete = 0;
+
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats stat = entry.getValue();
+            Histogram histogram = stat.latency.getIntervalHistogram();
+            Map<String, Long> errors = new TreeMap<>();
+            stat.errors.forEach((kind, count) -> errors.put(kind, count.sum()));
+            long incomplete = stat.incomplete.sum();
+
+            rows.put(entry.getKey(), new Summary(histogram, errors, incomplete, measuredNanos, Map.of()));
+            total.add(histogram);
+            errors.forEach((kind, count) -> totalErrors.merge(kind, count, Long::sum));
+            totalIncomplete += incomplete;
+        }
+        return new Summary(total, totalErrors, totalIncomplete, measuredNanos, rows);
+    }
+
+    private static final class Stats {
+        final Recorder latency = new Recorder(HIGHEST_MICROS, 3);
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        final LongAdder incomplete = new LongAdder();
+    }
+
+    /**
+     * Latency percentiles, throughput and errors of a run or of one request of its mix.
+     */
+    record Summary(Histogram latency, Map<String, Long> errors, long incomplete, long measuredNanos,
+                   Map<String, Summary> rows) {
+
+        long count() {
+            return latency.getTotalCount();
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum() + incomplete;
+        }
+
+        double throughput() {
+            return count() * 1e9 / measuredNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        void print(PrintStream out) {
+            out.printf("%-36s %9s %8s %9s %9s %9s %9s %9s%n",
+                "request", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            rows.forEach((name, row) -> row.printRow(out, name));
+            printRow(out, "total");
+            out.printf("throughput: %.1f req/s%n", throughput());
+            if (errorCount() > 0) {
+                StringBuilder kinds = new StringBuilder();
+                errors.forEach((kind, count) -> kinds.append(' ').append(kind).append('=').append(count));
+                if (incomplete > 0) {
+                    kinds.append(" incomplete=").append(incomplete);
+                }
+                out.printf("errors:%s%n", kinds);
+            }
+        }
+
+        private void printRow(PrintStream out, String name) {
+            out.printf("%-36s %9d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, count(), errorCount(),
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                latency.getMaxValue() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package horizon.loadtest;
+
+import horizon.core.ProtocolAggregator;
+import horizon.demo.DemoApplication;
+import horizon.web.http.HttpFoyer;
+import horizon.web.websocket.WebSocketFoyer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of the demo application, started in-process on ephemeral ports.
+ *
+ * Requests are sent open-loop: request i is due at {@code start + i / rate} whether or not
+ * earlier requests were answered, and its latency is measured from that moment. A server
+ * that stalls therefore shows up as high latency rather than as a lower sending rate
+ * (coordinated omission).
+ *
+ * With {@code --sweep}, the test is repeated with the foyers' event loops limited to each
+ * number of worker threads, and a scaling curve of throughput and latency is printed. Conductor
+ * methods then run on a pool of as many threads, with execution lanes disabled, so a step does
+ * not also borrow the virtual thread carriers of every core. The garbage collector, the JIT
+ * compiler and the load clients still use all cores; to limit those as well, run the test under
+ * {@code taskset} or with {@code -XX:ActiveProcessorCount}.
+ */
+public class LoadTest {
+    private static final String WEBSOCKET_PATH = "/ws";
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Options options;
+    private final LoadMix mix;
+    private final PrintStream out = System.out;
+
+    LoadTest(Options options, LoadMix mix) {
+        this.options = options;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.out.println(Options.USAGE);
+            return;
+        }
+        new LoadTest(options, LoadMix.load(options.mixFile)).run();
+    }
+
+    void run() throws Exception {
+        List<Integer> sweep = options.sweep.isEmpty() ? List.of(options.workers) : options.sweep;
+        List<LoadResults.Summary> summaries = new ArrayList<>();
+
+        for (int workers : sweep) {
+            out.printf("%n== %s, %d req/s for %ds after %ds warm-up, %d HTTP and %d WebSocket connections%n",
+                workers == 0 ? "default worker threads" : workers + " worker threads",
+                options.rate, options.durationSeconds, options.warmupSeconds,
+                options.httpConnections, options.webSocketConnections);
+            LoadResults.Summary summary = runOnce(workers);
+            summary.print(out);
+            summaries.add(summary);
+        }
+
+        if (sweep.size() > 1) {
+            printScalingCurve(sweep, summaries);
+        }
+    }
+
+    private LoadResults.Summary runOnce(int workers) throws Exception {
+        HttpFoyer httpFoyer = new HttpFoyer(0);
+        WebSocketFoyer webSocketFoyer = new WebSocketFoyer(0);
+        httpFoyer.setWorkerThreads(workers);
+        webSocketFoyer.setWorkerThreads(workers);
+        ProtocolAggregator aggregator = DemoApplication.createAggregator(httpFoyer, webSocketFoyer);
+        ExecutorService conductorThreads = null;
+        if (workers > 0) {
+            conductorThreads = Executors.newFixedThreadPool(workers);
+            aggregator.setConductorExecutor(conductorThreads);
+            aggregator.getExecutionLanes().setEnabled(false);
+        }
+        aggregator.start();
+
+        EventLoopGroup clientGroup = new NioEventLoopGroup(options.clientThreads);
+        LoadResults results = new LoadResults(mix);
+        Set<Exchange> outstanding = ConcurrentHashMap.newKeySet();
+        Exchange.Completion completion = (exchange, error) -> {
+            // A request is answered once, even if its connection closes afterwards
+            if (outstanding.remove(exchange) && exchange.measured) {
+                results.record(exchange.request, exchange.intendedNanos, error);
+            }
+        };
+
+        HttpLoadClient http = new HttpLoadClient(clientGroup,
+            new InetSocketAddress("127.0.0.1", httpFoyer.getBoundPort()), completion);
+        WebSocketLoadClient webSocket = new WebSocketLoadClient(clientGroup,
+            new InetSocketAddress("127.0.0.1", webSocketFoyer.getBoundPort()), WEBSOCKET_PATH, completion);
+        try {
+            if (mix.uses(LoadMix.Protocol.HTTP)) {
+                http.connect(options.httpConnections);
+            }
+            if (mix.uses(LoadMix.Protocol.WEBSOCKET)) {
+                webSocket.connect(options.webSocketConnections);
+            }
+
+            long warmupNanos = TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+            long measuredNanos = TimeUnit.SECONDS.toNanos(options.durationSeconds);
+            long total = (long) options.rate * (options.warmupSeconds + options.durationSeconds);
+            double intervalNanos = 1e9 / options.rate;
+            long start = System.nanoTime();
+            long measureFrom = start + warmupNanos;
+
+            for (long i = 0; i < total; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                awaitNanos(intended);
+
+                Exchange exchange = new Exchange(mix.pick(i), intended, intended >= measureFrom);
+                outstanding.add(exchange);
+                if (exchange.request.protocol() == LoadMix.Protocol.HTTP) {
+                    http.send(exchange);
+                } else {
+                    webSocket.send(exchange);
+                }
+            }
+
+            // Let the last requests finish, then count the rest as unanswered
+            long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds);
+            while (!outstanding.isEmpty() && System.nanoTime() < giveUp) {
+                Thread.sleep(10);
+            }
+            for (Exchange exchange : outstanding) {
+                if (outstanding.remove(exchange) && exchange.measured) {
+                    results.recordIncomplete(exchange.request);
+                }
+            }
+            return results.summarize(measuredNanos);
+        } finally {
+            http.close();
+            webSocket.close();
+            clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+            aggregator.stop();
+            if (conductorThreads != null) {
+                conductorThreads.shutdownNow();
+            }
+        }
+    }
+
+    private static void awaitNanos(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void printScalingCurve(List<Integer> sweep, List<LoadResults.Summary> summaries) {
+        out.printf("%n== Scaling curve at %d req/s offered%n", options.rate);
+        out.printf("%8s %14s %8s %9s %9s %9s%n", "workers", "throughput/s", "speedup", "p50 ms", "p99 ms", "errors");
+        double base = summaries.get(0).throughput();
+        for (int i = 0; i < sweep.size(); i++) {
+            LoadResults.Summary summary = summaries.get(i);
+            out.printf("%8d %14.1f %8.2f %9.2f %9.2f %9d%n", sweep.get(i), summary.throughput(),
+                base > 0 ? summary.throughput() / base : 0, summary.percentileMillis(50),
+                summary.percentileMillis(99), summary.errorCount());
+        }
+    }
+
+    /**
+     * Command line options.
+     */
+    static final class Options {
+        static final String USAGE = """
+            Usage: LoadTest [options]
+              --rate <n>                 requests per second offered (default 1000)
+              --duration <s>             seconds measured (default 30)
+              --warmup <s>               seconds sent before measuring (default 5)
+              --drain <s>                seconds to wait for responses after the last request (default 5)
+              --mix <file>               request mix, one "<weight> <http|ws> <request>" per line
+                                         (default: the built-in default-mix.txt)
+              --http-connections <n>     HTTP keep-alive connections (default 16)
+              --ws-connections <n>       WebSocket connections (default 4)
+              --workers <n>              server event loop and conductor threads, 0 for the defaults (default 0)
+              --sweep <list>             worker thread counts to compare, such as 1,2,4,N (N = cores);
+                                         GC, JIT and client threads are not limited, see taskset
+              --client-threads <n>       client event loop threads (default half the cores)
+              --help                     print this message
+            """;
+
+        int rate = 1000;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int drainSeconds = 5;
+        String mixFile;
+        int httpConnections = 16;
+        int webSocketConnections = 4;
+        int workers;
+        List<Integer> sweep = List.of();
+        int clientThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        boolean help;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--help")) {
+                    options.help = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--rate" -> options.rate = positive(arg, value);
+                    case "--duration" -> options.durationSeconds = positive(arg, value);
+                    case "--warmup" -> options.warmupSeconds = notNegative(arg, value);
+                    case "--drain" -> options.drainSeconds = notNegative(arg, value);
+                    case "--mix" -> options.mixFile = value;
+                    case "--http-connections" -> options.httpConnections = positive(arg, value);
+                    case "--ws-connections" -> options.webSocketConnections = positive(arg, value);
+                    case "--workers" -> options.workers = notNegative(arg, value);
+                    case "--sweep" -> options.sweep = sweep(value);
+                    case "--client-threads" -> options.clientThreads = positive(arg, value);
+                    default -> throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            return options;
+        }
+
+        private static List<Integer> sweep(String value) {
+            List<Integer> counts = new ArrayList<>();
+            for (String count : value.split(",")) {
+                counts.add(count.strip().equalsIgnoreCase("N")
+                    ? Runtime.getRuntime().availableProcessors()
+                    : positive("--sweep", count.strip()));
+            }
+            return counts;
+        }
+
+        private static int positive(String option, String value) {
+            int number = notNegative(option, value);
+            if (number == 0) {
+                throw new IllegalArgumentException(option + " must be positive");
+            }
+            return number;
+        }
+
+        private static int notNegative(String option, String value) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number < 0) {
+                    throw new IllegalArgumentException(option + " must not be negative");
+                }
+                return number;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " expects a number, got " + value);
+            }
+        }
+    }
+}
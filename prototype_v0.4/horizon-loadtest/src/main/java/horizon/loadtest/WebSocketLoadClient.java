@@ -0,0 +1,181 @@
+package horizon.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends requests over a fixed set of WebSocket connections, round robin. Many requests
+ * may be in flight on a connection; responses are matched to requests by their ID.
+ */
+final class WebSocketLoadClient implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_FRAME_BYTES = 4 * 1024 * 1024;
+
+    private final EventLoopGroup group;
+    private final InetSocketAddress address;
+    private final String path;
+    private final Exchange.Completion completion;
+    private final List<Connection> connections = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    WebSocketLoadClient(EventLoopGroup group, InetSocketAddress address, String path, Exchange.Completion completion) {
+        this.group = group;
+        this.address = address;
+        this.path = path;
+        this.completion = completion;
+    }
+
+    /**
+     * Opens the connections and waits for their handshakes.
+     */
+    void connect(int count) throws Exception {
+        URI uri = new URI("ws://" + address.getHostString() + ":" + address.getPort() + path);
+        for (int i = 0; i < count; i++) {
+            Connection connection = new Connection();
+            Channel channel = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel channel) {
+                        channel.pipeline()
+                            .addLast(new HttpClientCodec())
+                            .addLast(new HttpObjectAggregator(MAX_FRAME_BYTES))
+                            .addLast(new WebSocketClientProtocolHandler(WebSocketClientHandshakerFactory.newHandshaker(
+                                uri, WebSocketVersion.V13, null, false, new DefaultHttpHeaders(), MAX_FRAME_BYTES)))
+                            .addLast(new WebSocketFrameAggregator(MAX_FRAME_BYTES))
+                            .addLast(connection);
+                    }
+                })
+                .connect(address).sync().channel();
+            connection.channel = channel;
+            if (!connection.handshaken.await(10, TimeUnit.SECONDS) || !connection.handshaken.isSuccess()) {
+                throw new IllegalStateException("WebSocket handshake with " + uri + " failed");
+            }
+            connections.add(connection);
+        }
+    }
+
+    /**
+     * Sends a request on the next connection.
+     */
+    void send(Exchange exchange) {
+        long id = ids.incrementAndGet();
+        Connection connection = connections.get((int) (id % connections.size()));
+        connection.inFlight.put(id, exchange);
+
+        StringBuilder frame = new StringBuilder(64)
+            .append("{\"id\":").append(id)
+            .append(",\"intent\":").append(quote(exchange.request.target()));
+        if (exchange.request.body() != null) {
+            frame.append(",\"data\":").append(exchange.request.body());
+        }
+        frame.append('}');
+
+        connection.channel.writeAndFlush(new TextWebSocketFrame(frame.toString())).addListener(future -> {
+            if (!future.isSuccess() && connection.inFlight.remove(id) != null) {
+                completion.complete(exchange, "write failed");
+            }
+        });
+    }
+
+    private static String quote(String value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+    }
+
+    /**
+     * One WebSocket connection and the requests waiting for a response on it.
+     */
+    private final class Connection extends SimpleChannelInboundHandler<TextWebSocketFrame> {
+        final Map<Long, Exchange> inFlight = new ConcurrentHashMap<>();
+        volatile Channel channel;
+        volatile ChannelPromise handshaken;
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            // Added while the channel is initialized, before the connection is made
+            handshaken = ctx.newPromise();
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object event) {
+            if (event == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_COMPLETE) {
+                handshaken.trySuccess();
+            } else if (event == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_TIMEOUT) {
+                handshaken.tryFailure(new IllegalStateException("Handshake timed out"));
+            }
+            ctx.fireUserEventTriggered(event);
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, TextWebSocketFrame frame) throws Exception {
+            JsonNode message = MAPPER.readTree(frame.text());
+            JsonNode id = message.get("id");
+            // Frames without an ID, such as topic pushes, answer no request
+            Exchange exchange = id != null && id.canConvertToLong() ? inFlight.remove(id.asLong()) : null;
+            if (exchange == null) {
+                return;
+            }
+            JsonNode data = message.path("data");
+            String error = null;
+            if (!data.path("success").asBoolean(true)) {
+                error = "ws " + data.path("type").asText(message.path("intent").asText("error"));
+            }
+            completion.complete(exchange, error);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            handshaken.tryFailure(new IllegalStateException("Connection closed"));
+            inFlight.forEach((id, exchange) -> {
+                if (inFlight.remove(id) != null) {
+                    completion.complete(exchange, "connection closed");
+                }
+            });
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+    }
+}
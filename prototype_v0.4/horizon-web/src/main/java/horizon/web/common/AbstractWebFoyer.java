@@ -3,6 +3,7 @@ package horizon.web.common;
 import horizon.core.Rendezvous;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -10,9 +11,15 @@ import io.netty.channel.socket.nio.NioServerSocketChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.InetSocketAddress;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Abstract base class for web foyers (HTTP and WebSocket) that use Netty.
  * This class provides common Netty-specific functionality for web foyers.
+ * Connections pass through an {@link AdmissionController} before their pipeline is built.
  *
  * @param <I> the protocol-specific input type
  */
@@ -22,29 +29,74 @@ public abstract class AbstractWebFoyer<I> extends AbstractFoyer<I> {
     protected EventLoopGroup bossGroup;
     protected EventLoopGroup workerGroup;
     protected Channel serverChannel;
+    protected final BatchEnvelope batchEnvelope = new BatchEnvelope();
+    protected final AdmissionController admission = new AdmissionController();
+    private volatile int workerThreads;
 
     public AbstractWebFoyer(int port) {
         super(port);
     }
 
+    /**
+     * Gets the batch envelope settings of this foyer.
+     * Use it to configure the maximum batch size and the total deadline.
+     */
+    public BatchEnvelope getBatchEnvelope() {
+        return batchEnvelope;
+    }
+
+    /**
+     * Gets the admission control settings of this foyer.
+     * Use it to limit concurrent connections and the accept rate.
+     */
+    public AdmissionController getAdmission() {
+        return admission;
+    }
+
+    /**
+     * Sets the number of event loop threads serving connections, applied when the foyer opens.
+     *
+     * @param workerThreads the number of threads, or 0 for Netty's default of twice the core count
+     */
+    public void setWorkerThreads(int workerThreads) {
+        if (workerThreads < 0) {
+            throw new IllegalArgumentException("workerThreads must not be negative: " + workerThreads);
+        }
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Gets the port the foyer listens on, which differs from the configured one when that is 0.
+     *
+     * @return the bound port, or -1 if the foyer is not open
+     */
+    public int getBoundPort() {
+        Channel channel = serverChannel;
+        if (isOpen.get() && channel != null && channel.localAddress() instanceof InetSocketAddress address) {
+            return address.getPort();
+        }
+        return -1;
+    }
+
     @Override
     public void open() {
         if (isOpen.compareAndSet(false, true)) {
             logger.info("Opening {} Foyer on port {}", getProtocolName(), port);
 
             bossGroup = new NioEventLoopGroup(1);
-            workerGroup = new NioEventLoopGroup();
+            workerGroup = new NioEventLoopGroup(workerThreads);
 
             try {
                 ServerBootstrap bootstrap = new ServerBootstrap();
                 bootstrap.group(bossGroup, workerGroup)
                     .channel(NioServerSocketChannel.class)
+                    .handler(admission.newServerHandler(getProtocolName()))
                     .childHandler(createChannelInitializer())
                     .option(ChannelOption.SO_BACKLOG, 128)
                     .childOption(ChannelOption.SO_KEEPALIVE, true);
 
                 serverChannel = bootstrap.bind(port).sync().channel();
-                logger.info("{} Foyer opened successfully on port {}", getProtocolName(), port);
+                logger.info("{} Foyer opened successfully on port {}", getProtocolName(), getBoundPort());
 
             } catch (Exception e) {
                 logger.error("Failed to open {} Foyer", getProtocolName(), e);
@@ -83,4 +135,38 @@ public abstract class AbstractWebFoyer<I> extends AbstractFoyer<I> {
      * Creates a channel initializer for the specific protocol.
      */
     protected abstract io.netty.channel.ChannelInitializer<?> createChannelInitializer();
+
+    /**
+     * Gets the IP address of the client on a channel, used to key per-client rate limits.
+     *
+     * @param channel the client channel
+     * @return the IP address, or null if the channel is not connected over IP
+     */
+    protected static String clientAddress(Channel channel) {
+        if (channel.remoteAddress() instanceof InetSocketAddress address && address.getAddress() != null) {
+            return address.getAddress().getHostAddress();
+        }
+        return null;
+    }
+
+    /**
+     * Cancels a pending request if its connection closes first,
+     * which interrupts the conductor still working for a client that is gone.
+     *
+     * @param channel the client channel
+     * @param pending the request's future, as returned by the rendezvous
+     */
+    protected static void cancelOnClose(Channel channel, CompletableFuture<?> pending) {
+        ChannelFutureListener cancel = future -> pending.cancel(false);
+        channel.closeFuture().addListener(cancel);
+        pending.whenComplete((ignored, error) -> channel.closeFuture().removeListener(cancel));
+    }
+
+    /**
+     * Checks whether a request failed only because it was cancelled.
+     */
+    protected static boolean isCancellation(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof CancellationException;
+    }
 }
@@ -1,5 +1,6 @@
 package horizon.web.common;
 
+import horizon.core.RegistrySnapshot;
 import horizon.core.protocol.ProtocolAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,16 @@ public abstract class AbstractWebProtocolAdapter<I, O> implements ProtocolAdapte
         }
     }
     
+    @Override
+    public String extractIntent(I request, RegistrySnapshot registry) {
+        try {
+            return doExtractIntent(request, registry);
+        } catch (Exception e) {
+            logger.error("Failed to extract intent", e);
+            throw new RuntimeException("Failed to extract intent", e);
+        }
+    }
+
     @Override
     public Object extractPayload(I request) {
         try {
@@ -63,6 +74,19 @@ public abstract class AbstractWebProtocolAdapter<I, O> implements ProtocolAdapte
      * @return the intent string
      */
     protected abstract String doExtractIntent(I request);
+
+    /**
+     * Extracts the intent from a protocol-specific request with the registry snapshot it runs on.
+     * This method is called by {@link #extractIntent(Object, RegistrySnapshot)}, and by default
+     * ignores the snapshot.
+     *
+     * @param request the protocol-specific request
+     * @param registry the registry snapshot of the request
+     * @return the intent string
+     */
+    protected String doExtractIntent(I request, RegistrySnapshot registry) {
+        return doExtractIntent(request);
+    }
     
     /**
      * Extracts the payload from a protocol-specific request.
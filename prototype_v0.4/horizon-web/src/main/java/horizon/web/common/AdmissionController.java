@@ -0,0 +1,276 @@
+package horizon.web.common;
+
+import horizon.core.metrics.MetricsCollector;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection admission control of a web foyer.
+ *
+ * Every accepted connection is checked against a maximum number of concurrent connections
+ * and an accept-rate token bucket before its pipeline is built, so an overloaded foyer turns
+ * clients away without allocating a context or decoding a request. What happens to the
+ * connections that do not fit is set by the {@link AdmissionPolicy}.
+ *
+ * Admission decisions run on the server channel's event loop, so the token bucket needs
+ * no locking; rejected connections are answered from that loop as well, keeping the
+ * worker event loops free for admitted clients. Limits are off by default.
+ */
+public class AdmissionController {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    private static final int DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    private volatile int maxConnections;
+    private volatile double acceptRate;
+    private volatile int acceptBurst = 1;
+    private volatile AdmissionPolicy policy = AdmissionPolicy.REJECT;
+    private volatile int retryAfterSeconds = DEFAULT_RETRY_AFTER_SECONDS;
+    private volatile ByteBuf rejection = newRejection(DEFAULT_RETRY_AFTER_SECONDS);
+
+    // Server event-loop confined
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private boolean paused;
+
+    /**
+     * Sets the maximum number of concurrent connections, or 0 for no limit.
+     */
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("maxConnections must not be negative: " + maxConnections);
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets how many connections are accepted per second on average, or 0 for no limit.
+     *
+     * @param acceptRate connections per second
+     * @param acceptBurst how many connections may be accepted at once after a quiet period
+     */
+    public void setAcceptRate(double acceptRate, int acceptBurst) {
+        if (acceptRate < 0) {
+            throw new IllegalArgumentException("acceptRate must not be negative: " + acceptRate);
+        }
+        if (acceptBurst < 1) {
+            throw new IllegalArgumentException("acceptBurst must be positive: " + acceptBurst);
+        }
+        this.acceptRate = acceptRate;
+        this.acceptBurst = acceptBurst;
+    }
+
+    public double getAcceptRate() {
+        return acceptRate;
+    }
+
+    /**
+     * Sets what happens to connections that exceed a limit.
+     */
+    public void setPolicy(AdmissionPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy");
+    }
+
+    public AdmissionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the {@code Retry-After} value of rejections, in seconds.
+     */
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        if (retryAfterSeconds < 0) {
+            throw new IllegalArgumentException("retryAfterSeconds must not be negative: " + retryAfterSeconds);
+        }
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejection = newRejection(retryAfterSeconds);
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Gets the number of currently admitted connections.
+     */
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * Creates the handler to install on the server channel, ahead of the acceptor.
+     *
+     * @param protocol the protocol name, used in metric names
+     */
+    ChannelHandler newServerHandler(String protocol) {
+        return new AcceptHandler(protocol.toLowerCase());
+    }
+
+    // Runs on the server event loop
+    private String admit(long now) {
+        int max = maxConnections;
+        if (max > 0 && activeConnections.get() >= max) {
+            return "connections";
+        }
+        double rate = acceptRate;
+        if (rate > 0) {
+            refill(now, rate);
+            if (tokens < 1) {
+                return "rate";
+            }
+            tokens--;
+        }
+        activeConnections.incrementAndGet();
+        return null;
+    }
+
+    private void refill(long now, double rate) {
+        double elapsedSeconds = (now - lastRefillNanos) / 1e9;
+        tokens = Math.min(acceptBurst, tokens + elapsedSeconds * rate);
+        lastRefillNanos = now;
+    }
+
+    private static ByteBuf newRejection(int retryAfterSeconds) {
+        String response = "HTTP/1.1 503 Service Unavailable\r\n"
+            + "Retry-After: " + retryAfterSeconds + "\r\n"
+            + "Content-Length: 0\r\n"
+            + "Connection: close\r\n"
+            + "\r\n";
+        return Unpooled.unreleasableBuffer(
+            Unpooled.directBuffer(response.length()).writeBytes(response.getBytes(CharsetUtil.US_ASCII)));
+    }
+
+    /**
+     * Sees each accepted child channel before the acceptor registers it with a worker
+     * event loop and builds its pipeline.
+     */
+    private class AcceptHandler extends ChannelInboundHandlerAdapter {
+        private final String protocol;
+        private final RejectHandler rejectHandler = new RejectHandler();
+
+        AcceptHandler(String protocol) {
+            this.protocol = protocol;
+        }
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            tokens = acceptBurst;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            Channel child = (Channel) msg;
+            MetricsCollector metrics = MetricsCollector.getInstance();
+
+            String limit = admit(System.nanoTime());
+            if (limit == null) {
+                child.closeFuture().addListener(future -> {
+                    int active = activeConnections.decrementAndGet();
+                    metrics.setGauge("connections." + protocol + ".active", active);
+                    // The pause flag is confined to the server event loop, like the token bucket
+                    if (ctx.executor().inEventLoop()) {
+                        resume(ctx);
+                    } else if (!ctx.executor().isShuttingDown()) {
+                        ctx.executor().execute(() -> resume(ctx));
+                    }
+                });
+                metrics.setGauge("connections." + protocol + ".active", activeConnections.get());
+                ctx.fireChannelRead(child);
+                return;
+            }
+
+            metrics.incrementCounter("admission." + protocol + ".rejected");
+            metrics.incrementCounter("admission." + protocol + ".rejected." + limit);
+            reject(ctx, child);
+
+            if (policy == AdmissionPolicy.PAUSE && !paused) {
+                paused = true;
+                ctx.channel().config().setAutoRead(false);
+                metrics.incrementCounter("admission." + protocol + ".paused");
+                logger.warn("Pausing {} accepts: {} limit reached", protocol, limit);
+                if ("rate".equals(limit)) {
+                    scheduleResume(ctx);
+                }
+            }
+        }
+
+        private void reject(ChannelHandlerContext ctx, Channel child) {
+            // Answered from the server event loop, without a pipeline to decode the request
+            child.pipeline().addLast(rejectHandler);
+            ctx.channel().eventLoop().register(child).addListener(future -> {
+                if (!future.isSuccess()) {
+                    child.unsafe().closeForcibly();
+                }
+            });
+        }
+
+        private void scheduleResume(ChannelHandlerContext ctx) {
+            double rate = acceptRate;
+            long delayNanos = rate > 0 ? (long) ((1 - tokens) / rate * 1e9) : 0;
+            ctx.executor().schedule(() -> resume(ctx), Math.max(delayNanos, 1_000_000), TimeUnit.NANOSECONDS);
+        }
+
+        // Runs on the server event loop
+        private void resume(ChannelHandlerContext ctx) {
+            if (!paused || !ctx.channel().isActive()) {
+                return;
+            }
+            int max = maxConnections;
+            if (max > 0 && activeConnections.get() >= max) {
+                // Resumed when the next connection closes
+                return;
+            }
+            double rate = acceptRate;
+            if (rate > 0) {
+                refill(System.nanoTime(), rate);
+                if (tokens < 1) {
+                    scheduleResume(ctx);
+                    return;
+                }
+            }
+            paused = false;
+            ctx.channel().config().setAutoRead(true);
+            logger.info("Resuming {} accepts", protocol);
+        }
+    }
+
+    /**
+     * Answers a rejected connection with a prebuilt 503 and closes it, discarding its input.
+     */
+    @ChannelHandler.Sharable
+    private class RejectHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            ctx.writeAndFlush(rejection.duplicate()).addListener(ChannelFutureListener.CLOSE);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ReferenceCountUtil.release(msg);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package horizon.web.common;
+
+/**
+ * What a foyer does with connections beyond its connection limit or accept rate.
+ */
+public enum AdmissionPolicy {
+    /**
+     * Answer {@code 503 Service Unavailable} with {@code Retry-After} and close,
+     * without decoding anything the client sent.
+     */
+    REJECT,
+
+    /**
+     * Stop accepting connections until there is room again, leaving new clients
+     * in the kernel's accept backlog. The connection that hit the limit is rejected.
+     */
+    PAUSE
+}
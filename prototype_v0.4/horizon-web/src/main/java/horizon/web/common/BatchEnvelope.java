@@ -0,0 +1,168 @@
+package horizon.web.common;
+
+import horizon.core.HorizonContext;
+import horizon.core.metrics.MetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Executes the entries of a batch envelope in parallel, without blocking the calling thread.
+ * A batch envelope is a JSON array of {@code {"intent": ..., "data": {...}}} entries,
+ * sent as the body of {@code POST /_batch} or as a single WebSocket frame.
+ * An entry may carry an {@code id}, which is echoed back on its result.
+ *
+ * Each entry goes through the Rendezvous on its own, so it keeps its own
+ * protocol access check, and produces its own result or error in request order.
+ */
+public class BatchEnvelope {
+    private static final Logger logger = LoggerFactory.getLogger(BatchEnvelope.class);
+
+    public static final String DEFAULT_PATH = "/_batch";
+    private static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile Duration deadline;
+
+    /**
+     * Sets the maximum number of entries accepted in one envelope.
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the total time allowed for all entries of an envelope.
+     * Entries still running when it passes are reported as timed out.
+     *
+     * @param deadline the deadline, or null for no deadline
+     */
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Parses the entries of an envelope.
+     *
+     * @param envelope the parsed JSON envelope
+     * @return the entries in request order
+     * @throws IllegalArgumentException if the envelope is malformed or too large
+     */
+    @SuppressWarnings("unchecked")
+    public List<Entry> parse(Object envelope) {
+        if (!(envelope instanceof List<?> items)) {
+            throw new IllegalArgumentException("Batch envelope must be a JSON array");
+        }
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                String.format("Batch of %d entries exceeds the maximum of %d", items.size(), maxBatchSize)
+            );
+        }
+
+        List<Entry> entries = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (!(item instanceof Map<?, ?> map) || !(map.get("intent") instanceof String intent)) {
+                throw new IllegalArgumentException("Batch entry " + entries.size() + " has no intent");
+            }
+            Object data = map.get("data");
+            entries.add(new Entry(entries.size(), map.get("id"), intent,
+                data instanceof Map ? (Map<String, Object>) data : null));
+        }
+        return entries;
+    }
+
+    /**
+     * Dispatches all entries, which then run in parallel, and collects their results in request order.
+     * Entries are dispatched one after another on the calling thread, so entries of an intent with
+     * an @OrderingKey keep their envelope order.
+     *
+     * @param entries the entries to run
+     * @param dispatch submits one entry to the Rendezvous
+     * @param render renders the processed context of an entry
+     * @param onFailure renders an entry that failed outside the Rendezvous or ran past the deadline
+     * @return a future completed with one rendered result per entry
+     */
+    public <T> CompletableFuture<List<T>> executeAsync(List<Entry> entries,
+                                                       Function<Entry, CompletableFuture<HorizonContext>> dispatch,
+                                                       BiFunction<Entry, HorizonContext, T> render,
+                                                       BiFunction<Entry, Throwable, T> onFailure) {
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        metrics.incrementCounter("batch.envelopes");
+        metrics.recordTiming("batch.envelope.size", entries.size());
+
+        Duration limit = deadline;
+        long deadlineNanos = limit != null ? System.nanoTime() + limit.toNanos() : 0;
+
+        List<CompletableFuture<T>> results = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            CompletableFuture<HorizonContext> pending;
+            try {
+                pending = dispatch.apply(entry);
+            } catch (RuntimeException e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+            // Time out a copy, so the entry itself is cancelled rather than failed
+            CompletableFuture<HorizonContext> bounded = limit != null
+                ? pending.copy().orTimeout(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)
+                : pending;
+            CompletableFuture<HorizonContext> entryFuture = pending;
+            results.add(bounded.handle((context, error) -> {
+                if (error == null) {
+                    return render.apply(entry, context);
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                if (cause instanceof TimeoutException) {
+                    entryFuture.cancel(true);
+                    metrics.incrementCounter("batch.entries.timeout");
+                    return onFailure.apply(entry, new TimeoutException("Batch deadline exceeded"));
+                }
+                logger.debug("Batch entry {} ({}) failed", entry.getIndex(), entry.getIntent(), cause);
+                return onFailure.apply(entry, cause);
+            }));
+        }
+
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * A single entry of a batch envelope.
+     */
+    public static class Entry {
+        private final int index;
+        private final Object id;
+        private final String intent;
+        private final Map<String, Object> data;
+
+        Entry(int index, Object id, String intent, Map<String, Object> data) {
+            this.index = index;
+            this.id = id;
+            this.intent = intent;
+            this.data = data;
+        }
+
+        public int getIndex() { return index; }
+        public Object getId() { return id; }
+        public String getIntent() { return intent; }
+        public Map<String, Object> getData() { return data; }
+    }
+}
@@ -72,6 +72,18 @@ public class PayloadExtractor {
      * Extracts payload for WebSocket messages.
      */
     public Object extractWebSocketPayload(Map<String, Object> data, String sessionId, String intent) {
+        return extractDataPayload(data, sessionId, intent);
+    }
+
+    /**
+     * Extracts payload for an intent/data pair carried inside another request,
+     * such as one entry of an HTTP batch envelope.
+     */
+    public Object extractDataPayload(Map<String, Object> data, String intent) {
+        return extractDataPayload(data, null, intent);
+    }
+
+    private Object extractDataPayload(Map<String, Object> data, String sessionId, String intent) {
         try {
             Map<String, Object> context = new HashMap<>();
 
@@ -88,7 +100,9 @@ public class PayloadExtractor {
             }
 
             // Add session ID
-            context.put("_sessionId", sessionId);
+            if (sessionId != null) {
+                context.put("_sessionId", sessionId);
+            }
 
             // Create body from non-prefixed data
             Map<String, Object> body = new HashMap<>();
@@ -113,7 +127,7 @@ public class PayloadExtractor {
             return context;
 
         } catch (Exception e) {
-            throw new RuntimeException("Failed to extract WebSocket payload for intent: " + intent, e);
+            throw new RuntimeException("Failed to extract data payload for intent: " + intent, e);
         }
     }
 
@@ -0,0 +1,154 @@
+package horizon.web.grpc;
+
+import io.grpc.ServerCall;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the messages a client streams in a call to one subscriber, the conductor method.
+ *
+ * Messages are read from the call only as the subscriber requests them, through
+ * {@link ServerCall#request(int)}, so a client sending faster than the conductor consumes is
+ * held back by HTTP/2 flow control rather than buffered. They are delivered on the given
+ * executor, never on the transport thread, so a subscriber may block.
+ *
+ * @param <T> the message type
+ */
+final class CallPublisher<T> implements Flow.Publisher<T> {
+    private final ServerCall<T, ?> call;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    // Holds no more messages than were requested
+    private final Queue<T> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile Flow.Subscriber<? super T> subscriber;
+    private volatile boolean cancelled;
+    private volatile boolean completed;
+    private volatile Throwable error;
+    // Only read and written while draining
+    private boolean done;
+
+    CallPublisher(ServerCall<T, ?> call, Executor executor) {
+        this.call = call;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The messages of a call can be subscribed to only once"));
+            return;
+        }
+        subscriber.onSubscribe(new CallSubscription());
+        // Messages requested in onSubscribe are delivered from here on
+        this.subscriber = subscriber;
+        schedule();
+    }
+
+    /**
+     * Passes on a message the client sent.
+     */
+    void onMessage(T message) {
+        messages.offer(message);
+        schedule();
+    }
+
+    /**
+     * Passes on that the client sent its last message.
+     */
+    void onComplete() {
+        completed = true;
+        schedule();
+    }
+
+    /**
+     * Passes on that the call failed, for example because the client cancelled it.
+     */
+    void onError(Throwable failure) {
+        error = failure;
+        schedule();
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        do {
+            drain();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drain() {
+        Flow.Subscriber<? super T> target = subscriber;
+        if (done || target == null) {
+            return;
+        }
+        if (cancelled) {
+            done = true;
+            messages.clear();
+            return;
+        }
+        T message;
+        while ((message = messages.poll()) != null) {
+            target.onNext(message);
+            if (cancelled) {
+                done = true;
+                messages.clear();
+                return;
+            }
+        }
+        Throwable failure = error;
+        if (failure != null) {
+            done = true;
+            target.onError(failure);
+        } else if (completed) {
+            done = true;
+            target.onComplete();
+        }
+    }
+
+    private final class CallSubscription implements Flow.Subscription {
+        private boolean unbounded;
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                onError(new IllegalArgumentException("Requested " + n + " messages"));
+                return;
+            }
+            if (cancelled || unbounded || error != null) {
+                return;
+            }
+            // gRPC counts requested messages in an int
+            unbounded = n >= Integer.MAX_VALUE;
+            call.request((int) Math.min(n, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void cancel() {
+            // Messages the client still sends are no longer read
+            cancelled = true;
+            schedule();
+        }
+    }
+}
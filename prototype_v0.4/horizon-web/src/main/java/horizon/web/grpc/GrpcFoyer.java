@@ -0,0 +1,433 @@
+package horizon.web.grpc;
+
+import com.google.protobuf.Message;
+import horizon.core.HorizonContext;
+import horizon.core.Rendezvous;
+import horizon.core.protocol.ProtocolNames;
+import horizon.web.common.AbstractFoyer;
+import io.grpc.Context;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * gRPC Foyer implementation.
+ *
+ * Serves the methods of the added services, such as {@code UserServiceGrpc.getServiceDescriptor()}
+ * of code generated by protoc, without their generated base classes: the server is built from
+ * {@link ServerServiceDefinition}s whose methods all share one generic handler, which hands the
+ * parsed request message to the Rendezvous. Which intent a method reaches is decided per call by
+ * {@link GrpcProtocolAdapter}, so methods may be mapped and unmapped by reloading conductors.
+ *
+ * All four kinds of methods are served. A method the client streams to is dispatched as soon
+ * as the call starts, with a {@link Flow.Publisher} of the request messages as its payload, and
+ * a method that streams to the client sends the elements of a {@code Stream} or publisher result.
+ * Both directions are flow controlled: request messages are read only as the conductor requests
+ * them, and response elements are requested only while the call is ready to send, so neither a
+ * fast client nor a fast producer makes the foyer buffer messages without bound.
+ *
+ * Methods of services whose requests are not protobuf messages fail with UNIMPLEMENTED.
+ * The gRPC transport, such as grpc-netty-shaded, must be on the classpath.
+ */
+public class GrpcFoyer extends AbstractFoyer<GrpcRequest> {
+    private static final Logger logger = LoggerFactory.getLogger(GrpcFoyer.class);
+
+    private static final long SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final List<ServiceDescriptor> services = new CopyOnWriteArrayList<>();
+    private volatile Server server;
+
+    public GrpcFoyer(int port) {
+        super(port);
+    }
+
+    /**
+     * Adds a service whose methods this foyer serves. Services must be added before the foyer opens.
+     *
+     * @param service the service, as described by protoc-generated code
+     */
+    public void addService(ServiceDescriptor service) {
+        if (isOpen.get()) {
+            throw new IllegalStateException("Services must be added before the gRPC Foyer opens");
+        }
+        services.add(service);
+    }
+
+    /**
+     * Gets the services this foyer serves.
+     */
+    public List<ServiceDescriptor> getServices() {
+        return List.copyOf(services);
+    }
+
+    /**
+     * Gets the port the foyer listens on, which differs from the configured one when that is 0.
+     *
+     * @return the bound port, or -1 if the foyer is not open
+     */
+    public int getBoundPort() {
+        Server current = server;
+        return isOpen.get() && current != null ? current.getPort() : -1;
+    }
+
+    @Override
+    public void open() {
+        if (isOpen.compareAndSet(false, true)) {
+            logger.info("Opening {} Foyer on port {}", getProtocolName(), port);
+
+            // Handlers only extract the request and dispatch it; conductors run on the aggregator's executor
+            ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                .directExecutor();
+            for (ServiceDescriptor service : services) {
+                builder.addService(bind(service));
+            }
+
+            try {
+                server = builder.build().start();
+                logger.info("{} Foyer opened successfully on port {} with {} services",
+                    getProtocolName(), getBoundPort(), services.size());
+            } catch (IOException e) {
+                logger.error("Failed to open {} Foyer", getProtocolName(), e);
+                close();
+                throw new RuntimeException("Failed to open " + getProtocolName() + " Foyer", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (isOpen.compareAndSet(true, false)) {
+            logger.info("Closing {} Foyer", getProtocolName());
+
+            Server current = server;
+            if (current != null) {
+                current.shutdown();
+                try {
+                    if (!current.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                        current.shutdownNow();
+                    }
+                } catch (InterruptedException e) {
+                    logger.warn("Interrupted while closing gRPC server", e);
+                    current.shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            logger.info("{} Foyer closed", getProtocolName());
+        }
+    }
+
+    @Override
+    protected String getProtocolName() {
+        return ProtocolNames.GRPC;
+    }
+
+    private ServerServiceDefinition bind(ServiceDescriptor service) {
+        ServerServiceDefinition.Builder definition = ServerServiceDefinition.builder(service);
+        for (MethodDescriptor<?, ?> method : service.getMethods()) {
+            addMethod(definition, method);
+        }
+        return definition.build();
+    }
+
+    private <Q, R> void addMethod(ServerServiceDefinition.Builder definition, MethodDescriptor<Q, R> method) {
+        if (method.getRequestMarshaller() instanceof MethodDescriptor.PrototypeMarshaller<Q> marshaller
+                && marshaller.getMessagePrototype() instanceof Message) {
+            definition.addMethod(method, new CallHandler<>(method));
+        } else {
+            logger.warn("Not serving method {}: its requests are not protobuf messages", method.getFullMethodName());
+            definition.addMethod(method, unimplemented("Only protobuf messages are served"));
+        }
+    }
+
+    private static <Q, R> ServerCallHandler<Q, R> unimplemented(String description) {
+        return (call, headers) -> {
+            call.close(Status.UNIMPLEMENTED.withDescription(description), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        };
+    }
+
+    /**
+     * Handles the calls of a method, whatever its message types.
+     */
+    private class CallHandler<Q, R> implements ServerCallHandler<Q, R> {
+        private final MethodDescriptor<Q, R> method;
+
+        CallHandler(MethodDescriptor<Q, R> method) {
+            this.method = method;
+        }
+
+        @Override
+        public ServerCall.Listener<Q> startCall(ServerCall<Q, R> call, Metadata headers) {
+            CallListener<Q, R> listener = new CallListener<>(method, call, headers, Context.current());
+            if (method.getType().clientSendsOneMessage()) {
+                // Ask for a second message, to fail clients that send more than one
+                call.request(2);
+            } else {
+                // The conductor method reads the messages as they arrive
+                listener.dispatchStream();
+            }
+            return listener;
+        }
+    }
+
+    private class CallListener<Q, R> extends ServerCall.Listener<Q> {
+        private final MethodDescriptor<Q, R> method;
+        private final ServerCall<Q, R> call;
+        private final Metadata headers;
+        private final Context context;
+        private Q message;
+        private CallPublisher<Q> messages;
+        private boolean closed;
+        private volatile CompletableFuture<HorizonContext> pending;
+        private volatile StreamSender<R> sender;
+
+        CallListener(MethodDescriptor<Q, R> method, ServerCall<Q, R> call, Metadata headers, Context context) {
+            this.method = method;
+            this.call = call;
+            this.headers = headers;
+            this.context = context;
+        }
+
+        void dispatchStream() {
+            messages = new CallPublisher<>(call, GrpcProtocolAdapter.STREAM_EXECUTOR);
+            @SuppressWarnings("unchecked")
+            Flow.Publisher<? extends Message> requests = (Flow.Publisher<? extends Message>) messages;
+            dispatch(new GrpcRequest(method, requests, headers,
+                call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR), context.getDeadline()));
+        }
+
+        @Override
+        public void onMessage(Q received) {
+            if (messages != null) {
+                messages.onMessage(received);
+                return;
+            }
+            if (closed) {
+                return;
+            }
+            if (message != null) {
+                closed = true;
+                call.close(Status.INTERNAL.withDescription("Too many requests"), new Metadata());
+                return;
+            }
+            message = received;
+        }
+
+        @Override
+        public void onHalfClose() {
+            if (messages != null) {
+                messages.onComplete();
+                return;
+            }
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (message == null) {
+                call.close(Status.INTERNAL.withDescription("Half-closed without a request"), new Metadata());
+                return;
+            }
+            dispatch(new GrpcRequest(method, (Message) message, headers,
+                call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR), context.getDeadline()));
+        }
+
+        private void dispatch(GrpcRequest request) {
+            Rendezvous<GrpcRequest, ?> target = rendezvous;
+            if (target == null) {
+                call.close(Status.UNAVAILABLE.withDescription("gRPC Foyer is not connected"), new Metadata());
+                return;
+            }
+
+            // Intent and payload are extracted here; the conductor runs off the transport thread
+            pending = target.encounterAsync(request);
+            pending
+                .thenAccept(processed -> respond((GrpcResponse) target.fallAway(processed)))
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    if (cause instanceof CancellationException) {
+                        logger.debug("Call cancelled: {}", method.getFullMethodName());
+                        return null;
+                    }
+                    Status status = GrpcProtocolAdapter.statusFor(cause);
+                    if (status.getCode() == Status.Code.INTERNAL) {
+                        logger.error("Error processing call {}", method.getFullMethodName(), error);
+                    }
+                    respond(GrpcResponse.error(status, null));
+                    return null;
+                });
+        }
+
+        @Override
+        public void onReady() {
+            StreamSender<R> current = sender;
+            if (current != null) {
+                current.requestIfReady();
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            // The client went away or its deadline passed; interrupt the conductor still working for it
+            if (messages != null) {
+                messages.onError(new CancellationException("The client cancelled the call"));
+            }
+            CompletableFuture<HorizonContext> current = pending;
+            if (current != null) {
+                current.cancel(false);
+            }
+            StreamSender<R> streaming = sender;
+            if (streaming != null) {
+                streaming.cancel();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void respond(GrpcResponse response) {
+            try {
+                if (response.isStreaming()) {
+                    StreamSender<R> streaming = new StreamSender<>(method, call, response);
+                    sender = streaming;
+                    streaming.start();
+                    if (call.isCancelled()) {
+                        // Cancelled before the sender was in place to hear of it
+                        streaming.cancel();
+                    }
+                    return;
+                }
+                if (response.isOk()) {
+                    call.sendHeaders(new Metadata());
+                    call.sendMessage((R) response.getMessage());
+                }
+                call.close(response.getStatus(), response.getTrailers());
+            } catch (RuntimeException e) {
+                logger.error("Failed to respond to call {}", method.getFullMethodName(), e);
+                try {
+                    call.close(Status.INTERNAL.withDescription("Failed to send the response"), new Metadata());
+                } catch (IllegalStateException closed) {
+                    // The call was closed before the failure
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the elements of a streaming response as the client is ready to receive them.
+     *
+     * One element is requested at a time, and only while {@link ServerCall#isReady()} holds,
+     * so a producer faster than the client is held back instead of having its messages
+     * buffered; {@link ServerCall.Listener#onReady()} requests the next element once the
+     * client has caught up.
+     */
+    private static final class StreamSender<R> implements Flow.Subscriber<Object> {
+        private final MethodDescriptor<?, R> method;
+        private final ServerCall<?, R> call;
+        private final GrpcResponse response;
+        // Whether an element was requested and not yet received
+        private final AtomicBoolean requested = new AtomicBoolean();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean done;
+
+        StreamSender(MethodDescriptor<?, R> method, ServerCall<?, R> call, GrpcResponse response) {
+            this.method = method;
+            this.call = call;
+            this.response = response;
+        }
+
+        void start() {
+            call.sendHeaders(new Metadata());
+            response.getElements().subscribe(this);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (done) {
+                subscription.cancel();
+                return;
+            }
+            requestIfReady();
+        }
+
+        void requestIfReady() {
+            Flow.Subscription current = subscription;
+            if (current != null && !done && call.isReady() && requested.compareAndSet(false, true)) {
+                current.request(1);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onNext(Object element) {
+            if (done) {
+                return;
+            }
+            Message message;
+            try {
+                message = response.toMessage(element);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                onError(e);
+                return;
+            }
+            call.sendMessage((R) message);
+            requested.set(false);
+            requestIfReady();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (done) {
+                return;
+            }
+            done = true;
+            Status status = GrpcProtocolAdapter.statusFor(error);
+            if (status.getCode() == Status.Code.INTERNAL) {
+                logger.error("Error streaming call {}", method.getFullMethodName(), error);
+            }
+            call.close(status, new Metadata());
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            call.close(Status.OK, response.getTrailers());
+        }
+
+        /**
+         * Stops the stream once the client is gone.
+         */
+        void cancel() {
+            done = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package horizon.web.grpc;
+
+import horizon.core.protocol.ProtocolAdapter;
+import horizon.core.protocol.ProtocolNames;
+import horizon.web.common.AbstractWebProtocol;
+
+/**
+ * gRPC Protocol implementation for Horizon.
+ * This class extends the AbstractWebProtocol to provide gRPC-specific functionality.
+ */
+public class GrpcProtocol extends AbstractWebProtocol<GrpcRequest, GrpcResponse> {
+
+    private static final int DEFAULT_GRPC_PORT = 9090;
+
+    @Override
+    public String getName() {
+        return ProtocolNames.GRPC;
+    }
+
+    @Override
+    public ProtocolAdapter<GrpcRequest, GrpcResponse> createAdapter() {
+        return new GrpcProtocolAdapter();
+    }
+
+    @Override
+    public int getDefaultPort() {
+        return DEFAULT_GRPC_PORT;
+    }
+
+    @Override
+    public String getDescription() {
+        return "gRPC Protocol - Provides remote procedure calls with protobuf messages over HTTP/2";
+    }
+
+    @Override
+    public String getVersion() {
+        return "gRPC over HTTP/2";
+    }
+}
@@ -0,0 +1,239 @@
+package horizon.web.grpc;
+
+import com.google.protobuf.Message;
+import horizon.core.ProtocolAggregator;
+import horizon.core.RegistrySnapshot;
+import horizon.core.annotation.ProtocolSchema;
+import horizon.core.annotation.RateLimit;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.core.exception.NotFoundException;
+import horizon.core.exception.OverloadException;
+import horizon.core.exception.RateLimitException;
+import horizon.core.exception.ValidationException;
+import horizon.core.protocol.AggregatorAware;
+import horizon.core.protocol.ProtocolNames;
+import horizon.web.common.AbstractWebProtocolAdapter;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * gRPC implementation of the ProtocolAdapter interface.
+ *
+ * Methods are mapped to intents with {@link ProtocolSchema}, as in
+ * {@code @ProtocolSchema(protocol = "gRPC", value = "UserService/GetUser")}; the service may
+ * be named with or without its package. The payload holds the fields set in the request
+ * message by their JSON names, the ASCII metadata as {@code header.<key>}, and the request
+ * message itself as {@code body}, so a conductor method may take the message as it is.
+ * For methods the client streams to, {@code body} is a {@link Flow.Publisher} of the messages.
+ * Results that are not messages of the method's response type are converted to one field by field.
+ *
+ * For methods that stream to the client, a {@link Flow.Publisher}, {@link Stream}, {@link Iterable}
+ * or {@link Iterator} result is streamed element by element, each converted as a result would be.
+ * The elements are pulled after the conductor method has returned and its request completed, so
+ * producing them is outside the request's bulkhead, execution lane, concurrency limit and deadline;
+ * only the call's own deadline or cancellation stops the stream.
+ */
+public class GrpcProtocolAdapter extends AbstractWebProtocolAdapter<GrpcRequest, GrpcResponse>
+        implements AggregatorAware {
+
+    // Sent instead of the messages of unexpected errors, which may reveal internals to clients
+    private static final String INTERNAL_ERROR = "Internal Server Error";
+
+    // Delivers streamed messages in both directions off the transport threads, since conductors
+    // may block on the request messages and the elements of results may block to be produced
+    static final Executor STREAM_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private ProtocolAggregator aggregator;
+
+    @Override
+    public void setProtocolAggregator(ProtocolAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    protected String doExtractIntent(GrpcRequest request) {
+        return doExtractIntent(request, aggregator != null ? aggregator.getRegistrySnapshot() : null);
+    }
+
+    /**
+     * Finds the intent of a call in the routes of the snapshot it runs on, so reloaded
+     * conductors are seen by the next call.
+     */
+    @Override
+    protected String doExtractIntent(GrpcRequest request, RegistrySnapshot registry) {
+        Map<String, String> routes = registry != null ? registry.getRoutes(ProtocolNames.GRPC) : Map.of();
+        String intent = routes.get(request.getFullMethodName());
+        if (intent == null) {
+            intent = routes.get(request.getShortMethodName());
+        }
+        if (intent == null) {
+            throw Status.UNIMPLEMENTED
+                .withDescription("No intent is mapped to gRPC method " + request.getFullMethodName())
+                .asRuntimeException();
+        }
+        return intent;
+    }
+
+    @Override
+    protected Object doExtractPayload(GrpcRequest request) {
+        Message message = request.getMessage();
+        Map<String, Object> payload = message != null ? ProtobufMessages.fields(message) : new HashMap<>();
+        Metadata headers = request.getHeaders();
+        for (String key : headers.keys()) {
+            if (!key.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+                payload.put("header." + key, headers.get(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER)));
+            }
+        }
+        payload.put("body", message != null ? message : request.getMessages());
+        return payload;
+    }
+
+    @Override
+    public String extractCallerKey(GrpcRequest request, RateLimit.Key key, String header) {
+        return switch (key) {
+            case HEADER -> request.getHeader(header);
+            case IP -> request.getRemoteAddress() instanceof InetSocketAddress address && address.getAddress() != null
+                ? address.getAddress().getHostAddress() : null;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Duration extractTimeout(GrpcRequest request) {
+        return request.getDeadline() != null
+            ? Duration.ofNanos(request.getDeadline().timeRemaining(TimeUnit.NANOSECONDS))
+            : null;
+    }
+
+    @Override
+    protected GrpcResponse doBuildResponse(Object result, GrpcRequest request) {
+        Message prototype = responsePrototype(request.getMethod());
+        Function<Object, Message> converter = element -> toMessage(element, prototype, request);
+        if (!request.getMethod().getType().serverSendsOneMessage()) {
+            Flow.Publisher<?> elements = elements(result);
+            if (elements != null) {
+                return GrpcResponse.stream(elements, converter);
+            }
+        } else if (result instanceof Stream<?> || result instanceof Flow.Publisher<?>) {
+            throw new IllegalStateException(request.getFullMethodName() + " responds with one message, not a stream");
+        }
+        return GrpcResponse.ok(converter.apply(result));
+    }
+
+    private static Message toMessage(Object result, Message prototype, GrpcRequest request) {
+        if (prototype != null) {
+            return ProtobufMessages.toMessage(result, prototype);
+        }
+        if (result instanceof Message message) {
+            return message;
+        }
+        throw new IllegalStateException(request.getFullMethodName() + " does not marshal protobuf messages");
+    }
+
+    /**
+     * Gets the elements a conductor method's result streams to the client.
+     *
+     * @return the elements, or null if the result is a single response
+     */
+    private static Flow.Publisher<?> elements(Object result) {
+        if (result instanceof Flow.Publisher<?> publisher) {
+            return publisher;
+        } else if (result instanceof Stream<?> stream) {
+            return new IteratorPublisher<>(stream.iterator(), stream, STREAM_EXECUTOR);
+        } else if (result instanceof Iterable<?> iterable) {
+            return new IteratorPublisher<>(iterable.iterator(), null, STREAM_EXECUTOR);
+        } else if (result instanceof Iterator<?> iterator) {
+            return new IteratorPublisher<>(iterator, null, STREAM_EXECUTOR);
+        } else if (result == null) {
+            return new IteratorPublisher<>(Collections.emptyIterator(), null, STREAM_EXECUTOR);
+        }
+        return null;
+    }
+
+    private static Message responsePrototype(MethodDescriptor<?, ?> method) {
+        if (method.getResponseMarshaller() instanceof MethodDescriptor.PrototypeMarshaller<?> marshaller
+                && marshaller.getMessagePrototype() instanceof Message prototype) {
+            return prototype;
+        }
+        return null;
+    }
+
+    @Override
+    protected GrpcResponse doBuildErrorResponse(Throwable error, GrpcRequest request) {
+        Throwable cause = unwrap(error);
+        Metadata trailers = cause instanceof StatusRuntimeException statusError ? statusError.getTrailers()
+            : cause instanceof StatusException statusError ? statusError.getTrailers()
+            : null;
+        return GrpcResponse.error(statusFor(cause), trailers);
+    }
+
+    /**
+     * Maps a processing error to the status a call fails with. The message of the error is
+     * sent as the description, except for unexpected errors, which fail with a generic
+     * {@code INTERNAL} status that keeps the error only as its local cause.
+     */
+    public static Status statusFor(Throwable error) {
+        Throwable cause = unwrap(error);
+        Status status;
+        if (cause instanceof StatusRuntimeException statusError) {
+            return statusError.getStatus();
+        } else if (cause instanceof StatusException statusError) {
+            return statusError.getStatus();
+        } else if (cause instanceof IllegalArgumentException || cause instanceof ValidationException) {
+            status = Status.INVALID_ARGUMENT;
+        } else if (cause instanceof NotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (cause instanceof SecurityException) {
+            status = Status.PERMISSION_DENIED;
+        } else if (cause instanceof UnsupportedOperationException) {
+            status = Status.UNIMPLEMENTED;
+        } else if (cause instanceof RateLimitException) {
+            status = Status.RESOURCE_EXHAUSTED;
+        } else if (cause instanceof OverloadException) {
+            status = Status.UNAVAILABLE;
+        } else if (cause instanceof DeadlineExceededException) {
+            status = Status.DEADLINE_EXCEEDED;
+        } else if (cause instanceof CancellationException) {
+            status = Status.CANCELLED;
+        } else {
+            return Status.INTERNAL.withDescription(INTERNAL_ERROR).withCause(cause);
+        }
+        return status.withDescription(cause.getMessage());
+    }
+
+    /**
+     * Gets the error a conductor method or adapter step threw from the exceptions wrapping it.
+     */
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof InvocationTargetException || cause instanceof CompletionException
+                || cause.getClass() == RuntimeException.class) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @Override
+    protected GrpcResponse createFallbackErrorResponse(Throwable error, GrpcRequest request) {
+        return GrpcResponse.error(Status.INTERNAL.withDescription(INTERNAL_ERROR), null);
+    }
+}
@@ -0,0 +1,121 @@
+package horizon.web.grpc;
+
+import com.google.protobuf.Message;
+import io.grpc.Deadline;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+import java.net.SocketAddress;
+import java.util.concurrent.Flow;
+
+/**
+ * A call received by the gRPC foyer, with its request message as the client sent it,
+ * or with a publisher of the messages it streams.
+ */
+public class GrpcRequest {
+    private final MethodDescriptor<?, ?> method;
+    private final Message message;
+    private final Flow.Publisher<? extends Message> messages;
+    private final Metadata headers;
+    private final SocketAddress remoteAddress;
+    private final Deadline deadline;
+
+    /**
+     * Creates a request.
+     *
+     * @param method the called method
+     * @param message the request message
+     * @param headers the call's metadata
+     * @param remoteAddress the client's address, or null if unknown
+     * @param deadline the deadline the client set, or null for none
+     */
+    public GrpcRequest(MethodDescriptor<?, ?> method, Message message, Metadata headers,
+                       SocketAddress remoteAddress, Deadline deadline) {
+        this(method, message, null, headers, remoteAddress, deadline);
+    }
+
+    /**
+     * Creates a request of a method the client streams messages to.
+     *
+     * @param method the called method
+     * @param messages the request messages, published as the subscriber requests them
+     * @param headers the call's metadata
+     * @param remoteAddress the client's address, or null if unknown
+     * @param deadline the deadline the client set, or null for none
+     */
+    public GrpcRequest(MethodDescriptor<?, ?> method, Flow.Publisher<? extends Message> messages, Metadata headers,
+                       SocketAddress remoteAddress, Deadline deadline) {
+        this(method, null, messages, headers, remoteAddress, deadline);
+    }
+
+    private GrpcRequest(MethodDescriptor<?, ?> method, Message message, Flow.Publisher<? extends Message> messages,
+                        Metadata headers, SocketAddress remoteAddress, Deadline deadline) {
+        this.method = method;
+        this.message = message;
+        this.messages = messages;
+        this.headers = headers != null ? headers : new Metadata();
+        this.remoteAddress = remoteAddress;
+        this.deadline = deadline;
+    }
+
+    public MethodDescriptor<?, ?> getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the full name of the called method, such as {@code horizon.demo.UserService/GetUser}.
+     */
+    public String getFullMethodName() {
+        return method.getFullMethodName();
+    }
+
+    /**
+     * Gets the name of the called method with its service's package left out,
+     * such as {@code UserService/GetUser}.
+     */
+    public String getShortMethodName() {
+        String fullName = method.getFullMethodName();
+        int slash = fullName.lastIndexOf('/');
+        int dot = fullName.lastIndexOf('.', slash);
+        return dot >= 0 ? fullName.substring(dot + 1) : fullName;
+    }
+
+    /**
+     * Gets the request message.
+     *
+     * @return the message, or null if the client streams messages
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the publisher of the messages the client streams.
+     *
+     * @return the publisher, or null if the client sends one message
+     */
+    public Flow.Publisher<? extends Message> getMessages() {
+        return messages;
+    }
+
+    public Metadata getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets an ASCII metadata value of the call.
+     *
+     * @return the last value of the key, or null if the call has none
+     */
+    public String getHeader(String name) {
+        return headers.get(Metadata.Key.of(name, Metadata.ASCII_STRING_MARSHALLER));
+    }
+
+    public SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,106 @@
+package horizon.web.grpc;
+
+import com.google.protobuf.Message;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * The outcome of a gRPC call: a response message, a stream of response messages,
+ * or the status the call fails with.
+ */
+public class GrpcResponse {
+    private final Message message;
+    private final Flow.Publisher<?> elements;
+    private final Function<Object, Message> converter;
+    private final Status status;
+    private final Metadata trailers;
+
+    private GrpcResponse(Message message, Flow.Publisher<?> elements, Function<Object, Message> converter,
+                         Status status, Metadata trailers) {
+        this.message = message;
+        this.elements = elements;
+        this.converter = converter;
+        this.status = status;
+        this.trailers = trailers;
+    }
+
+    /**
+     * Creates a successful response.
+     */
+    public static GrpcResponse ok(Message message) {
+        return new GrpcResponse(message, null, null, Status.OK, new Metadata());
+    }
+
+    /**
+     * Creates a successful response that streams messages. The elements are requested only
+     * as the client is ready to receive them, and converted to messages as they are sent.
+     *
+     * @param elements the elements of the stream
+     * @param converter converts an element to its message
+     */
+    public static GrpcResponse stream(Flow.Publisher<?> elements, Function<Object, Message> converter) {
+        return new GrpcResponse(null, elements, converter, Status.OK, new Metadata());
+    }
+
+    /**
+     * Creates a failed response.
+     *
+     * @param status the status, which must not be OK
+     * @param trailers the trailers sent with the status
+     */
+    public static GrpcResponse error(Status status, Metadata trailers) {
+        if (status.isOk()) {
+            throw new IllegalArgumentException("An error response needs an error status");
+        }
+        return new GrpcResponse(null, null, null, status, trailers != null ? trailers : new Metadata());
+    }
+
+    public boolean isOk() {
+        return status.isOk();
+    }
+
+    /**
+     * Checks whether this response streams messages rather than sending one.
+     */
+    public boolean isStreaming() {
+        return elements != null;
+    }
+
+    /**
+     * Gets the response message.
+     *
+     * @return the message, or null if the call failed or streams messages
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the elements of a streaming response.
+     *
+     * @return the elements, or null if this response does not stream messages
+     */
+    public Flow.Publisher<?> getElements() {
+        return elements;
+    }
+
+    /**
+     * Converts an element of a streaming response to the message sent for it.
+     *
+     * @throws IllegalStateException if the element does not fit the response message type
+     */
+    public Message toMessage(Object element) {
+        return converter.apply(element);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Metadata getTrailers() {
+        return trailers;
+    }
+}
@@ -0,0 +1,159 @@
+package horizon.web.grpc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the elements of an iterator, such as a conductor method's {@code Stream}, to one subscriber.
+ * Elements are pulled only as the subscriber requests them, on the given executor, so a lazy
+ * stream produces no more than its consumer has asked for and never on the caller's thread.
+ *
+ * @param <T> the element type
+ */
+final class IteratorPublisher<T> implements Flow.Publisher<T> {
+    private static final Logger logger = LoggerFactory.getLogger(IteratorPublisher.class);
+
+    private final Iterator<? extends T> iterator;
+    private final AutoCloseable resource;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Creates a publisher.
+     *
+     * @param iterator the elements
+     * @param resource closed once the elements are exhausted, fail or are cancelled, or null
+     * @param executor the executor elements are pulled and published on
+     */
+    IteratorPublisher(Iterator<? extends T> iterator, AutoCloseable resource, Executor executor) {
+        this.iterator = iterator;
+        this.resource = resource;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The elements can be published only once"));
+            return;
+        }
+        subscriber.onSubscribe(new IteratorSubscription(subscriber));
+    }
+
+    private final class IteratorSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // Only read and written while draining
+        private boolean done;
+
+        IteratorSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " elements");
+            } else {
+                // Long.MAX_VALUE stands for unbounded demand
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            // Requests made while draining, such as from onNext, are picked up by the running drain
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long requested = demand.get();
+            long emitted = 0;
+            while (emitted != requested) {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                T element;
+                try {
+                    if (!iterator.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    element = iterator.next();
+                } catch (RuntimeException e) {
+                    finish();
+                    subscriber.onError(e);
+                    return;
+                }
+                subscriber.onNext(element);
+                emitted++;
+                if (emitted == requested && requested != Long.MAX_VALUE) {
+                    // Also takes the requests made meanwhile
+                    requested = demand.addAndGet(-emitted);
+                    emitted = 0;
+                }
+            }
+        }
+
+        private void finish() {
+            done = true;
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close the published elements", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package horizon.web.grpc;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import horizon.core.util.JsonUtils;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts between protobuf messages and the values conductor methods take and return,
+ * walking the message descriptors rather than printing and parsing JSON.
+ */
+final class ProtobufMessages {
+
+    private ProtobufMessages() {
+    }
+
+    /**
+     * Gets the fields set in a message, keyed by their JSON names such as {@code userId}.
+     * Nested messages become maps, enums their value names and bytes byte arrays.
+     */
+    static Map<String, Object> fields(Message message) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+            FieldDescriptor field = entry.getKey();
+            fields.put(field.getJsonName(), fieldValue(field, entry.getValue()));
+        }
+        return fields;
+    }
+
+    private static Object fieldValue(FieldDescriptor field, Object value) {
+        if (field.isMapField()) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            FieldDescriptor keyField = field.getMessageType().findFieldByName("key");
+            FieldDescriptor valueField = field.getMessageType().findFieldByName("value");
+            for (Object element : (List<?>) value) {
+                Message entry = (Message) element;
+                map.put(entry.getField(keyField), singleValue(valueField, entry.getField(valueField)));
+            }
+            return map;
+        }
+        if (field.isRepeated()) {
+            List<?> elements = (List<?>) value;
+            List<Object> values = new ArrayList<>(elements.size());
+            for (Object element : elements) {
+                values.add(singleValue(field, element));
+            }
+            return values;
+        }
+        return singleValue(field, value);
+    }
+
+    private static Object singleValue(FieldDescriptor field, Object value) {
+        return switch (field.getJavaType()) {
+            case MESSAGE -> fields((Message) value);
+            case ENUM -> ((EnumValueDescriptor) value).getName();
+            case BYTE_STRING -> ((ByteString) value).toByteArray();
+            default -> value;
+        };
+    }
+
+    /**
+     * Converts a conductor method's result to a message of the prototype's type.
+     * Messages of that type are returned as they are; maps and objects have their
+     * properties set on the fields of the same JSON or proto name, and the others ignored.
+     *
+     * @param value the result, or null for the default message
+     * @param prototype the default instance of the message type
+     * @return the message
+     * @throws IllegalStateException if the result does not fit the message type
+     */
+    static Message toMessage(Object value, Message prototype) {
+        try {
+            return convert(value, prototype);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(String.format("Cannot convert %s to %s",
+                value.getClass().getName(), prototype.getDescriptorForType().getFullName()), e);
+        }
+    }
+
+    private static Message convert(Object value, Message prototype) {
+        if (value == null) {
+            return prototype;
+        }
+        if (prototype.getClass().isInstance(value)) {
+            return (Message) value;
+        }
+        if (value instanceof Message other) {
+            throw new IllegalStateException(String.format("Expected %s but got %s",
+                prototype.getDescriptorForType().getFullName(), other.getDescriptorForType().getFullName()));
+        }
+
+        Map<?, ?> properties = value instanceof Map<?, ?> map ? map : JsonUtils.convertValue(value, Map.class);
+        Message.Builder builder = prototype.newBuilderForType();
+        for (FieldDescriptor field : prototype.getDescriptorForType().getFields()) {
+            Object property = properties.get(field.getJsonName());
+            if (property == null) {
+                property = properties.get(field.getName());
+            }
+            if (property == null) {
+                continue;
+            }
+            if (field.isMapField() && property instanceof Map<?, ?> entries) {
+                Message entryPrototype = builder.newBuilderForField(field).getDefaultInstanceForType();
+                for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                    Map<String, Object> keyAndValue = new HashMap<>();
+                    keyAndValue.put("key", entry.getKey());
+                    keyAndValue.put("value", entry.getValue());
+                    builder.addRepeatedField(field, convert(keyAndValue, entryPrototype));
+                }
+            } else if (field.isRepeated()) {
+                for (Object element : elements(property)) {
+                    builder.addRepeatedField(field, toFieldValue(builder, field, element));
+                }
+            } else {
+                builder.setField(field, toFieldValue(builder, field, property));
+            }
+        }
+        return builder.build();
+    }
+
+    private static Collection<?> elements(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> elements = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                elements.add(Array.get(value, i));
+            }
+            return elements;
+        }
+        return List.of(value);
+    }
+
+    private static Object toFieldValue(Message.Builder builder, FieldDescriptor field, Object value) {
+        return switch (field.getJavaType()) {
+            case INT -> number(value).intValue();
+            case LONG -> number(value).longValue();
+            case FLOAT -> number(value).floatValue();
+            case DOUBLE -> number(value).doubleValue();
+            case BOOLEAN -> value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+            case STRING -> value.toString();
+            case BYTE_STRING -> bytes(value);
+            case ENUM -> enumValue(field, value);
+            case MESSAGE -> convert(value, builder.newBuilderForField(field).getDefaultInstanceForType());
+        };
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number number ? number : new BigDecimal(value.toString());
+    }
+
+    private static ByteString bytes(Object value) {
+        if (value instanceof ByteString bytes) {
+            return bytes;
+        }
+        if (value instanceof byte[] bytes) {
+            return ByteString.copyFrom(bytes);
+        }
+        // Jackson writes byte arrays as base64
+        return ByteString.copyFrom(Base64.getDecoder().decode(value.toString()));
+    }
+
+    private static EnumValueDescriptor enumValue(FieldDescriptor field, Object value) {
+        EnumValueDescriptor enumValue = value instanceof Number number
+            ? field.getEnumType().findValueByNumber(number.intValue())
+            : field.getEnumType().findValueByName(value.toString());
+        if (enumValue == null) {
+            throw new IllegalStateException(String.format("%s has no value %s",
+                field.getEnumType().getFullName(), value));
+        }
+        return enumValue;
+    }
+}
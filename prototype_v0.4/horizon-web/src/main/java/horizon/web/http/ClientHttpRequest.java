@@ -0,0 +1,36 @@
+package horizon.web.http;
+
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+
+/**
+ * An HTTP request together with the IP address of the connection it arrived on.
+ *
+ * The HTTP foyer hands these to the rendezvous. The address is taken from the channel,
+ * so unlike a header it cannot be set by the client.
+ */
+public class ClientHttpRequest extends DefaultFullHttpRequest {
+    private final String clientAddress;
+
+    /**
+     * Wraps a request, sharing its content, headers and reference count.
+     *
+     * @param request the received request
+     * @param clientAddress the client's IP address, or null if it is not connected over IP
+     */
+    ClientHttpRequest(FullHttpRequest request, String clientAddress) {
+        super(request.protocolVersion(), request.method(), request.uri(), request.content(),
+            request.headers(), request.trailingHeaders());
+        setDecoderResult(request.decoderResult());
+        this.clientAddress = clientAddress;
+    }
+
+    /**
+     * Gets the IP address of the client, used to key per-client rate limits.
+     *
+     * @return the address, or null if the client is not connected over IP
+     */
+    public String getClientAddress() {
+        return clientAddress;
+    }
+}
@@ -1,7 +1,9 @@
 package horizon.web.http;
 
 import horizon.core.ProtocolAggregator;
+import horizon.core.RegistrySnapshot;
 import horizon.core.protocol.IntentResolver;
+import horizon.web.http.resolver.AnnotationBasedHttpIntentResolver;
 import io.netty.handler.codec.http.FullHttpRequest;
 
 import java.util.ArrayList;
@@ -40,6 +42,8 @@ public class ConfigurableHttpProtocolAdapter extends HttpProtocolAdapter {
     @Override
     public void setProtocolAggregator(ProtocolAggregator aggregator) {
         super.setProtocolAggregator(aggregator);
+        // Routes declared with @ProtocolSchema follow the conductors registered with the aggregator
+        addResolver(new AnnotationBasedHttpIntentResolver(aggregator::getRegistrySnapshot));
     }
 
     /**
@@ -62,9 +66,22 @@ public class ConfigurableHttpProtocolAdapter extends HttpProtocolAdapter {
      */
     @Override
     protected String doExtractIntent(FullHttpRequest request) {
+        return doExtractIntent(request, null);
+    }
+
+    /**
+     * Extracts the intent like {@link #doExtractIntent(FullHttpRequest)}, matching the routes
+     * of the given registry snapshot rather than those of the current one.
+     *
+     * @param request the HTTP request
+     * @param registry the registry snapshot of the request, or null for the current one
+     * @return the resolved intent string
+     */
+    @Override
+    protected String doExtractIntent(FullHttpRequest request, RegistrySnapshot registry) {
         // Try custom resolvers first in order of priority
         for (IntentResolver<FullHttpRequest> resolver : resolvers) {
-            String intent = resolver.resolveIntent(request);
+            String intent = registry != null ? resolver.resolveIntent(request, registry) : resolver.resolveIntent(request);
             if (intent != null) {
                 return intent;
             }
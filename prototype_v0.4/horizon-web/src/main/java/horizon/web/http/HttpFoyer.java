@@ -2,13 +2,27 @@ package horizon.web.http;
 
 import horizon.core.HorizonContext;
 import horizon.core.Rendezvous;
+import horizon.core.annotation.ResponseCompression;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.util.JsonUtils;
 import horizon.web.common.AbstractWebFoyer;
+import horizon.web.common.BatchEnvelope;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
 /**
  * HTTP Foyer - the entry point for HTTP requests into the Horizon framework.
  * This class extends AbstractWebFoyer to provide HTTP-specific functionality.
@@ -16,10 +30,22 @@ import org.slf4j.LoggerFactory;
  * The HttpFoyer sets up a Netty-based HTTP server that listens for incoming HTTP requests,
  * forwards them to the Rendezvous for processing, and returns the responses to clients.
  * It handles the HTTP protocol-specific aspects of request and response handling.
+ * Conductors run off the event loop; the response is written when the invocation completes.
+ *
+ * {@code POST /_batch} accepts a JSON array of {@code {"intent", "data"}} entries and
+ * answers with one result per entry, so a client can run many intents in one round trip.
+ *
+ * Responses are compressed according to the client's {@code Accept-Encoding}; see
+ * {@link HttpResponseCompressor}. Compression runs with the response, off the event loop.
+ *
+ * Connections are kept alive unless the client asks otherwise or the request fails. Requests
+ * pipelined on one connection are handled one after another, so responses keep their order.
  */
 public class HttpFoyer extends AbstractWebFoyer<FullHttpRequest> {
     private static final Logger logger = LoggerFactory.getLogger(HttpFoyer.class);
 
+    private final HttpResponseCompressor compressor = new HttpResponseCompressor();
+
     /**
      * Creates a new HTTP Foyer that listens on the specified port.
      *
@@ -29,6 +55,15 @@ public class HttpFoyer extends AbstractWebFoyer<FullHttpRequest> {
         super(port);
     }
 
+    /**
+     * Gets the response compression settings of this foyer.
+     *
+     * @return the response compressor
+     */
+    public HttpResponseCompressor getCompressor() {
+        return compressor;
+    }
+
     /**
      * Returns the name of this protocol for logging and identification purposes.
      *
@@ -68,17 +103,65 @@ public class HttpFoyer extends AbstractWebFoyer<FullHttpRequest> {
      * It also handles error conditions and unexpected exceptions.
      */
     private class HttpRequestHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        private static final int MAX_PIPELINED = 16;
+
+        // Only touched on the channel's event loop
+        private final ArrayDeque<FullHttpRequest> pipelined = new ArrayDeque<>();
+        private boolean busy;
 
         /**
          * Handles an HTTP request by forwarding it to the Rendezvous and returning the response.
-         * This method is called by Netty when a complete HTTP request is received.
+         * This method is called by Netty when a complete HTTP request is received. A request
+         * that arrives while the previous one is unanswered waits for its response to be written.
          *
          * @param ctx the channel handler context
          * @param request the HTTP request to process
          */
         @Override
         protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
-            logger.debug("Received HTTP request: {} {}", request.method(), request.uri());
+            if (busy) {
+                pipelined.add(request.retain());
+                if (pipelined.size() >= MAX_PIPELINED) {
+                    ctx.channel().config().setAutoRead(false);
+                }
+                return;
+            }
+            busy = true;
+            handle(ctx, request);
+        }
+
+        /**
+         * Handles the next pipelined request, once the previous response has been written.
+         */
+        private void next(ChannelHandlerContext ctx) {
+            busy = false;
+            FullHttpRequest request = pipelined.poll();
+            if (request == null) {
+                return;
+            }
+            if (pipelined.size() < MAX_PIPELINED) {
+                ctx.channel().config().setAutoRead(true);
+            }
+            busy = true;
+            try {
+                handle(ctx, request);
+            } finally {
+                request.release();
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            FullHttpRequest request;
+            while ((request = pipelined.poll()) != null) {
+                request.release();
+            }
+            super.channelInactive(ctx);
+        }
+
+        private void handle(ChannelHandlerContext ctx, FullHttpRequest received) {
+            logger.debug("Received HTTP request: {} {}", received.method(), received.uri());
+            boolean keepAlive = HttpUtil.isKeepAlive(received);
 
             if (rendezvous == null) {
                 logger.error("No rendezvous connected");
@@ -86,22 +169,163 @@ public class HttpFoyer extends AbstractWebFoyer<FullHttpRequest> {
                 return;
             }
 
+            // Shares the request's content, so retaining and releasing either counts for both
+            FullHttpRequest request = new ClientHttpRequest(received, clientAddress(ctx.channel()));
+
+            if (isBatchRequest(request)) {
+                handleBatch(ctx, request, keepAlive);
+                return;
+            }
+
+            // Intent and payload are extracted here; the conductor runs off the event loop.
+            // The request stays referenced until its response has been built.
+            String acceptEncoding = request.headers().get(HttpHeaderNames.ACCEPT_ENCODING);
+            request.retain();
+            CompletableFuture<HorizonContext> pending = rendezvous.encounterAsync(request);
+            cancelOnClose(ctx.channel(), pending);
+            pending
+                .thenAccept(context -> {
+                    // Fall away with response - get the processed result
+                    FullHttpResponse response = (FullHttpResponse) rendezvous.fallAway(context);
+                    response = compressor.compress(response, acceptEncoding, compressionSettings(context),
+                        context.getIntent(), context.getAttribute(ResponseCompression.VERSION));
+
+                    // Send response back to the client
+                    respond(ctx, response, keepAlive);
+                })
+                .exceptionally(error -> {
+                    if (isCancellation(error)) {
+                        logger.debug("Request cancelled: {} {}", request.method(), request.uri());
+                        return null;
+                    }
+                    logger.error("Error processing request", error);
+                    sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                    return null;
+                })
+                .whenComplete((ignored, error) -> request.release());
+        }
+
+        private boolean isBatchRequest(FullHttpRequest request) {
+            return HttpMethod.POST.equals(request.method())
+                && BatchEnvelope.DEFAULT_PATH.equals(request.uri().split("\\?")[0]);
+        }
+
+        /**
+         * Handles a batch envelope by running each entry through the Rendezvous in parallel, off the event loop.
+         * The response is a JSON array with one result or error per entry, in request order.
+         *
+         * @param ctx the channel handler context
+         * @param request the HTTP request carrying the envelope
+         * @param keepAlive whether the connection stays open after the response
+         */
+        private void handleBatch(ChannelHandlerContext ctx, FullHttpRequest request, boolean keepAlive) {
+            List<BatchEnvelope.Entry> entries;
             try {
-                // Encounter at the rendezvous - forward the request for processing
-                HorizonContext context = rendezvous.encounter(request);
+                String json = request.content().toString(CharsetUtil.UTF_8);
+                entries = batchEnvelope.parse(JsonUtils.fromJson(json, Object.class));
+            } catch (Exception e) {
+                logger.debug("Rejected batch envelope: {}", e.getMessage());
+                sendJson(ctx, HttpResponseStatus.BAD_REQUEST, Map.of(
+                    "error", String.valueOf(e.getMessage()),
+                    "type", e.getClass().getSimpleName()
+                ), null, keepAlive);
+                return;
+            }
 
-                // Fall away with response - get the processed result
-                FullHttpResponse response = (FullHttpResponse) rendezvous.fallAway(context);
+            // Entries are dispatched here, in envelope order, and run like single requests
+            request.retain();
+            batchEnvelope.executeAsync(
+                    entries,
+                    entry -> {
+                        CompletableFuture<HorizonContext> pending =
+                            rendezvous.encounterAsync(entry.getIntent(), entry.getData(), request);
+                        cancelOnClose(ctx.channel(), pending);
+                        return pending;
+                    },
+                    this::renderEntry,
+                    this::renderFailure
+                )
+                .thenAccept(results -> sendJson(ctx, HttpResponseStatus.OK, results,
+                    request.headers().get(HttpHeaderNames.ACCEPT_ENCODING), keepAlive))
+                .exceptionally(error -> {
+                    logger.error("Error processing batch request", error);
+                    sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                    return null;
+                })
+                .whenComplete((ignored, error) -> request.release());
+        }
 
-                // Send response back to the client
-                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        private ResponseCompression compressionSettings(HorizonContext context) {
+            ConductorMethod method = context.getAttribute("conductorMethod", ConductorMethod.class);
+            return method != null ? method.getMethod().getAnnotation(ResponseCompression.class) : null;
+        }
 
+        private Map<String, Object> renderEntry(BatchEnvelope.Entry entry, HorizonContext context) {
+            if (context.hasError()) {
+                return renderFailure(entry, context.getError());
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            if (entry.getId() != null) {
+                result.put("id", entry.getId());
+            }
+            result.put("intent", entry.getIntent());
+            result.put("status", HttpResponseStatus.OK.code());
+            result.put("success", true);
+            result.put("result", context.getResult());
+            return result;
+        }
+
+        private Map<String, Object> renderFailure(BatchEnvelope.Entry entry, Throwable error) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            if (entry.getId() != null) {
+                result.put("id", entry.getId());
+            }
+            result.put("intent", entry.getIntent());
+            result.put("status", error instanceof TimeoutException
+                ? HttpResponseStatus.GATEWAY_TIMEOUT.code()
+                : HttpProtocolAdapter.statusFor(error).code());
+            result.put("success", false);
+            result.put("error", error.getMessage());
+            result.put("type", error.getClass().getSimpleName());
+            return result;
+        }
+
+        private void sendJson(ChannelHandlerContext ctx, HttpResponseStatus status, Object body,
+                              String acceptEncoding, boolean keepAlive) {
+            try {
+                ByteBuf content = Unpooled.copiedBuffer(JsonUtils.toJson(body), CharsetUtil.UTF_8);
+                FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
+                response.headers()
+                    .set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=UTF-8")
+                    .setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+                response = compressor.compress(response, acceptEncoding, null, BatchEnvelope.DEFAULT_PATH);
+                respond(ctx, response, keepAlive);
             } catch (Exception e) {
-                logger.error("Error processing request", e);
+                logger.error("Failed to send batch response", e);
                 sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
             }
         }
 
+        /**
+         * Writes a response. On a kept-alive connection the next pipelined request is handled
+         * once it has been written; otherwise the connection is closed.
+         *
+         * @param ctx the channel handler context
+         * @param response the response to write
+         * @param keepAlive whether the connection stays open
+         */
+        private void respond(ChannelHandlerContext ctx, FullHttpResponse response, boolean keepAlive) {
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+            HttpUtil.setKeepAlive(response, keepAlive);
+            ChannelFuture written = ctx.writeAndFlush(response);
+            if (keepAlive) {
+                // Listeners run on the event loop, which owns the pipelined queue
+                written.addListener(future -> next(ctx));
+            } else {
+                written.addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+
         /**
          * Handles unexpected exceptions in the HTTP processing pipeline.
          * This method is called by Netty when an exception occurs during request processing.
@@ -116,7 +340,7 @@ public class HttpFoyer extends AbstractWebFoyer<FullHttpRequest> {
         }
 
         /**
-         * Sends an error response with the specified status code.
+         * Sends an error response with the specified status code and closes the connection.
          * This is used when an error occurs during request processing.
          *
          * @param ctx the channel handler context
@@ -1,7 +1,14 @@
 package horizon.web.http;
 
 import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.RateLimit;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.core.exception.OverloadException;
+import horizon.core.exception.RateLimitException;
 import horizon.core.protocol.AggregatorAware;
+import horizon.core.protocol.ProtocolNames;
+import horizon.core.security.ProtocolAccessValidator;
 import horizon.core.util.JsonUtils;
 import horizon.web.common.AbstractWebProtocolAdapter;
 import horizon.web.common.PayloadExtractor;
@@ -11,8 +18,15 @@ import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.*;
 import io.netty.util.CharsetUtil;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Default implementation of HTTP protocol adapter.
@@ -20,7 +34,17 @@ import java.util.Map;
  */
 public class HttpProtocolAdapter extends AbstractWebProtocolAdapter<FullHttpRequest, FullHttpResponse>
         implements AggregatorAware {
+    /**
+     * Header in which a client sets the time it allows for a request, in milliseconds.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^/]+)\\}");
+    private static final Set<HttpMethod> METHODS_WITHOUT_BODY =
+        Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.DELETE, HttpMethod.OPTIONS);
+
     private final HttpIntentResolver intentResolver = new HttpIntentResolver();
+    private final ProtocolAccessValidator accessValidator = new ProtocolAccessValidator();
     private PayloadExtractor payloadExtractor;
 
     /**
@@ -49,6 +73,91 @@ public class HttpProtocolAdapter extends AbstractWebProtocolAdapter<FullHttpRequ
         }
     }
 
+    @Override
+    public Object extractPayload(String intent, Map<String, Object> data, FullHttpRequest request) {
+        if (payloadExtractor != null) {
+            return payloadExtractor.extractDataPayload(data, intent);
+        }
+        return super.extractPayload(intent, data, request);
+    }
+
+    @Override
+    public String extractCallerKey(FullHttpRequest request, RateLimit.Key key, String header) {
+        return switch (key) {
+            case HEADER -> request.headers().get(header);
+            case IP -> request instanceof ClientHttpRequest client ? client.getClientAddress() : null;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Duration extractTimeout(FullHttpRequest request) {
+        String timeout = request.headers().get(TIMEOUT_HEADER);
+        if (timeout == null) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(timeout.trim());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            // A malformed timeout leaves the intent's default in place
+            return null;
+        }
+    }
+
+    /**
+     * Creates a request to the intent's HTTP route. Fields of the data named after path
+     * variables fill them in; the others become query parameters, or a JSON body for
+     * methods that carry one. Intents without an HTTP route get no request.
+     */
+    @Override
+    public FullHttpRequest createWarmUpRequest(ConductorMethod method, Map<String, Object> data) {
+        String route = accessValidator.getProtocolSchema(ProtocolNames.HTTP, method.getMethod());
+        String[] parts = route != null ? route.split(" ", 2) : null;
+        if (parts == null || parts.length != 2) {
+            return null;
+        }
+        HttpMethod httpMethod = HttpMethod.valueOf(parts[0]);
+
+        Matcher matcher = PATH_VARIABLE.matcher(parts[1]);
+        StringBuilder path = new StringBuilder();
+        while (matcher.find()) {
+            Object value = data.remove(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException(
+                    String.format("No value for path variable '%s' of %s", matcher.group(1), route));
+            }
+            matcher.appendReplacement(path,
+                Matcher.quoteReplacement(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8)));
+        }
+        matcher.appendTail(path);
+
+        if (METHODS_WITHOUT_BODY.contains(httpMethod)) {
+            QueryStringEncoder query = new QueryStringEncoder(path.toString());
+            data.forEach((name, value) -> {
+                if (value instanceof Collection<?> values) {
+                    values.forEach(item -> query.addParam(name, String.valueOf(item)));
+                } else {
+                    query.addParam(name, String.valueOf(value));
+                }
+            });
+            return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, httpMethod, query.toString());
+        }
+
+        ByteBuf content;
+        try {
+            content = Unpooled.copiedBuffer(JsonUtils.toJson(data), CharsetUtil.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to serialize warm-up data", e);
+        }
+        FullHttpRequest request = new DefaultFullHttpRequest(
+            HttpVersion.HTTP_1_1, httpMethod, path.toString(), content);
+        request.headers()
+            .set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=UTF-8")
+            .setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+        return request;
+    }
+
     /**
      * Simple payload extraction as Map (fallback method).
      */
@@ -128,6 +237,10 @@ public class HttpProtocolAdapter extends AbstractWebProtocolAdapter<FullHttpRequ
             response.headers()
                 .set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=UTF-8")
                 .setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+            Duration retryAfter = retryAfter(error);
+            if (retryAfter != null) {
+                response.headers().setInt(HttpHeaderNames.RETRY_AFTER, retryAfterSeconds(retryAfter));
+            }
 
             return response;
         } catch (Exception e) {
@@ -136,20 +249,45 @@ public class HttpProtocolAdapter extends AbstractWebProtocolAdapter<FullHttpRequ
     }
 
     private FullHttpResponse getFullHttpResponse(Throwable error, ByteBuf content) {
-        HttpResponseStatus status = HttpResponseStatus.INTERNAL_SERVER_ERROR;
-        if (error instanceof IllegalArgumentException) {
-            status = HttpResponseStatus.BAD_REQUEST;
-        } else if (error instanceof SecurityException) {
-            status = HttpResponseStatus.FORBIDDEN;
-        }
-
         return new DefaultFullHttpResponse(
             HttpVersion.HTTP_1_1,
-            status,
+            statusFor(error),
             content
         );
     }
 
+    /**
+     * Maps a processing error to the HTTP status reported for it.
+     */
+    public static HttpResponseStatus statusFor(Throwable error) {
+        if (error instanceof IllegalArgumentException) {
+            return HttpResponseStatus.BAD_REQUEST;
+        } else if (error instanceof SecurityException) {
+            return HttpResponseStatus.FORBIDDEN;
+        } else if (error instanceof RateLimitException) {
+            return HttpResponseStatus.TOO_MANY_REQUESTS;
+        } else if (error instanceof OverloadException) {
+            return HttpResponseStatus.SERVICE_UNAVAILABLE;
+        } else if (error instanceof DeadlineExceededException) {
+            return HttpResponseStatus.GATEWAY_TIMEOUT;
+        }
+        return HttpResponseStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static Duration retryAfter(Throwable error) {
+        if (error instanceof RateLimitException limited) {
+            return limited.getRetryAfter();
+        } else if (error instanceof OverloadException overload) {
+            return overload.getRetryAfter();
+        }
+        return null;
+    }
+
+    private static int retryAfterSeconds(Duration retryAfter) {
+        long millis = retryAfter.toMillis();
+        return (int) Math.max(1, (millis + 999) / 1000);
+    }
+
     @Override
     protected FullHttpResponse createFallbackErrorResponse(Throwable error, FullHttpRequest request) {
         // Fallback error response
@@ -0,0 +1,382 @@
+package horizon.web.http;
+
+import horizon.core.annotation.ResponseCompression;
+import horizon.core.metrics.MetricsCollector;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses HTTP responses according to the client's {@code Accept-Encoding}.
+ *
+ * Supports gzip and deflate, and brotli when brotli4j is on the classpath.
+ * Bodies below the size threshold, responses that already carry a content encoding,
+ * and intents annotated with {@code @ResponseCompression(enabled = false)} are sent as-is.
+ *
+ * The foyer compresses on the thread that completed the invocation, never on the event loop.
+ * For intents annotated with {@code @ResponseCompression(cached = true)}, compressed bodies
+ * are kept in an LRU cache bounded by total bytes, and keyed by intent, encoding and the version
+ * the conductor gives its result (see {@link ResponseCompression#VERSION}). A response with a
+ * cached version is neither copied nor compressed again; one without a version is not cached.
+ */
+public class HttpResponseCompressor {
+    private static final Logger logger = LoggerFactory.getLogger(HttpResponseCompressor.class);
+
+    static final String BR = "br";
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final int DEFAULT_MIN_SIZE = 1024;
+    private static final int DEFAULT_LEVEL = 6;
+    private static final int DEFAULT_BROTLI_QUALITY = 4;
+    private static final long DEFAULT_CACHE_MAX_BYTES = 8L * 1024 * 1024;
+    private static final int MAX_CACHED_BODY_SIZE = 256 * 1024;
+
+    private volatile boolean enabled = true;
+    private volatile int minSize = DEFAULT_MIN_SIZE;
+    private volatile int level = DEFAULT_LEVEL;
+    private volatile int brotliQuality = DEFAULT_BROTLI_QUALITY;
+    private final PrecompressedCache cache = new PrecompressedCache(DEFAULT_CACHE_MAX_BYTES);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Sets the body size in bytes below which responses are not compressed.
+     */
+    public void setMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize must not be negative: " + minSize);
+        }
+        this.minSize = minSize;
+    }
+
+    /**
+     * Sets the gzip and deflate level, from 1 (fastest) to 9 (best compression).
+     */
+    public void setLevel(int level) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("level must be between 1 and 9: " + level);
+        }
+        this.level = level;
+    }
+
+    /**
+     * Sets the brotli quality, from 0 (fastest) to 11 (best compression).
+     */
+    public void setBrotliQuality(int brotliQuality) {
+        if (brotliQuality < 0 || brotliQuality > 11) {
+            throw new IllegalArgumentException("brotliQuality must be between 0 and 11: " + brotliQuality);
+        }
+        this.brotliQuality = brotliQuality;
+    }
+
+    /**
+     * Sets the total size in bytes of the compressed bodies kept for cached intents.
+     * The least recently used bodies are evicted to stay within it.
+     */
+    public void setCacheMaxBytes(long cacheMaxBytes) {
+        if (cacheMaxBytes < 0) {
+            throw new IllegalArgumentException("cacheMaxBytes must not be negative: " + cacheMaxBytes);
+        }
+        cache.setMaxBytes(cacheMaxBytes);
+    }
+
+    /**
+     * Gets the total size in bytes of the compressed bodies currently cached.
+     */
+    public long getCachedBytes() {
+        return cache.getBytes();
+    }
+
+    /**
+     * Checks whether brotli is available.
+     */
+    public static boolean isBrotliAvailable() {
+        return BrotliSupport.AVAILABLE;
+    }
+
+    /**
+     * Compresses a response, which is not cached, if the client accepts an encoding and the body qualifies.
+     *
+     * @see #compress(FullHttpResponse, String, ResponseCompression, String, Object)
+     */
+    public FullHttpResponse compress(FullHttpResponse response, String acceptEncoding,
+                                     ResponseCompression settings, String intent) {
+        return compress(response, acceptEncoding, settings, intent, null);
+    }
+
+    /**
+     * Compresses a response if the client accepts an encoding and the body qualifies.
+     *
+     * @param response the response to compress; released if replaced
+     * @param acceptEncoding the request's Accept-Encoding header, or null
+     * @param settings the intent's compression settings, or null for defaults
+     * @param intent the intent that produced the response, for the cache key
+     * @param version the version of the result, which identifies the body of a cached intent, or null
+     * @return the response to send, which may be the original one
+     */
+    public FullHttpResponse compress(FullHttpResponse response, String acceptEncoding,
+                                     ResponseCompression settings, String intent, Object version) {
+        if (!enabled || (settings != null && !settings.enabled())
+                || response.headers().contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return response;
+        }
+
+        int size = response.content().readableBytes();
+        if (size < minSize) {
+            return response;
+        }
+        varyOnAcceptEncoding(response);
+
+        String encoding = negotiate(acceptEncoding);
+        if (encoding == null) {
+            return response;
+        }
+
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        try {
+            PrecompressedCache.Key key = settings != null && settings.cached() && version != null
+                && size <= MAX_CACHED_BODY_SIZE ? new PrecompressedCache.Key(intent, encoding, version) : null;
+
+            byte[] compressed = key != null ? cache.get(key) : null;
+            if (compressed != null) {
+                metrics.incrementCounter("http.compression.cache.hits");
+            } else {
+                compressed = encode(encoding, ByteBufUtil.getBytes(response.content()));
+                if (key != null) {
+                    cache.put(key, compressed);
+                }
+            }
+
+            if (compressed.length >= size) {
+                // Incompressible body; the original is smaller
+                return response;
+            }
+
+            metrics.incrementCounter("http.compression." + encoding);
+            metrics.incrementCounter("http.bytes.raw", size);
+            metrics.incrementCounter("http.bytes.compressed", compressed.length);
+
+            FullHttpResponse encoded = response.replace(Unpooled.wrappedBuffer(compressed));
+            encoded.headers()
+                .set(HttpHeaderNames.CONTENT_ENCODING, encoding)
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, compressed.length);
+            response.release();
+            return encoded;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to compress response with {}, sending it uncompressed", encoding, e);
+            return response;
+        }
+    }
+
+    /**
+     * Picks the supported encoding with the highest quality value.
+     * On equal quality, brotli is preferred over gzip and gzip over deflate.
+     *
+     * @return the encoding, or null if the client accepts none of them
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Float> accepted = new LinkedHashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            float q = 1.0f;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Float.parseFloat(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0.0f;
+                    }
+                }
+            }
+            accepted.put(coding, q);
+        }
+
+        float wildcard = accepted.getOrDefault("*", 0.0f);
+        String best = null;
+        float bestQ = 0.0f;
+        for (String coding : new String[] {BR, GZIP, DEFLATE}) {
+            if (BR.equals(coding) && !isBrotliAvailable()) {
+                continue;
+            }
+            float q = accepted.getOrDefault(coding, wildcard);
+            if (q > bestQ) {
+                best = coding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Adds Accept-Encoding to the Vary header, keeping the fields the response already varies on.
+     */
+    private static void varyOnAcceptEncoding(FullHttpResponse response) {
+        String vary = response.headers().get(HttpHeaderNames.VARY);
+        if (vary == null || vary.isBlank()) {
+            response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+            return;
+        }
+        for (String field : vary.split(",")) {
+            String name = field.trim();
+            if (name.equals("*") || HttpHeaderNames.ACCEPT_ENCODING.contentEqualsIgnoreCase(name)) {
+                return;
+            }
+        }
+        response.headers().set(HttpHeaderNames.VARY, vary + ", " + HttpHeaderNames.ACCEPT_ENCODING);
+    }
+
+    private byte[] encode(String encoding, byte[] body) throws IOException {
+        if (BR.equals(encoding)) {
+            return BrotliSupport.compress(body, brotliQuality);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        if (GZIP.equals(encoding)) {
+            // GZIPOutputStream owns its deflater and ends it on close
+            try (OutputStream stream = new LeveledGZIPOutputStream(out, level)) {
+                stream.write(body);
+            }
+            return out.toByteArray();
+        }
+
+        // A deflater passed in is not ended by the stream, and holds native memory until it is
+        Deflater deflater = new Deflater(level);
+        try (OutputStream stream = new DeflaterOutputStream(out, deflater, true)) {
+            stream.write(body);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A gzip stream with a configurable compression level.
+     */
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * LRU cache of compressed bodies, bounded by their total size. The version in the key
+     * stands for the body, so a lookup never touches the body itself.
+     */
+    private static class PrecompressedCache {
+        // Guarded by entries
+        private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+        private long maxBytes;
+
+        PrecompressedCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        void setMaxBytes(long maxBytes) {
+            synchronized (entries) {
+                this.maxBytes = maxBytes;
+                evict();
+            }
+        }
+
+        long getBytes() {
+            synchronized (entries) {
+                return bytes;
+            }
+        }
+
+        byte[] get(Key key) {
+            synchronized (entries) {
+                return entries.get(key);
+            }
+        }
+
+        void put(Key key, byte[] compressed) {
+            synchronized (entries) {
+                if (compressed.length > maxBytes) {
+                    return;
+                }
+                byte[] previous = entries.put(key, compressed);
+                bytes += compressed.length - (previous != null ? previous.length : 0);
+                evict();
+            }
+        }
+
+        // Called with the entries lock held
+        private void evict() {
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+
+        record Key(String intent, String encoding, Object version) {
+        }
+    }
+
+    /**
+     * Isolates the optional brotli4j dependency so this class loads without it.
+     */
+    private static class BrotliSupport {
+        static final boolean AVAILABLE = detect();
+
+        private static boolean detect() {
+            try {
+                Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader");
+                return BrotliCodec.isAvailable();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+        static byte[] compress(byte[] body, int quality) throws IOException {
+            return BrotliCodec.compress(body, quality);
+        }
+    }
+
+    /**
+     * Direct brotli4j calls, loaded only after the library has been found.
+     */
+    private static class BrotliCodec {
+        static boolean isAvailable() {
+            return com.aayushatharva.brotli4j.Brotli4jLoader.isAvailable();
+        }
+
+        static byte[] compress(byte[] body, int quality) throws IOException {
+            return com.aayushatharva.brotli4j.encoder.Encoder.compress(
+                body, new com.aayushatharva.brotli4j.encoder.Encoder.Parameters().setQuality(quality));
+        }
+    }
+}
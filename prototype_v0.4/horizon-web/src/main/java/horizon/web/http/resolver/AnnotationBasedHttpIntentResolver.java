@@ -1,5 +1,6 @@
 package horizon.web.http.resolver;
 
+import horizon.core.RegistrySnapshot;
 import horizon.core.conductor.ConductorMethod;
 import horizon.core.protocol.IntentResolver;
 import horizon.core.protocol.ProtocolNames;
@@ -13,14 +14,38 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * HTTP Intent resolver that uses @ProtocolAccess annotations to map HTTP requests to intents.
  * Also extracts path parameters for proper routing.
+ *
+ * A resolver created with a registry follows the routes of a registry snapshot, compiled once
+ * per snapshot: the snapshot the request runs on when one is given, otherwise the current one.
+ * A resolver created without a registry matches the methods registered with it.
  */
 public class AnnotationBasedHttpIntentResolver implements IntentResolver<FullHttpRequest> {
     private final List<RouteMapping> mappings = new ArrayList<>();
     private final ProtocolAccessValidator accessValidator = new ProtocolAccessValidator();
+    private final Supplier<RegistrySnapshot> registry;
+    private volatile CompiledRoutes compiled;
+
+    /**
+     * Creates a resolver for the methods registered with {@link #registerConductorMethod}.
+     */
+    public AnnotationBasedHttpIntentResolver() {
+        this.registry = null;
+    }
+
+    /**
+     * Creates a resolver for the HTTP routes of the conductor methods in a registry.
+     *
+     * @param registry supplies the current registry snapshot, such as
+     *                 {@code aggregator::getRegistrySnapshot}
+     */
+    public AnnotationBasedHttpIntentResolver(Supplier<RegistrySnapshot> registry) {
+        this.registry = registry;
+    }
     
     /**
      * Registers a conductor method with its protocol mappings.
@@ -45,8 +70,15 @@ public class AnnotationBasedHttpIntentResolver implements IntentResolver<FullHtt
      * @param intent the intent to associate with the route
      */
     private void parseAndRegisterRoute(String route, String intent) {
+        RouteMapping mapping = parseRoute(route, intent);
+        if (mapping != null) {
+            mappings.add(mapping);
+        }
+    }
+
+    private static RouteMapping parseRoute(String route, String intent) {
         String[] parts = route.split(" ", 2);
-        if (parts.length != 2) return;
+        if (parts.length != 2) return null;
         
         String methodStr = parts[0];
         String path = parts[1];
@@ -54,15 +86,52 @@ public class AnnotationBasedHttpIntentResolver implements IntentResolver<FullHtt
         HttpMethod method = HttpMethod.valueOf(methodStr);
         PathMatcher matcher = new PathMatcher(path);
         
-        mappings.add(new RouteMapping(method, matcher, intent));
+        return new RouteMapping(method, matcher, intent);
+    }
+
+    /**
+     * Gets the routes to match, compiling those of a new registry snapshot.
+     */
+    private List<RouteMapping> currentMappings() {
+        return registry != null ? mappingsOf(registry.get()) : mappings;
+    }
+
+    private List<RouteMapping> mappingsOf(RegistrySnapshot snapshot) {
+        CompiledRoutes routes = compiled;
+        if (routes == null || routes.snapshot != snapshot) {
+            List<RouteMapping> compiledMappings = new ArrayList<>();
+            snapshot.getRoutes(ProtocolNames.HTTP).forEach((route, intent) -> {
+                RouteMapping mapping = parseRoute(route, intent);
+                if (mapping != null) {
+                    compiledMappings.add(mapping);
+                }
+            });
+            // Threads that see a new snapshot together compile the same routes
+            routes = new CompiledRoutes(snapshot, List.copyOf(compiledMappings));
+            compiled = routes;
+        }
+        return routes.mappings;
     }
     
     @Override
     public String resolveIntent(FullHttpRequest request) {
+        return match(request, currentMappings());
+    }
+
+    /**
+     * Resolves the intent with the routes of the snapshot the request runs on, so the route
+     * and the conductor method come from the same registrations.
+     */
+    @Override
+    public String resolveIntent(FullHttpRequest request, RegistrySnapshot snapshot) {
+        return match(request, registry != null ? mappingsOf(snapshot) : mappings);
+    }
+
+    private String match(FullHttpRequest request, List<RouteMapping> routes) {
         String uri = request.uri().split("\\?")[0];
         HttpMethod method = request.method();
         
-        for (RouteMapping mapping : mappings) {
+        for (RouteMapping mapping : routes) {
             if (mapping.method.equals(method)) {
                 Map<String, String> params = mapping.pathMatcher.match(uri);
                 if (params != null) {
@@ -109,6 +178,12 @@ public class AnnotationBasedHttpIntentResolver implements IntentResolver<FullHtt
         return result;
     }
     
+    /**
+     * The routes compiled from a registry snapshot.
+     */
+    private record CompiledRoutes(RegistrySnapshot snapshot, List<RouteMapping> mappings) {
+    }
+
     /**
      * Route mapping entry.
      */
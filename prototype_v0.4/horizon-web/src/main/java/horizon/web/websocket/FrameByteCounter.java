@@ -0,0 +1,53 @@
+package horizon.web.websocket;
+
+import horizon.core.metrics.MetricsCollector;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+/**
+ * Counts WebSocket payload bytes at one point of the pipeline.
+ *
+ * The foyer installs one counter on each side of the permessage-deflate codec:
+ * the {@link #RAW} counter sees payloads as the application reads and writes them,
+ * the {@link #WIRE} counter sees them as they travel over the network.
+ */
+@ChannelHandler.Sharable
+class FrameByteCounter extends ChannelDuplexHandler {
+    static final FrameByteCounter RAW = new FrameByteCounter(true);
+    static final FrameByteCounter WIRE = new FrameByteCounter(false);
+
+    private final boolean raw;
+    private final String inCounter;
+    private final String outCounter;
+
+    private FrameByteCounter(boolean raw) {
+        this.raw = raw;
+        String stage = raw ? "raw" : "wire";
+        this.inCounter = "websocket.bytes.in." + stage;
+        this.outCounter = "websocket.bytes.out." + stage;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof WebSocketFrame frame) {
+            MetricsCollector.getInstance().incrementCounter(inCounter, frame.content().readableBytes());
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof WebSocketFrame frame) {
+            int bytes = frame.content().readableBytes();
+            MetricsCollector.getInstance().incrementCounter(outCounter, bytes);
+            WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+            if (session != null) {
+                session.recordBytesOut(bytes, raw);
+            }
+        }
+        super.write(ctx, msg, promise);
+    }
+}
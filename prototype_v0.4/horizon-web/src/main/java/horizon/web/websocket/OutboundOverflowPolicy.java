@@ -0,0 +1,25 @@
+package horizon.web.websocket;
+
+/**
+ * What a session does when its outbound queue reaches the high water mark,
+ * because the client reads more slowly than messages are produced for it.
+ * Only published messages are dropped or coalesced. Replies and errors are always
+ * delivered, so when the queue holds nothing else the connection is closed.
+ */
+public enum OutboundOverflowPolicy {
+    /**
+     * Drop the oldest queued published frame to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replace queued frames of the same kind, such as earlier messages of the same topic,
+     * with the new one. Falls back to dropping the oldest published frame when there is none.
+     */
+    COALESCE,
+
+    /**
+     * Close the connection.
+     */
+    DISCONNECT
+}
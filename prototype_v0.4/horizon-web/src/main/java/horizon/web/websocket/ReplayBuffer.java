@@ -0,0 +1,100 @@
+package horizon.web.websocket;
+
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring of the frames most recently written to a session, numbered from 1,
+ * so that a resumed session can be sent only what its previous connection missed.
+ *
+ * The buffer holds retained duplicates, so buffered frames share memory with the frames
+ * that were written. The oldest frames are evicted once the frame or byte limit is reached.
+ *
+ * Not thread-safe; a buffer belongs to one session at a time.
+ */
+class ReplayBuffer {
+    private final WebSocketFrame[] frames;
+    private final long maxBytes;
+    private int head;
+    private int size;
+    private long bytes;
+    private long lastSequence;
+
+    ReplayBuffer(int maxFrames, long maxBytes) {
+        this.frames = new WebSocketFrame[maxFrames];
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the sequence number of the newest frame, or 0 if none was added.
+     */
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a frame with the next sequence number.
+     *
+     * @param frame the frame to keep; ownership passes to the buffer
+     */
+    void add(WebSocketFrame frame) {
+        lastSequence++;
+        int length = frame.content().readableBytes();
+        if (length > maxBytes) {
+            // Too large to keep; drop everything so a resume cannot skip over it
+            clear();
+            frame.release();
+            return;
+        }
+        while (size == frames.length || (size > 0 && bytes + length > maxBytes)) {
+            evictOldest();
+        }
+        frames[(head + size) % frames.length] = frame;
+        size++;
+        bytes += length;
+    }
+
+    /**
+     * Gets the frames added after a sequence number.
+     *
+     * @param sequence the sequence number of the last frame the client received
+     * @return retained duplicates of the missed frames, in order, or null if some of them
+     *         were evicted or the sequence number is ahead of this buffer
+     */
+    List<WebSocketFrame> since(long sequence) {
+        long first = lastSequence - size + 1;
+        if (sequence < first - 1 || sequence > lastSequence) {
+            return null;
+        }
+        int skip = (int) (sequence - first + 1);
+        List<WebSocketFrame> missed = new ArrayList<>(size - skip);
+        for (int i = skip; i < size; i++) {
+            missed.add(frames[(head + i) % frames.length].retainedDuplicate());
+        }
+        return missed;
+    }
+
+    /**
+     * Releases all buffered frames. The sequence number is kept.
+     */
+    void clear() {
+        while (size > 0) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        WebSocketFrame oldest = frames[head];
+        frames[head] = null;
+        head = (head + 1) % frames.length;
+        size--;
+        bytes -= oldest.content().readableBytes();
+        oldest.release();
+    }
+}
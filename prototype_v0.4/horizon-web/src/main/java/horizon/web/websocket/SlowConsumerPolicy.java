@@ -0,0 +1,17 @@
+package horizon.web.websocket;
+
+/**
+ * What a topic does with a subscriber whose channel is not writable
+ * when a message is published, because its outbound buffer is above the high water mark.
+ */
+public enum SlowConsumerPolicy {
+    /**
+     * Skip the message for that subscriber; it stays subscribed.
+     */
+    SKIP,
+
+    /**
+     * Close the subscriber's connection.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,198 @@
+package horizon.web.websocket;
+
+import horizon.core.metrics.MetricsCollector;
+import horizon.web.websocket.codec.JacksonWebSocketCodec;
+import horizon.web.websocket.codec.WebSocketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps topics to the channels subscribed to them.
+ *
+ * Each topic is backed by a Netty {@link ChannelGroup}, so closed channels leave
+ * their topics on their own. A published message is encoded once into a single
+ * buffer per codec in use and every subscriber gets a retained duplicate of it,
+ * so fan-out costs no copies and no per-subscriber serialization. Frames for a WebSocket session go
+ * through its outbound queue, so a burst of publishes is flushed once per session.
+ */
+public class SubscriptionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionRegistry.class);
+    private static final WebSocketCodec FALLBACK_CODEC = JacksonWebSocketCodec.json();
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final Map<String, SlowConsumerPolicy> policies = new ConcurrentHashMap<>();
+    private volatile SlowConsumerPolicy defaultPolicy = SlowConsumerPolicy.SKIP;
+
+    /**
+     * Sets the slow consumer policy for topics without a policy of their own.
+     */
+    public void setDefaultPolicy(SlowConsumerPolicy policy) {
+        this.defaultPolicy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Sets the slow consumer policy of a topic.
+     * The policy is kept when the topic is dropped and created again.
+     *
+     * @param topic the topic name
+     * @param policy the policy to apply
+     */
+    public void setPolicy(String topic, SlowConsumerPolicy policy) {
+        policies.put(topic, Objects.requireNonNull(policy, "policy"));
+    }
+
+    /**
+     * Gets the slow consumer policy of a topic.
+     */
+    public SlowConsumerPolicy getPolicy(String topic) {
+        return policies.getOrDefault(topic, defaultPolicy);
+    }
+
+    /**
+     * Subscribes a channel to a topic, creating the topic if needed.
+     */
+    public void subscribe(String topic, Channel channel) {
+        topics.compute(topic, (name, existing) -> {
+            Topic target = existing != null ? existing : new Topic(name);
+            target.channels.add(channel);
+            return target;
+        });
+        MetricsCollector.getInstance().setGauge("publish.topics", topics.size());
+    }
+
+    /**
+     * Unsubscribes a channel from a topic, dropping the topic once it is empty.
+     */
+    public void unsubscribe(String topic, Channel channel) {
+        topics.computeIfPresent(topic, (name, existing) -> {
+            existing.channels.remove(channel);
+            return existing.channels.isEmpty() ? null : existing;
+        });
+        MetricsCollector.getInstance().setGauge("publish.topics", topics.size());
+    }
+
+    /**
+     * Gets the number of channels subscribed to a topic.
+     */
+    public int getSubscriberCount(String topic) {
+        Topic target = topics.get(topic);
+        return target != null ? target.channels.size() : 0;
+    }
+
+    /**
+     * Publishes a message to all subscribers of a topic.
+     *
+     * @param topic the topic name
+     * @param message the message to encode and publish
+     * @return the number of channels the message was written to
+     */
+    public int publish(String topic, Object message) {
+        Topic target = topics.get(topic);
+        if (target == null) {
+            return 0;
+        }
+        if (target.channels.isEmpty()) {
+            // Every subscriber disconnected since the last publish
+            topics.computeIfPresent(topic, (name, existing) -> existing.channels.isEmpty() ? null : existing);
+            return 0;
+        }
+
+        MetricsCollector.getInstance().incrementCounter("publish.messages");
+        return fanOut(target.channels, message, getPolicy(topic), topic);
+    }
+
+    /**
+     * Writes a message to each channel, encoding it only once per codec in use.
+     * Codecs are told apart by name, so sessions holding different instances of the same
+     * codec share one buffer. A codec that fails to encode the message only fails delivery
+     * to the sessions using it.
+     *
+     * @param channels the channels to write to
+     * @param message the message to encode
+     * @param policy what to do with channels that are not writable
+     * @param coalesceKey identifies messages that may replace each other in a full outbound queue, or null
+     * @return the number of channels the message was written to
+     */
+    static int fanOut(Iterable<Channel> channels, Object message, SlowConsumerPolicy policy, String coalesceKey) {
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        Map<String, ByteBuf> encoded = new HashMap<>(4);
+        Set<String> failed = null;
+        int delivered = 0;
+        int skipped = 0;
+
+        try {
+            for (Channel channel : channels) {
+                if (!channel.isActive()) {
+                    continue;
+                }
+                if (!channel.isWritable()) {
+                    skipped++;
+                    if (policy == SlowConsumerPolicy.DISCONNECT) {
+                        metrics.incrementCounter("publish.disconnected");
+                        channel.close();
+                    }
+                    continue;
+                }
+                WebSocketSession session = channel.attr(WebSocketSession.KEY).get();
+                WebSocketCodec codec = session != null ? session.getCodec() : FALLBACK_CODEC;
+                ByteBuf content = encoded.get(codec.getName());
+                if (content == null) {
+                    if (failed != null && failed.contains(codec.getName())) {
+                        continue;
+                    }
+                    try {
+                        content = codec.encode(message, ByteBufAllocator.DEFAULT);
+                    } catch (IOException | RuntimeException e) {
+                        logger.error("Failed to encode published message with codec {}", codec.getName(), e);
+                        metrics.incrementCounter("publish.encode_errors");
+                        if (failed == null) {
+                            failed = new HashSet<>(2);
+                        }
+                        failed.add(codec.getName());
+                        continue;
+                    }
+                    encoded.put(codec.getName(), content);
+                }
+                WebSocketFrame frame = codec.toFrame(content.retainedDuplicate());
+                if (session != null) {
+                    session.publish(frame, coalesceKey);
+                } else {
+                    // The void promise saves a promise allocation per subscriber; write errors reach the pipeline
+                    channel.writeAndFlush(frame, channel.voidPromise());
+                }
+                delivered++;
+            }
+        } finally {
+            encoded.values().forEach(ByteBuf::release);
+        }
+
+        metrics.incrementCounter("publish.deliveries", delivered);
+        if (skipped > 0) {
+            metrics.incrementCounter("publish.slow_consumers", skipped);
+        }
+        return delivered;
+    }
+
+    private static class Topic {
+        final ChannelGroup channels;
+
+        Topic(String name) {
+            this.channels = new DefaultChannelGroup(name, GlobalEventExecutor.INSTANCE);
+        }
+    }
+}
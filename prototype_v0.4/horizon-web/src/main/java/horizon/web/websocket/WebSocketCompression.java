@@ -0,0 +1,195 @@
+package horizon.web.websocket;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import io.netty.util.AttributeKey;
+
+import java.util.List;
+
+/**
+ * permessage-deflate settings of a WebSocket foyer (RFC 7692).
+ *
+ * Compression is negotiated per connection: clients that offer the extension get
+ * compressed frames, and frames smaller than {@link #setMinFrameSize} are sent as-is,
+ * since deflating them costs more CPU than it saves bandwidth.
+ * A client opts out by connecting with {@code ?compression=off}.
+ *
+ * Settings apply to connections opened after the change.
+ */
+public class WebSocketCompression {
+    public static final String OPT_OUT_PARAMETER = "compression";
+
+    // Set on channels whose upgrade accepted permessage-deflate
+    private static final AttributeKey<Boolean> NEGOTIATED = AttributeKey.valueOf("horizon.websocket.deflate");
+
+    private static final int DEFAULT_COMPRESSION_LEVEL = 6;
+    private static final int DEFAULT_MIN_FRAME_SIZE = 256;
+
+    private volatile boolean enabled = true;
+    private volatile int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+    private volatile int minFrameSize = DEFAULT_MIN_FRAME_SIZE;
+    private volatile boolean serverWindowSizeAllowed = true;
+    private volatile int preferredClientWindowSize = PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE;
+    private volatile boolean serverNoContextTakeoverAllowed = true;
+    private volatile boolean clientNoContextTakeoverPreferred = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables permessage-deflate for the whole foyer.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the deflate level, from 0 (no compression) to 9 (best compression).
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException("compressionLevel must be between 0 and 9: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getMinFrameSize() {
+        return minFrameSize;
+    }
+
+    /**
+     * Sets the payload size in bytes below which frames are sent uncompressed.
+     */
+    public void setMinFrameSize(int minFrameSize) {
+        if (minFrameSize < 0) {
+            throw new IllegalArgumentException("minFrameSize must not be negative: " + minFrameSize);
+        }
+        this.minFrameSize = minFrameSize;
+    }
+
+    /**
+     * Sets whether clients may ask the server to use a smaller sliding window
+     * ({@code server_max_window_bits}), trading ratio for memory per connection.
+     */
+    public void setServerWindowSizeAllowed(boolean serverWindowSizeAllowed) {
+        this.serverWindowSizeAllowed = serverWindowSizeAllowed;
+    }
+
+    /**
+     * Sets the sliding window, in bits, the server asks clients to use
+     * ({@code client_max_window_bits}), from 8 to 15.
+     */
+    public void setPreferredClientWindowSize(int preferredClientWindowSize) {
+        if (preferredClientWindowSize < PerMessageDeflateServerExtensionHandshaker.MIN_WINDOW_SIZE
+                || preferredClientWindowSize > PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE) {
+            throw new IllegalArgumentException("preferredClientWindowSize must be between 8 and 15: "
+                + preferredClientWindowSize);
+        }
+        this.preferredClientWindowSize = preferredClientWindowSize;
+    }
+
+    /**
+     * Sets whether clients may ask the server to reset its compression context
+     * after every message ({@code server_no_context_takeover}).
+     */
+    public void setServerNoContextTakeoverAllowed(boolean serverNoContextTakeoverAllowed) {
+        this.serverNoContextTakeoverAllowed = serverNoContextTakeoverAllowed;
+    }
+
+    /**
+     * Sets whether the server asks clients to reset their compression context
+     * after every message ({@code client_no_context_takeover}), which saves
+     * server memory for inflating at the cost of ratio.
+     */
+    public void setClientNoContextTakeoverPreferred(boolean clientNoContextTakeoverPreferred) {
+        this.clientNoContextTakeoverPreferred = clientNoContextTakeoverPreferred;
+    }
+
+    /**
+     * Checks whether the upgrade of a channel accepted permessage-deflate, rather than
+     * whether the client merely offered it. Offers the settings do not allow are declined.
+     */
+    static boolean isNegotiated(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(NEGOTIATED).get());
+    }
+
+    /**
+     * Creates the handlers to install in a channel pipeline between the HTTP aggregator
+     * and the WebSocket protocol handler.
+     *
+     * @param channel the channel the handlers are for, which records the negotiation outcome
+     * @return the handlers in pipeline order, or an empty list if compression is disabled
+     */
+    List<ChannelHandler> newHandlers(Channel channel) {
+        if (!enabled) {
+            return List.of();
+        }
+
+        int minSize = minFrameSize;
+        WebSocketExtensionFilter skipSmallFrames = frame -> frame.content().readableBytes() < minSize;
+        WebSocketExtensionFilterProvider filters = new WebSocketExtensionFilterProvider() {
+            @Override
+            public WebSocketExtensionFilter encoderFilter() {
+                return skipSmallFrames;
+            }
+
+            @Override
+            public WebSocketExtensionFilter decoderFilter() {
+                return WebSocketExtensionFilter.NEVER_SKIP;
+            }
+        };
+
+        PerMessageDeflateServerExtensionHandshaker handshaker = new PerMessageDeflateServerExtensionHandshaker(
+            compressionLevel,
+            serverWindowSizeAllowed,
+            preferredClientWindowSize,
+            serverNoContextTakeoverAllowed,
+            clientNoContextTakeoverPreferred,
+            filters
+        );
+        WebSocketServerExtensionHandshaker recording = offer -> {
+            WebSocketServerExtension accepted = handshaker.handshakeExtension(offer);
+            if (accepted != null) {
+                channel.attr(NEGOTIATED).set(Boolean.TRUE);
+            }
+            return accepted;
+        };
+        return List.of(OptOutHandler.INSTANCE, new WebSocketServerExtensionHandler(recording));
+    }
+
+    /**
+     * Drops the client's extension offer when the upgrade request asks for no compression.
+     */
+    @ChannelHandler.Sharable
+    private static class OptOutHandler extends ChannelInboundHandlerAdapter {
+        static final OptOutHandler INSTANCE = new OptOutHandler();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof HttpRequest request) {
+                List<String> values = new QueryStringDecoder(request.uri()).parameters().get(OPT_OUT_PARAMETER);
+                if (values != null && values.contains("off")) {
+                    request.headers().remove(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS);
+                }
+                ctx.pipeline().remove(this);
+            }
+            ctx.fireChannelRead(msg);
+        }
+    }
+}
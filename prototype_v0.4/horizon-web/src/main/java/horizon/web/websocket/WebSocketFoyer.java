@@ -2,32 +2,100 @@ package horizon.web.websocket;
 
 import horizon.core.HorizonContext;
 import horizon.core.Rendezvous;
-import horizon.core.util.JsonUtils;
+import horizon.core.metrics.MetricsCollector;
+import horizon.core.publish.TopicPublisher;
 import horizon.web.common.AbstractWebFoyer;
+import horizon.web.common.BatchEnvelope;
+import horizon.web.websocket.codec.JacksonWebSocketCodec;
+import horizon.web.websocket.codec.WebSocketCodec;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.websocketx.*;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * WebSocket Foyer - the entry point for WebSocket connections into the Horizon framework.
  * This class extends AbstractWebFoyer to provide WebSocket-specific functionality.
- * Uses JsonUtils for JSON operations to ensure consistent ObjectMapper usage across the application.
+ * JSON messages use the shared JsonUtils ObjectMapper, so encoding is consistent across the application.
+ *
+ * Frames on one connection are processed concurrently, up to a per-session in-flight limit,
+ * and responses may complete out of order. Clients correlate them through the optional
+ * {@code id} field, which is echoed back on every response.
+ *
+ * Outbound frames are queued per session and flushed in batches; see {@link WebSocketSession}.
+ *
+ * Clients choose the message encoding through the WebSocket subprotocol: {@code json} (the default)
+ * in text frames, or {@code cbor} or {@code smile} in binary frames. See {@link WebSocketCodec}.
+ * Text frames are JSON on any session, and are answered in JSON.
+ * Frames are compressed with permessage-deflate when the client supports it; see {@link WebSocketCompression}.
+ * Silent connections are pinged and dead or idle ones closed; see {@link WebSocketHeartbeat}.
+ * A client whose connection drops can resume its session, and receive what it missed,
+ * by reconnecting with the token it was sent; see {@link WebSocketResumption}.
+ *
+ * A frame carrying an array instead of a single message is treated as a batch envelope, and
+ * each entry's {@code id} is echoed back on its response. To tell apart the replies of batches
+ * in flight at the same time, wrap the array as {@code {"id": ..., "batch": [...]}}; the reply
+ * then has the same shape and carries the same {@code id}.
+ *
+ * As a {@link TopicPublisher}, the foyer lets conductors subscribe sessions to topics and
+ * publish to them. A published message arrives as a frame whose intent is the topic name.
  */
-public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> {
+public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> implements TopicPublisher {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketFoyer.class);
 
-    private final Map<String, Channel> sessions = new ConcurrentHashMap<>();
+    private static final String WEBSOCKET_PATH = "/ws";
+    private static final int DEFAULT_MAX_IN_FLIGHT_PER_SESSION = 16;
+    private static final int DEFAULT_OUTBOUND_HIGH_WATER_MARK = 1024;
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final SubscriptionRegistry subscriptions = new SubscriptionRegistry();
+    private final WebSocketCodec textCodec = JacksonWebSocketCodec.json();
+    private final Map<String, WebSocketCodec> codecs = new ConcurrentHashMap<>();
+    private final WebSocketCompression compression = new WebSocketCompression();
+    private final WebSocketHeartbeat heartbeat = new WebSocketHeartbeat();
+    private final WebSocketResumption resumption = new WebSocketResumption(heartbeat);
+    private volatile int maxInFlightPerSession = DEFAULT_MAX_IN_FLIGHT_PER_SESSION;
+    private volatile int outboundHighWaterMark = DEFAULT_OUTBOUND_HIGH_WATER_MARK;
+    private volatile OutboundOverflowPolicy outboundOverflowPolicy = OutboundOverflowPolicy.DROP_OLDEST;
 
     public WebSocketFoyer(int port) {
         super(port);
+        registerCodec(textCodec);
+        registerCodec(JacksonWebSocketCodec.cbor());
+        registerCodec(JacksonWebSocketCodec.smile());
+    }
+
+    /**
+     * Registers a codec that clients can select by offering its name as a subprotocol.
+     * JSON, CBOR and Smile are registered by default. Must be called before the foyer opens.
+     *
+     * @param codec the codec to register
+     */
+    public void registerCodec(WebSocketCodec codec) {
+        codecs.put(codec.getName(), codec);
     }
 
     @Override
@@ -35,16 +103,118 @@ public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> {
         return "WebSocket";
     }
 
+    /**
+     * Sets how many requests a single connection may have in flight at once.
+     * Applies to connections opened after the change.
+     *
+     * @param maxInFlightPerSession the per-session limit
+     */
+    public void setMaxInFlightPerSession(int maxInFlightPerSession) {
+        if (maxInFlightPerSession < 1) {
+            throw new IllegalArgumentException("maxInFlightPerSession must be positive: " + maxInFlightPerSession);
+        }
+        this.maxInFlightPerSession = maxInFlightPerSession;
+    }
+
+    /**
+     * Sets how many frames may wait in a session's outbound queue before the overflow policy applies.
+     * Applies to connections opened after the change.
+     *
+     * @param outboundHighWaterMark the per-session queue limit
+     */
+    public void setOutboundHighWaterMark(int outboundHighWaterMark) {
+        if (outboundHighWaterMark < 1) {
+            throw new IllegalArgumentException("outboundHighWaterMark must be positive: " + outboundHighWaterMark);
+        }
+        this.outboundHighWaterMark = outboundHighWaterMark;
+    }
+
+    /**
+     * Sets what a session does when its outbound queue is full.
+     * Applies to connections opened after the change.
+     *
+     * @param policy the overflow policy
+     */
+    public void setOutboundOverflowPolicy(OutboundOverflowPolicy policy) {
+        this.outboundOverflowPolicy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Gets the outbound queue statistics of each connected session.
+     *
+     * @return in-flight, queue, compression and lifetime statistics by session ID
+     */
+    public Map<String, Map<String, Object>> getSessionStats() {
+        Map<String, Map<String, Object>> stats = new HashMap<>();
+        sessions.forEach((id, session) -> {
+            Map<String, Object> sessionStats = new HashMap<>();
+            sessionStats.put("inFlight", session.getInFlight());
+            sessionStats.put("readsPaused", !session.getChannel().config().isAutoRead());
+            sessionStats.put("queueDepth", session.getOutboundQueueDepth());
+            sessionStats.put("droppedFrames", session.getDroppedFrames());
+            sessionStats.put("coalescedFrames", session.getCoalescedFrames());
+            sessionStats.put("compressed", session.isCompressed());
+            sessionStats.put("rawBytesOut", session.getRawBytesOut());
+            sessionStats.put("wireBytesOut", session.getWireBytesOut());
+            sessionStats.put("lifetimeMillis", session.getLifetimeMillis());
+            stats.put(id, sessionStats);
+        });
+        return stats;
+    }
+
+    /**
+     * Gets the permessage-deflate settings of this foyer.
+     */
+    public WebSocketCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Gets the heartbeat and idle reaping settings of this foyer.
+     */
+    public WebSocketHeartbeat getHeartbeat() {
+        return heartbeat;
+    }
+
+    /**
+     * Gets the session resumption settings of this foyer.
+     */
+    public WebSocketResumption getResumption() {
+        return resumption;
+    }
+
+    /**
+     * Gets the topic subscriptions of this foyer.
+     * Use it to configure slow consumer policies per topic.
+     */
+    public SubscriptionRegistry getSubscriptions() {
+        return subscriptions;
+    }
+
     @Override
     protected ChannelInitializer<?> createChannelInitializer() {
         return new ChannelInitializer<SocketChannel>() {
             @Override
             protected void initChannel(SocketChannel ch) {
                 ChannelPipeline pipeline = ch.pipeline();
+                // Responses written while a read is in progress are flushed once the read completes
+                pipeline.addLast(new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
                 pipeline.addLast(new HttpServerCodec());
                 pipeline.addLast(new HttpObjectAggregator(65536));
                 pipeline.addLast(new ChunkedWriteHandler());
-                pipeline.addLast(new WebSocketServerProtocolHandler("/ws"));
+                // Payload bytes are counted on the wire side and the application side of permessage-deflate
+                pipeline.addLast(FrameByteCounter.WIRE);
+                pipeline.addLast(PathFilter.INSTANCE);
+                compression.newHandlers(ch).forEach(pipeline::addLast);
+                pipeline.addLast(new WebSocketServerProtocolHandler(WebSocketServerProtocolConfig.newBuilder()
+                    .websocketPath(WEBSOCKET_PATH)
+                    .subprotocols(String.join(",", codecs.keySet()))
+                    .checkStartsWith(true)
+                    .allowExtensions(compression.isEnabled())
+                    // Close frames reach the frame handler, which tells a clean close from a dropped connection
+                    .handleCloseFrames(false)
+                    .build()));
+                pipeline.addLast(FrameByteCounter.RAW);
                 pipeline.addLast(new WebSocketFrameHandler());
             }
         };
@@ -53,12 +223,15 @@ public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> {
     @Override
     public void close() {
         // Close all sessions
-        sessions.values().forEach(channel -> {
-            if (channel.isActive()) {
-                channel.close();
+        sessions.values().forEach(session -> {
+            session.markClosing();
+            if (session.getChannel().isActive()) {
+                session.getChannel().close();
             }
         });
         sessions.clear();
+        resumption.clear();
+        heartbeat.stop();
 
         // Call parent close method
         super.close();
@@ -66,41 +239,97 @@ public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> {
 
     /**
      * Sends a message to a specific session.
+     * A disconnected session that may still be resumed gets the message when it resumes.
      *
      * @param sessionId the session ID
      * @param message the message to send
      */
     public void sendToSession(String sessionId, WebSocketMessage message) {
-        Channel channel = sessions.get(sessionId);
-        if (channel != null && channel.isActive()) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session != null && session.getChannel().isActive()) {
             try {
-                String json = JsonUtils.toJson(message);
-                channel.writeAndFlush(new TextWebSocketFrame(json));
+                WebSocketCodec codec = session.getCodec();
+                session.send(codec.toFrame(codec.encode(message, session.getChannel().alloc())));
             } catch (Exception e) {
                 logger.error("Failed to send message to session: {}", sessionId, e);
             }
+        } else if (session == null) {
+            resumption.send(sessionId, message);
         }
     }
 
     /**
      * Broadcasts a message to all connected sessions.
+     * Sessions that cannot keep up are skipped.
      *
      * @param message the message to broadcast
      */
     public void broadcast(WebSocketMessage message) {
-        try {
-            String json = JsonUtils.toJson(message);
-            TextWebSocketFrame frame = new TextWebSocketFrame(json);
+        SubscriptionRegistry.fanOut(
+            () -> sessions.values().stream().map(WebSocketSession::getChannel).iterator(),
+            message,
+            SlowConsumerPolicy.SKIP,
+            null
+        );
+    }
 
-            sessions.values().forEach(channel -> {
-                if (channel.isActive()) {
-                    channel.writeAndFlush(frame.retainedDuplicate());
-                }
-            });
+    @Override
+    public boolean subscribe(String topic, String sessionId) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        session.getTopics().add(topic);
+        subscriptions.subscribe(topic, session.getChannel());
+        return true;
+    }
 
-            frame.release();
-        } catch (Exception e) {
-            logger.error("Failed to broadcast message", e);
+    @Override
+    public void unsubscribe(String topic, String sessionId) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.getTopics().remove(topic);
+            subscriptions.unsubscribe(topic, session.getChannel());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int publish(String topic, Object message) {
+        Map<String, Object> data = message instanceof Map
+            ? (Map<String, Object>) message
+            : Map.of("value", message);
+        WebSocketMessage published = new WebSocketMessage(topic, data);
+
+        int delivered = subscriptions.getSubscriberCount(topic) > 0 ? subscriptions.publish(topic, published) : 0;
+        // Suspended sessions get the message when they resume
+        return delivered + resumption.publish(topic, published);
+    }
+
+    /**
+     * Answers 404 to requests for any path but {@code /ws} and the paths below it. The protocol
+     * handler matches the path as a prefix, so that query strings pass, and this keeps it from
+     * upgrading a path such as {@code /wsXYZ}. Steps aside once a request passes.
+     */
+    @ChannelHandler.Sharable
+    private static class PathFilter extends ChannelInboundHandlerAdapter {
+        static final PathFilter INSTANCE = new PathFilter();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof HttpRequest request) {
+                String path = new QueryStringDecoder(request.uri()).path();
+                if (!path.equals(WEBSOCKET_PATH) && !path.startsWith(WEBSOCKET_PATH + "/")) {
+                    ReferenceCountUtil.release(msg);
+                    FullHttpResponse response = new DefaultFullHttpResponse(
+                        request.protocolVersion(), HttpResponseStatus.NOT_FOUND);
+                    response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+                    ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+                    return;
+                }
+                ctx.pipeline().remove(this);
+            }
+            ctx.fireChannelRead(msg);
         }
     }
 
@@ -112,64 +341,304 @@ public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> {
         @Override
         public void channelActive(ChannelHandlerContext ctx) {
             String sessionId = ctx.channel().id().asShortText();
-            sessions.put(sessionId, ctx.channel());
+            WebSocketSession session = new WebSocketSession(
+                sessionId, ctx.channel(), maxInFlightPerSession, outboundHighWaterMark, outboundOverflowPolicy);
+            session.setReplayBuffer(resumption.newReplayBuffer());
+            session.setClientAddress(clientAddress(ctx.channel()));
+            ctx.channel().attr(WebSocketSession.KEY).set(session);
+            sessions.put(sessionId, session);
+            heartbeat.start(session);
+            MetricsCollector.getInstance().setGauge("websocket.sessions", sessions.size());
             logger.info("WebSocket client connected: {}", sessionId);
         }
 
         @Override
         public void channelInactive(ChannelHandlerContext ctx) {
-            String sessionId = ctx.channel().id().asShortText();
-            sessions.remove(sessionId);
+            WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+            String sessionId = session != null ? session.getId() : ctx.channel().id().asShortText();
+            // A resumed session may already be registered under this ID by its new connection
+            if (session != null && sessions.remove(sessionId, session)) {
+                session.close();
+                resumption.suspend(session, session.isUpgraded() && !session.isClosing());
+                MetricsCollector metrics = MetricsCollector.getInstance();
+                metrics.recordTiming("websocket.session.lifetime", session.getLifetimeMillis());
+                metrics.setGauge("websocket.sessions", sessions.size());
+            }
             logger.info("WebSocket client disconnected: {}", sessionId);
         }
 
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            // Fires for every read from the socket, including control frames the protocol handler consumes
+            WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+            if (session != null) {
+                session.markRead();
+            }
+            ctx.fireChannelReadComplete();
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+            WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+            if (session != null && ctx.channel().isWritable()) {
+                session.drain();
+            }
+            ctx.fireChannelWritabilityChanged();
+        }
+
         @Override
         protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) {
-            if (frame instanceof TextWebSocketFrame) {
-                handleTextFrame(ctx, (TextWebSocketFrame) frame);
+            if (frame instanceof TextWebSocketFrame || frame instanceof BinaryWebSocketFrame) {
+                handleDataFrame(ctx, frame);
             } else if (frame instanceof CloseWebSocketFrame) {
-                ctx.channel().close();
+                WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+                if (session != null) {
+                    session.markClosing();
+                }
+                // Echo the close frame to complete the closing handshake
+                ctx.writeAndFlush(frame.retainedDuplicate()).addListener(ChannelFutureListener.CLOSE);
             } else if (frame instanceof PingWebSocketFrame) {
                 ctx.channel().writeAndFlush(new PongWebSocketFrame(frame.content().retain()));
             }
         }
 
-        @SuppressWarnings("unchecked")
-        private void handleTextFrame(ChannelHandlerContext ctx, TextWebSocketFrame frame) {
-            String sessionId = ctx.channel().id().asShortText();
-            String json = frame.text();
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt instanceof WebSocketServerProtocolHandler.HandshakeComplete handshake) {
+                WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+                if (session != null) {
+                    session.setUpgraded();
+                }
+                String subprotocol = handshake.selectedSubprotocol();
+                WebSocketCodec codec = subprotocol != null ? codecs.get(subprotocol) : null;
+                if (session != null && codec != null) {
+                    session.setCodec(codec);
+                    logger.debug("Session {} negotiated codec {}", session.getId(), codec.getName());
+                }
+                if (session != null) {
+                    session.setCompressed(WebSocketCompression.isNegotiated(ctx.channel()));
+                }
+                if (session != null && resumption.isEnabled()) {
+                    startSession(ctx, session, handshake.requestUri());
+                }
+            }
+            super.userEventTriggered(ctx, evt);
+        }
 
-            logger.debug("Received WebSocket message from {}: {}", sessionId, json);
+        /**
+         * Announces a new session, or resumes the one named by the {@code resume} parameter.
+         */
+        private void startSession(ChannelHandlerContext ctx, WebSocketSession session, String uri) {
+            Map<String, List<String>> parameters = new QueryStringDecoder(uri).parameters();
+            List<String> tokens = parameters.get(WebSocketResumption.TOKEN_PARAMETER);
+            if (tokens == null || tokens.isEmpty()) {
+                announce(ctx, session, WebSocketResumption.OPENED_INTENT, null);
+                return;
+            }
 
-            if (rendezvous == null) {
-                logger.error("No rendezvous connected");
-                sendError(ctx, "Service unavailable");
+            long sequence;
+            try {
+                List<String> sequences = parameters.get(WebSocketResumption.SEQUENCE_PARAMETER);
+                sequence = sequences != null && !sequences.isEmpty() ? Long.parseLong(sequences.get(0)) : 0;
+            } catch (NumberFormatException e) {
+                sequence = -1;
+            }
+            long lastReceived = sequence;
+
+            // Frames wait until the session to resume is known, so they run under its ID
+            ctx.channel().config().setAutoRead(false);
+            resumption.resume(tokens.get(0)).whenComplete((previous, error) -> {
+                try {
+                    ctx.channel().eventLoop().execute(() -> {
+                        resumeSession(ctx, session, previous, lastReceived);
+                        ctx.channel().config().setAutoRead(true);
+                    });
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Event loop of session {} is shutting down", session.getId());
+                    if (previous != null) {
+                        previous.replay.clear();
+                    }
+                }
+            });
+        }
+
+        private void resumeSession(ChannelHandlerContext ctx, WebSocketSession session,
+                                   WebSocketResumption.Suspended previous, long sequence) {
+            MetricsCollector metrics = MetricsCollector.getInstance();
+            if (previous == null || previous.codec != session.getCodec() || !ctx.channel().isActive()) {
+                if (previous != null) {
+                    previous.replay.clear();
+                }
+                metrics.incrementCounter("websocket.resume.failed");
+                announce(ctx, session, WebSocketResumption.OPENED_INTENT, null);
                 return;
             }
 
+            String provisionalId = session.getId();
+            session.resume(previous.id, previous.replay, previous.topics);
+            sessions.remove(provisionalId, session);
+            sessions.put(session.getId(), session);
+            previous.topics.forEach(topic -> subscriptions.subscribe(topic, ctx.channel()));
+
+            List<WebSocketFrame> missed = session.replaySince(sequence);
+            metrics.incrementCounter("websocket.resume.succeeded");
+            if (missed != null) {
+                metrics.incrementCounter("websocket.resume.replayed", missed.size());
+            }
+            logger.info("WebSocket session {} resumed on {}", session.getId(), provisionalId);
+            announce(ctx, session, WebSocketResumption.RESUMED_INTENT, missed);
+        }
+
+        /**
+         * Sends the session ID and a new resume token, followed by any frames to replay.
+         * These messages bypass the replay buffer and are not counted in the sequence.
+         */
+        private void announce(ChannelHandlerContext ctx, WebSocketSession session, String intent,
+                              List<WebSocketFrame> missed) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("sessionId", session.getId());
+            data.put("resumeToken", resumption.issueToken(session));
+            data.put("seq", session.getSequence());
+            if (WebSocketResumption.RESUMED_INTENT.equals(intent)) {
+                data.put("complete", missed != null);
+                data.put("replayed", missed != null ? missed.size() : 0);
+            }
+
             try {
-                // Parse JSON to WebSocketMessage
-                Map<String, Object> messageData = JsonUtils.fromJson(json, Map.class);
+                WebSocketCodec codec = session.getCodec();
+                ctx.write(codec.toFrame(codec.encode(new WebSocketMessage(intent, data), ctx.alloc())),
+                    ctx.voidPromise());
+            } catch (IOException e) {
+                logger.error("Failed to announce session {}", session.getId(), e);
+            }
+            if (missed != null) {
+                missed.forEach(frame -> ctx.write(frame, ctx.voidPromise()));
+            }
+            ctx.flush();
+        }
 
-                WebSocketMessage message = new WebSocketMessage();
-                message.setIntent((String) messageData.get("intent"));
-                message.setData((Map<String, Object>) messageData.get("data"));
-                message.setSessionId(sessionId);
+        /**
+         * Handles a data frame. Text frames are always JSON; binary frames use the session's codec.
+         * The reply to a frame, and any error, is encoded with the codec the frame was decoded with.
+         */
+        private void handleDataFrame(ChannelHandlerContext ctx, WebSocketFrame frame) {
+            WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+            String sessionId = session.getId();
+            session.markData();
 
-                // Encounter at the rendezvous
-                HorizonContext context = rendezvous.encounter(message);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Received WebSocket {} frame from {} ({} bytes)",
+                    frame instanceof TextWebSocketFrame ? "text" : "binary", sessionId, frame.content().readableBytes());
+            }
 
-                // Fall away with response
-                WebSocketMessage response = (WebSocketMessage) rendezvous.fallAway(context);
+            WebSocketCodec codec = frame instanceof TextWebSocketFrame ? textCodec : session.getCodec();
 
-                // Send response
-                String responseJson = JsonUtils.toJson(response);
-                ctx.writeAndFlush(new TextWebSocketFrame(responseJson));
+            if (rendezvous == null) {
+                logger.error("No rendezvous connected");
+                sendError(ctx, codec, null, "Service unavailable");
+                return;
+            }
 
+            if (!codec.isBinary() && frame instanceof BinaryWebSocketFrame) {
+                sendError(ctx, codec, null, "Binary frames require a binary subprotocol");
+                return;
+            }
+
+            Object decoded;
+            try {
+                decoded = codec.decode(frame.content());
             } catch (Exception e) {
-                logger.error("Error processing WebSocket message", e);
-                sendError(ctx, e.getMessage());
+                logger.error("Error decoding WebSocket message", e);
+                sendError(ctx, codec, null, e.getMessage());
+                return;
             }
+
+            if (decoded instanceof List<?> entries) {
+                session.dispatch(() -> handleBatch(ctx, session, codec, null, entries));
+                return;
+            }
+
+            WebSocketMessage message = (WebSocketMessage) decoded;
+            if (message.getBatch() != null) {
+                session.dispatch(() -> handleBatch(ctx, session, codec, message.getId(), message.getBatch()));
+                return;
+            }
+            message.setSessionId(sessionId);
+            message.setClientAddress(session.getClientAddress());
+
+            // Intent and payload are extracted here, in frame order; the conductor runs off the event loop
+            session.dispatch(() -> {
+                CompletableFuture<HorizonContext> pending = rendezvous.encounterAsync(message);
+                cancelOnClose(ctx.channel(), pending);
+                return pending
+                    .thenAccept(context -> {
+                        // Fall away with response
+                        WebSocketMessage response = (WebSocketMessage) rendezvous.fallAway(context);
+                        send(ctx, codec, response);
+                    })
+                    .exceptionally(error -> {
+                        if (isCancellation(error)) {
+                            logger.debug("WebSocket request of session {} cancelled", session.getId());
+                            return null;
+                        }
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        logger.error("Error processing WebSocket message", cause);
+                        sendError(ctx, codec, message.getId(), cause.getMessage());
+                        return null;
+                    });
+            });
+        }
+
+        /**
+         * Handles a frame carrying an array of {@code {"id", "intent", "data"}} entries.
+         * Entries run through the Rendezvous in parallel, and the reply is a single
+         * frame with one response message per entry, in request order. The reply is a bare
+         * array, or an object carrying the envelope's id when the request had one.
+         */
+        private CompletableFuture<?> handleBatch(ChannelHandlerContext ctx, WebSocketSession session,
+                                                 WebSocketCodec codec, Object envelopeId, List<?> envelope) {
+            String sessionId = session.getId();
+            List<BatchEnvelope.Entry> entries;
+            try {
+                entries = batchEnvelope.parse(envelope);
+            } catch (IllegalArgumentException e) {
+                sendError(ctx, codec, envelopeId, e.getMessage());
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return batchEnvelope.executeAsync(
+                entries,
+                entry -> {
+                    WebSocketMessage message = new WebSocketMessage(entry.getIntent(), entry.getData());
+                    message.setId(entry.getId());
+                    message.setSessionId(sessionId);
+                    message.setClientAddress(session.getClientAddress());
+                    CompletableFuture<HorizonContext> pending = rendezvous.encounterAsync(message);
+                    cancelOnClose(ctx.channel(), pending);
+                    return pending;
+                },
+                (entry, context) -> (WebSocketMessage) rendezvous.fallAway(context),
+                (entry, error) -> {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("error", error.getMessage());
+                    data.put("type", error.getClass().getSimpleName());
+                    data.put("success", false);
+                    WebSocketMessage response = new WebSocketMessage(entry.getIntent() + ".error", data);
+                    response.setId(entry.getId());
+                    response.setSessionId(sessionId);
+                    return response;
+                }
+            ).thenAccept(responses -> {
+                if (envelopeId == null) {
+                    send(ctx, codec, responses);
+                    return;
+                }
+                Map<String, Object> reply = new LinkedHashMap<>();
+                reply.put("id", envelopeId);
+                reply.put("batch", responses);
+                send(ctx, codec, reply);
+            });
         }
 
         @Override
@@ -178,14 +647,34 @@ public class WebSocketFoyer extends AbstractWebFoyer<WebSocketMessage> {
             ctx.close();
         }
 
-        private void sendError(ChannelHandlerContext ctx, String errorMessage) {
+        private void send(ChannelHandlerContext ctx, WebSocketCodec codec, Object response) {
             try {
-                Map<String, Object> error = new ConcurrentHashMap<>();
+                write(ctx, codec, response);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        private void write(ChannelHandlerContext ctx, WebSocketCodec codec, Object message) throws IOException {
+            WebSocketSession session = ctx.channel().attr(WebSocketSession.KEY).get();
+            WebSocketFrame frame = codec.toFrame(codec.encode(message, ctx.alloc()));
+            if (session != null) {
+                session.send(frame);
+            } else {
+                ctx.writeAndFlush(frame);
+            }
+        }
+
+        private void sendError(ChannelHandlerContext ctx, WebSocketCodec codec, Object id, String errorMessage) {
+            try {
+                Map<String, Object> error = new HashMap<>();
+                if (id != null) {
+                    error.put("id", id);
+                }
                 error.put("error", errorMessage);
                 error.put("success", false);
 
-                String json = JsonUtils.toJson(error);
-                ctx.writeAndFlush(new TextWebSocketFrame(json));
+                write(ctx, codec, error);
             } catch (Exception e) {
                 logger.error("Failed to send error message", e);
             }
@@ -0,0 +1,225 @@
+package horizon.web.websocket;
+
+import horizon.core.metrics.MetricsCollector;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heartbeat and idle settings of a WebSocket foyer.
+ *
+ * A connection that has been silent for the ping interval is sent a ping, and is closed
+ * if nothing arrives within the pong timeout; any inbound traffic counts as a sign of life,
+ * so busy connections are never pinged. This finds half-open sockets long before TCP does.
+ * Sessions that send no messages for the idle timeout are closed as well, if one is set,
+ * and connections that never complete the WebSocket handshake are closed after one ping interval.
+ * While reads of a connection are paused, because its session is at its in-flight limit,
+ * it is neither pinged nor reaped.
+ *
+ * All sessions share one {@link HashedWheelTimer}, so a heartbeat costs a wheel slot
+ * rather than a scheduled task per channel; checks themselves run on each channel's event loop.
+ *
+ * Settings apply to checks scheduled after the change.
+ */
+public class WebSocketHeartbeat {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketHeartbeat.class);
+
+    private static final Duration DEFAULT_PING_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_PONG_TIMEOUT = Duration.ofSeconds(10);
+    private static final long TICK_MILLIS = 500;
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private volatile boolean enabled = true;
+    private volatile long pingIntervalNanos = DEFAULT_PING_INTERVAL.toNanos();
+    private volatile long pongTimeoutNanos = DEFAULT_PONG_TIMEOUT.toNanos();
+    private volatile long idleTimeoutNanos;
+
+    private HashedWheelTimer timer;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables heartbeats and idle reaping for new connections.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getPingInterval() {
+        return Duration.ofNanos(pingIntervalNanos);
+    }
+
+    /**
+     * Sets how long a connection may be silent before it is pinged.
+     */
+    public void setPingInterval(Duration pingInterval) {
+        this.pingIntervalNanos = requirePositive(pingInterval, "pingInterval");
+    }
+
+    public Duration getPongTimeout() {
+        return Duration.ofNanos(pongTimeoutNanos);
+    }
+
+    /**
+     * Sets how long to wait for any traffic after a ping before the connection is closed.
+     */
+    public void setPongTimeout(Duration pongTimeout) {
+        this.pongTimeoutNanos = requirePositive(pongTimeout, "pongTimeout");
+    }
+
+    public Duration getIdleTimeout() {
+        return Duration.ofNanos(idleTimeoutNanos);
+    }
+
+    /**
+     * Sets how long a session may go without sending a message before it is closed.
+     * Pongs and pings do not count. {@link Duration#ZERO}, the default, keeps idle sessions open.
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        Objects.requireNonNull(idleTimeout, "idleTimeout");
+        if (idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("idleTimeout must not be negative: " + idleTimeout);
+        }
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Starts watching a session. Called when its connection opens.
+     */
+    void start(WebSocketSession session) {
+        if (enabled) {
+            schedule(session, pingIntervalNanos);
+        }
+    }
+
+    /**
+     * Stops the shared timer. Pending checks are discarded.
+     */
+    synchronized void stop() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+    /**
+     * Schedules a task on the shared timer. Also used for other per-session deadlines,
+     * such as the resumption window. Tasks run on the timer thread and must not block.
+     */
+    synchronized Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+        if (timer == null) {
+            timer = new HashedWheelTimer(new DefaultThreadFactory("horizon-ws-heartbeat", true),
+                TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+        }
+        return timer.newTimeout(task, delay, unit);
+    }
+
+    private void schedule(WebSocketSession session, long delayNanos) {
+        Channel channel = session.getChannel();
+        if (!channel.isActive()) {
+            return;
+        }
+        Timeout timeout = newTimeout(ignored -> {
+            try {
+                channel.eventLoop().execute(() -> check(session));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Event loop of session {} is shutting down", session.getId());
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+        session.setHeartbeat(timeout);
+    }
+
+    // Runs on the session's event loop
+    private void check(WebSocketSession session) {
+        Channel channel = session.getChannel();
+        if (!channel.isActive()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long pingSent = session.getPingSentNanos();
+        MetricsCollector metrics = MetricsCollector.getInstance();
+
+        if (!session.isUpgraded()) {
+            reap(session, "handshake_timeout", null);
+            return;
+        }
+        if (!channel.config().isAutoRead()) {
+            // Reads are held back while the session's requests catch up, so a pong could not be read;
+            // the client is waiting on us, not silent
+            session.setPingSentNanos(0);
+            schedule(session, pingIntervalNanos);
+            return;
+        }
+        if (pingSent != 0) {
+            long waited = now - pingSent;
+            if (waited >= pongTimeoutNanos) {
+                reap(session, "pong_timeout", null);
+            } else {
+                schedule(session, pongTimeoutNanos - waited);
+            }
+            return;
+        }
+
+        long idleTimeout = idleTimeoutNanos;
+        long idle = now - session.getLastDataNanos();
+        if (idleTimeout > 0 && idle >= idleTimeout) {
+            reap(session, "idle", new CloseWebSocketFrame(WebSocketCloseStatus.NORMAL_CLOSURE, "Idle timeout"));
+            return;
+        }
+
+        long silent = now - session.getLastReadNanos();
+        if (silent >= pingIntervalNanos) {
+            session.setPingSentNanos(now);
+            channel.writeAndFlush(new PingWebSocketFrame(), channel.voidPromise());
+            metrics.incrementCounter("websocket.heartbeat.pings");
+            schedule(session, pongTimeoutNanos);
+            return;
+        }
+
+        long next = pingIntervalNanos - silent;
+        if (idleTimeout > 0) {
+            next = Math.min(next, idleTimeout - idle);
+        }
+        schedule(session, next);
+    }
+
+    private void reap(WebSocketSession session, String reason, CloseWebSocketFrame closeFrame) {
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        metrics.incrementCounter("websocket.reaped");
+        metrics.incrementCounter("websocket.reaped." + reason);
+        logger.info("Reaping WebSocket session {}: {}", session.getId(), reason);
+
+        Channel channel = session.getChannel();
+        if (closeFrame != null) {
+            // Closed on purpose, so the session is not kept for resumption
+            session.markClosing();
+            channel.writeAndFlush(closeFrame).addListener(ChannelFutureListener.CLOSE);
+        } else {
+            channel.close();
+        }
+    }
+
+    private static long requirePositive(Duration duration, String name) {
+        Objects.requireNonNull(duration, name);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive: " + duration);
+        }
+        return duration.toNanos();
+    }
+}
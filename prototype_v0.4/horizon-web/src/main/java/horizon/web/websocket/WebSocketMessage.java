@@ -1,15 +1,28 @@
 package horizon.web.websocket;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
 import java.util.Map;
 
 /**
  * Represents a WebSocket message in the Horizon framework.
  * This class encapsulates the intent, data, and session ID of a WebSocket message.
+ *
+ * The optional {@code id} is chosen by the client and echoed back on the response,
+ * so a client can match responses that complete out of order on one connection.
+ * A message carrying a {@code batch} array instead of an intent is a batch envelope;
+ * its {@code id} is echoed back on the reply to the whole batch.
  */
 public class WebSocketMessage {
+    private Object id;
     private String intent;
     private Map<String, Object> data;
     private String sessionId;
+    private String clientAddress;
+    private Long timeout;
+    private List<Object> batch;
     
     /**
      * Creates an empty WebSocket message.
@@ -28,6 +41,25 @@ public class WebSocketMessage {
         this.data = data;
     }
     
+    /**
+     * Gets the correlation ID of the message.
+     *
+     * @return the correlation ID, or null if the client did not send one
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Object getId() {
+        return id;
+    }
+    
+    /**
+     * Sets the correlation ID of the message.
+     *
+     * @param id the correlation ID to set
+     */
+    public void setId(Object id) {
+        this.id = id;
+    }
+    
     /**
      * Gets the intent of the message.
      *
@@ -81,4 +113,62 @@ public class WebSocketMessage {
     public void setSessionId(String sessionId) {
         this.sessionId = sessionId;
     }
+
+    /**
+     * Gets the time the client allows for the request, in milliseconds.
+     *
+     * @return the timeout, or null if the client did not set one
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the time the client allows for the request, in milliseconds.
+     *
+     * @param timeout the timeout to set
+     */
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the entries of a batch envelope.
+     *
+     * @return the entries, or null if the message is not a batch
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<Object> getBatch() {
+        return batch;
+    }
+
+    /**
+     * Sets the entries of a batch envelope.
+     *
+     * @param batch the entries to set
+     */
+    public void setBatch(List<Object> batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Gets the IP address of the client that sent the message.
+     * Set by the foyer and never sent over the wire.
+     *
+     * @return the IP address, or null if unknown
+     */
+    @JsonIgnore
+    public String getClientAddress() {
+        return clientAddress;
+    }
+
+    /**
+     * Sets the IP address of the client that sent the message.
+     *
+     * @param clientAddress the IP address to set
+     */
+    public void setClientAddress(String clientAddress) {
+        this.clientAddress = clientAddress;
+    }
 }
\ No newline at end of file
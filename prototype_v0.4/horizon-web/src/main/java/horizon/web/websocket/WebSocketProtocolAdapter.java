@@ -1,10 +1,16 @@
 package horizon.web.websocket;
 
 import horizon.core.ProtocolAggregator;
+import horizon.core.annotation.RateLimit;
+import horizon.core.conductor.ConductorMethod;
+import horizon.core.exception.DeadlineExceededException;
+import horizon.core.exception.OverloadException;
+import horizon.core.exception.RateLimitException;
 import horizon.core.protocol.AggregatorAware;
 import horizon.web.common.AbstractWebProtocolAdapter;
 import horizon.web.common.PayloadExtractor;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,6 +20,11 @@ import java.util.Map;
  */
 public class WebSocketProtocolAdapter extends AbstractWebProtocolAdapter<WebSocketMessage, WebSocketMessage> 
         implements AggregatorAware {
+
+    /**
+     * Session ID of the messages created for warming up intents.
+     */
+    public static final String WARM_UP_SESSION_ID = "warm-up";
     
     private PayloadExtractor payloadExtractor;
     private ProtocolAggregator aggregator;
@@ -46,6 +57,31 @@ public class WebSocketProtocolAdapter extends AbstractWebProtocolAdapter<WebSock
         }
     }
     
+    @Override
+    public String extractCallerKey(WebSocketMessage message, RateLimit.Key key, String header) {
+        return switch (key) {
+            case SESSION -> message.getSessionId();
+            case IP -> message.getClientAddress();
+            default -> null;
+        };
+    }
+
+    @Override
+    public Duration extractTimeout(WebSocketMessage message) {
+        Long timeout = message.getTimeout();
+        return timeout != null && timeout > 0 ? Duration.ofMillis(timeout) : null;
+    }
+
+    /**
+     * Creates a message carrying the intent and the data, from a session of its own.
+     */
+    @Override
+    public WebSocketMessage createWarmUpRequest(ConductorMethod method, Map<String, Object> data) {
+        WebSocketMessage message = new WebSocketMessage(method.getIntent(), data);
+        message.setSessionId(WARM_UP_SESSION_ID);
+        return message;
+    }
+
     /**
      * Simple payload extraction as Map (fallback method).
      */
@@ -68,6 +104,7 @@ public class WebSocketProtocolAdapter extends AbstractWebProtocolAdapter<WebSock
         data.put("success", true);
         response.setData(data);
         
+        response.setId(request.getId());
         response.setSessionId(request.getSessionId());
         return response;
     }
@@ -75,14 +112,22 @@ public class WebSocketProtocolAdapter extends AbstractWebProtocolAdapter<WebSock
     @Override
     protected WebSocketMessage doBuildErrorResponse(Throwable error, WebSocketMessage request) {
         WebSocketMessage response = new WebSocketMessage();
-        response.setIntent(request.getIntent() + ".error");
+        // Deadline failures get their own frame, so clients can tell them from errors
+        response.setIntent(request.getIntent()
+            + (error instanceof DeadlineExceededException ? ".timeout" : ".error"));
         
         Map<String, Object> data = new HashMap<>();
         data.put("error", error.getMessage());
         data.put("type", error.getClass().getSimpleName());
         data.put("success", false);
+        if (error instanceof OverloadException overload) {
+            data.put("retryAfterMillis", overload.getRetryAfter().toMillis());
+        } else if (error instanceof RateLimitException limited) {
+            data.put("retryAfterMillis", Math.max(1, limited.getRetryAfter().toMillis()));
+        }
         response.setData(data);
         
+        response.setId(request.getId());
         response.setSessionId(request.getSessionId());
         return response;
     }
@@ -97,6 +142,7 @@ public class WebSocketProtocolAdapter extends AbstractWebProtocolAdapter<WebSock
         data.put("success", false);
         response.setData(data);
         
+        response.setId(request.getId());
         response.setSessionId(request.getSessionId());
         return response;
     }
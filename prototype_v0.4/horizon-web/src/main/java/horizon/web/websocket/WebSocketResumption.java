@@ -0,0 +1,359 @@
+package horizon.web.websocket;
+
+import horizon.core.metrics.MetricsCollector;
+import horizon.web.websocket.codec.WebSocketCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session resumption settings of a WebSocket foyer, and the sessions waiting to be resumed.
+ *
+ * Every connection is sent a {@code session.opened} message carrying its session ID and a
+ * resume token. When the connection drops without a close handshake, the session is kept for
+ * the resumption window together with a bounded buffer of the frames most recently written to it;
+ * messages sent or published to it while it is disconnected are buffered as well.
+ *
+ * A client resumes by reconnecting to {@code /ws?resume=<token>&seq=<n>}, where {@code n}
+ * is the number of frames it has received on the session, not counting {@code session.*} messages.
+ * It keeps its session ID and topic subscriptions, is sent a {@code session.resumed} message with
+ * a new token, and then the frames it missed. If some of them are no longer buffered, the message
+ * says {@code "complete": false} and the client should fetch the state it needs again.
+ * A client may resume before the server has noticed that its previous connection died;
+ * that connection is closed and the session moves over.
+ *
+ * Resuming requires the same codec as the previous connection.
+ */
+public class WebSocketResumption {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketResumption.class);
+
+    public static final String TOKEN_PARAMETER = "resume";
+    public static final String SEQUENCE_PARAMETER = "seq";
+    public static final String OPENED_INTENT = "session.opened";
+    public static final String RESUMED_INTENT = "session.resumed";
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofSeconds(60);
+    private static final int DEFAULT_REPLAY_FRAMES = 256;
+    private static final long DEFAULT_REPLAY_BYTES = 256 * 1024;
+    private static final long HANDOFF_TIMEOUT_SECONDS = 5;
+
+    private final WebSocketHeartbeat heartbeat;
+    private final SecureRandom random = new SecureRandom();
+
+    // By resume token
+    private final Map<String, WebSocketSession> live = new ConcurrentHashMap<>();
+    private final Map<String, Suspended> suspended = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Suspended>> handoffs = new ConcurrentHashMap<>();
+    // Suspended sessions by session ID, for messages sent to one of them
+    private final Map<String, Suspended> suspendedSessions = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+    private volatile long windowNanos = DEFAULT_WINDOW.toNanos();
+    private volatile int replayFrames = DEFAULT_REPLAY_FRAMES;
+    private volatile long replayBytes = DEFAULT_REPLAY_BYTES;
+
+    WebSocketResumption(WebSocketHeartbeat heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables resumption for new connections.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * Sets how long a disconnected session is kept for resumption.
+     */
+    public void setWindow(Duration window) {
+        Objects.requireNonNull(window, "window");
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Sets how many frames are kept per session for replay.
+     * Applies to connections opened after the change.
+     */
+    public void setReplayFrames(int replayFrames) {
+        if (replayFrames < 1) {
+            throw new IllegalArgumentException("replayFrames must be positive: " + replayFrames);
+        }
+        this.replayFrames = replayFrames;
+    }
+
+    /**
+     * Sets how many payload bytes are kept per session for replay.
+     * Applies to connections opened after the change.
+     */
+    public void setReplayBytes(long replayBytes) {
+        if (replayBytes < 1) {
+            throw new IllegalArgumentException("replayBytes must be positive: " + replayBytes);
+        }
+        this.replayBytes = replayBytes;
+    }
+
+    /**
+     * Gets the number of disconnected sessions waiting to be resumed.
+     */
+    public int getSuspendedCount() {
+        return suspended.size();
+    }
+
+    /**
+     * Creates the replay buffer of a new connection.
+     *
+     * @return the buffer, or null if resumption is disabled
+     */
+    ReplayBuffer newReplayBuffer() {
+        return enabled ? new ReplayBuffer(replayFrames, replayBytes) : null;
+    }
+
+    /**
+     * Issues a new resume token for a connected session.
+     */
+    String issueToken(WebSocketSession session) {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        live.put(token, session);
+        session.setResumeToken(token);
+        return token;
+    }
+
+    /**
+     * Claims the session a resume token was issued for.
+     * If that session is still connected, its connection is closed first.
+     *
+     * @param token the token presented by the client
+     * @return a future of the suspended session, or of null if the token is unknown or expired
+     */
+    CompletableFuture<Suspended> resume(String token) {
+        Suspended previous = claim(token);
+        if (previous != null) {
+            return CompletableFuture.completedFuture(previous);
+        }
+
+        WebSocketSession connected = live.get(token);
+        if (connected == null) {
+            return CompletableFuture.completedFuture(claim(token));
+        }
+
+        CompletableFuture<Suspended> handoff = new CompletableFuture<>();
+        if (handoffs.putIfAbsent(token, handoff) != null) {
+            // Another connection is already resuming with this token
+            return CompletableFuture.completedFuture(null);
+        }
+        // The session may have been suspended while the handoff was registered
+        previous = claim(token);
+        if (previous != null) {
+            handoffs.remove(token, handoff);
+            return CompletableFuture.completedFuture(previous);
+        }
+
+        logger.debug("Session {} resumed elsewhere, closing its previous connection", connected.getId());
+        connected.getChannel().close();
+        return handoff.completeOnTimeout(null, HANDOFF_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .whenComplete((state, error) -> handoffs.remove(token, handoff));
+    }
+
+    /**
+     * Keeps a disconnected session for resumption. Called when its connection closes.
+     *
+     * @param session the disconnected session
+     * @param resumable false if the session ended on purpose and must not be resumed
+     */
+    void suspend(WebSocketSession session, boolean resumable) {
+        String token = session.getResumeToken();
+        if (token == null) {
+            return;
+        }
+        live.remove(token, session);
+        ReplayBuffer replay = session.takeReplayBuffer();
+
+        if (!enabled || !resumable || replay == null) {
+            if (replay != null) {
+                replay.clear();
+            }
+            CompletableFuture<Suspended> handoff = handoffs.remove(token);
+            if (handoff != null) {
+                handoff.complete(null);
+            }
+            return;
+        }
+
+        Suspended state = new Suspended(session.getId(), session.getCodec(), replay, Set.copyOf(session.getTopics()));
+        suspended.put(token, state);
+        suspendedSessions.put(state.id, state);
+        MetricsCollector.getInstance().setGauge("websocket.resume.suspended", suspended.size());
+
+        CompletableFuture<Suspended> handoff = handoffs.remove(token);
+        if (handoff != null && suspended.remove(token, state) && state.take()) {
+            suspendedSessions.remove(state.id, state);
+            if (!handoff.complete(state)) {
+                // The resuming connection stopped waiting and started a new session
+                replay.clear();
+            }
+            return;
+        }
+
+        state.expiry = heartbeat.newTimeout(timeout -> {
+            if (suspended.remove(token, state) && state.take()) {
+                suspendedSessions.remove(state.id, state);
+                state.replay.clear();
+                MetricsCollector metrics = MetricsCollector.getInstance();
+                metrics.incrementCounter("websocket.resume.expired");
+                metrics.setGauge("websocket.resume.suspended", suspended.size());
+            }
+        }, windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Buffers a message for a disconnected session.
+     *
+     * @return true if the session is suspended and the message was buffered
+     */
+    boolean send(String sessionId, Object message) {
+        Suspended state = suspendedSessions.get(sessionId);
+        if (state == null) {
+            return false;
+        }
+        Map<WebSocketCodec, ByteBuf> encoded = new HashMap<>(1);
+        try {
+            return state.add(message, encoded);
+        } finally {
+            encoded.values().forEach(ByteBuf::release);
+        }
+    }
+
+    /**
+     * Buffers a published message for every disconnected session subscribed to the topic.
+     * The message is encoded once per codec.
+     *
+     * @return the number of sessions the message was buffered for
+     */
+    int publish(String topic, Object message) {
+        if (suspended.isEmpty()) {
+            return 0;
+        }
+        Map<WebSocketCodec, ByteBuf> encoded = new HashMap<>(4);
+        int buffered = 0;
+        try {
+            for (Suspended state : suspended.values()) {
+                if (state.topics.contains(topic) && state.add(message, encoded)) {
+                    buffered++;
+                }
+            }
+        } finally {
+            encoded.values().forEach(ByteBuf::release);
+        }
+        return buffered;
+    }
+
+    /**
+     * Discards all suspended sessions. Called when the foyer closes.
+     */
+    void clear() {
+        suspended.keySet().forEach(token -> {
+            Suspended state = suspended.remove(token);
+            if (state != null && state.take()) {
+                state.replay.clear();
+            }
+        });
+        suspendedSessions.clear();
+        live.clear();
+        handoffs.values().forEach(handoff -> handoff.complete(null));
+        handoffs.clear();
+    }
+
+    private Suspended claim(String token) {
+        Suspended state = suspended.remove(token);
+        if (state == null || !state.take()) {
+            return null;
+        }
+        suspendedSessions.remove(state.id, state);
+        MetricsCollector.getInstance().setGauge("websocket.resume.suspended", suspended.size());
+        return state;
+    }
+
+    /**
+     * A disconnected session. Its replay buffer is guarded by the instance lock until
+     * the session is taken, by a resuming connection or by expiry.
+     */
+    static class Suspended {
+        final String id;
+        final WebSocketCodec codec;
+        final ReplayBuffer replay;
+        final Set<String> topics;
+        volatile Timeout expiry;
+        private boolean taken;
+
+        Suspended(String id, WebSocketCodec codec, ReplayBuffer replay, Set<String> topics) {
+            this.id = id;
+            this.codec = codec;
+            this.replay = replay;
+            this.topics = topics;
+        }
+
+        synchronized boolean take() {
+            if (taken) {
+                return false;
+            }
+            taken = true;
+            Timeout pending = expiry;
+            if (pending != null) {
+                pending.cancel();
+            }
+            return true;
+        }
+
+        /**
+         * Encodes a message, reusing buffers already encoded for other sessions, and buffers it.
+         * The caller releases the encoded buffers.
+         */
+        synchronized boolean add(Object message, Map<WebSocketCodec, ByteBuf> encoded) {
+            if (taken) {
+                return false;
+            }
+            try {
+                ByteBuf content = encoded.get(codec);
+                if (content == null) {
+                    content = codec.encode(message, ByteBufAllocator.DEFAULT);
+                    encoded.put(codec, content);
+                }
+                WebSocketFrame frame = codec.toFrame(content.retainedDuplicate());
+                replay.add(frame);
+                return true;
+            } catch (IOException e) {
+                logger.error("Failed to buffer message for suspended session {}", id, e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package horizon.web.websocket;
+
+import horizon.core.metrics.MetricsCollector;
+import horizon.web.websocket.codec.JacksonWebSocketCodec;
+import horizon.web.websocket.codec.WebSocketCodec;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.AttributeKey;
+import io.netty.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Server-side state of a single WebSocket connection.
+ * Requests on a session run concurrently up to a per-session in-flight limit;
+ * further requests wait in arrival order and reading from the socket is paused
+ * until a slot frees up.
+ *
+ * Outbound frames go through a per-session queue that is drained on the channel's
+ * event loop: every frame pending at that point is written and then flushed once,
+ * so a burst of messages costs one flush instead of one per message. When the queue
+ * reaches its high water mark, the session's {@link OutboundOverflowPolicy} applies.
+ * Only published frames are ever dropped or coalesced; replies and errors a client is
+ * waiting for are kept, and a queue holding nothing else closes the connection.
+ *
+ * The session also tracks when it last heard from the client, for {@link WebSocketHeartbeat}.
+ * Written frames are kept in a replay buffer when resumption is enabled, and a resumed
+ * session takes over the ID, replay buffer and topics of the session it resumes;
+ * see {@link WebSocketResumption}.
+ *
+ * Dispatch state is confined to the channel's event loop, so it needs no locking.
+ */
+public class WebSocketSession {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketSession.class);
+
+    static final AttributeKey<WebSocketSession> KEY = AttributeKey.valueOf("horizon.websocket.session");
+
+    // Frames written per drain before yielding the event loop to other channels
+    private static final int MAX_WRITES_PER_DRAIN = 64;
+
+    private static final WebSocketCodec DEFAULT_CODEC = JacksonWebSocketCodec.json();
+
+    // Frames queued across all sessions
+    private static final AtomicLong TOTAL_QUEUED = new AtomicLong();
+
+    private volatile String id;
+    private final Channel channel;
+    private final int maxInFlight;
+    private final int outboundHighWaterMark;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private volatile WebSocketCodec codec = DEFAULT_CODEC;
+    private volatile String clientAddress;
+
+    // Event-loop confined
+    private int inFlight;
+    private final Deque<Supplier<CompletableFuture<?>>> pending = new ArrayDeque<>();
+
+    // Guarded by outbound; frames are queued from any thread and drained on the event loop
+    private final Deque<OutboundFrame> outbound = new ArrayDeque<>();
+    private int publishedQueued;
+    private boolean drainScheduled;
+    private boolean closed;
+
+    // Event-loop confined; read elsewhere only for statistics
+    private volatile boolean compressed;
+    private long rawBytesOut;
+    private long wireBytesOut;
+
+    // Event-loop confined; liveness state for the heartbeat
+    private final long openedNanos = System.nanoTime();
+    private long lastReadNanos = openedNanos;
+    private long lastDataNanos = openedNanos;
+    private long pingSentNanos;
+    private boolean upgraded;
+    private volatile Timeout heartbeat;
+    private volatile boolean closing;
+
+    // Event-loop confined; handed to resumption when the connection closes
+    private ReplayBuffer replay;
+    private volatile String resumeToken;
+    private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong coalescedFrames = new AtomicLong();
+
+    WebSocketSession(String id, Channel channel, int maxInFlight,
+                     int outboundHighWaterMark, OutboundOverflowPolicy overflowPolicy) {
+        this.id = id;
+        this.channel = channel;
+        this.maxInFlight = maxInFlight;
+        this.outboundHighWaterMark = outboundHighWaterMark;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the IP address of the client, or null if unknown.
+     */
+    public String getClientAddress() {
+        return clientAddress;
+    }
+
+    void setClientAddress(String clientAddress) {
+        this.clientAddress = clientAddress;
+    }
+
+    /**
+     * Gets the codec negotiated for this session. JSON until the handshake selects another.
+     */
+    public WebSocketCodec getCodec() {
+        return codec;
+    }
+
+    void setCodec(WebSocketCodec codec) {
+        this.codec = Objects.requireNonNull(codec, "codec");
+    }
+
+    /**
+     * Checks whether permessage-deflate was negotiated for this session.
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * Gets the payload bytes written to this session before compression.
+     */
+    public long getRawBytesOut() {
+        return rawBytesOut;
+    }
+
+    /**
+     * Gets the payload bytes written to this session after compression.
+     */
+    public long getWireBytesOut() {
+        return wireBytesOut;
+    }
+
+    void recordBytesOut(int bytes, boolean raw) {
+        if (raw) {
+            rawBytesOut += bytes;
+        } else {
+            wireBytesOut += bytes;
+        }
+    }
+
+    /**
+     * Gets the topics this session is subscribed to.
+     */
+    public Set<String> getTopics() {
+        return topics;
+    }
+
+    String getResumeToken() {
+        return resumeToken;
+    }
+
+    void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    void setReplayBuffer(ReplayBuffer replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Gets the number of frames written to this session, across resumed connections.
+     */
+    long getSequence() {
+        return replay != null ? replay.getLastSequence() : 0;
+    }
+
+    /**
+     * Gets the frames written after a sequence number, for a resumed connection.
+     *
+     * @return retained duplicates of the frames, or null if some are no longer buffered
+     */
+    List<WebSocketFrame> replaySince(long sequence) {
+        return replay != null ? replay.since(sequence) : null;
+    }
+
+    /**
+     * Removes the replay buffer, to hand it to resumption or release it.
+     */
+    ReplayBuffer takeReplayBuffer() {
+        ReplayBuffer taken = replay;
+        replay = null;
+        return taken;
+    }
+
+    /**
+     * Takes over a suspended session: its ID, written frames and topics.
+     * Must be called on the channel's event loop before any frame is written.
+     */
+    void resume(String previousId, ReplayBuffer previousReplay, Set<String> previousTopics) {
+        ReplayBuffer fresh = replay;
+        if (fresh != null) {
+            fresh.clear();
+        }
+        this.id = previousId;
+        this.replay = previousReplay;
+        topics.addAll(previousTopics);
+    }
+
+    /**
+     * Checks whether the session is being closed on purpose, by either side,
+     * rather than losing its connection.
+     */
+    boolean isClosing() {
+        return closing;
+    }
+
+    void markClosing() {
+        this.closing = true;
+    }
+
+    /**
+     * Gets how long this connection has been open.
+     */
+    public long getLifetimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedNanos);
+    }
+
+    boolean isUpgraded() {
+        return upgraded;
+    }
+
+    void setUpgraded() {
+        this.upgraded = true;
+    }
+
+    long getLastReadNanos() {
+        return lastReadNanos;
+    }
+
+    long getLastDataNanos() {
+        return lastDataNanos;
+    }
+
+    long getPingSentNanos() {
+        return pingSentNanos;
+    }
+
+    void setPingSentNanos(long pingSentNanos) {
+        this.pingSentNanos = pingSentNanos;
+    }
+
+    /**
+     * Records inbound traffic of any kind, which answers an outstanding ping.
+     */
+    void markRead() {
+        lastReadNanos = System.nanoTime();
+        pingSentNanos = 0;
+    }
+
+    /**
+     * Records an inbound message, which resets the idle timeout.
+     */
+    void markData() {
+        lastDataNanos = System.nanoTime();
+    }
+
+    void setHeartbeat(Timeout heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Gets the number of requests currently being processed for this session.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of frames waiting to be written to this session.
+     */
+    public int getOutboundQueueDepth() {
+        synchronized (outbound) {
+            return outbound.size();
+        }
+    }
+
+    /**
+     * Gets the number of frames dropped because the outbound queue was full.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Gets the number of frames replaced by newer frames of the same kind.
+     */
+    public long getCoalescedFrames() {
+        return coalescedFrames.get();
+    }
+
+    /**
+     * Dispatches a request, or queues it if the session is at its in-flight limit.
+     * Must be called on the channel's event loop.
+     *
+     * @param task starts the request and returns a future completed when its response has been handled
+     */
+    void dispatch(Supplier<CompletableFuture<?>> task) {
+        if (inFlight < maxInFlight) {
+            start(task);
+        } else {
+            pending.add(task);
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    private void start(Supplier<CompletableFuture<?>> task) {
+        inFlight++;
+        CompletableFuture<?> future;
+        try {
+            future = task.get();
+        } catch (Throwable e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> {
+            try {
+                channel.eventLoop().execute(this::complete);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Event loop of session {} is shutting down", id);
+            }
+        });
+    }
+
+    private void complete() {
+        inFlight--;
+        Supplier<CompletableFuture<?>> next = pending.poll();
+        if (next != null) {
+            start(next);
+        } else if (!channel.config().isAutoRead()) {
+            channel.config().setAutoRead(true);
+        }
+    }
+
+    /**
+     * Queues a frame the client is waiting for, such as a reply. It is never dropped
+     * to make room: if the queue is full of such frames, the connection is closed.
+     * May be called from any thread.
+     *
+     * @param frame the frame to write; ownership passes to the session
+     */
+    void send(WebSocketFrame frame) {
+        enqueue(frame, false, null);
+    }
+
+    /**
+     * Queues a published frame, which the overflow policy may drop or coalesce.
+     * May be called from any thread.
+     *
+     * @param frame the frame to write; ownership passes to the session
+     * @param coalesceKey identifies frames that supersede each other under
+     *                    {@link OutboundOverflowPolicy#COALESCE}, or null
+     */
+    void publish(WebSocketFrame frame, String coalesceKey) {
+        enqueue(frame, true, coalesceKey);
+    }
+
+    private void enqueue(WebSocketFrame frame, boolean published, String coalesceKey) {
+        MetricsCollector metrics = MetricsCollector.getInstance();
+        boolean disconnect = false;
+        boolean schedule = false;
+
+        synchronized (outbound) {
+            if (closed) {
+                frame.release();
+                return;
+            }
+            if (outbound.size() >= outboundHighWaterMark) {
+                disconnect = switch (overflowPolicy) {
+                    case DISCONNECT -> true;
+                    case COALESCE -> !(published && supersede(coalesceKey)) && !dropOldest();
+                    case DROP_OLDEST -> !dropOldest();
+                };
+            }
+            if (!disconnect) {
+                outbound.add(new OutboundFrame(frame, published, coalesceKey));
+                if (published) {
+                    publishedQueued++;
+                }
+                TOTAL_QUEUED.incrementAndGet();
+                if (!drainScheduled) {
+                    drainScheduled = true;
+                    schedule = true;
+                }
+            }
+        }
+
+        if (disconnect) {
+            frame.release();
+            metrics.incrementCounter("websocket.outbound.disconnected");
+            logger.warn("Closing session {}: outbound queue reached {} frames", id, outboundHighWaterMark);
+            channel.close();
+            return;
+        }
+        if (schedule) {
+            try {
+                channel.eventLoop().execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Event loop of session {} is shutting down", id);
+                close();
+            }
+        }
+    }
+
+    // Called with the outbound lock held
+    private boolean dropOldest() {
+        if (publishedQueued == 0) {
+            return false;
+        }
+        for (Iterator<OutboundFrame> it = outbound.iterator(); it.hasNext(); ) {
+            OutboundFrame queued = it.next();
+            if (queued.published) {
+                it.remove();
+                release(queued);
+                droppedFrames.incrementAndGet();
+                MetricsCollector.getInstance().incrementCounter("websocket.outbound.dropped");
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Called with the outbound lock held
+    private boolean supersede(String coalesceKey) {
+        if (coalesceKey == null) {
+            return false;
+        }
+        boolean removed = false;
+        for (Iterator<OutboundFrame> it = outbound.iterator(); it.hasNext(); ) {
+            OutboundFrame queued = it.next();
+            if (queued.published && coalesceKey.equals(queued.coalesceKey)) {
+                it.remove();
+                release(queued);
+                coalescedFrames.incrementAndGet();
+                MetricsCollector.getInstance().incrementCounter("websocket.outbound.coalesced");
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    // Called with the outbound lock held, for a frame removed from the queue
+    private void release(OutboundFrame queued) {
+        queued.frame.release();
+        if (queued.published) {
+            publishedQueued--;
+        }
+        TOTAL_QUEUED.decrementAndGet();
+    }
+
+    /**
+     * Writes queued frames and flushes them once. Runs on the channel's event loop,
+     * and again when the channel becomes writable after a stall.
+     */
+    void drain() {
+        int written = 0;
+        boolean more = false;
+
+        while (channel.isWritable()) {
+            OutboundFrame next;
+            synchronized (outbound) {
+                next = outbound.poll();
+                if (next == null) {
+                    drainScheduled = false;
+                    break;
+                }
+                if (next.published) {
+                    publishedQueued--;
+                }
+            }
+            TOTAL_QUEUED.decrementAndGet();
+            if (replay != null) {
+                replay.add(next.frame.retainedDuplicate());
+            }
+            channel.write(next.frame, channel.voidPromise());
+            if (++written == MAX_WRITES_PER_DRAIN) {
+                more = true;
+                break;
+            }
+        }
+
+        if (written > 0) {
+            channel.flush();
+            MetricsCollector metrics = MetricsCollector.getInstance();
+            metrics.incrementCounter("websocket.outbound.flushes");
+            metrics.incrementCounter("websocket.outbound.frames", written);
+            metrics.setGauge("websocket.outbound.depth", TOTAL_QUEUED.get());
+        }
+        if (more) {
+            channel.eventLoop().execute(this::drain);
+        }
+        // If the channel stopped being writable, draining resumes on the writability change
+    }
+
+    /**
+     * Cancels the heartbeat and discards queued frames. Called on the channel's event loop
+     * when the connection closes. Frames that were never written are moved to the replay
+     * buffer, so a resumed connection receives them.
+     */
+    void close() {
+        Timeout pendingHeartbeat = heartbeat;
+        if (pendingHeartbeat != null) {
+            pendingHeartbeat.cancel();
+        }
+        synchronized (outbound) {
+            closed = true;
+            OutboundFrame queued;
+            while ((queued = outbound.poll()) != null) {
+                TOTAL_QUEUED.decrementAndGet();
+                if (queued.published) {
+                    publishedQueued--;
+                }
+                if (replay != null) {
+                    replay.add(queued.frame);
+                } else {
+                    queued.frame.release();
+                }
+            }
+        }
+    }
+
+    private static class OutboundFrame {
+        final WebSocketFrame frame;
+        final boolean published;
+        final String coalesceKey;
+
+        OutboundFrame(WebSocketFrame frame, boolean published, String coalesceKey) {
+            this.frame = frame;
+            this.published = published;
+            this.coalesceKey = coalesceKey;
+        }
+    }
+}
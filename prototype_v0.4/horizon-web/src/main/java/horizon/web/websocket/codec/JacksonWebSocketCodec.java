@@ -0,0 +1,127 @@
+package horizon.web.websocket.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import horizon.core.util.JsonUtils;
+import horizon.web.websocket.WebSocketMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A codec for any Jackson data format: JSON, CBOR or Smile.
+ *
+ * Messages are decoded with the streaming parser: the envelope fields are read
+ * one token at a time, {@code intent} and {@code id} as scalars, and {@code data}
+ * is bound straight to the map handed to the conductor. No intermediate tree of the
+ * whole frame is built, and unknown envelope fields are skipped without being decoded.
+ * A {@code batch} array is decoded into the message as plain entries.
+ */
+public class JacksonWebSocketCodec implements WebSocketCodec {
+    public static final String JSON = "json";
+    public static final String CBOR = "cbor";
+    public static final String SMILE = "smile";
+
+    private final String name;
+    private final ObjectMapper mapper;
+    private final boolean binary;
+    private final JavaType dataType;
+    private final JavaType batchType;
+
+    public JacksonWebSocketCodec(String name, ObjectMapper mapper, boolean binary) {
+        this.name = name;
+        this.mapper = mapper;
+        this.binary = binary;
+        this.dataType = mapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class);
+        this.batchType = mapper.getTypeFactory().constructCollectionType(List.class, Object.class);
+    }
+
+    /**
+     * Creates the JSON codec, carried in text frames.
+     */
+    public static JacksonWebSocketCodec json() {
+        return new JacksonWebSocketCodec(JSON, JsonUtils.getObjectMapper(), false);
+    }
+
+    /**
+     * Creates the CBOR codec, carried in binary frames.
+     */
+    public static JacksonWebSocketCodec cbor() {
+        return new JacksonWebSocketCodec(CBOR, new ObjectMapper(new CBORFactory()), true);
+    }
+
+    /**
+     * Creates the Smile codec, carried in binary frames.
+     */
+    public static JacksonWebSocketCodec smile() {
+        return new JacksonWebSocketCodec(SMILE, new ObjectMapper(new SmileFactory()), true);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return binary;
+    }
+
+    @Override
+    public Object decode(ByteBuf content) throws IOException {
+        try (InputStream in = new ByteBufInputStream(content.duplicate());
+             JsonParser parser = mapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                return mapper.readValue(parser, List.class);
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("WebSocket message must be an object");
+            }
+
+            WebSocketMessage message = new WebSocketMessage();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "intent" -> message.setIntent(value == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                    case "id" -> message.setId(value == JsonToken.VALUE_NULL ? null : mapper.readValue(parser, Object.class));
+                    case "data" -> message.setData(value == JsonToken.VALUE_NULL ? null : mapper.readValue(parser, dataType));
+                    case "batch" -> message.setBatch(value == JsonToken.VALUE_NULL ? null : mapper.readValue(parser, batchType));
+                    case "timeout" -> {
+                        if (value.isNumeric()) {
+                            message.setTimeout(parser.getLongValue());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return message;
+        }
+    }
+
+    @Override
+    public ByteBuf encode(Object message, ByteBufAllocator allocator) throws IOException {
+        ByteBuf buffer = allocator.buffer();
+        try (OutputStream out = new ByteBufOutputStream(buffer)) {
+            mapper.writeValue(out, message);
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+    }
+}
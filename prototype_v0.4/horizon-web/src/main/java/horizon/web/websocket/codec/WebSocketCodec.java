@@ -0,0 +1,60 @@
+package horizon.web.websocket.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.io.IOException;
+
+/**
+ * Encodes and decodes the messages of a WebSocket session.
+ * A client picks a codec by offering its name as a WebSocket subprotocol
+ * ({@code Sec-WebSocket-Protocol}); sessions that offer none use JSON.
+ *
+ * Decoding yields the same message types whatever the codec,
+ * so conductor methods work unchanged across codecs.
+ */
+public interface WebSocketCodec {
+
+    /**
+     * Gets the name of this codec, which is also its subprotocol name.
+     */
+    String getName();
+
+    /**
+     * Checks whether this codec is carried in binary frames rather than text frames.
+     */
+    boolean isBinary();
+
+    /**
+     * Decodes the content of a frame.
+     *
+     * @param content the frame content; not released by this method
+     * @return a {@link horizon.web.websocket.WebSocketMessage}, which may carry a batch envelope,
+     *         or a {@link java.util.List} of entries for a bare batch envelope
+     * @throws IOException if the content is not valid for this codec
+     * @throws IllegalArgumentException if the content is neither a message nor a batch
+     */
+    Object decode(ByteBuf content) throws IOException;
+
+    /**
+     * Encodes a message into a new buffer.
+     *
+     * @param message the message to encode
+     * @param allocator the allocator for the buffer
+     * @return the encoded message, owned by the caller
+     * @throws IOException if the message cannot be encoded
+     */
+    ByteBuf encode(Object message, ByteBufAllocator allocator) throws IOException;
+
+    /**
+     * Wraps encoded content in a frame of this codec's type.
+     *
+     * @param content the encoded content; ownership passes to the frame
+     */
+    default WebSocketFrame toFrame(ByteBuf content) {
+        return isBinary() ? new BinaryWebSocketFrame(content) : new TextWebSocketFrame(content);
+    }
+}